@@ -1,28 +1,71 @@
 package com.ai.agent.real.application.agent;
 
-import com.ai.agent.real.application.agent.dispatcher.DefaultAgentDispatcher;
+import com.ai.agent.real.application.agent.cache.SemanticAnswerCache;
+import com.ai.agent.real.application.agent.classify.TaskPreClassifier;
+import com.ai.agent.real.application.agent.loop.LoopDetector;
+import com.ai.agent.real.application.agent.reuse.AnswerReusePolicy;
+import com.ai.agent.real.application.agent.speculation.ModeSpeculator;
+import com.ai.agent.real.application.agent.dispatcher.LoadAwareAgentDispatcher;
 import com.ai.agent.real.application.agent.item.ActionAgent;
 import com.ai.agent.real.application.agent.item.FinalAgent;
 import com.ai.agent.real.application.agent.item.ObservationAgent;
 import com.ai.agent.real.application.agent.item.ThinkingAgent;
 import com.ai.agent.real.application.agent.item.reactplus.*;
+import com.ai.agent.real.application.agent.model.CachingChatModel;
+import com.ai.agent.real.application.agent.model.FairScheduledChatModel;
+import com.ai.agent.real.application.agent.model.GovernedChatModel;
+import com.ai.agent.real.application.agent.model.HedgedChatModel;
+import com.ai.agent.real.application.agent.model.ModelRouter;
+import com.ai.agent.real.application.agent.model.PrefixCacheChatModel;
+import com.ai.agent.real.application.agent.model.PrefixCacheUsage;
+import com.ai.agent.real.application.agent.model.PromptCache;
+import com.ai.agent.real.application.agent.model.RedisLlmRateGovernor;
+import com.ai.agent.real.application.agent.model.WeightedFairLlmScheduler;
+import com.ai.agent.real.application.agent.turn.AdmissionController;
 import com.ai.agent.real.application.agent.turn.AgentTurnManagerService;
+import com.ai.agent.real.application.agent.turn.LocalAgentTurnRegistry;
+import com.ai.agent.real.application.agent.turn.RedisAgentTurnRegistry;
+import com.ai.agent.real.application.agent.turn.SessionMailbox;
+import com.ai.agent.real.application.agent.turn.TurnCheckpointService;
+import com.ai.agent.real.application.agent.strategy.CollaborativeAgentStrategy;
+import com.ai.agent.real.application.agent.strategy.CompetitiveAgentStrategy;
+import com.ai.agent.real.application.agent.strategy.PipelineAgentStrategy;
 import com.ai.agent.real.application.agent.strategy.ReActAgentStrategy;
 import com.ai.agent.real.application.agent.strategy.ReActPlusAgentStrategy;
 import com.ai.agent.real.application.utils.ContextUtils;
+import com.ai.agent.real.contract.agent.Agent;
 import com.ai.agent.real.contract.agent.IAgentStrategy;
 import com.ai.agent.real.contract.agent.IAgentDispatcher;
 import com.ai.agent.real.contract.agent.context.AgentMemory;
 import com.ai.agent.real.contract.agent.context.AgentSessionConfig;
+import com.ai.agent.real.contract.agent.service.IAdmissionController;
 import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
+import com.ai.agent.real.contract.agent.service.IAgentTurnRegistry;
+import com.ai.agent.real.contract.agent.service.IAnswerCache;
+import com.ai.agent.real.contract.agent.service.ITaskPreClassifier;
+import com.ai.agent.real.contract.agent.service.ILlmRateGovernor;
+import com.ai.agent.real.contract.agent.service.ILlmScheduler;
+import com.ai.agent.real.contract.agent.service.ISessionMailbox;
+import com.ai.agent.real.contract.agent.service.ITurnCheckpointService;
+import com.ai.agent.real.contract.infra.redis.IRedisService;
+import com.ai.agent.real.contract.model.context.ReActAgentContext;
+import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContext;
+import com.ai.agent.real.contract.model.property.ClusterProperties;
 import com.ai.agent.real.contract.model.property.ContextZipMode;
+import com.ai.agent.real.contract.model.property.LlmGovernorProperties;
+import com.ai.agent.real.contract.model.property.LlmHedgeProperties;
 import com.ai.agent.real.contract.model.property.ToolApprovalMode;
 import com.ai.agent.real.contract.service.IPropertyService;
 import com.ai.agent.real.contract.tool.IToolService;
+import com.ai.agent.real.domain.repository.context.TurnRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,22 +74,152 @@ import java.util.Map;
  */
 public class ApplicationAgentAutoConfiguration {
 
+	/**
+	 * register turn registry, cluster mode relays turn operations to the owner node
+	 */
+	@Bean
+	public IAgentTurnRegistry agentTurnRegistry(IPropertyService propertyService, IRedisService redisService) {
+		ClusterProperties cluster = propertyService.getCluster();
+		if (!cluster.isEnabled()) {
+			return new LocalAgentTurnRegistry();
+		}
+		return new RedisAgentTurnRegistry(redisService, cluster);
+	}
+
+	/**
+	 * register turn checkpoint service, saves resume points at stage boundaries
+	 */
+	@Bean
+	public ITurnCheckpointService turnCheckpointService(IPropertyService propertyService, IRedisService redisService,
+			TurnRepository turnRepository, ObjectMapper objectMapper) {
+		return new TurnCheckpointService(redisService, turnRepository, objectMapper, propertyService.getCheckpoint());
+	}
+
+	/**
+	 * register session mailbox, serializes turns of the same session
+	 */
+	@Bean
+	public ISessionMailbox sessionMailbox(IPropertyService propertyService) {
+		return new SessionMailbox(propertyService.getMailbox());
+	}
+
+	/**
+	 * register admission controller, global and per-user concurrency caps with a bounded wait queue
+	 */
+	@Bean
+	public IAdmissionController admissionController(IPropertyService propertyService) {
+		return new AdmissionController(propertyService.getAdmission());
+	}
+
 	/**
 	 * register default agent session manager
 	 */
 	@Bean
-	public IAgentTurnManagerService agentTurnManagerService() {
-		return new AgentTurnManagerService();
+	public IAgentTurnManagerService agentTurnManagerService(IAgentTurnRegistry agentTurnRegistry,
+			ITurnCheckpointService turnCheckpointService, ISessionMailbox sessionMailbox,
+			IAdmissionController admissionController, IPropertyService propertyService) {
+		AgentTurnManagerService agentTurnManagerService = new AgentTurnManagerService(
+				AgentTurnManagerService.Dependencies.builder()
+					.turnRegistry(agentTurnRegistry)
+					.checkpointService(turnCheckpointService)
+					.sessionMailbox(sessionMailbox)
+					.admissionController(admissionController)
+					.approvalTimeout(propertyService.getToolApprovalTimeout())
+					.build());
+		agentTurnRegistry.bind(agentTurnManagerService);
+		return agentTurnManagerService;
 	}
 
 	/**
-	 * 注册默认的Agent调度器
+	 * =================== Model part ===========================
+	 */
+
+	/**
+	 * register outbound llm rate governor, cluster-wide rpm/tpm quota shared through redis
+	 */
+	@Bean
+	public ILlmRateGovernor llmRateGovernor(IPropertyService propertyService, IRedisService redisService) {
+		return new RedisLlmRateGovernor(redisService, propertyService.getLlmGovernor());
+	}
+
+	/**
+	 * register llm call scheduler, weighted fair queuing of in-flight calls across users
+	 */
+	@Bean
+	public ILlmScheduler llmScheduler(IPropertyService propertyService) {
+		return new WeightedFairLlmScheduler(propertyService.getLlmScheduler());
+	}
+
+	/**
+	 * register model router, maps stages (agent ids) to model tiers
+	 */
+	@Bean
+	public ModelRouter modelRouter(IPropertyService propertyService, ILlmScheduler llmScheduler,
+			ILlmRateGovernor llmRateGovernor) {
+		return new ModelRouter(propertyService.getModelRouting(), llmScheduler, llmRateGovernor);
+	}
+
+	/**
+	 * register prompt cache for deterministic stages
+	 */
+	@Bean
+	public PromptCache promptCache(IPropertyService propertyService, IRedisService redisService,
+			ObjectMapper objectMapper) {
+		return new PromptCache(propertyService.getPromptCache(), redisService, objectMapper);
+	}
+
+	/**
+	 * register provider prefix cache usage, prompt tokens served from the provider's prompt cache
+	 */
+	@Bean
+	public PrefixCacheUsage prefixCacheUsage() {
+		return new PrefixCacheUsage();
+	}
+
+	/**
+	 * register the chat model used by agents, decorates the provider model (openAiChatModel); the cache sits outside
+	 * the scheduler so that hits never wait for a slot, the scheduler wraps the governor so that quota waiting only
+	 * happens for calls that already won a slot; the governor wraps only the primary provider model, inside hedging,
+	 * so that every hedge sent to the primary takes its own quota while a hedge shares the slot of its original call;
+	 * the prefix cache layout wraps hedging so that both hedged models see the same layout
+	 */
+	@Bean
+	@Primary
+	public ChatModel agentChatModel(@Qualifier("openAiChatModel") ChatModel chatModel,
+			@Qualifier("secondaryChatModel") ObjectProvider<ChatModel> secondaryChatModel,
+			ILlmRateGovernor llmRateGovernor, ILlmScheduler llmScheduler, ModelRouter modelRouter,
+			PromptCache promptCache, PrefixCacheUsage prefixCacheUsage, IPropertyService propertyService) {
+		LlmGovernorProperties governor = propertyService.getLlmGovernor();
+		LlmHedgeProperties hedge = propertyService.getLlmHedge();
+		ChatModel secondary = secondaryChatModel.getIfAvailable();
+		ChatModel model = governor.isEnabled() ? new GovernedChatModel(chatModel, llmRateGovernor, governor)
+				: chatModel;
+		if (hedge.isEnabled() || secondary != null) {
+			model = new HedgedChatModel(model, secondary, hedge, governor.isEnabled() ? llmRateGovernor : null);
+		}
+		model = new PrefixCacheChatModel(model, propertyService.getPrefixCache(), prefixCacheUsage);
+		if (propertyService.getLlmScheduler().isEnabled()) {
+			model = new FairScheduledChatModel(model, llmScheduler);
+		}
+		if (propertyService.getPromptCache().isEnabled()) {
+			model = new CachingChatModel(model, promptCache);
+		}
+		// 未绑定阶段的调用（如会话标题）按 Reactor Context 中的 LlmStage 路由
+		return modelRouter.forStage(model, null);
+	}
+
+	/**
+	 * 注册默认的Agent调度器，开启自动选择时按负载降级策略与模式
 	 * @param agentStrategyMap Agent策略映射
-	 * @return DefaultAgentDispatcher实例
+	 * @return LoadAwareAgentDispatcher实例
 	 */
 	@Bean
-	public IAgentDispatcher defaultAgentDispatcher(Map<String, IAgentStrategy> agentStrategyMap) {
-		return new DefaultAgentDispatcher(agentStrategyMap);
+	public LoadAwareAgentDispatcher defaultAgentDispatcher(Map<String, IAgentStrategy> agentStrategyMap,
+			IAdmissionController admissionController, ILlmScheduler llmScheduler,
+			ITaskPreClassifier taskPreClassifier, IPropertyService propertyService) {
+		return new LoadAwareAgentDispatcher(agentStrategyMap, admissionController, llmScheduler, taskPreClassifier,
+				propertyService.getDispatcher(), propertyService.getAdmission().getMaxConcurrentTurns(),
+				propertyService.getLlmScheduler().getMaxInFlight());
 	}
 
 	/**
@@ -63,62 +236,118 @@ public class ApplicationAgentAutoConfiguration {
 	 * =================== Agent part ===========================
 	 */
 	@Bean
-	public ThinkingAgent thinkingAgent(ChatModel chatModel, IToolService toolService,
+	public ThinkingAgent thinkingAgent(ChatModel chatModel, ModelRouter modelRouter, IToolService toolService,
 			IPropertyService propertyService) {
 		ToolApprovalMode mode = propertyService.getToolApprovalMode();
-		return new ThinkingAgent(chatModel, toolService, mode);
+		return new ThinkingAgent(modelRouter.forStage(chatModel, ThinkingAgent.AGENT_ID), toolService, mode);
 	}
 
 	@Bean
-	public ActionAgent actionAgent(ChatModel chatModel, IToolService toolService, IPropertyService propertyService) {
+	public ActionAgent actionAgent(ChatModel chatModel, ModelRouter modelRouter, IToolService toolService,
+			IPropertyService propertyService) {
 		ToolApprovalMode mode = propertyService.getToolApprovalMode();
-		return new ActionAgent(chatModel, toolService, mode);
+		return new ActionAgent(modelRouter.forStage(chatModel, ActionAgent.AGENT_ID), toolService, mode);
 	}
 
 	@Bean
-	public ObservationAgent observationAgent(ChatModel chatModel, IToolService toolService,
+	public ObservationAgent observationAgent(ChatModel chatModel, ModelRouter modelRouter, IToolService toolService,
 			IPropertyService propertyService) {
 		ToolApprovalMode mode = propertyService.getToolApprovalMode();
-		return new ObservationAgent(chatModel, toolService, mode);
+		return new ObservationAgent(modelRouter.forStage(chatModel, ObservationAgent.AGENT_ID), toolService, mode);
 	}
 
 	@Bean
-	public FinalAgent finalAgent(ChatModel chatModel, IToolService toolService, IPropertyService propertyService) {
-		return new FinalAgent(chatModel, toolService);
+	public FinalAgent finalAgent(ChatModel chatModel, ModelRouter modelRouter, IToolService toolService,
+			IPropertyService propertyService) {
+		return new FinalAgent(modelRouter.forStage(chatModel, FinalAgent.AGENT_ID), toolService);
 	}
 
 	@Bean
 	// TODO: 待完善
-	public TaskAnalysisAgent taskAnalysisAgent(ChatModel chatModel, IToolService toolService,
+	public TaskAnalysisAgent taskAnalysisAgent(ChatModel chatModel, ModelRouter modelRouter, IToolService toolService,
 			IPropertyService propertyService) {
-		return new TaskAnalysisAgent(chatModel, toolService, propertyService.getToolApprovalMode());
+		return new TaskAnalysisAgent(modelRouter.forStage(chatModel, TaskAnalysisAgent.AGENT_ID), toolService,
+				propertyService.getToolApprovalMode());
 	}
 
 	@Bean
 	// TODO: 待完善
-	public PlanInitAgent planInitAgent(ChatModel chatModel, IToolService toolService,
+	public PlanInitAgent planInitAgent(ChatModel chatModel, ModelRouter modelRouter, IToolService toolService,
 			IPropertyService propertyService) {
-		return new PlanInitAgent(chatModel, toolService);
+		return new PlanInitAgent(modelRouter.forStage(chatModel, PlanInitAgent.AGENT_ID), toolService);
 	}
 
 	@Bean
 	// TODO: 待完善
-	public ThoughtAgent thoughtAgent(ChatModel chatModel, IToolService toolService, IPropertyService propertyService) {
-		return new ThoughtAgent(chatModel, toolService);
+	public ThoughtAgent thoughtAgent(ChatModel chatModel, ModelRouter modelRouter, IToolService toolService,
+			IPropertyService propertyService) {
+		return new ThoughtAgent(modelRouter.forStage(chatModel, ThoughtAgent.AGENT_ID), toolService);
 	}
 
 	@Bean
-	public ThinkingPlusAgent thinkingPlusAgent(ChatModel chatModel, IToolService toolService,
+	public ThinkingPlusAgent thinkingPlusAgent(ChatModel chatModel, ModelRouter modelRouter, IToolService toolService,
 			IPropertyService propertyService) {
 		ToolApprovalMode mode = propertyService.getToolApprovalMode();
-		return new ThinkingPlusAgent(chatModel, toolService, mode);
+		return new ThinkingPlusAgent(modelRouter.forStage(chatModel, ThinkingPlusAgent.AGENT_ID), toolService, mode);
 	}
 
 	@Bean
-	public ActionPlusAgent actionPlusAgent(ChatModel chatModel, IToolService toolService,
+	public ActionPlusAgent actionPlusAgent(ChatModel chatModel, ModelRouter modelRouter, IToolService toolService,
+			IPropertyService propertyService, IAgentTurnManagerService agentTurnManagerService) {
+		ToolApprovalMode mode = propertyService.getToolApprovalMode();
+		return new ActionPlusAgent(modelRouter.forStage(chatModel, ActionPlusAgent.AGENT_ID), toolService, mode,
+				agentTurnManagerService);
+	}
+
+	/**
+	 * register fused think+act node for single-call ReActPlus iterations
+	 */
+	@Bean
+	public ThinkActPlusAgent thinkActPlusAgent(ChatModel chatModel, ModelRouter modelRouter, IToolService toolService,
 			IPropertyService propertyService, IAgentTurnManagerService agentTurnManagerService) {
 		ToolApprovalMode mode = propertyService.getToolApprovalMode();
-		return new ActionPlusAgent(chatModel, toolService, mode, agentTurnManagerService);
+		return new ThinkActPlusAgent(modelRouter.forStage(chatModel, ThinkActPlusAgent.AGENT_ID), toolService, mode,
+				agentTurnManagerService);
+	}
+
+	/**
+	 * register semantic answer cache for DIRECT mode turns
+	 */
+	@Bean
+	public IAnswerCache answerCache(IPropertyService propertyService) {
+		return new SemanticAnswerCache(propertyService.getAnswerCache());
+	}
+
+	/**
+	 * register rule/model based task pre-classifier that skips task analysis for trivial inputs
+	 */
+	@Bean
+	public ITaskPreClassifier taskPreClassifier(IPropertyService propertyService) {
+		return new TaskPreClassifier(propertyService.getTaskPreClassifier());
+	}
+
+	/**
+	 * register speculative mode stage execution during task analysis
+	 */
+	@Bean
+	public ModeSpeculator modeSpeculator(IPropertyService propertyService) {
+		return new ModeSpeculator(propertyService.getSpeculation());
+	}
+
+	/**
+	 * register final answer reuse policy that skips FinalAgent when task_done already holds the answer
+	 */
+	@Bean
+	public AnswerReusePolicy answerReusePolicy(IPropertyService propertyService) {
+		return new AnswerReusePolicy(propertyService.getAnswerReuse());
+	}
+
+	/**
+	 * register runaway-loop detector for repeated tool calls and thoughts across iterations
+	 */
+	@Bean
+	public LoopDetector loopDetector(IPropertyService propertyService) {
+		return new LoopDetector(propertyService.getLoopDetector());
 	}
 
 	/**
@@ -128,16 +357,76 @@ public class ApplicationAgentAutoConfiguration {
 	@Primary
 	public IAgentStrategy reActPlusAgentStrategy(TaskAnalysisAgent taskAnalysisAgent, PlanInitAgent planInitAgent,
 			ThoughtAgent thoughtAgent, ThinkingPlusAgent thinkingPlusAgent, ActionPlusAgent actionPlusAgent,
-			FinalAgent finalAgent) {
+			FinalAgent finalAgent, ITurnCheckpointService turnCheckpointService, IAnswerCache answerCache,
+			ITaskPreClassifier taskPreClassifier, ModeSpeculator modeSpeculator, ThinkActPlusAgent thinkActPlusAgent,
+			AnswerReusePolicy answerReusePolicy, LoopDetector loopDetector, IPropertyService propertyService) {
 
-		return new ReActPlusAgentStrategy(taskAnalysisAgent, planInitAgent, thoughtAgent, thinkingPlusAgent,
-				actionPlusAgent, finalAgent);
+		return new ReActPlusAgentStrategy(ReActPlusAgentStrategy.Dependencies.builder()
+			.taskAnalysisAgent(taskAnalysisAgent)
+			.planInitAgent(planInitAgent)
+			.thoughtAgent(thoughtAgent)
+			.thinkingPlusAgent(thinkingPlusAgent)
+			.actionPlusAgent(actionPlusAgent)
+			.finalAgent(finalAgent)
+			.thinkActPlusAgent(thinkActPlusAgent)
+			.checkpointService(turnCheckpointService)
+			.answerCache(answerCache)
+			.taskPreClassifier(taskPreClassifier)
+			.modeSpeculator(modeSpeculator)
+			.properties(propertyService.getReActPlus())
+			.answerReusePolicy(answerReusePolicy)
+			.loopDetector(loopDetector)
+			.turnBudgetProperties(propertyService.getTurnBudget())
+			.build());
 	}
 
 	@Bean("reActAgentStrategy")
 	public IAgentStrategy reactAgentStrategy(ThinkingAgent thinkingAgent, ActionAgent actionAgent,
-			ObservationAgent observationAgent, FinalAgent finalAgent, IToolService toolService) {
-		return new ReActAgentStrategy(thinkingAgent, actionAgent, observationAgent, finalAgent, toolService);
+			ObservationAgent observationAgent, FinalAgent finalAgent, IToolService toolService,
+			AnswerReusePolicy answerReusePolicy, LoopDetector loopDetector, IPropertyService propertyService) {
+		return new ReActAgentStrategy(ReActAgentStrategy.Dependencies.builder()
+			.thinkingAgent(thinkingAgent)
+			.actionAgent(actionAgent)
+			.observationAgent(observationAgent)
+			.finalAgent(finalAgent)
+			.toolService(toolService)
+			.properties(propertyService.getReAct())
+			.answerReusePolicy(answerReusePolicy)
+			.loopDetector(loopDetector)
+			.turnBudgetProperties(propertyService.getTurnBudget())
+			.build());
+	}
+
+	/**
+	 * register competitive strategy, racing the ReAct strategies above with isolated contexts
+	 */
+	@Bean("competitiveAgentStrategy")
+	public IAgentStrategy competitiveAgentStrategy(
+			@Qualifier("reActPlusAgentStrategy") IAgentStrategy reActPlusAgentStrategy,
+			@Qualifier("reActAgentStrategy") IAgentStrategy reActAgentStrategy, IPropertyService propertyService) {
+		Map<String, CompetitiveAgentStrategy.Candidate> candidates = Map.of("reActPlusAgentStrategy",
+				new CompetitiveAgentStrategy.Candidate(reActPlusAgentStrategy, ReActPlusAgentContext::new),
+				"reActAgentStrategy",
+				new CompetitiveAgentStrategy.Candidate(reActAgentStrategy, ReActAgentContext::new));
+		return new CompetitiveAgentStrategy(candidates, propertyService.getCompetitive());
+	}
+
+	/**
+	 * register collaborative strategy, running decomposed subtasks on classic ReAct sub-agents
+	 */
+	@Bean("collaborativeAgentStrategy")
+	public IAgentStrategy collaborativeAgentStrategy(ThoughtAgent thoughtAgent, FinalAgent finalAgent,
+			@Qualifier("reActAgentStrategy") IAgentStrategy reActAgentStrategy, IPropertyService propertyService) {
+		return new CollaborativeAgentStrategy(thoughtAgent, finalAgent, reActAgentStrategy, ReActAgentContext::new,
+				propertyService.getCollaborative());
+	}
+
+	/**
+	 * register pipeline strategy, chaining the registered agents in the configured order
+	 */
+	@Bean("pipelineAgentStrategy")
+	public IAgentStrategy pipelineAgentStrategy(List<Agent> agents, IPropertyService propertyService) {
+		return new PipelineAgentStrategy(agents, propertyService.getPipeline());
 	}
 
 }
@@ -0,0 +1,304 @@
+package com.ai.agent.real.application.agent.cache;
+
+import com.ai.agent.real.contract.agent.service.IAnswerCache;
+import com.ai.agent.real.contract.model.property.AnswerCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内语义答案缓存：问题经 {@link TextEmbedder} 转为向量，用随机超平面 LSH 做近似最近邻召回，再对候选精确计算余弦相似度。
+ * 相似度只反映字面接近程度，候选还要求数字与符号签名完全一致，短问题要求归一化后完全相同。所有状态在同一把锁内读写
+ *
+ * @author han
+ * @time 2025/11/13 10:30
+ */
+@Slf4j
+public class SemanticAnswerCache implements IAnswerCache {
+
+	private static final String GLOBAL_SCOPE = "global";
+
+	private static final long HYPERPLANE_SEED = 20251113L;
+
+	private final AnswerCacheProperties properties;
+
+	private final TextEmbedder embedder;
+
+	/**
+	 * [表][位][维度]
+	 */
+	private final float[][][] hyperplanes;
+
+	private final Object lock = new Object();
+
+	/**
+	 * 按写入顺序保存，超出上限时淘汰最早的条目
+	 */
+	private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>();
+
+	/**
+	 * 作用域|表|签名 -> 条目 id
+	 */
+	private final Map<String, Set<Long>> buckets = new HashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private long nextId;
+
+	public SemanticAnswerCache(AnswerCacheProperties properties) {
+		this.properties = properties;
+		this.embedder = new TextEmbedder(properties.getDimension());
+		this.hyperplanes = new float[properties.getLshTables()][properties.getLshBits()][properties.getDimension()];
+		Random random = new Random(HYPERPLANE_SEED);
+		for (float[][] table : hyperplanes) {
+			for (float[] plane : table) {
+				for (int i = 0; i < plane.length; i++) {
+					plane[i] = (float) random.nextGaussian();
+				}
+			}
+		}
+	}
+
+	/**
+	 * 关闭状态的缓存，供未配置缓存的策略使用
+	 */
+	public static SemanticAnswerCache disabled() {
+		AnswerCacheProperties properties = new AnswerCacheProperties();
+		properties.setEnabled(false);
+		properties.setLshTables(0);
+		return new SemanticAnswerCache(properties);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	@Override
+	public boolean isStandaloneOnly() {
+		return properties.isStandaloneOnly();
+	}
+
+	@Override
+	public Optional<String> lookup(String userKey, String question) {
+		if (!isEnabled()) {
+			return Optional.empty();
+		}
+		Question query = question(question);
+		if (TextEmbedder.isZero(query.vector())) {
+			misses.incrementAndGet();
+			return Optional.empty();
+		}
+		String scope = scopeOf(userKey);
+		int[] signatures = signatures(query.vector());
+		long now = System.currentTimeMillis();
+		Entry best = null;
+		double bestScore = -1;
+		synchronized (lock) {
+			Set<Long> candidates = new HashSet<>();
+			for (int table = 0; table < signatures.length; table++) {
+				candidates.addAll(buckets.getOrDefault(bucketKey(scope, table, signatures[table]), Set.of()));
+			}
+			for (Long id : candidates) {
+				Entry entry = entries.get(id);
+				if (entry == null) {
+					continue;
+				}
+				if (entry.expiresAt < now) {
+					remove(id);
+					continue;
+				}
+				for (Question stored : entry.questions) {
+					if (!sameLiterals(query, stored)) {
+						continue;
+					}
+					double score = TextEmbedder.dot(query.vector(), stored.vector());
+					if (score > bestScore) {
+						bestScore = score;
+						best = entry;
+					}
+				}
+			}
+		}
+		if (best == null || bestScore < properties.getThreshold()) {
+			misses.incrementAndGet();
+			return Optional.empty();
+		}
+		hits.incrementAndGet();
+		log.debug("[AnswerCache] 命中: scope={}, score={}", scope, String.format("%.3f", bestScore));
+		return Optional.of(best.answer);
+	}
+
+	@Override
+	public void store(String userKey, List<String> questions, String answer) {
+		if (!isEnabled() || answer == null || answer.isBlank()) {
+			return;
+		}
+		Map<String, Question> distinct = new LinkedHashMap<>();
+		questions.stream()
+			.map(this::question)
+			.filter(q -> !q.normalized().isEmpty())
+			.forEach(q -> distinct.putIfAbsent(q.normalized(), q));
+		if (distinct.isEmpty()) {
+			return;
+		}
+		String scope = scopeOf(userKey);
+		Entry entry = new Entry(userKey, List.copyOf(distinct.values()), answer,
+				System.currentTimeMillis() + properties.getTtl().toMillis());
+		synchronized (lock) {
+			long id = nextId++;
+			entries.put(id, entry);
+			for (Question question : entry.questions) {
+				int[] signatures = signatures(question.vector());
+				for (int table = 0; table < signatures.length; table++) {
+					String key = bucketKey(scope, table, signatures[table]);
+					entry.bucketKeys.add(key);
+					buckets.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+				}
+			}
+			Iterator<Long> eldest = entries.keySet().iterator();
+			while (entries.size() > properties.getMaxEntries() && eldest.hasNext()) {
+				Long eldestId = eldest.next();
+				Entry evicted = entries.get(eldestId);
+				eldest.remove();
+				unindex(eldestId, evicted);
+			}
+		}
+	}
+
+	@Override
+	public int invalidate(String userKey) {
+		synchronized (lock) {
+			if (userKey == null) {
+				int size = entries.size();
+				entries.clear();
+				buckets.clear();
+				return size;
+			}
+			List<Long> owned = entries.entrySet()
+				.stream()
+				.filter(e -> userKey.equals(e.getValue().owner))
+				.map(Map.Entry::getKey)
+				.toList();
+			owned.forEach(this::remove);
+			return owned.size();
+		}
+	}
+
+	@Override
+	public int size() {
+		synchronized (lock) {
+			return entries.size();
+		}
+	}
+
+	@Override
+	public long hits() {
+		return hits.get();
+	}
+
+	@Override
+	public long misses() {
+		return misses.get();
+	}
+
+	/**
+	 * 只在 lock 内调用
+	 */
+	private void remove(Long id) {
+		unindex(id, entries.remove(id));
+	}
+
+	private void unindex(Long id, Entry entry) {
+		if (entry == null) {
+			return;
+		}
+		for (String key : entry.bucketKeys) {
+			Set<Long> bucket = buckets.get(key);
+			if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+				buckets.remove(key);
+			}
+		}
+	}
+
+	private Question question(String text) {
+		String normalized = TextEmbedder.normalize(text);
+		return new Question(normalized, TextEmbedder.signature(text), embedder.embed(normalized));
+	}
+
+	/**
+	 * 数字与符号签名一致；任一方是短问题时要求归一化后完全相同
+	 */
+	private boolean sameLiterals(Question query, Question stored) {
+		if (!query.signature().equals(stored.signature())) {
+			return false;
+		}
+		int shortest = Math.min(query.normalized().codePointCount(0, query.normalized().length()),
+				stored.normalized().codePointCount(0, stored.normalized().length()));
+		return shortest > properties.getExactMatchLength() || query.normalized().equals(stored.normalized());
+	}
+
+	private int[] signatures(float[] vector) {
+		int[] signatures = new int[hyperplanes.length];
+		for (int table = 0; table < hyperplanes.length; table++) {
+			int signature = 0;
+			for (int bit = 0; bit < hyperplanes[table].length; bit++) {
+				if (TextEmbedder.dot(vector, hyperplanes[table][bit]) >= 0) {
+					signature |= 1 << bit;
+				}
+			}
+			signatures[table] = signature;
+		}
+		return signatures;
+	}
+
+	private String scopeOf(String userKey) {
+		return properties.getScope() == AnswerCacheProperties.Scope.GLOBAL ? GLOBAL_SCOPE : "user:" + userKey;
+	}
+
+	private static String bucketKey(String scope, int table, int signature) {
+		return scope + '|' + table + '|' + signature;
+	}
+
+	/**
+	 * @param normalized 归一化后的问题
+	 * @param signature 数字与符号签名
+	 * @param vector 问题向量
+	 */
+	private record Question(String normalized, String signature, float[] vector) {
+	}
+
+	private static class Entry {
+
+		private final String owner;
+
+		private final List<Question> questions;
+
+		private final String answer;
+
+		private final long expiresAt;
+
+		private final List<String> bucketKeys = new ArrayList<>();
+
+		private Entry(String owner, List<Question> questions, String answer, long expiresAt) {
+			this.owner = owner;
+			this.questions = questions;
+			this.answer = answer;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.ai.agent.real.application.agent.cache;
+
+import java.text.Normalizer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 本地文本向量：归一化后的字符 1~3-gram 做带符号特征哈希，再做 L2 归一化。不依赖外部模型，适合判断短问题的字面相似度
+ *
+ * @author han
+ * @time 2025/11/13 10:00
+ */
+public class TextEmbedder {
+
+	private static final int MAX_GRAM = 3;
+
+	/**
+	 * 标点类别中按运算符处理、归一化时保留的字符（+ = < > 等属于符号类别，本身就会保留）
+	 */
+	private static final String OPERATORS = "-*/%&#@";
+
+	/**
+	 * 数字（含小数）、符号与运算符
+	 */
+	private static final Pattern SIGNATURE_TOKEN = Pattern.compile("\\d+(?:\\.\\d+)?|\\p{S}|[-*/%&#@]");
+
+	private final int dimension;
+
+	public TextEmbedder(int dimension) {
+		this.dimension = dimension;
+	}
+
+	public int dimension() {
+		return dimension;
+	}
+
+	/**
+	 * 归一化：全半角统一、小写、去掉空白与标点，保留符号与运算符（「1+2」与「1-2」不能归一成同一个问题）
+	 */
+	public static String normalize(String text) {
+		if (text == null) {
+			return "";
+		}
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase();
+		StringBuilder builder = new StringBuilder(normalized.length());
+		normalized.codePoints().filter(TextEmbedder::isKept).forEach(builder::appendCodePoint);
+		return builder.toString();
+	}
+
+	/**
+	 * 数字与符号签名：按出现顺序拼接数字、符号与运算符。向量只反映字面相似度，只差一位数字或一个运算符的问题也可能超过阈值，
+	 * 命中前要求两边签名完全一致
+	 */
+	public static String signature(String text) {
+		if (text == null) {
+			return "";
+		}
+		Matcher matcher = SIGNATURE_TOKEN.matcher(Normalizer.normalize(text, Normalizer.Form.NFKC));
+		StringBuilder builder = new StringBuilder();
+		while (matcher.find()) {
+			builder.append(matcher.group()).append(' ');
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * 计算向量
+	 * @return 单位向量，文本为空时为零向量
+	 */
+	public float[] embed(String text) {
+		float[] vector = new float[dimension];
+		int[] codePoints = normalize(text).codePoints().toArray();
+		for (int n = 1; n <= MAX_GRAM; n++) {
+			// 单字权重较低，避免常用字主导相似度
+			float weight = n == 1 ? 0.5f : 1f;
+			for (int i = 0; i + n <= codePoints.length; i++) {
+				int hash = mix(gramHash(codePoints, i, n));
+				int index = Math.floorMod(hash, dimension);
+				vector[index] += (hash >>> 31) == 0 ? weight : -weight;
+			}
+		}
+		double norm = 0;
+		for (float value : vector) {
+			norm += value * value;
+		}
+		if (norm == 0) {
+			return vector;
+		}
+		float scale = (float) (1 / Math.sqrt(norm));
+		for (int i = 0; i < vector.length; i++) {
+			vector[i] *= scale;
+		}
+		return vector;
+	}
+
+	public static boolean isZero(float[] vector) {
+		for (float value : vector) {
+			if (value != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 点积，输入均为单位向量时即余弦相似度
+	 */
+	public static double dot(float[] a, float[] b) {
+		double dot = 0;
+		for (int i = 0; i < a.length; i++) {
+			dot += a[i] * b[i];
+		}
+		return dot;
+	}
+
+	private static boolean isKept(int codePoint) {
+		if (Character.isLetterOrDigit(codePoint) || OPERATORS.indexOf(codePoint) >= 0) {
+			return true;
+		}
+		int type = Character.getType(codePoint);
+		return type == Character.MATH_SYMBOL || type == Character.CURRENCY_SYMBOL || type == Character.MODIFIER_SYMBOL
+				|| type == Character.OTHER_SYMBOL;
+	}
+
+	private static int gramHash(int[] codePoints, int offset, int length) {
+		int hash = length;
+		for (int i = offset; i < offset + length; i++) {
+			hash = 31 * hash + codePoints[i];
+		}
+		return hash;
+	}
+
+	/**
+	 * murmur3 finalizer，打散相邻字符的哈希
+	 */
+	private static int mix(int hash) {
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> 13;
+		hash *= 0xc2b2ae35;
+		hash ^= hash >>> 16;
+		return hash;
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.ai.agent.real.application.agent.classify;
+
+import com.ai.agent.real.application.agent.cache.TextEmbedder;
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 离线训练的线性分类模型：输入经 {@link TextEmbedder} 转为特征向量后做 softmax 多分类。 模型文件为 JSON，字段与本类一致，由离线脚本基于
+ * LLM 任务分析的样本日志训练得到
+ *
+ * @author han
+ * @time 2025/11/14 11:00
+ */
+@Data
+public class LinearTaskModel {
+
+	/**
+	 * 特征维度，需与训练时一致
+	 */
+	private int dimension;
+
+	/**
+	 * 类别，顺序与 weights、bias 的行对应
+	 */
+	private List<AgentMode> classes;
+
+	/**
+	 * [类别][维度]
+	 */
+	private float[][] weights;
+
+	private float[] bias;
+
+	/**
+	 * 校验模型结构是否完整
+	 */
+	public boolean isValid() {
+		if (dimension <= 0 || classes == null || classes.isEmpty() || weights == null || bias == null) {
+			return false;
+		}
+		if (weights.length != classes.size() || bias.length != classes.size()) {
+			return false;
+		}
+		for (float[] row : weights) {
+			if (row == null || row.length != dimension) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 计算各类别概率
+	 * @param features 特征向量
+	 * @return 与 classes 顺序一致的概率
+	 */
+	public double[] predict(float[] features) {
+		double[] logits = new double[classes.size()];
+		double max = Double.NEGATIVE_INFINITY;
+		for (int c = 0; c < logits.length; c++) {
+			logits[c] = bias[c] + TextEmbedder.dot(weights[c], features);
+			max = Math.max(max, logits[c]);
+		}
+		double sum = 0;
+		for (int c = 0; c < logits.length; c++) {
+			logits[c] = Math.exp(logits[c] - max);
+			sum += logits[c];
+		}
+		for (int c = 0; c < logits.length; c++) {
+			logits[c] /= sum;
+		}
+		return logits;
+	}
+
+}
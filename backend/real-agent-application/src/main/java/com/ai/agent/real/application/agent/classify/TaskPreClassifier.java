@@ -0,0 +1,195 @@
+package com.ai.agent.real.application.agent.classify;
+
+import com.ai.agent.real.application.agent.cache.TextEmbedder;
+import com.ai.agent.real.common.utils.JsonUtils;
+import com.ai.agent.real.contract.agent.service.ITaskPreClassifier;
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContextMeta;
+import com.ai.agent.real.contract.model.property.TaskPreClassifierProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 任务预分类：先匹配内置规则，再使用离线训练的线性模型，高置信时直接给出模式与核心任务。 规则只覆盖无需任何上下文即可回复的寒暄类输入
+ *
+ * @author han
+ * @time 2025/11/14 11:30
+ */
+@Slf4j
+public class TaskPreClassifier implements ITaskPreClassifier {
+
+	private static final double RULE_CONFIDENCE = 0.99;
+
+	/**
+	 * 规则匹配归一化后的输入（小写，去掉空白与标点）
+	 */
+	private static final List<Rule> RULES = List.of(
+			new Rule(Pattern.compile("^(你好|您好|嗨|哈喽|哈啰|hi|hello|hey|早|早上好|上午好|中午好|下午好|晚上好|早安|在吗|在不在)(呀|啊|哦|吖)?$"),
+					"打招呼"),
+			new Rule(Pattern.compile("^(谢谢|多谢|感谢|谢了|thanks|thankyou|thx)(你|您)?(啦|了|呀)?$"), "致谢"),
+			new Rule(Pattern.compile("^(再见|拜拜|晚安|bye|byebye|goodbye)(啦|了|呀)?$"), "告别"),
+			new Rule(Pattern.compile("^(你是谁|你叫什么|你叫什么名字|你是什么|介绍一下你自己|介绍下你自己|你能做什么|你会什么|whoareyou)(呀|啊)?$"),
+					"询问助手身份与能力"));
+
+	private final TaskPreClassifierProperties properties;
+
+	private final LinearTaskModel model;
+
+	private final TextEmbedder embedder;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	public TaskPreClassifier(TaskPreClassifierProperties properties) {
+		this.properties = properties;
+		this.model = properties.isEnabled() ? loadModel(properties.getModelLocation()) : null;
+		this.embedder = model != null ? new TextEmbedder(model.getDimension()) : null;
+	}
+
+	/**
+	 * 关闭状态的预分类，供未配置预分类的策略使用
+	 */
+	public static TaskPreClassifier disabled() {
+		return new TaskPreClassifier(new TaskPreClassifierProperties());
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	@Override
+	public Optional<Prediction> classify(String input) {
+		if (!isEnabled() || !StringUtils.hasText(input)) {
+			return Optional.empty();
+		}
+		Optional<Prediction> prediction = predict(input).filter(this::isConfident)
+			.filter(p -> properties.getModes().contains(p.mode()));
+		(prediction.isPresent() ? hits : misses).incrementAndGet();
+		return prediction;
+	}
+
+	@Override
+	public Optional<Prediction> predict(String input) {
+		if (!isEnabled() || !StringUtils.hasText(input) || input.length() > properties.getMaxInputLength()) {
+			return Optional.empty();
+		}
+		return matchRules(input).or(() -> predictByModel(input));
+	}
+
+	@Override
+	public boolean isConfident(Prediction prediction) {
+		return prediction.confidence() >= properties.getThreshold();
+	}
+
+	@Override
+	public void record(String input, ReActPlusAgentContextMeta meta) {
+		if (!StringUtils.hasText(properties.getSampleLog()) || meta == null || meta.getAgentMode() == null) {
+			return;
+		}
+		Map<String, Object> sample = new LinkedHashMap<>();
+		sample.put("input", input);
+		sample.put("mode", meta.getAgentMode().name());
+		sample.put("realTask", meta.getRealTask());
+		sample.put("note", meta.getNote());
+		String line = JsonUtils.objectToJsonString(sample) + System.lineSeparator();
+		Path path = Path.of(properties.getSampleLog());
+		Schedulers.boundedElastic().schedule(() -> appendSample(path, line));
+	}
+
+	@Override
+	public long hits() {
+		return hits.get();
+	}
+
+	@Override
+	public long misses() {
+		return misses.get();
+	}
+
+	private Optional<Prediction> matchRules(String input) {
+		if (!properties.isRulesEnabled()) {
+			return Optional.empty();
+		}
+		String normalized = TextEmbedder.normalize(input);
+		return RULES.stream()
+			.filter(rule -> rule.pattern().matcher(normalized).matches())
+			.findFirst()
+			.map(rule -> new Prediction(AgentMode.DIRECT, rule.realTask(), "规则匹配：" + rule.realTask(),
+					RULE_CONFIDENCE));
+	}
+
+	private Optional<Prediction> predictByModel(String input) {
+		if (model == null) {
+			return Optional.empty();
+		}
+		float[] features = embedder.embed(input);
+		if (TextEmbedder.isZero(features)) {
+			return Optional.empty();
+		}
+		double[] probabilities = model.predict(features);
+		int best = 0;
+		for (int c = 1; c < probabilities.length; c++) {
+			if (probabilities[c] > probabilities[best]) {
+				best = c;
+			}
+		}
+		AgentMode mode = model.getClasses().get(best);
+		return Optional.of(new Prediction(mode, input.trim(), "本地分类器判定", probabilities[best]));
+	}
+
+	/**
+	 * 同一文件的追加写串行执行，避免多行交错
+	 */
+	private static synchronized void appendSample(Path path, String line) {
+		try {
+			Files.writeString(path, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+					StandardOpenOption.APPEND);
+		}
+		catch (IOException e) {
+			log.warn("[TaskPreClassifier] 写入样本日志失败: {}", path, e);
+		}
+	}
+
+	private static LinearTaskModel loadModel(String location) {
+		if (!StringUtils.hasText(location)) {
+			return null;
+		}
+		Resource resource = new DefaultResourceLoader().getResource(location);
+		try (InputStream in = resource.getInputStream()) {
+			LinearTaskModel model = JsonUtils.jsonStringToObject(new String(in.readAllBytes(), StandardCharsets.UTF_8),
+					LinearTaskModel.class);
+			if (model == null || !model.isValid()) {
+				log.warn("[TaskPreClassifier] 分类模型结构不完整，只使用规则: {}", location);
+				return null;
+			}
+			log.info("[TaskPreClassifier] 已加载分类模型: {}, 类别: {}", location, model.getClasses());
+			return model;
+		}
+		catch (IOException e) {
+			log.warn("[TaskPreClassifier] 分类模型加载失败，只使用规则: {}", location, e);
+			return null;
+		}
+	}
+
+	private record Rule(Pattern pattern, String realTask) {
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.ai.agent.real.application.agent.collaborate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ThoughtAgent 执行计划（{@code {"tasks": [{"id", "description", "dependencies", "verification_criteria"}]}}）的解析结果，
+ * 按依赖关系分层：同一层的子任务互不依赖，可以并行执行
+ *
+ * @author han
+ * @time 2025/11/19 15:10
+ */
+@Slf4j
+public class TaskDecomposition {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final Pattern CODE_BLOCK = Pattern.compile("```(?:json)?\\s*(\\{.*?})\\s*```", Pattern.DOTALL);
+
+	private final List<Subtask> subtasks;
+
+	private TaskDecomposition(List<Subtask> subtasks) {
+		this.subtasks = subtasks;
+	}
+
+	/**
+	 * 从 ThoughtAgent 的输出中解析执行计划，依次尝试各个 JSON 代码块与整段文本中的首个 JSON 对象
+	 * @param text ThoughtAgent 输出
+	 * @param maxSubtasks 子任务上限，超出的子任务忽略
+	 * @return 解析结果，没有可用的执行计划时子任务为空
+	 */
+	public static TaskDecomposition parse(String text, int maxSubtasks) {
+		if (text == null || text.isBlank()) {
+			return new TaskDecomposition(List.of());
+		}
+		List<String> candidates = new ArrayList<>();
+		Matcher matcher = CODE_BLOCK.matcher(text);
+		while (matcher.find()) {
+			candidates.add(matcher.group(1));
+		}
+		int start = text.indexOf('{');
+		int end = text.lastIndexOf('}');
+		if (start >= 0 && end > start) {
+			candidates.add(text.substring(start, end + 1));
+		}
+		for (String candidate : candidates) {
+			List<Subtask> subtasks = readTasks(candidate, maxSubtasks);
+			if (!subtasks.isEmpty()) {
+				return new TaskDecomposition(subtasks);
+			}
+		}
+		return new TaskDecomposition(List.of());
+	}
+
+	public List<Subtask> getSubtasks() {
+		return subtasks;
+	}
+
+	public boolean isEmpty() {
+		return subtasks.isEmpty();
+	}
+
+	/**
+	 * 按依赖分层：每层只依赖前面各层。未知的依赖忽略，存在环时剩余子任务全部放到最后一层
+	 */
+	public List<List<Subtask>> levels() {
+		Map<String, Subtask> pending = new LinkedHashMap<>();
+		subtasks.forEach(subtask -> pending.put(subtask.id(), subtask));
+		Set<String> known = new LinkedHashSet<>(pending.keySet());
+		Set<String> done = new LinkedHashSet<>();
+		List<List<Subtask>> levels = new ArrayList<>();
+		while (!pending.isEmpty()) {
+			List<Subtask> level = pending.values()
+				.stream()
+				.filter(subtask -> subtask.dependencies()
+					.stream()
+					.allMatch(dependency -> done.contains(dependency) || !known.contains(dependency)))
+				.toList();
+			if (level.isEmpty()) {
+				log.warn("[Collaborative] 子任务依赖存在环，剩余子任务合并为最后一层: {}", pending.keySet());
+				level = new ArrayList<>(pending.values());
+			}
+			level.forEach(subtask -> {
+				pending.remove(subtask.id());
+				done.add(subtask.id());
+			});
+			levels.add(level);
+		}
+		return levels;
+	}
+
+	private static List<Subtask> readTasks(String json, int maxSubtasks) {
+		JsonNode tasks;
+		try {
+			tasks = MAPPER.readTree(json).path("tasks");
+		}
+		catch (Exception e) {
+			return List.of();
+		}
+		if (!tasks.isArray()) {
+			return List.of();
+		}
+		List<Subtask> subtasks = new ArrayList<>();
+		Set<String> ids = new LinkedHashSet<>();
+		for (JsonNode task : tasks) {
+			if (subtasks.size() >= maxSubtasks) {
+				break;
+			}
+			String description = task.path("description").asText("");
+			if (description.isBlank()) {
+				continue;
+			}
+			String id = task.path("id").asText("");
+			if (id.isBlank() || !ids.add(id)) {
+				id = "task_" + (subtasks.size() + 1);
+				ids.add(id);
+			}
+			List<String> dependencies = new ArrayList<>();
+			task.path("dependencies").forEach(dependency -> dependencies.add(dependency.asText()));
+			subtasks.add(new Subtask(id, description, dependencies, task.path("verification_criteria").asText("")));
+		}
+		return subtasks;
+	}
+
+	/**
+	 * 子任务
+	 * @param id 子任务标识
+	 * @param description 描述
+	 * @param dependencies 依赖的子任务标识
+	 * @param verificationCriteria 完成标准
+	 */
+	public record Subtask(String id, String description, List<String> dependencies, String verificationCriteria) {
+	}
+
+}
@@ -0,0 +1,152 @@
+package com.ai.agent.real.application.agent.dispatcher;
+
+import com.ai.agent.real.contract.agent.IAgentStrategy;
+import com.ai.agent.real.contract.agent.StrategySelection;
+import com.ai.agent.real.contract.agent.service.IAdmissionController;
+import com.ai.agent.real.contract.agent.service.ILlmScheduler;
+import com.ai.agent.real.contract.agent.service.ITaskPreClassifier;
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import com.ai.agent.real.contract.model.property.DispatcherProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 负载感知的策略分发：按执行中 turn、LLM 在途与排队数、近期排队延迟计算负载，饱和时给 ReActPlus 设置模式上限（PLAN/THOUGHT 降为
+ * SIMPLE，严重饱和时降为 DIRECT）。预分类判定为轻量模式的任务只在严重饱和时受限。只做模式限制，不切换策略：请求的策略原样返回
+ *
+ * @author han
+ * @time 2025/11/20 10:40
+ */
+@Slf4j
+public class LoadAwareAgentDispatcher extends DefaultAgentDispatcher {
+
+	private final IAdmissionController admissionController;
+
+	private final ILlmScheduler llmScheduler;
+
+	private final ITaskPreClassifier taskPreClassifier;
+
+	private final DispatcherProperties properties;
+
+	private final int maxConcurrentTurns;
+
+	private final int maxLlmInFlight;
+
+	private final AtomicLong requested = new AtomicLong();
+
+	private final AtomicLong modeCaps = new AtomicLong();
+
+	/**
+	 * 排队等待的平滑值（纳秒）及上次采样时的累计值，在 this 上同步
+	 */
+	private double smoothedWaitNanos;
+
+	private long lastWaited;
+
+	private long lastWaitNanos;
+
+	private volatile double lastLoad;
+
+	public LoadAwareAgentDispatcher(Map<String, IAgentStrategy> agentStrategyMap,
+			IAdmissionController admissionController, ILlmScheduler llmScheduler,
+			ITaskPreClassifier taskPreClassifier, DispatcherProperties properties, int maxConcurrentTurns,
+			int maxLlmInFlight) {
+		super(agentStrategyMap);
+		this.admissionController = admissionController;
+		this.llmScheduler = llmScheduler;
+		this.taskPreClassifier = taskPreClassifier;
+		this.properties = properties;
+		this.maxConcurrentTurns = Math.max(1, maxConcurrentTurns);
+		this.maxLlmInFlight = Math.max(1, maxLlmInFlight);
+	}
+
+	@Override
+	public StrategySelection select(String name, String task) {
+		if (!properties.isAutoSelection() || properties.getAlgorithm() != DispatcherProperties.Algorithm.LOAD_BASED) {
+			return super.select(name, task);
+		}
+		double load = load();
+		if (load < properties.getThreshold()) {
+			requested.incrementAndGet();
+			return super.select(name, task);
+		}
+
+		boolean critical = load >= properties.getCriticalThreshold();
+		String strategyName = name.trim();
+		AgentMode ceiling = critical ? properties.getCriticalModeCeiling() : properties.getModeCeiling();
+		if (!critical && isLightTask(task)) {
+			ceiling = null;
+		}
+
+		if (ceiling != null) {
+			modeCaps.incrementAndGet();
+		}
+		String reason = String.format("负载 %.2f%s", load, critical ? "（严重饱和）" : "（饱和）");
+		log.info("[Dispatcher] {}，模式上限 {}，{}", strategyName, ceiling, reason);
+		return new StrategySelection(strategyName, getAgentStrategyByName(strategyName), ceiling, reason);
+	}
+
+	/**
+	 * 当前负载：执行与排队中的 turn、LLM 在途与排队的调用、近期排队等待，三者相对各自上限的最大占比
+	 */
+	public double load() {
+		IAdmissionController.AdmissionStats stats = admissionController.stats();
+		double turns = (double) (stats.getRunning() + stats.getQueued()) / maxConcurrentTurns;
+		double llm = (double) (llmScheduler.inFlight() + llmScheduler.queued()) / maxLlmInFlight;
+		double latency = sampleWaitNanos(stats) / Math.max(1, properties.getLatencyThreshold().toNanos());
+		lastLoad = Math.max(turns, Math.max(llm, latency));
+		return lastLoad;
+	}
+
+	/**
+	 * 最近一次计算的负载
+	 */
+	public double lastLoad() {
+		return lastLoad;
+	}
+
+	/**
+	 * 按请求名称选择（负载未饱和或未开启自动选择）的次数
+	 */
+	public long requestedCount() {
+		return requested.get();
+	}
+
+	/**
+	 * 饱和时设置 ReActPlus 模式上限的次数
+	 */
+	public long modeCaps() {
+		return modeCaps.get();
+	}
+
+	/**
+	 * 预分类高置信判定为 DIRECT/SIMPLE 的任务本身就轻，未饱和到严重程度时不设上限。预分类关闭时一律按可能较重处理。
+	 * 用不计入命中统计的 predict，策略执行时还会再做一次正式的预分类
+	 */
+	private boolean isLightTask(String task) {
+		if (!taskPreClassifier.isEnabled()) {
+			return false;
+		}
+		return taskPreClassifier.predict(task)
+			.filter(taskPreClassifier::isConfident)
+			.map(prediction -> !prediction.mode().isHeavierThan(AgentMode.SIMPLE))
+			.orElse(false);
+	}
+
+	/**
+	 * 用准入统计的累计值之差估算近期的平均排队等待，再做指数平滑；期间没有新的排队样本时按系数衰减
+	 */
+	private synchronized double sampleWaitNanos(IAdmissionController.AdmissionStats stats) {
+		long waited = stats.getWaitedTotal() - lastWaited;
+		long waitNanos = stats.getWaitNanosTotal() - lastWaitNanos;
+		lastWaited = stats.getWaitedTotal();
+		lastWaitNanos = stats.getWaitNanosTotal();
+		double sample = waited > 0 ? (double) waitNanos / waited : 0;
+		double alpha = properties.getLatencySmoothing();
+		smoothedWaitNanos = alpha * sample + (1 - alpha) * smoothedWaitNanos;
+		return smoothedWaitNanos;
+	}
+
+}
@@ -30,6 +30,16 @@ public class ThinkingAgent extends Agent {
 
 	public static final String AGENT_ID = THINKING_AGENT_ID;
 
+	/**
+	 * 折叠观察阶段时，观察段落所在的标签
+	 */
+	public static final String OBSERVATION_TAG = "observation";
+
+	private static final String OBSERVATION_FOLD_PROMPT = """
+			请先在 <%s></%s> 标签内简要分析上一轮工具执行的结果：结果是否有效、关键信息是什么、是否达成上一轮思考设定的目标。
+			标签结束后，再基于所述规则和工具集和上下文，对当前任务进行本轮思考。
+			""";
+
 	private final String SYSTEM_PROMPT = """
 			## 角色定义
 			你是一个超级智能体，名字叫做 han, 专注于任务拆解、推理决策和行动规划。你的核心职责是通过"思考-行动-观察"循环，逐步推进任务完成，确保每一步行动都有明确的逻辑支撑.
@@ -192,6 +202,30 @@ public class ThinkingAgent extends Agent {
 
 	}
 
+	/**
+	 * 折叠观察阶段的思考：先在 {@link #OBSERVATION_TAG} 标签内分析上一轮工具执行结果，再进行本轮思考
+	 * @param task 任务描述
+	 * @param context 执行上下文
+	 * @return 流式执行结果，观察段落仍以 THINKING 事件输出，由调用方拆分
+	 */
+	@SneakyThrows
+	public Flux<AgentExecutionEvent> executeStreamWithObservation(String task, AgentContextAble context) {
+
+		log.debug("ThinkingAgent 开始流式观察与分析任务: {}", task);
+
+		String thinkingPrompt = String.format(OBSERVATION_FOLD_PROMPT, OBSERVATION_TAG, OBSERVATION_TAG);
+
+		Prompt prompt = AgentUtils.buildPromptWithContext(this.availableTools, context, SYSTEM_PROMPT, thinkingPrompt);
+
+		return FluxUtils
+			.executeWithToolSupport(chatModel, prompt, context, AGENT_ID, toolService, toolApprovalMode,
+					EventType.THINKING)
+			.doFinally(signalType -> {
+				afterHandle(context);
+				log.debug("ThinkingAgent流式观察与分析结束，信号类型: {}", signalType);
+			});
+	}
+
 	/**
 	 * 构建思考提示词
 	 */
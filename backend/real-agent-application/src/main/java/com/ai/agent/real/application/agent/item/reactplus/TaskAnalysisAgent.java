@@ -79,14 +79,15 @@ public class TaskAnalysisAgent extends Agent {
 
 			 ## 输出格式要求：
 
-			 你的输出必须严格遵循 JSON 格式。`note` 字段的内容必须简洁、专业，直接指出决定难度的核心因素或关键知识点，**不得包含** "因为"、"所以"、"由于" 等因果关联词。`realTask` 字段必须准确提取用户的核心任务。
+			 你的输出必须严格遵循 JSON 格式。`note` 字段的内容必须简洁、专业，直接指出决定难度的核心因素或关键知识点，**不得包含** "因为"、"所以"、"由于" 等因果关联词。`realTask` 字段必须准确提取用户的核心任务。`sessionTitle` 字段为根据用户输入生成的简短会话标题，不超过15字，不含引号或其他标点符号。
 
 			 **JSON 格式:**
 			 ```json
 			 {
 			  "level": [整数 0，1, 2, 3, 4],
 			  "realTask": "[用户输入的核心任务描述]",
-			  "note": "[评估理由，指出决定难度的核心因素]"
+			  "note": "[评估理由，指出决定难度的核心因素]",
+			  "sessionTitle": "[不超过15字的会话标题]"
 			 }
 			 ```
 
@@ -106,7 +107,8 @@ public class TaskAnalysisAgent extends Agent {
 			 {
 			 "level": 0,
 			 "realTask": "打招呼",
-			 "note": "最简单任务，不需要调用任何工具，简单礼貌回复即可"
+			 "note": "最简单任务，不需要调用任何工具，简单礼貌回复即可",
+			 "sessionTitle": "打招呼"
 			 }
 			 ```
 			 **输入:** "帮我看一下 经度：121.45575、纬度：31.249571 的天气。"
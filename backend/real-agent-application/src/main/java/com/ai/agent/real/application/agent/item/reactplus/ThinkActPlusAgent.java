@@ -0,0 +1,103 @@
+package com.ai.agent.real.application.agent.item.reactplus;
+
+import com.ai.agent.real.application.utils.AgentUtils;
+import com.ai.agent.real.application.utils.FluxUtils;
+import com.ai.agent.real.application.utils.PromptUtils;
+import com.ai.agent.real.common.constant.NounConstants;
+import com.ai.agent.real.contract.agent.Agent;
+import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
+import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContextMeta;
+import com.ai.agent.real.contract.model.property.ToolApprovalMode;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.tool.IToolService;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+import static com.ai.agent.real.common.constant.NounConstants.*;
+
+/**
+ * ThinkActPlusAgent - ReAct+ 融合迭代节点：一次 function calling 请求中先输出思考过程，再直接调用工具。
+ * 思考文本以 THINKING 事件下发，工具执行结果与审批沿用 ActionPlus 的事件，前端协议不变
+ *
+ * @author han
+ * @time 2025/11/16 10:30
+ */
+@Slf4j
+public class ThinkActPlusAgent extends Agent {
+
+	public static final String AGENT_ID = THINK_ACT_PLUS_AGENT_ID;
+
+	private final String SYSTEM_PROMPT = """
+			    ## 角色定义
+			    你是 han，一个正在执行任务的专家级AI。每一轮你都要在同一次回复里完成“思考”与“行动”：先简要直播你的思考过程，再直接调用工具执行你决定的下一步动作。
+
+			    <首要准则>
+			    - 你要把用户的需求当作第一准则，用户即为上帝，用户是你的一切，你坚定为用户服务一切事情，不要欺骗用户，不要奉承、谄媚用户，用户崇尚真理，向他倾诉真理是对他的尊重及对他的服务
+			    - 以操作（工具执行）为最终导向，思考的目的是得出最正确的、可以立即执行的工具调用
+			    </首要准则>
+
+			    ## 思考部分
+			    1. **第一人称叙事：** 使用第一人称（“我”）与现在进行时（例如：“我正在分析...”、“我下一步将...”）。
+			    2. **Markdown 标题分步：** 用 Markdown 标题（`#`）划分阶段，每个阶段说明当前焦点、分析结论，以及下一个具体动作。
+			    3. **简洁：** 思考只服务于本轮动作，不要复述历史，不要给出最终答案。
+
+			    ## 行动部分
+			    1. **一致性：** 思考结束后，在同一次回复中调用与思考结论一致的工具，不要只描述而不调用。
+			    2. **明确性：** 严格依据上下文与工具结果决策，不要臆想工具返回的内容。
+			    3. **结束：** 当思考结论为任务已完成或需要向用户反馈时，必须调用工具使任务终止。
+
+			    <TOOLCALLRULES>
+			    系统工具调用准则:
+			    </TOOLCALLRULES>
+
+			    <ENVIRONMENTS>
+			    环境变量:
+			    </ENVIRONMENTS>
+			""";
+
+	public ThinkActPlusAgent(ChatModel chatModel, IToolService toolService, ToolApprovalMode toolApprovalMode,
+			IAgentTurnManagerService agentTurnManagerService) {
+
+		super(AGENT_ID, AGENT_ID, "ReAct+ 框架中的融合思考行动节点，一次调用完成思考分析与工具执行", chatModel, toolService,
+				Set.of("ReActAgentStrategy", "行动", "Action", NounConstants.MCP, NounConstants.TASK_DONE),
+				toolApprovalMode);
+		this.setAgentTurnManagerService(agentTurnManagerService);
+		this.setCapabilities(new String[] { "深度思考", "工具执行", "ThinkActPlus" });
+	}
+
+	/**
+	 * 流式执行任务
+	 * @param userInput user input
+	 * @param context 执行上下文
+	 * @return 流式执行结果
+	 */
+	@Override
+	@SneakyThrows
+	public Flux<AgentExecutionEvent> executeStream(String userInput, AgentContextAble context) {
+		log.debug("ThinkActPlusAgent 开始思考并执行: {}", userInput);
+
+		ReActPlusAgentContextMeta meta = (ReActPlusAgentContextMeta) context.getMetadata();
+		String renderedSystemPrompt = PromptUtils.renderMeta(SYSTEM_PROMPT, meta);
+		renderedSystemPrompt = PromptUtils.renderToolCallRules(renderedSystemPrompt, meta);
+
+		Prompt prompt = AgentUtils.buildPromptWithContextAndTools(this.availableTools, context, renderedSystemPrompt,
+				"请先简要给出本轮的思考分析，再在同一次回复中调用合适的工具执行下一步行动。");
+
+		// 文本内容按 THINKING 下发，工具调用与结果按 ActionPlus 的方式处理
+		return FluxUtils
+			.executeWithToolSupportWithInteraction(chatModel, prompt, context, AGENT_ID, toolService, toolApprovalMode,
+					AgentExecutionEvent.EventType.THINKING,
+					agentTurnManagerService.getTurnState(context.getTurnId().toString()))
+			.doFinally(signalType -> {
+				afterHandle(context);
+				log.debug("ThinkActPlusAgent 思考执行结束，信号类型: {}", signalType);
+			});
+	}
+
+}
@@ -0,0 +1,238 @@
+package com.ai.agent.real.application.agent.loop;
+
+import com.ai.agent.real.application.agent.cache.TextEmbedder;
+import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.model.message.AgentMessage;
+import com.ai.agent.real.contract.model.property.LoopDetectorProperties;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 迭代死循环检测：按轮次记录工具调用指纹（工具名 + 规范化参数）与思考向量。
+ * 一轮中的工具调用全部在之前出现过，或思考与最近几轮高度相似，即视为重复；第一次重复时向上下文注入纠正提示，
+ * 连续重复达到阈值时标记终止，由策略走 doneWithWarning 收尾
+ *
+ * @author han
+ * @time 2025/11/18 10:30
+ */
+@Slf4j
+public class LoopDetector {
+
+	private static final ObjectMapper CANONICAL_MAPPER = new ObjectMapper()
+		.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+	private static final String HINT_TEMPLATE = """
+			检测到你正在重复之前的%s。不要再以相同参数调用同一工具，也不要重复相同的推理；
+			请基于已有的工具结果换一种思路推进任务，如果信息已经足够或任务无法继续，请调用 task_done 结束任务。
+			""";
+
+	private final LoopDetectorProperties properties;
+
+	private final TextEmbedder embedder;
+
+	private final AtomicLong hints = new AtomicLong();
+
+	private final AtomicLong terminations = new AtomicLong();
+
+	private final AtomicLong iterationsSaved = new AtomicLong();
+
+	public LoopDetector(LoopDetectorProperties properties) {
+		this.properties = properties;
+		this.embedder = new TextEmbedder(properties.getDimension());
+	}
+
+	/**
+	 * 关闭状态的检测器，供未配置检测的策略使用
+	 */
+	public static LoopDetector disabled() {
+		return new LoopDetector(new LoopDetectorProperties());
+	}
+
+	/**
+	 * 为一个 turn 创建检测状态
+	 * @param maxIterations 本 turn 的迭代上限，用于计算提前结束节省的轮数
+	 */
+	public Tracker newTracker(int maxIterations) {
+		return new Tracker(maxIterations);
+	}
+
+	public long hints() {
+		return hints.get();
+	}
+
+	public long terminations() {
+		return terminations.get();
+	}
+
+	public long iterationsSaved() {
+		return iterationsSaved.get();
+	}
+
+	/**
+	 * 工具调用指纹：工具名 + 按键排序后的参数 JSON
+	 */
+	static String fingerprint(AgentExecutionEvent event) {
+		String toolName = event.getData() instanceof ToolResponse toolResponse ? toolResponse.name()
+				: String.valueOf(event.getMessage());
+		Map<String, Object> meta = event.getMeta();
+		Object args = meta == null ? null : meta.getOrDefault("arguments", meta.get("toolSchema"));
+		try {
+			if (args instanceof String json) {
+				args = CANONICAL_MAPPER.readValue(json, Object.class);
+			}
+			return toolName + '|' + CANONICAL_MAPPER.writeValueAsString(args);
+		}
+		catch (Exception e) {
+			return toolName + '|' + args;
+		}
+	}
+
+	public enum Verdict {
+
+		NONE, HINT, TERMINATE
+
+	}
+
+	/**
+	 * 单个 turn 的检测状态，同一 turn 的事件按顺序到达，不需要加锁
+	 */
+	public class Tracker {
+
+		private final int maxIterations;
+
+		private final Set<String> seenTools = new HashSet<>();
+
+		private final Deque<float[]> recentThoughts = new ArrayDeque<>();
+
+		private final Set<String> currentTools = new LinkedHashSet<>();
+
+		private final StringBuilder currentThought = new StringBuilder();
+
+		private int streak;
+
+		/**
+		 * 最近一次重复的类型：工具调用或思考
+		 */
+		private String repeatedKind;
+
+		private boolean terminated;
+
+		private String warning;
+
+		private Tracker(int maxIterations) {
+			this.maxIterations = maxIterations;
+		}
+
+		/**
+		 * 记录本轮的事件
+		 */
+		public void observe(AgentExecutionEvent event) {
+			if (!properties.isEnabled() || event.getType() == null) {
+				return;
+			}
+			if (event.getType() == EventType.TOOL) {
+				currentTools.add(fingerprint(event));
+			}
+			else if (event.getType() == EventType.THINKING && event.getMessage() != null) {
+				currentThought.append(event.getMessage());
+			}
+		}
+
+		/**
+		 * 结束一轮并给出判定，同时清空本轮记录
+		 * @param iteration 刚结束的轮次
+		 */
+		public Verdict endIteration(int iteration) {
+			if (!properties.isEnabled() || terminated) {
+				return Verdict.NONE;
+			}
+			boolean toolRepeat = !currentTools.isEmpty() && seenTools.containsAll(currentTools);
+			float[] thought = embedder.embed(currentThought.toString());
+			boolean thoughtRepeat = !TextEmbedder.isZero(thought) && recentThoughts.stream()
+				.anyMatch(previous -> TextEmbedder.dot(thought, previous) >= properties.getThoughtSimilarity());
+
+			seenTools.addAll(currentTools);
+			currentTools.clear();
+			currentThought.setLength(0);
+			if (!TextEmbedder.isZero(thought)) {
+				recentThoughts.addLast(thought);
+				while (recentThoughts.size() > properties.getThoughtWindow()) {
+					recentThoughts.removeFirst();
+				}
+			}
+
+			if (!toolRepeat && !thoughtRepeat) {
+				streak = 0;
+				return Verdict.NONE;
+			}
+			streak++;
+			repeatedKind = toolRepeat ? "工具调用" : "思考";
+			if (streak >= properties.getTerminateAfter()) {
+				terminated = true;
+				int saved = Math.max(0, maxIterations - iteration);
+				terminations.incrementAndGet();
+				iterationsSaved.addAndGet(saved);
+				warning = String.format("第 %d 轮起连续 %d 轮重复%s，提前结束迭代（节省 %d 轮）", iteration - streak + 1, streak,
+						repeatedKind, saved);
+				log.warn("[LoopDetector] {}", warning);
+				return Verdict.TERMINATE;
+			}
+			if (streak == 1) {
+				hints.incrementAndGet();
+				log.info("[LoopDetector] 第 {} 轮重复{}，注入纠正提示", iteration, repeatedKind);
+				return Verdict.HINT;
+			}
+			return Verdict.NONE;
+		}
+
+		/**
+		 * 一轮结束后调用：重复时注入纠正提示或标记终止，并输出进度事件
+		 * @param context 本 turn 的上下文
+		 * @param iteration 刚结束的轮次
+		 */
+		public Flux<AgentExecutionEvent> afterIteration(AgentContextAble context, int iteration) {
+			if (context.isTaskCompleted()) {
+				return Flux.empty();
+			}
+			switch (endIteration(iteration)) {
+				case HINT: {
+					context.addMessage(AgentMessage.system(String.format(HINT_TEMPLATE, repeatedKind)));
+					return Flux
+						.just(AgentExecutionEvent.progress(context, "检测到重复的" + repeatedKind + "，已提示调整方向...", null));
+				}
+				case TERMINATE: {
+					return Flux.just(AgentExecutionEvent.progress(context, warning, null));
+				}
+				default: {
+					return Flux.empty();
+				}
+			}
+		}
+
+		public boolean isTerminated() {
+			return terminated;
+		}
+
+		/**
+		 * 终止原因，未终止时为 null
+		 */
+		public String getWarning() {
+			return warning;
+		}
+
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.application.agent.model.PromptCache.CachedChunk;
+import com.ai.agent.real.contract.model.llm.LlmStage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 缓存装饰器：按 Reactor Context 中的 {@link LlmStage} 判断是否开启缓存，命中时回放缓存的流式分片，不再占用调度与配额；
+ * 未命中时正常调用并在流正常结束后写入缓存（取消或出错的流不缓存）。同步调用没有阶段信息，不做缓存
+ *
+ * @author han
+ * @time 2025/11/12 10:30
+ */
+@Slf4j
+public class CachingChatModel implements ChatModel {
+
+	private final ChatModel delegate;
+
+	private final PromptCache cache;
+
+	public CachingChatModel(ChatModel delegate, PromptCache cache) {
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+		return delegate.call(prompt);
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+		return Flux.deferContextual(contextView -> {
+			String stage = LlmStage.from(contextView);
+			if (!cache.isCacheable(stage)) {
+				return delegate.stream(prompt);
+			}
+			String key = PromptCache.keyOf(stage, prompt);
+			return cache.get(stage, key)
+				.flatMapMany(chunks -> {
+					log.debug("[PromptCache] 命中: stage={}, chunks={}", stage, chunks.size());
+					return Flux.fromIterable(chunks).map(CachedChunk::toResponse);
+				})
+				.switchIfEmpty(Flux.defer(() -> record(key, prompt)));
+		});
+	}
+
+	@Override
+	public ChatOptions getDefaultOptions() {
+		return delegate.getDefaultOptions();
+	}
+
+	private Flux<ChatResponse> record(String key, Prompt prompt) {
+		List<CachedChunk> chunks = new ArrayList<>();
+		return delegate.stream(prompt)
+			.doOnNext(response -> chunks.add(CachedChunk.from(response)))
+			.doOnComplete(() -> {
+				chunks.removeIf(Objects::isNull);
+				if (!chunks.isEmpty()) {
+					cache.put(key, List.copyOf(chunks));
+				}
+			});
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.agent.service.ILlmScheduler;
+import com.ai.agent.real.contract.model.llm.LlmFlow;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 公平调度装饰器：调用前向 {@link ILlmScheduler} 申请槽位，流结束、出错或被取消时归还
+ *
+ * @author han
+ * @time 2025/11/9 15:00
+ */
+public class FairScheduledChatModel implements ChatModel {
+
+	private final ChatModel delegate;
+
+	private final ILlmScheduler scheduler;
+
+	public FairScheduledChatModel(ChatModel delegate, ILlmScheduler scheduler) {
+		this.delegate = delegate;
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+		Disposable slot = scheduler.acquire(LlmFlow.DEFAULT).toFuture().join();
+		try {
+			return delegate.call(prompt);
+		}
+		finally {
+			slot.dispose();
+		}
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+		return Flux.deferContextual(contextView -> Flux.usingWhen(scheduler.acquire(LlmFlow.from(contextView)),
+				slot -> delegate.stream(prompt), slot -> Mono.fromRunnable(slot::dispose)));
+	}
+
+	@Override
+	public ChatOptions getDefaultOptions() {
+		return delegate.getDefaultOptions();
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.agent.service.ILlmRateGovernor;
+import com.ai.agent.real.contract.model.llm.LlmPriority;
+import com.ai.agent.real.contract.model.property.LlmGovernorProperties;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 出站限流装饰器：每次调用前向 {@link ILlmRateGovernor} 申请配额，结束后按实际用量修正，并把供应商 429 反馈给限流器
+ *
+ * @author han
+ * @time 2025/11/8 10:40
+ */
+public class GovernedChatModel implements ChatModel {
+
+	private static final int TOO_MANY_REQUESTS = 429;
+
+	private static final String THROTTLED_MESSAGE_PREFIX = "HTTP 429";
+
+	private final ChatModel delegate;
+
+	private final ILlmRateGovernor governor;
+
+	private final LlmGovernorProperties properties;
+
+	public GovernedChatModel(ChatModel delegate, ILlmRateGovernor governor, LlmGovernorProperties properties) {
+		this.delegate = delegate;
+		this.governor = governor;
+		this.properties = properties;
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+		long estimated = estimateTokens(prompt);
+		// 同步调用没有 Reactor Context，按交互优先级处理；用 join 而不是 block，与 delegate 的阻塞调用保持一致
+		long window = governor.acquire(LlmPriority.INTERACTIVE, estimated).toFuture().join();
+		try {
+			ChatResponse response = delegate.call(prompt);
+			onComplete(response, estimated, window);
+			return response;
+		}
+		catch (RuntimeException e) {
+			onError(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+		return Flux.deferContextual(contextView -> {
+			LlmPriority priority = LlmPriority.from(contextView);
+			long estimated = estimateTokens(prompt);
+			AtomicReference<ChatResponse> last = new AtomicReference<>();
+			return governor.acquire(priority, estimated)
+				.flatMapMany(window -> delegate.stream(prompt)
+					.doOnNext(last::set)
+					.doOnComplete(() -> onComplete(last.get(), estimated, window)))
+				.doOnError(this::onError);
+		});
+	}
+
+	@Override
+	public ChatOptions getDefaultOptions() {
+		return delegate.getDefaultOptions();
+	}
+
+	private void onComplete(ChatResponse response, long estimated, long window) {
+		governor.onSuccess();
+		long actual = totalTokens(response);
+		if (actual > 0) {
+			governor.adjust(window, actual - estimated);
+		}
+	}
+
+	private void onError(Throwable error) {
+		if (isThrottled(error)) {
+			governor.onThrottled();
+		}
+	}
+
+	/**
+	 * 预估 token：输入按字符数折算，输出按固定预留
+	 */
+	private long estimateTokens(Prompt prompt) {
+		long chars = 0;
+		for (Message message : prompt.getInstructions()) {
+			if (message.getText() != null) {
+				chars += message.getText().length();
+			}
+		}
+		return (long) Math.ceil(chars / properties.getCharsPerToken()) + properties.getExpectedCompletionTokens();
+	}
+
+	private static long totalTokens(ChatResponse response) {
+		if (response == null || response.getMetadata() == null) {
+			return 0;
+		}
+		Usage usage = response.getMetadata().getUsage();
+		if (usage == null || usage.getTotalTokens() == null) {
+			return 0;
+		}
+		return usage.getTotalTokens();
+	}
+
+	/**
+	 * 供应商限流（异常链上任意一层）：WebClient / RestClient 响应状态码为 429，或 Spring AI 以「HTTP 429」开头的错误信息。
+	 * 不按信息中是否出现 429 判断，避免把请求 ID、token 数等数字误判为限流
+	 */
+	static boolean isThrottled(Throwable error) {
+		for (Throwable current = error; current != null; current = current.getCause()) {
+			if (current instanceof WebClientResponseException response
+					&& response.getStatusCode().value() == TOO_MANY_REQUESTS) {
+				return true;
+			}
+			if (current instanceof RestClientResponseException response
+					&& response.getStatusCode().value() == TOO_MANY_REQUESTS) {
+				return true;
+			}
+			String message = current.getMessage();
+			if (message != null && message.startsWith(THROTTLED_MESSAGE_PREFIX)) {
+				return true;
+			}
+			if (current.getCause() == current) {
+				break;
+			}
+		}
+		return false;
+	}
+
+}
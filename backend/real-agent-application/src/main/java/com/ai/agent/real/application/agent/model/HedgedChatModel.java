@@ -0,0 +1,314 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.agent.service.ILlmRateGovernor;
+import com.ai.agent.real.contract.model.property.LlmHedgeProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 对冲与故障切换装饰器，包在供应商模型（主端点开启限流时为其限流装饰器）外层
+ * <ul>
+ * <li>对冲：按模型统计 TTFT 分位数，首包超过阈值仍未到达时向备用端点（无可用备用时为同一端点）再发一次请求，先出首包者胜出，另一个被取消。
+ * 发往主端点的对冲请求经过限流装饰器单独申请配额，供应商 429 冷却期内不向主端点对冲</li>
+ * <li>故障切换：端点在首包前失败时立即切到备用端点；连续失败达到阈值后熔断，熔断期间备用端点优先</li>
+ * </ul>
+ * 首包之后的错误不再切换，避免向客户端重复输出
+ *
+ * @author han
+ * @time 2025/11/11 10:20
+ */
+@Slf4j
+public class HedgedChatModel implements ChatModel {
+
+	private final List<Endpoint> endpoints;
+
+	private final LlmHedgeProperties properties;
+
+	private final ILlmRateGovernor governor;
+
+	private final AtomicLong requests = new AtomicLong();
+
+	private final AtomicLong hedges = new AtomicLong();
+
+	private final AtomicLong hedgeWins = new AtomicLong();
+
+	private final AtomicLong failovers = new AtomicLong();
+
+	public HedgedChatModel(ChatModel primary, ChatModel secondary, LlmHedgeProperties properties) {
+		this(primary, secondary, properties, null);
+	}
+
+	/**
+	 * @param primary 主端点
+	 * @param secondary 备用端点，可为 null
+	 * @param properties 对冲配置
+	 * @param governor 主端点的限流器，未开启限流时为 null
+	 */
+	public HedgedChatModel(ChatModel primary, ChatModel secondary, LlmHedgeProperties properties,
+			ILlmRateGovernor governor) {
+		this.properties = properties;
+		this.governor = governor;
+		this.endpoints = new ArrayList<>();
+		this.endpoints.add(new Endpoint("primary", primary, null, properties));
+		if (secondary != null) {
+			this.endpoints
+				.add(new Endpoint("secondary", secondary, properties.getSecondary().getModel(), properties));
+		}
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+		requests.incrementAndGet();
+		RuntimeException last = null;
+		for (Endpoint endpoint : ordered()) {
+			if (last != null) {
+				failovers.incrementAndGet();
+				log.warn("LLM 端点调用失败，切换到 {}: {}", endpoint.name, last.getMessage());
+			}
+			try {
+				return endpoint.call(prompt);
+			}
+			catch (RuntimeException e) {
+				last = e;
+			}
+		}
+		throw last;
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+		return Flux.defer(() -> {
+			requests.incrementAndGet();
+			List<Endpoint> ordered = ordered();
+			Endpoint first = ordered.get(0);
+			Endpoint backup = ordered.size() > 1 ? ordered.get(1) : null;
+			if (backup == null && !properties.isEnabled()) {
+				return first.stream(prompt);
+			}
+			return race(prompt, first, backup != null ? backup : first);
+		});
+	}
+
+	@Override
+	public ChatOptions getDefaultOptions() {
+		return endpoints.get(0).chatModel.getDefaultOptions();
+	}
+
+	public long hedgeCount() {
+		return hedges.get();
+	}
+
+	public long hedgeWinCount() {
+		return hedgeWins.get();
+	}
+
+	public long failoverCount() {
+		return failovers.get();
+	}
+
+	/**
+	 * 首个端点先发；第二个请求在对冲阈值到期或首个端点首包前结束（失败/空响应）时发出，取先出首包者
+	 */
+	private Flux<ChatResponse> race(Prompt prompt, Endpoint first, Endpoint backup) {
+		Sinks.Empty<Void> firstEnded = Sinks.empty();
+		AtomicBoolean firstEmitted = new AtomicBoolean(false);
+		Flux<ChatResponse> primary = first.stream(prompt)
+			.doOnNext(response -> firstEmitted.set(true))
+			.doOnTerminate(firstEnded::tryEmitEmpty);
+
+		// 首个端点无首包就结束：有独立备用端点时立即切换，否则第二路直接结束，由 firstWithValue 抛出原始错误
+		Mono<Boolean> trigger = firstEnded.asMono()
+			.then(Mono.fromSupplier(() -> !firstEmitted.get() && backup != first))
+			.filter(Boolean::booleanValue)
+			.map(ended -> false);
+		boolean hedgeAllowed = properties.isEnabled() && backup.isAvailable() && withinHedgeBudget()
+				&& !isCoolingDown(backup);
+		if (hedgeAllowed) {
+			Duration delay = first.hedgeDelay(prompt);
+			trigger = Mono.firstWithSignal(Mono.delay(delay).thenReturn(true), trigger);
+		}
+
+		Flux<ChatResponse> second = trigger.flatMapMany(hedge -> {
+			if (hedge) {
+				hedges.incrementAndGet();
+				log.debug("首包超过对冲阈值，向 {} 发起对冲请求", backup.name);
+			}
+			else {
+				failovers.incrementAndGet();
+				log.warn("LLM 端点 {} 首包前失败，切换到 {}", first.name, backup.name);
+			}
+			AtomicBoolean counted = new AtomicBoolean(!hedge);
+			return backup.stream(prompt)
+				.doOnNext(response -> {
+					if (counted.compareAndSet(false, true)) {
+						hedgeWins.incrementAndGet();
+					}
+				});
+		});
+
+		return Flux.firstWithValue(primary, second)
+			.onErrorMap(NoSuchElementException.class, HedgedChatModel::unwrap);
+	}
+
+	/**
+	 * 两路都没有输出时 firstWithValue 抛出 NoSuchElementException，原始错误挂在 suppressed（或 cause 的 suppressed）上，
+	 * 还原第一个真实错误给上游
+	 */
+	private static Throwable unwrap(NoSuchElementException error) {
+		List<Throwable> candidates = new ArrayList<>(List.of(error.getSuppressed()));
+		if (error.getCause() != null) {
+			candidates.add(error.getCause());
+			candidates.addAll(List.of(error.getCause().getSuppressed()));
+		}
+		return candidates.stream()
+			.filter(candidate -> !(candidate instanceof NoSuchElementException))
+			.filter(candidate -> candidate.getSuppressed().length == 0)
+			.findFirst()
+			.orElse(error);
+	}
+
+	/**
+	 * 备用端点是受限流的主端点且处在 429 冷却期内
+	 */
+	private boolean isCoolingDown(Endpoint backup) {
+		return governor != null && backup == endpoints.get(0) && governor.isCoolingDown();
+	}
+
+	private boolean withinHedgeBudget() {
+		return hedges.get() < Math.max(1, requests.get() * properties.getMaxHedgeRatio());
+	}
+
+	/**
+	 * 可用端点按配置顺序在前，熔断中的端点排在后面
+	 */
+	private List<Endpoint> ordered() {
+		List<Endpoint> ordered = new ArrayList<>(endpoints.size());
+		endpoints.stream().filter(Endpoint::isAvailable).forEach(ordered::add);
+		endpoints.stream().filter(endpoint -> !endpoint.isAvailable()).forEach(ordered::add);
+		return ordered;
+	}
+
+	/**
+	 * 单个端点：TTFT 统计与健康状态（连续失败熔断）
+	 */
+	private static class Endpoint {
+
+		private final String name;
+
+		private final ChatModel chatModel;
+
+		private final String model;
+
+		private final LlmHedgeProperties properties;
+
+		private final Map<String, TtftTracker> ttft = new ConcurrentHashMap<>();
+
+		private final AtomicLong consecutiveFailures = new AtomicLong();
+
+		private volatile long openUntil;
+
+		private Endpoint(String name, ChatModel chatModel, String model, LlmHedgeProperties properties) {
+			this.name = name;
+			this.chatModel = chatModel;
+			this.model = model;
+			this.properties = properties;
+		}
+
+		private ChatResponse call(Prompt prompt) {
+			try {
+				ChatResponse response = chatModel.call(adapt(prompt));
+				onSuccess();
+				return response;
+			}
+			catch (RuntimeException e) {
+				onFailure(e);
+				throw e;
+			}
+		}
+
+		private Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.defer(() -> {
+				Prompt adapted = adapt(prompt);
+				TtftTracker tracker = tracker(adapted);
+				long start = System.nanoTime();
+				AtomicBoolean received = new AtomicBoolean(false);
+				return chatModel.stream(adapted)
+					.doOnNext(response -> {
+						if (received.compareAndSet(false, true)) {
+							tracker.record(System.nanoTime() - start);
+							onSuccess();
+						}
+					})
+					.doOnError(this::onFailure)
+					.doOnCancel(() -> {
+						if (received.compareAndSet(false, true)) {
+							tracker.record(System.nanoTime() - start);
+						}
+					});
+			});
+		}
+
+		private Duration hedgeDelay(Prompt prompt) {
+			TtftTracker tracker = tracker(adapt(prompt));
+			if (tracker.size() < properties.getMinSamples()) {
+				return properties.getInitialDelay();
+			}
+			Duration delay = tracker.percentile(properties.getPercentile());
+			if (delay.compareTo(properties.getMinDelay()) < 0) {
+				return properties.getMinDelay();
+			}
+			return delay.compareTo(properties.getMaxDelay()) > 0 ? properties.getMaxDelay() : delay;
+		}
+
+		private boolean isAvailable() {
+			return System.currentTimeMillis() >= openUntil;
+		}
+
+		private void onSuccess() {
+			consecutiveFailures.set(0);
+			openUntil = 0;
+		}
+
+		/**
+		 * 熔断到期后放行的试探请求再次失败时，失败次数仍不低于阈值，会立即重新熔断
+		 */
+		private void onFailure(Throwable error) {
+			long failures = consecutiveFailures.incrementAndGet();
+			if (failures >= properties.getFailureThreshold()) {
+				openUntil = System.currentTimeMillis() + properties.getOpenDuration().toMillis();
+				log.warn("LLM 端点 {} 连续失败 {} 次，熔断 {}: {}", name, failures, properties.getOpenDuration(),
+						error.getMessage());
+			}
+		}
+
+		private Prompt adapt(Prompt prompt) {
+			if (model == null) {
+				return prompt;
+			}
+			return prompt.mutate().chatOptions(RoutedChatModel.override(prompt.getOptions(), model, null)).build();
+		}
+
+		private TtftTracker tracker(Prompt prompt) {
+			ChatOptions options = prompt.getOptions();
+			String key = options != null && options.getModel() != null ? options.getModel() : "default";
+			return ttft.computeIfAbsent(key, k -> new TtftTracker(properties.getWindow()));
+		}
+
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.agent.service.ILlmRateGovernor;
+import com.ai.agent.real.contract.agent.service.ILlmScheduler;
+import com.ai.agent.real.contract.model.property.ModelRoutingProperties;
+import com.ai.agent.real.contract.model.property.ModelRoutingProperties.Tier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 模型路由：把阶段映射到模型档位，LLM 调度排队过长或供应商开始限流时自动降档
+ *
+ * @author han
+ * @time 2025/11/10 10:20
+ */
+@Slf4j
+public class ModelRouter {
+
+	private final ModelRoutingProperties properties;
+
+	private final ILlmScheduler scheduler;
+
+	private final ILlmRateGovernor governor;
+
+	private final AtomicLong downgrades = new AtomicLong();
+
+	public ModelRouter(ModelRoutingProperties properties, ILlmScheduler scheduler, ILlmRateGovernor governor) {
+		this.properties = properties;
+		this.scheduler = scheduler;
+		this.governor = governor;
+	}
+
+	/**
+	 * 绑定到指定阶段的模型视图，传入的已是路由视图时替换其绑定阶段，避免两层路由互相覆盖。路由关闭时绑定阶段的视图仍会把阶段写入
+	 * Reactor Context（供缓存等下游按阶段处理），未绑定阶段时直接返回原模型
+	 */
+	public ChatModel forStage(ChatModel chatModel, String stage) {
+		if (!properties.isEnabled() && stage == null) {
+			return chatModel;
+		}
+		if (chatModel instanceof RoutedChatModel routed) {
+			return new RoutedChatModel(routed.getDelegate(), this, stage);
+		}
+		return new RoutedChatModel(chatModel, this, stage);
+	}
+
+	/**
+	 * 解析阶段对应的档位
+	 * @return 档位，未配置时返回 null（保持原有模型）
+	 */
+	public Tier resolve(String stage) {
+		if (!properties.isEnabled()) {
+			return null;
+		}
+		String tierName = stage != null ? properties.getStages().getOrDefault(stage, properties.getDefaultTier())
+				: properties.getDefaultTier();
+		Tier tier = tierName != null ? properties.getTiers().get(tierName) : null;
+		if (tier == null || tier.getDowngradeTo() == null || !underLoad()) {
+			return tier;
+		}
+		Tier downgraded = properties.getTiers().get(tier.getDowngradeTo());
+		if (downgraded == null) {
+			return tier;
+		}
+		downgrades.incrementAndGet();
+		log.debug("高负载降档: stage={}, {} -> {}", stage, tierName, tier.getDowngradeTo());
+		return downgraded;
+	}
+
+	/**
+	 * 降档次数
+	 */
+	public long downgradeCount() {
+		return downgrades.get();
+	}
+
+	private boolean underLoad() {
+		ModelRoutingProperties.Downgrade downgrade = properties.getDowngrade();
+		return scheduler.queued() >= downgrade.getQueueThreshold()
+				|| governor.currentFactor() <= downgrade.getFactorThreshold();
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.model.property.PrefixCacheProperties;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 前缀缓存布局装饰器：各阶段的 Prompt 原本是「阶段专属系统提示（含工具列表）+ 对话历史 + 阶段指令」，前缀随阶段变化，供应商的前缀缓存无法命中。
+ * 开启后改为「公共系统前言 + 对话历史 + 阶段指令 + 阶段专属系统提示」，同一 turn 内各阶段共享前言与只追加的历史这段前缀。
+ * 无论是否开启，都从供应商响应的 usage 中统计缓存命中，便于对比开启前后的效果
+ *
+ * @author han
+ * @time 2025/11/21 10:40
+ */
+public class PrefixCacheChatModel implements ChatModel {
+
+	private final ChatModel delegate;
+
+	private final PrefixCacheProperties properties;
+
+	private final PrefixCacheUsage usage;
+
+	public PrefixCacheChatModel(ChatModel delegate, PrefixCacheProperties properties, PrefixCacheUsage usage) {
+		this.delegate = delegate;
+		this.properties = properties;
+		this.usage = usage;
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+		ChatResponse response = delegate.call(layout(prompt));
+		usage.record(usageOf(response));
+		return response;
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+		return Flux.defer(() -> {
+			// 流式 usage 通常只在最后一个 chunk 给出，取最后一个带 usage 的 chunk
+			AtomicReference<Usage> last = new AtomicReference<>();
+			return delegate.stream(layout(prompt)).doOnNext(response -> {
+				Usage current = usageOf(response);
+				if (current != null && current.getPromptTokens() != null && current.getPromptTokens() > 0) {
+					last.set(current);
+				}
+			}).doOnComplete(() -> usage.record(last.get()));
+		});
+	}
+
+	@Override
+	public ChatOptions getDefaultOptions() {
+		return delegate.getDefaultOptions();
+	}
+
+	/**
+	 * 把开头的阶段专属系统提示移到末尾（以用户消息承载，兼容只允许首条为系统消息的供应商），开头换成公共前言
+	 */
+	Prompt layout(Prompt prompt) {
+		if (!properties.isEnabled()) {
+			return prompt;
+		}
+		List<Message> instructions = prompt.getInstructions();
+		int leading = 0;
+		while (leading < instructions.size() && instructions.get(leading) instanceof SystemMessage) {
+			leading++;
+		}
+		List<Message> messages = new ArrayList<>(instructions.size() + 1);
+		messages.add(new SystemMessage(properties.getPreamble()));
+		messages.addAll(instructions.subList(leading, instructions.size()));
+		if (leading > 0) {
+			StringBuilder stageInstructions = new StringBuilder("<stage_instructions>\n");
+			instructions.subList(0, leading)
+				.forEach(message -> stageInstructions.append(message.getText()).append('\n'));
+			messages.add(new UserMessage(stageInstructions.append("</stage_instructions>").toString()));
+		}
+		return new Prompt(messages, prompt.getOptions());
+	}
+
+	private static Usage usageOf(ChatResponse response) {
+		return response != null && response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+	}
+
+}
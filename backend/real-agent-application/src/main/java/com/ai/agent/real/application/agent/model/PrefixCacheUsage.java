@@ -0,0 +1,106 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.ai.chat.metadata.Usage;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 供应商前缀缓存的命中用量：输入 token 总数与其中命中缓存的 token 数。缓存命中数从供应商原始 usage 中读取，兼容 OpenAI
+ * （prompt_tokens_details.cached_tokens）、DeepSeek（prompt_cache_hit_tokens）与 Anthropic（cache_read_input_tokens）的字段。
+ * 流式调用只有开启 stream-usage 才带 usage，没有 usage 的调用单独计数，避免指标在未开启时静默为 0
+ *
+ * @author han
+ * @time 2025/11/21 10:20
+ */
+public class PrefixCacheUsage {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final AtomicLong calls = new AtomicLong();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong promptTokens = new AtomicLong();
+
+	private final AtomicLong cachedTokens = new AtomicLong();
+
+	private final AtomicLong withoutUsage = new AtomicLong();
+
+	/**
+	 * 记录一次调用的用量，供应商没有返回 usage 时只计入 {@link #withoutUsage()}
+	 */
+	public void record(Usage usage) {
+		if (usage == null || usage.getPromptTokens() == null || usage.getPromptTokens() <= 0) {
+			withoutUsage.incrementAndGet();
+			return;
+		}
+		long cached = cachedTokens(usage.getNativeUsage());
+		calls.incrementAndGet();
+		promptTokens.addAndGet(usage.getPromptTokens());
+		if (cached > 0) {
+			hits.incrementAndGet();
+			cachedTokens.addAndGet(cached);
+		}
+	}
+
+	/**
+	 * 有 usage 的调用次数
+	 */
+	public long calls() {
+		return calls.get();
+	}
+
+	/**
+	 * 供应商没有返回 usage 的调用次数，持续增长说明流式 usage 未开启
+	 */
+	public long withoutUsage() {
+		return withoutUsage.get();
+	}
+
+	/**
+	 * 命中前缀缓存的调用次数
+	 */
+	public long hits() {
+		return hits.get();
+	}
+
+	public long promptTokens() {
+		return promptTokens.get();
+	}
+
+	public long cachedTokens() {
+		return cachedTokens.get();
+	}
+
+	/**
+	 * 输入 token 中命中缓存的比例
+	 */
+	public double hitRatio() {
+		long total = promptTokens.get();
+		return total == 0 ? 0 : (double) cachedTokens.get() / total;
+	}
+
+	static long cachedTokens(Object nativeUsage) {
+		if (nativeUsage == null) {
+			return 0;
+		}
+		JsonNode node;
+		try {
+			node = MAPPER.valueToTree(nativeUsage);
+		}
+		catch (IllegalArgumentException e) {
+			return 0;
+		}
+		for (JsonNode value : new JsonNode[] { node.path("prompt_tokens_details").path("cached_tokens"),
+				node.path("promptTokensDetails").path("cachedTokens"), node.path("prompt_cache_hit_tokens"),
+				node.path("cache_read_input_tokens") }) {
+			if (value.canConvertToLong() && value.asLong() > 0) {
+				return value.asLong();
+			}
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,289 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.infra.redis.IRedisService;
+import com.ai.agent.real.contract.model.llm.LlmCacheHit;
+import com.ai.agent.real.contract.model.property.PromptCacheProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prompt 精确匹配缓存：本地 LRU（带 TTL）为一级，可选 Redis 为集群共享二级。缓存的是流式分片，命中时按原分片回放，
+ * 回放的响应带 {@link LlmCacheHit#METADATA_KEY} 元数据，不计入 turn 预算
+ *
+ * @author han
+ * @time 2025/11/12 09:50
+ */
+@Slf4j
+public class PromptCache {
+
+	private static final TypeReference<List<CachedChunk>> CHUNKS_TYPE = new TypeReference<>() {
+	};
+
+	private final PromptCacheProperties properties;
+
+	private final IRedisService redisService;
+
+	private final ObjectMapper objectMapper;
+
+	private final Map<String, Entry> local;
+
+	private final Map<String, AtomicLong> hits = new ConcurrentHashMap<>();
+
+	private final Map<String, AtomicLong> misses = new ConcurrentHashMap<>();
+
+	public PromptCache(PromptCacheProperties properties, IRedisService redisService, ObjectMapper objectMapper) {
+		this.properties = properties;
+		this.redisService = redisService;
+		this.objectMapper = objectMapper;
+		this.local = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > properties.getMaxEntries();
+			}
+		};
+	}
+
+	/**
+	 * 该阶段是否开启缓存
+	 */
+	public boolean isCacheable(String stage) {
+		return properties.isEnabled() && stage != null && properties.getStages().contains(stage);
+	}
+
+	/**
+	 * 查询缓存，本地未命中时查询 Redis 并回填本地
+	 * @return 未命中时为空
+	 */
+	public Mono<List<CachedChunk>> get(String stage, String key) {
+		List<CachedChunk> cached = getLocal(key);
+		if (cached != null) {
+			counter(hits, stage).incrementAndGet();
+			return Mono.just(cached);
+		}
+		return getRemote(key)
+			.doOnNext(chunks -> {
+				putLocal(key, chunks);
+				counter(hits, stage).incrementAndGet();
+			})
+			.switchIfEmpty(Mono.fromRunnable(() -> counter(misses, stage).incrementAndGet()));
+	}
+
+	public void put(String key, List<CachedChunk> chunks) {
+		putLocal(key, chunks);
+		if (!properties.getRedis().isEnabled()) {
+			return;
+		}
+		Mono.fromCallable(() -> objectMapper.writeValueAsString(chunks))
+			.flatMap(json -> redisService.set(properties.getRedis().getKeyPrefix() + key, json, properties.getTtl()))
+			.subscribe(null, e -> log.warn("[PromptCache] 写入 Redis 失败: key={}", key, e));
+	}
+
+	public long hits(String stage) {
+		return counter(hits, stage).get();
+	}
+
+	public long misses(String stage) {
+		return counter(misses, stage).get();
+	}
+
+	/**
+	 * 计算缓存键：阶段 + 消息（含工具调用与工具结果）+ 工具定义 + 模型选项的 SHA-256
+	 */
+	public static String keyOf(String stage, Prompt prompt) {
+		StringBuilder canonical = new StringBuilder(stage).append('\n');
+		for (Message message : prompt.getInstructions()) {
+			canonical.append(message.getMessageType()).append(':').append(message.getText()).append('\n');
+			if (message instanceof AssistantMessage assistant && assistant.hasToolCalls()) {
+				assistant.getToolCalls()
+					.forEach(call -> canonical.append("call:")
+						.append(call.name())
+						.append(':')
+						.append(call.arguments())
+						.append('\n'));
+			}
+			if (message instanceof ToolResponseMessage toolResponse) {
+				toolResponse.getResponses()
+					.forEach(response -> canonical.append("result:")
+						.append(response.name())
+						.append(':')
+						.append(response.responseData())
+						.append('\n'));
+			}
+		}
+		ChatOptions options = prompt.getOptions();
+		if (options != null) {
+			canonical.append("model:")
+				.append(options.getModel())
+				.append(",temperature:")
+				.append(options.getTemperature())
+				.append(",topP:")
+				.append(options.getTopP())
+				.append(",topK:")
+				.append(options.getTopK())
+				.append(",maxTokens:")
+				.append(options.getMaxTokens())
+				.append(",frequencyPenalty:")
+				.append(options.getFrequencyPenalty())
+				.append(",presencePenalty:")
+				.append(options.getPresencePenalty())
+				.append(",stop:")
+				.append(options.getStopSequences())
+				.append('\n');
+		}
+		if (options instanceof ToolCallingChatOptions toolOptions) {
+			toolOptions.getToolCallbacks()
+				.stream()
+				.map(ToolCallback::getToolDefinition)
+				.sorted(Comparator.comparing(ToolDefinition::name))
+				.forEach(definition -> canonical.append("tool:")
+					.append(definition.name())
+					.append(':')
+					.append(definition.description())
+					.append(':')
+					.append(definition.inputSchema())
+					.append('\n'));
+			canonical.append("toolNames:").append(new TreeSet<>(toolOptions.getToolNames())).append('\n');
+		}
+		return sha256(canonical.toString());
+	}
+
+	private List<CachedChunk> getLocal(String key) {
+		synchronized (local) {
+			Entry entry = local.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.expiresAt < System.currentTimeMillis()) {
+				local.remove(key);
+				return null;
+			}
+			return entry.chunks;
+		}
+	}
+
+	private void putLocal(String key, List<CachedChunk> chunks) {
+		synchronized (local) {
+			local.put(key, new Entry(chunks, System.currentTimeMillis() + properties.getTtl().toMillis()));
+		}
+	}
+
+	private Mono<List<CachedChunk>> getRemote(String key) {
+		if (!properties.getRedis().isEnabled()) {
+			return Mono.empty();
+		}
+		return redisService.get(properties.getRedis().getKeyPrefix() + key)
+			.map(String::valueOf)
+			.flatMap(json -> Mono.fromCallable(() -> objectMapper.readValue(json, CHUNKS_TYPE)))
+			.onErrorResume(e -> {
+				// 缓存读取失败按未命中处理
+				log.warn("[PromptCache] 读取 Redis 失败: key={}", key, e);
+				return Mono.empty();
+			});
+	}
+
+	private static AtomicLong counter(Map<String, AtomicLong> counters, String stage) {
+		return counters.computeIfAbsent(stage, k -> new AtomicLong());
+	}
+
+	private static String sha256(String value) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private record Entry(List<CachedChunk> chunks, long expiresAt) {
+	}
+
+	/**
+	 * 缓存的流式分片：文本、工具调用与结束原因
+	 */
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class CachedChunk {
+
+		private String text;
+
+		private List<CachedToolCall> toolCalls = new ArrayList<>();
+
+		private String finishReason;
+
+		public static CachedChunk from(ChatResponse response) {
+			Generation result = response.getResult();
+			if (result == null) {
+				return null;
+			}
+			AssistantMessage output = result.getOutput();
+			List<CachedToolCall> toolCalls = output.getToolCalls()
+				.stream()
+				.map(call -> new CachedToolCall(call.id(), call.type(), call.name(), call.arguments()))
+				.toList();
+			String finishReason = result.getMetadata() != null ? result.getMetadata().getFinishReason() : null;
+			return new CachedChunk(output.getText(), new ArrayList<>(toolCalls), finishReason);
+		}
+
+		public ChatResponse toResponse() {
+			List<AssistantMessage.ToolCall> calls = toolCalls == null ? List.of()
+					: toolCalls.stream()
+						.map(call -> new AssistantMessage.ToolCall(call.getId(), call.getType(), call.getName(),
+								call.getArguments()))
+						.toList();
+			AssistantMessage message = AssistantMessage.builder().content(text).toolCalls(calls).build();
+			ChatGenerationMetadata metadata = finishReason != null
+					? ChatGenerationMetadata.builder().finishReason(finishReason).build() : ChatGenerationMetadata.NULL;
+			return new ChatResponse(List.of(new Generation(message, metadata)),
+					ChatResponseMetadata.builder().keyValue(LlmCacheHit.METADATA_KEY, true).build());
+		}
+
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class CachedToolCall {
+
+		private String id;
+
+		private String type;
+
+		private String name;
+
+		private String arguments;
+
+	}
+
+}
@@ -0,0 +1,179 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.common.exception.LlmRateLimitedException;
+import com.ai.agent.real.contract.agent.service.ILlmRateGovernor;
+import com.ai.agent.real.contract.infra.redis.IRedisService;
+import com.ai.agent.real.contract.model.llm.LlmPriority;
+import com.ai.agent.real.contract.model.property.LlmGovernorProperties;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 基于 Redis 计数的分布式令牌桶：每个窗口一个 RPM 计数与一个 TPM 计数，所有节点共同递增，
+ * 超出配额时回滚并等待下一个窗口；供应商 429 时乘性缩减配额（AIMD）并写入集群级冷却标记。Redis
+ * 不可用时放行，不影响主流程
+ *
+ * @author han
+ * @time 2025/11/8 10:10
+ */
+@Slf4j
+public class RedisLlmRateGovernor implements ILlmRateGovernor {
+
+	private static final long MAX_JITTER_MILLIS = 250;
+
+	private final IRedisService redisService;
+
+	private final LlmGovernorProperties properties;
+
+	private final Object factorLock = new Object();
+
+	private volatile double factor = 1.0;
+
+	private volatile long lastThrottledAt;
+
+	public RedisLlmRateGovernor(IRedisService redisService, LlmGovernorProperties properties) {
+		this.redisService = redisService;
+		this.properties = properties;
+	}
+
+	@Override
+	public Mono<Long> acquire(LlmPriority priority, long estimatedTokens) {
+		long deadline = System.currentTimeMillis() + properties.getMaxWait().toMillis();
+		return acquire(priority, estimatedTokens, deadline);
+	}
+
+	private Mono<Long> acquire(LlmPriority priority, long tokens, long deadline) {
+		return tryAcquire(priority, tokens).flatMap(attempt -> {
+			Duration wait = attempt.wait();
+			if (wait.isZero()) {
+				return Mono.just(attempt.window());
+			}
+			if (System.currentTimeMillis() + wait.toMillis() > deadline) {
+				log.warn("LLM 配额等待超时: priority={}, tokens={}, factor={}", priority, tokens, factor);
+				return Mono.error(new LlmRateLimitedException("LLM rate limit: 等待调用配额超时"));
+			}
+			log.debug("LLM 配额不足，等待 {}ms: priority={}, tokens={}", wait.toMillis(), priority, tokens);
+			return Mono.delay(wait).then(Mono.defer(() -> acquire(priority, tokens, deadline)));
+		});
+	}
+
+	/**
+	 * 尝试在当前窗口占用配额
+	 * @return 当前窗口与等待时间，等待时间为 Duration.ZERO 表示占用成功，否则为建议的等待时间
+	 */
+	private Mono<Attempt> tryAcquire(LlmPriority priority, long tokens) {
+		long windowMillis = properties.getWindow().toMillis();
+		long now = System.currentTimeMillis();
+		long window = now / windowMillis;
+		Duration untilNextWindow = Duration.ofMillis(windowMillis - now % windowMillis + jitter());
+
+		double share = priority == LlmPriority.INTERACTIVE ? 1.0 : properties.getBackgroundShare();
+		double scale = windowMillis / 60_000.0 * factor * share;
+		long requestLimit = Math.max(1, (long) (properties.getRequestsPerMinute() * scale));
+		long tokenLimit = Math.max(1, (long) (properties.getTokensPerMinute() * scale));
+
+		String requestKey = properties.getKeyPrefix() + ":rpm:" + window;
+		String tokenKey = properties.getKeyPrefix() + ":tpm:" + window;
+		Duration keyTtl = properties.getWindow().multipliedBy(2);
+
+		return redisService.hasKey(cooldownKey()).flatMap(cooling -> {
+			if (Boolean.TRUE.equals(cooling)) {
+				return Mono.just(new Attempt(window, Duration.ofMillis(500 + jitter())));
+			}
+			return redisService.increment(requestKey)
+				.zipWith(redisService.increment(tokenKey, tokens))
+				.flatMap(counts -> {
+					if (counts.getT1() == 1) {
+						redisService.expire(requestKey, keyTtl).subscribe();
+					}
+					if (counts.getT2() == tokens) {
+						redisService.expire(tokenKey, keyTtl).subscribe();
+					}
+					// 单次调用超过整个窗口的 token 配额时，只要窗口内没有其他调用就放行，避免永远等待
+					boolean oversized = tokens >= tokenLimit && counts.getT2() == tokens;
+					if (counts.getT1() <= requestLimit && (counts.getT2() <= tokenLimit || oversized)) {
+						return Mono.just(new Attempt(window, Duration.ZERO));
+					}
+					return redisService.decrement(requestKey)
+						.then(redisService.decrement(tokenKey, tokens))
+						.thenReturn(new Attempt(window, untilNextWindow));
+				});
+		}).onErrorResume(error -> {
+			log.warn("LLM 限流计数失败，放行本次调用: {}", error.getMessage());
+			return Mono.just(new Attempt(window, Duration.ZERO));
+		});
+	}
+
+	/**
+	 * 修正到占用配额的窗口：调用跨窗口结束时，修正当前窗口会让新窗口的配额被旧调用的用量挤占
+	 */
+	@Override
+	public void adjust(long window, long deltaTokens) {
+		if (deltaTokens == 0) {
+			return;
+		}
+		String tokenKey = properties.getKeyPrefix() + ":tpm:" + window;
+		redisService.increment(tokenKey, deltaTokens)
+			.then(redisService.expire(tokenKey, properties.getWindow().multipliedBy(2)))
+			.subscribe(null, error -> log.warn("LLM token 用量修正失败: {}", error.getMessage()));
+	}
+
+	@Override
+	public void onSuccess() {
+		// 冷却期内不恢复，避免刚缩减就反弹造成震荡
+		if (factor >= 1.0
+				|| System.currentTimeMillis() - lastThrottledAt < properties.getThrottleCooldown().toMillis()) {
+			return;
+		}
+		synchronized (factorLock) {
+			factor = Math.min(1.0, factor + properties.getIncreaseStep());
+		}
+	}
+
+	@Override
+	public void onThrottled() {
+		long now = System.currentTimeMillis();
+		synchronized (factorLock) {
+			// 同一冷却期内的多个 429 只缩减一次
+			if (now - lastThrottledAt >= properties.getThrottleCooldown().toMillis()) {
+				factor = Math.max(properties.getMinFactor(), factor * properties.getDecreaseFactor());
+			}
+			lastThrottledAt = now;
+		}
+		log.warn("LLM 供应商限流，配额系数调整为 {}", factor);
+		redisService.setIfAbsent(cooldownKey(), now, properties.getThrottleCooldown())
+			.subscribe(null, error -> log.warn("写入限流冷却标记失败: {}", error.getMessage()));
+	}
+
+	@Override
+	public double currentFactor() {
+		return factor;
+	}
+
+	/**
+	 * 本节点最近收到 429 的冷却期；其他节点收到的 429 只通过 Redis 冷却标记拦截新的配额申请
+	 */
+	@Override
+	public boolean isCoolingDown() {
+		return System.currentTimeMillis() - lastThrottledAt < properties.getThrottleCooldown().toMillis();
+	}
+
+	private String cooldownKey() {
+		return properties.getKeyPrefix() + ":cooldown";
+	}
+
+	private static long jitter() {
+		return ThreadLocalRandom.current().nextLong(MAX_JITTER_MILLIS);
+	}
+
+	/**
+	 * @param window 尝试占用配额的窗口
+	 * @param wait Duration.ZERO 表示占用成功，否则为建议的等待时间
+	 */
+	private record Attempt(long window, Duration wait) {
+	}
+
+}
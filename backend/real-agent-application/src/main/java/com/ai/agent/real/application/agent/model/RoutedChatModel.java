@@ -0,0 +1,127 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.model.llm.LlmOverride;
+import com.ai.agent.real.contract.model.llm.LlmStage;
+import com.ai.agent.real.contract.model.property.ModelRoutingProperties.Tier;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.DefaultChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.DefaultToolCallingChatOptions;
+import reactor.core.publisher.Flux;
+
+/**
+ * 路由装饰器：按阶段改写 Prompt 的模型与输出上限，工具回调等其他选项保持不变。绑定阶段的视图（agent 使用）直接按绑定阶段路由，
+ * 并把阶段写入 Reactor Context；未绑定阶段时从 Reactor Context 读取 {@link LlmStage}（如会话标题生成）。Reactor Context 中的
+ * {@link LlmOverride} 优先于档位
+ *
+ * @author han
+ * @time 2025/11/10 10:40
+ */
+public class RoutedChatModel implements ChatModel {
+
+	private final ChatModel delegate;
+
+	private final ModelRouter router;
+
+	private final String stage;
+
+	public RoutedChatModel(ChatModel delegate, ModelRouter router, String stage) {
+		this.delegate = delegate;
+		this.router = router;
+		this.stage = stage;
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+		return delegate.call(route(prompt, stage, null));
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+		if (stage != null) {
+			return Flux
+				.deferContextual(contextView -> delegate.stream(route(prompt, stage, LlmOverride.from(contextView))))
+				.contextWrite(LlmStage.of(stage));
+		}
+		return Flux.deferContextual(contextView -> delegate
+			.stream(route(prompt, LlmStage.from(contextView), LlmOverride.from(contextView))));
+	}
+
+	ChatModel getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public ChatOptions getDefaultOptions() {
+		return delegate.getDefaultOptions();
+	}
+
+	private Prompt route(Prompt prompt, String stage, LlmOverride llmOverride) {
+		Tier tier = router.resolve(stage);
+		Prompt routed = prompt;
+		if (tier != null) {
+			ChatOptions options = prompt.getOptions();
+			Integer maxTokens = cap(options != null ? options.getMaxTokens() : null, tier.getMaxTokens());
+			routed = prompt.mutate().chatOptions(override(options, tier.getModel(), maxTokens)).build();
+		}
+		if (llmOverride == null || llmOverride.isEmpty()) {
+			return routed;
+		}
+		return routed.mutate()
+			.chatOptions(override(routed.getOptions(), llmOverride.model(), null, llmOverride.temperature()))
+			.build();
+	}
+
+	/**
+	 * 复制原选项并替换模型与输出上限（参数为 null 时保留原值）；工具调用选项原样保留，其他供应商专有选项类型退化为通用选项，
+	 * 专有字段由供应商默认配置补齐
+	 */
+	static ChatOptions override(ChatOptions options, String model, Integer maxTokens) {
+		return override(options, model, maxTokens, null);
+	}
+
+	/**
+	 * 同 {@link #override(ChatOptions, String, Integer)}，额外替换温度
+	 */
+	static ChatOptions override(ChatOptions options, String model, Integer maxTokens, Double temperature) {
+		if (options == null) {
+			return ChatOptions.builder().model(model).maxTokens(maxTokens).temperature(temperature).build();
+		}
+		ChatOptions copy = options.copy();
+		String newModel = model != null ? model : copy.getModel();
+		Integer newMaxTokens = maxTokens != null ? maxTokens : copy.getMaxTokens();
+		Double newTemperature = temperature != null ? temperature : copy.getTemperature();
+		if (copy instanceof DefaultToolCallingChatOptions toolOptions) {
+			toolOptions.setModel(newModel);
+			toolOptions.setMaxTokens(newMaxTokens);
+			toolOptions.setTemperature(newTemperature);
+			return toolOptions;
+		}
+		if (copy instanceof DefaultChatOptions plainOptions) {
+			plainOptions.setModel(newModel);
+			plainOptions.setMaxTokens(newMaxTokens);
+			plainOptions.setTemperature(newTemperature);
+			return plainOptions;
+		}
+		return ChatOptions.builder()
+			.model(newModel)
+			.maxTokens(newMaxTokens)
+			.frequencyPenalty(copy.getFrequencyPenalty())
+			.presencePenalty(copy.getPresencePenalty())
+			.stopSequences(copy.getStopSequences())
+			.temperature(newTemperature)
+			.topK(copy.getTopK())
+			.topP(copy.getTopP())
+			.build();
+	}
+
+	private static Integer cap(Integer current, Integer limit) {
+		if (limit == null) {
+			return current;
+		}
+		return current != null ? Math.min(current, limit) : limit;
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.ai.agent.real.application.agent.model;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * 首包时间（TTFT）滑动窗口，按分位数给出对冲阈值
+ *
+ * @author han
+ * @time 2025/11/11 10:00
+ */
+public class TtftTracker {
+
+	private final long[] samples;
+
+	private int next;
+
+	private int size;
+
+	public TtftTracker(int window) {
+		this.samples = new long[Math.max(1, window)];
+	}
+
+	/**
+	 * 记录一次首包耗时；被对冲取消的请求按已等待时间记录（下界），避免慢请求被取消后分位数持续偏低
+	 */
+	public synchronized void record(long nanos) {
+		samples[next] = nanos;
+		next = (next + 1) % samples.length;
+		size = Math.min(size + 1, samples.length);
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * 计算分位数
+	 * @return 样本为空时返回 null
+	 */
+	public Duration percentile(double percentile) {
+		long[] copy;
+		synchronized (this) {
+			if (size == 0) {
+				return null;
+			}
+			copy = Arrays.copyOf(samples, size);
+		}
+		Arrays.sort(copy);
+		int index = (int) Math.ceil(percentile * copy.length) - 1;
+		return Duration.ofNanos(copy[Math.max(0, Math.min(index, copy.length - 1))]);
+	}
+
+}
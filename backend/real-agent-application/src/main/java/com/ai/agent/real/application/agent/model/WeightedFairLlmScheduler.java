@@ -0,0 +1,179 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.agent.service.ILlmScheduler;
+import com.ai.agent.real.contract.model.property.LlmSchedulerProperties;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 加权公平排队（Self-Clocked Fair Queuing）：每个请求入队时打上完成标签 max(系统虚拟时间, 该流上一个标签) + 1 / 权重，
+ * 槽位空出时总是放行标签最小的请求，系统虚拟时间推进到被放行请求的标签。重度用户连续提交的请求标签越排越远，轻度用户的新请求可以插到前面
+ *
+ * @author han
+ * @time 2025/11/9 14:30
+ */
+@Slf4j
+public class WeightedFairLlmScheduler implements ILlmScheduler {
+
+	private static final int WAITING = 0;
+
+	private static final int DELIVERED = 1;
+
+	private static final int CANCELLED = 2;
+
+	private final LlmSchedulerProperties properties;
+
+	private final Object lock = new Object();
+
+	private final PriorityQueue<Request> queue = new PriorityQueue<>(Comparator
+		.comparingDouble((Request request) -> request.finishTag)
+		.thenComparingLong(request -> request.seq));
+
+	/**
+	 * 每个流最近一个请求的完成标签
+	 */
+	private final Map<String, Double> lastFinishTags = new HashMap<>();
+
+	private double virtualTime;
+
+	private long sequence;
+
+	private int inFlight;
+
+	public WeightedFairLlmScheduler(LlmSchedulerProperties properties) {
+		this.properties = properties;
+	}
+
+	@Override
+	public Mono<Disposable> acquire(String flowKey) {
+		return Mono.defer(() -> {
+			Request request;
+			synchronized (lock) {
+				if (inFlight < properties.getMaxInFlight() && queue.isEmpty()) {
+					inFlight++;
+					return Mono.just(new Slot());
+				}
+				double start = Math.max(virtualTime, lastFinishTags.getOrDefault(flowKey, 0.0));
+				request = new Request(flowKey, start + 1.0 / weightOf(flowKey), sequence++);
+				lastFinishTags.put(flowKey, request.finishTag);
+				queue.add(request);
+			}
+			log.debug("LLM 调用排队: flow={}, finishTag={}", flowKey, request.finishTag);
+			return request.granted.asMono().doOnCancel(() -> abandon(request));
+		});
+	}
+
+	@Override
+	public int inFlight() {
+		synchronized (lock) {
+			return inFlight;
+		}
+	}
+
+	@Override
+	public int queued() {
+		synchronized (lock) {
+			return queue.size();
+		}
+	}
+
+	private double weightOf(String flowKey) {
+		double weight = properties.getWeights().getOrDefault(flowKey, properties.getDefaultWeight());
+		return weight > 0 ? weight : properties.getDefaultWeight();
+	}
+
+	private void release() {
+		List<Request> dispatched = new ArrayList<>();
+		synchronized (lock) {
+			inFlight--;
+			while (inFlight < properties.getMaxInFlight() && !queue.isEmpty()) {
+				Request next = queue.poll();
+				virtualTime = Math.max(virtualTime, next.finishTag);
+				next.dispatched = true;
+				inFlight++;
+				dispatched.add(next);
+			}
+			// 标签已落后于虚拟时间的流不再影响后续标签，清理以免无限增长
+			lastFinishTags.values().removeIf(tag -> tag <= virtualTime);
+		}
+		for (Request request : dispatched) {
+			Slot slot = new Slot();
+			if (!request.state.compareAndSet(WAITING, DELIVERED) || request.granted.tryEmitValue(slot).isFailure()) {
+				// 请求方已取消，槽位立即归还
+				slot.dispose();
+			}
+		}
+	}
+
+	/**
+	 * 排队中的请求被取消：移出队列；已放行但尚未送达的槽位由 release 归还
+	 */
+	private void abandon(Request request) {
+		if (!request.state.compareAndSet(WAITING, CANCELLED)) {
+			return;
+		}
+		synchronized (lock) {
+			if (!request.dispatched) {
+				queue.remove(request);
+			}
+		}
+	}
+
+	private static class Request {
+
+		private final String flowKey;
+
+		private final double finishTag;
+
+		private final long seq;
+
+		private final Sinks.One<Disposable> granted = Sinks.one();
+
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+
+		/**
+		 * 只在 lock 内读写
+		 */
+		private boolean dispatched;
+
+		private Request(String flowKey, double finishTag, long seq) {
+			this.flowKey = flowKey;
+			this.finishTag = finishTag;
+			this.seq = seq;
+		}
+
+	}
+
+	/**
+	 * 调用槽位，dispose 幂等
+	 */
+	private class Slot implements Disposable {
+
+		private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+		@Override
+		public void dispose() {
+			if (disposed.compareAndSet(false, true)) {
+				release();
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return disposed.get();
+		}
+
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.ai.agent.real.application.agent.reuse;
+
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import com.ai.agent.real.contract.model.property.AnswerReuseProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 最终回答复用策略：判断 task_done 的内容能否直接作为最终回答，并记录跳过与回退 FinalAgent 的次数
+ *
+ * @author han
+ * @time 2025/11/17 14:20
+ */
+@Slf4j
+public class AnswerReusePolicy {
+
+	private final AnswerReuseProperties properties;
+
+	private final AtomicLong skips = new AtomicLong();
+
+	private final AtomicLong fallbacks = new AtomicLong();
+
+	public AnswerReusePolicy(AnswerReuseProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * 关闭状态的复用策略，供未配置复用的策略使用
+	 */
+	public static AnswerReusePolicy disabled() {
+		return new AnswerReusePolicy(new AnswerReuseProperties());
+	}
+
+	/**
+	 * ReActPlus 指定模式下是否启用复用
+	 */
+	public boolean appliesTo(AgentMode mode) {
+		return properties.isEnabled() && mode != null && properties.getModes().contains(mode);
+	}
+
+	/**
+	 * 经典 ReAct 策略是否启用复用
+	 */
+	public boolean appliesToReAct() {
+		return properties.isEnabled() && properties.isReAct();
+	}
+
+	/**
+	 * 检查候选回答，只应在已启用复用且任务已标记完成时调用
+	 * @param answer task_done 携带的内容
+	 * @return 达到质量门槛时返回去掉首尾空白的回答，否则为空并计一次回退
+	 */
+	public Optional<String> accept(String answer) {
+		String trimmed = answer == null ? "" : answer.strip();
+		if (trimmed.codePointCount(0, trimmed.length()) < properties.getMinLength()) {
+			fallbacks.incrementAndGet();
+			log.debug("[AnswerReuse] 内容未达质量门槛，交给 FinalAgent: {}", trimmed);
+			return Optional.empty();
+		}
+		skips.incrementAndGet();
+		return Optional.of(trimmed);
+	}
+
+	public long skips() {
+		return skips.get();
+	}
+
+	public long fallbacks() {
+		return fallbacks.get();
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.ai.agent.real.application.agent.speculation;
+
+import com.ai.agent.real.application.utils.ContextUtils;
+import com.ai.agent.real.contract.agent.service.ITaskPreClassifier;
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import com.ai.agent.real.contract.model.property.SpeculationProperties;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.ConnectableFlux;
+import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 模式阶段投机执行：预分类给出的判定未达到直接跳过任务分析的阈值时，在任务分析期间按该判定（模式与核心任务）提前启动模式阶段。
+ * 阶段事件先缓存在重放流中，任务分析判定的模式与核心任务都与投机时一致时提交（重放已产生的事件并继续），否则取消并记录浪费的 token
+ *
+ * @author han
+ * @time 2025/11/15 10:30
+ */
+@Slf4j
+public class ModeSpeculator {
+
+	private final SpeculationProperties properties;
+
+	private final AtomicLong attempts = new AtomicLong();
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong discards = new AtomicLong();
+
+	private final AtomicLong wastedTokens = new AtomicLong();
+
+	public ModeSpeculator(SpeculationProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * 关闭状态的投机执行，供未配置投机执行的策略使用
+	 */
+	public static ModeSpeculator disabled() {
+		return new ModeSpeculator(new SpeculationProperties());
+	}
+
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	public boolean isAllowTools() {
+		return properties.isAllowTools();
+	}
+
+	/**
+	 * 是否按该预分类判定投机：模式允许投机、置信度达到下限且给出了核心任务
+	 */
+	public boolean accepts(ITaskPreClassifier.Prediction prediction) {
+		return isEnabled() && prediction.confidence() >= properties.getMinConfidence()
+				&& properties.getModes().contains(prediction.mode()) && StringUtils.hasText(prediction.realTask());
+	}
+
+	/**
+	 * 启动投机阶段
+	 * @param mode 预分类判定的模式
+	 * @param realTask 预分类判定的核心任务，投机阶段的元数据使用同一个值
+	 * @param stageFlux 在隔离上下文上执行的阶段
+	 * @param promptTokens 阶段输入的估算 token，丢弃时计入浪费
+	 * @param contextView 当前 turn 的 Reactor Context，投机调用沿用其用户与优先级
+	 */
+	public Speculation start(AgentMode mode, String realTask, Flux<AgentExecutionEvent> stageFlux,
+			long promptTokens, ContextView contextView) {
+		attempts.incrementAndGet();
+		AtomicLong generatedTokens = new AtomicLong();
+		ConnectableFlux<AgentExecutionEvent> replay = stageFlux
+			.doOnNext(event -> generatedTokens.addAndGet(ContextUtils.estimateTokens(event.getMessage())))
+			.contextWrite(contextView)
+			.replay();
+		Disposable connection = replay.connect();
+		log.debug("[Speculation] 提前启动 {} 阶段", mode);
+		return new Speculation(mode, realTask, replay, connection, promptTokens, generatedTokens);
+	}
+
+	public long attempts() {
+		return attempts.get();
+	}
+
+	public long hits() {
+		return hits.get();
+	}
+
+	public long discards() {
+		return discards.get();
+	}
+
+	public long wastedTokens() {
+		return wastedTokens.get();
+	}
+
+	/**
+	 * 命中率：提交次数 / 已结算次数
+	 */
+	public double hitRate() {
+		long settled = hits.get() + discards.get();
+		return settled == 0 ? 0 : (double) hits.get() / settled;
+	}
+
+	private static String normalize(String task) {
+		return task == null ? "" : task.replaceAll("\\s+", "").replaceAll("[。！？.!?]+$", "");
+	}
+
+	/**
+	 * 一次投机执行，只能结算一次：提交或丢弃
+	 */
+	public final class Speculation {
+
+		private final AgentMode mode;
+
+		private final String realTask;
+
+		private final Flux<AgentExecutionEvent> events;
+
+		private final Disposable connection;
+
+		private final long promptTokens;
+
+		private final AtomicLong generatedTokens;
+
+		private final AtomicBoolean settled = new AtomicBoolean();
+
+		private Speculation(AgentMode mode, String realTask, Flux<AgentExecutionEvent> events, Disposable connection,
+				long promptTokens, AtomicLong generatedTokens) {
+			this.mode = mode;
+			this.realTask = realTask;
+			this.events = events;
+			this.connection = connection;
+			this.promptTokens = promptTokens;
+			this.generatedTokens = generatedTokens;
+		}
+
+		public AgentMode mode() {
+			return mode;
+		}
+
+		/**
+		 * 投机阶段的输入是否与任务分析后的输入一致：模式相同，且任务分析提取的核心任务与投机时的核心任务相同（忽略空白与句末标点）。
+		 * 任务备注等辅助信息不参与比较
+		 * @param mode 任务分析判定（及负载限制后）的模式
+		 * @param realTask 任务分析提取的核心任务
+		 */
+		public boolean matches(AgentMode mode, String realTask) {
+			return this.mode == mode && StringUtils.hasText(realTask)
+					&& normalize(realTask).equals(normalize(this.realTask));
+		}
+
+		/**
+		 * 提交：重放已产生的事件并继续接收后续事件，下游取消时同时取消投机阶段
+		 */
+		public Flux<AgentExecutionEvent> commit() {
+			if (!settled.compareAndSet(false, true)) {
+				return Flux.empty();
+			}
+			hits.incrementAndGet();
+			log.debug("[Speculation] {} 阶段命中", mode);
+			return events.doOnCancel(connection::dispose);
+		}
+
+		/**
+		 * 丢弃：取消投机阶段，输入与已生成的 token 计入浪费
+		 */
+		public void discard() {
+			if (!settled.compareAndSet(false, true)) {
+				return;
+			}
+			connection.dispose();
+			discards.incrementAndGet();
+			long wasted = promptTokens + generatedTokens.get();
+			wastedTokens.addAndGet(wasted);
+			log.debug("[Speculation] {} 阶段丢弃，浪费约 {} tokens", mode, wasted);
+		}
+
+	}
+
+}
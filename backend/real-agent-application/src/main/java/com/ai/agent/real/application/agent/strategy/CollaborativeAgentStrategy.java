@@ -0,0 +1,270 @@
+package com.ai.agent.real.application.agent.strategy;
+
+import com.ai.agent.real.application.agent.collaborate.TaskDecomposition;
+import com.ai.agent.real.application.agent.collaborate.TaskDecomposition.Subtask;
+import com.ai.agent.real.application.agent.item.FinalAgent;
+import com.ai.agent.real.application.agent.item.reactplus.ThoughtAgent;
+import com.ai.agent.real.application.utils.AgentUtils;
+import com.ai.agent.real.application.utils.FluxUtils;
+import com.ai.agent.real.application.utils.FunctionUtils;
+import com.ai.agent.real.contract.agent.Agent;
+import com.ai.agent.real.contract.agent.IAgentStrategy;
+import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.model.context.ReActAgentContext;
+import com.ai.agent.real.contract.model.logging.TraceInfo;
+import com.ai.agent.real.contract.model.logging.Traceable;
+import com.ai.agent.real.contract.model.message.AgentMessage;
+import com.ai.agent.real.contract.model.property.CollaborativeProperties;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * 协作策略（map-reduce）：ThoughtAgent 先输出带依赖的任务分解，互不依赖的子任务分发给并行的子 agent（隔离上下文、并发数有上限），
+ * 最后由 FinalAgent 合并各子任务结果。子 agent 的工具调用与子任务进度复用到同一条 SSE 流上。分解不出多个子任务时退化为单个子 agent 执行
+ *
+ * @author han
+ * @time 2025/11/19 15:30
+ */
+@Slf4j
+public class CollaborativeAgentStrategy implements IAgentStrategy {
+
+	private static final String DECOMPOSE_PROMPT = """
+			请按「阶段 2：分解与规划」输出执行计划 JSON，tasks 中每个子任务包含 id、description、dependencies、verification_criteria。
+			子任务之间尽量相互独立以便并行执行，只在确实需要前置子任务的结果时声明依赖。本阶段只做分解，不要执行子任务。""";
+
+	private final ThoughtAgent thoughtAgent;
+
+	private final FinalAgent finalAgent;
+
+	/**
+	 * 执行单个子任务的策略
+	 */
+	private final IAgentStrategy workerStrategy;
+
+	/**
+	 * 按 trace 创建子 agent 使用的上下文类型
+	 */
+	private final Function<Traceable, AgentContextAble> workerContextFactory;
+
+	private final CollaborativeProperties properties;
+
+	public CollaborativeAgentStrategy(ThoughtAgent thoughtAgent, FinalAgent finalAgent, IAgentStrategy workerStrategy,
+			Function<Traceable, AgentContextAble> workerContextFactory, CollaborativeProperties properties) {
+		this.thoughtAgent = thoughtAgent;
+		this.finalAgent = finalAgent;
+		this.workerStrategy = workerStrategy;
+		this.workerContextFactory = workerContextFactory;
+		this.properties = properties;
+	}
+
+	@Override
+	public String getDescription() {
+		return "协作策略：任务分解后并行执行子任务，再合并结果";
+	}
+
+	@Override
+	public Flux<AgentExecutionEvent> executeStream(String task, List<Agent> agents, AgentContextAble context) {
+		if (context == null) {
+			return Flux.error(new NullPointerException("context cannot be null"));
+		}
+		if (context.getTurnId() == null) {
+			context.setTurnId(UUID.randomUUID());
+		}
+		if (context.getSessionId() == null) {
+			context.setSessionId(UUID.randomUUID());
+		}
+		List<AgentMessage> priorHistory = new ArrayList<>(context.getMessageHistory());
+		context.addMessage(AgentMessage.user(task, "user"));
+		StringBuilder thought = new StringBuilder();
+
+		return Flux.concat(Flux.just(AgentExecutionEvent.started(context, "协作任务开始执行")),
+				// 1. 任务分解
+				Flux.defer(() -> executeDecompose(task, context, thought)),
+				// 2. 并行执行子任务并合并，分解失败时退化为单个子 agent
+				Flux.defer(() -> {
+					TaskDecomposition decomposition = TaskDecomposition.parse(thought.toString(),
+							properties.getMaxSubtasks());
+					if (decomposition.getSubtasks().size() < 2) {
+						log.info("[Collaborative] 未分解出可并行的子任务，交由单个子 agent 执行");
+						return executeSingle(task, context, priorHistory);
+					}
+					return Flux.concat(executeSubtasks(task, context, decomposition),
+							Flux.defer(() -> executeMerge(task, context)),
+							Flux.just(AgentExecutionEvent.done(context, "协作任务完成"), AgentExecutionEvent.completed()));
+				}));
+	}
+
+	/**
+	 * ThoughtAgent 输出执行计划，分解指令只加在 ThoughtAgent 的上下文副本上
+	 */
+	private Flux<AgentExecutionEvent> executeDecompose(String task, AgentContextAble context, StringBuilder thought) {
+		ReActAgentContext thoughtContext = AgentUtils.createReActAgentContext(context, ThoughtAgent.AGENT_ID);
+		thoughtContext.setMessageHistory(new CopyOnWriteArrayList<>(context.getMessageHistory()));
+		thoughtContext.addMessage(AgentMessage.user(DECOMPOSE_PROMPT, "user"));
+		return Flux.concat(Flux.just(AgentExecutionEvent.progress(context, "正在分解任务...", null)),
+				FluxUtils.stage(thoughtAgent.executeStream(task, thoughtContext), context, ThoughtAgent.AGENT_ID,
+						event -> {
+							if (event.getType() == EventType.THOUGHT && event.getMessage() != null) {
+								thought.append(event.getMessage());
+							}
+						}, () -> log.debug("[Collaborative] 任务分解结束")));
+	}
+
+	/**
+	 * 按依赖分层执行：同一层的子任务并行，层与层之间串行
+	 */
+	private Flux<AgentExecutionEvent> executeSubtasks(String task, AgentContextAble context,
+			TaskDecomposition decomposition) {
+		Map<String, SubtaskResult> results = new ConcurrentHashMap<>();
+		int concurrency = Math.max(1, properties.getMaxAgents());
+		return Flux
+			.concat(Flux.just(AgentExecutionEvent.progress(context,
+					String.format("任务已分解为 %d 个子任务，并行执行中...", decomposition.getSubtasks().size()), null)),
+					Flux.fromIterable(decomposition.levels())
+						.concatMap(level -> Flux.fromIterable(level)
+							.flatMap(subtask -> executeSubtask(task, subtask, results, context), concurrency)))
+			// 子任务结果按分解顺序写入上下文，供合并阶段使用
+			.doOnComplete(() -> context.addMessage(AgentMessage.observing(summarize(decomposition, results),
+					getStrategyName())));
+	}
+
+	/**
+	 * 在隔离上下文中执行单个子任务，只把工具调用与子任务进度转发到父流
+	 */
+	private Flux<AgentExecutionEvent> executeSubtask(String task, Subtask subtask, Map<String, SubtaskResult> results,
+			AgentContextAble context) {
+		return Flux.defer(() -> {
+			AgentContextAble workerContext = newWorkerContext(context);
+			long startNanos = System.nanoTime();
+			Mono<Long> deadline = Mono.delay(properties.getCoordinationTimeout()).cache();
+			Flux<AgentExecutionEvent> forwarded = workerStrategy
+				.executeStream(subtaskPrompt(task, subtask, results), null, workerContext)
+				// 整个子任务的截止时间：放在过滤之前，子 agent 持续输出非工具事件时同样会超时
+				.timeout(deadline, event -> deadline)
+				.filter(event -> event.getType() == EventType.TOOL)
+				.doOnComplete(() -> results.put(subtask.id(), new SubtaskResult(true, finalAnswer(workerContext),
+						Duration.ofNanos(System.nanoTime() - startNanos))))
+				.onErrorResume(error -> {
+					log.warn("[Collaborative] 子任务 {} 失败: {}", subtask.id(), error.toString());
+					results.put(subtask.id(), new SubtaskResult(false, "子任务未完成：" + error,
+							Duration.ofNanos(System.nanoTime() - startNanos)));
+					return Flux.empty();
+				});
+			return Flux.concat(collaborating(context, "[" + subtask.id() + "] 开始：" + subtask.description()),
+					forwarded, Flux.defer(() -> {
+						SubtaskResult result = results.get(subtask.id());
+						String status = result.success() ? "完成" : "失败";
+						return collaborating(context, String.format("[%s] %s，耗时 %.1fs", subtask.id(), status,
+								result.elapsed().toMillis() / 1000.0));
+					}));
+		}).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	/**
+	 * 合并阶段：FinalAgent 基于各子任务结果作答
+	 */
+	private Flux<AgentExecutionEvent> executeMerge(String task, AgentContextAble context) {
+		ReActAgentContext finalContext = AgentUtils.createReActAgentContext(context, FinalAgent.AGENT_ID);
+		return Flux.concat(Flux.just(AgentExecutionEvent.progress(context, "正在合并子任务结果...", null)),
+				FluxUtils.stage(finalAgent.executeStream(task, finalContext), context, FinalAgent.AGENT_ID,
+						FunctionUtils.defaultOnNext(log), () -> context.setTaskCompleted(true)));
+	}
+
+	/**
+	 * 没有可并行的子任务：整个任务交给单个子 agent，直接下发其事件并把新增历史写回（跳过其重复添加的用户消息）
+	 */
+	private Flux<AgentExecutionEvent> executeSingle(String task, AgentContextAble context,
+			List<AgentMessage> priorHistory) {
+		AgentContextAble workerContext = newWorkerContext(context);
+		workerContext.setMessageHistory(new CopyOnWriteArrayList<>(priorHistory));
+		return workerStrategy.executeStream(task, null, workerContext).doOnComplete(() -> {
+			List<AgentMessage> history = workerContext.getMessageHistory();
+			history.subList(Math.min(priorHistory.size(), history.size()), history.size())
+				.stream()
+				.filter(message -> message.getAgentMessageType() != AgentMessage.AgentMessageType.USER)
+				.forEach(context::addMessage);
+			context.setTaskCompleted(workerContext.isTaskCompleted());
+		});
+	}
+
+	private AgentContextAble newWorkerContext(AgentContextAble context) {
+		AgentContextAble workerContext = workerContextFactory.apply(new TraceInfo().setSessionId(context.getSessionId())
+			.setTurnId(context.getTurnId())
+			.setStartTime(OffsetDateTime.now()));
+		workerContext.setMessageHistory(new CopyOnWriteArrayList<>());
+		return workerContext;
+	}
+
+	/**
+	 * 子任务输入：总任务、子任务说明与完成标准，以及直接依赖的子任务结果
+	 */
+	private String subtaskPrompt(String task, Subtask subtask, Map<String, SubtaskResult> results) {
+		StringBuilder prompt = new StringBuilder();
+		prompt.append("总任务：").append(task).append("\n\n");
+		prompt.append("你只需完成其中的子任务（").append(subtask.id()).append("）：").append(subtask.description());
+		if (!subtask.verificationCriteria().isBlank()) {
+			prompt.append("\n完成标准：").append(subtask.verificationCriteria());
+		}
+		for (String dependency : subtask.dependencies()) {
+			SubtaskResult result = results.get(dependency);
+			if (result != null) {
+				prompt.append("\n\n前置子任务（").append(dependency).append("）的结果：\n").append(truncate(result.text()));
+			}
+		}
+		return prompt.toString();
+	}
+
+	private String summarize(TaskDecomposition decomposition, Map<String, SubtaskResult> results) {
+		StringBuilder summary = new StringBuilder("各子任务的执行结果如下：");
+		for (Subtask subtask : decomposition.getSubtasks()) {
+			SubtaskResult result = results.get(subtask.id());
+			summary.append("\n\n### ").append(subtask.id()).append("：").append(subtask.description()).append('\n');
+			summary.append(result != null ? truncate(result.text()) : "子任务未执行");
+		}
+		return summary.toString();
+	}
+
+	private String truncate(String text) {
+		if (text == null) {
+			return "";
+		}
+		int max = properties.getMaxResultLength();
+		return text.length() <= max ? text : text.substring(0, max) + "...";
+	}
+
+	/**
+	 * 子 agent 的最终回答：FinalAgent 写入的最后一条 COMPLETED 消息
+	 */
+	private static String finalAnswer(AgentContextAble context) {
+		List<AgentMessage> history = context.getMessageHistory();
+		for (int i = history.size() - 1; i >= 0; i--) {
+			AgentMessage message = history.get(i);
+			if (message.getAgentMessageType() == AgentMessage.AgentMessageType.COMPLETED) {
+				return message.getText();
+			}
+		}
+		return "子任务没有给出结果";
+	}
+
+	private static Flux<AgentExecutionEvent> collaborating(AgentContextAble context, String message) {
+		return Flux.just(AgentExecutionEvent.common(EventType.COLLABORATING, context, message));
+	}
+
+	private record SubtaskResult(boolean success, String text, Duration elapsed) {
+	}
+
+}
@@ -0,0 +1,264 @@
+package com.ai.agent.real.application.agent.strategy;
+
+import com.ai.agent.real.contract.agent.Agent;
+import com.ai.agent.real.contract.agent.IAgentStrategy;
+import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.model.llm.LlmOverride;
+import com.ai.agent.real.contract.model.logging.TraceInfo;
+import com.ai.agent.real.contract.model.logging.Traceable;
+import com.ai.agent.real.contract.model.message.AgentMessage;
+import com.ai.agent.real.contract.model.property.CompetitiveProperties;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
+import com.ai.agent.real.contract.tool.ToolRestriction;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 竞争策略：同一任务按多套配置（委托策略、模型、温度）并行执行，每个竞争者使用隔离的上下文。第一个通过廉价校验的结果胜出，其余立即取消，
+ * 只向客户端下发胜者的事件，并把胜者的对话历史写回原上下文。适用于对尾延迟敏感的场景：用额外的 token 换更低的 p99。
+ * <p>
+ * 竞争时事件不是流式的：胜负要等竞争者结束、通过校验后才能确定，领先者中途也可能失败或被判不合格，而已下发的事件无法撤回。
+ * 所以每个竞争者的事件先缓冲，客户端在开始时只收到一条「并行执行中」的进度事件，之后直到胜者结束才一次性收到它的全部事件。
+ * 需要逐字输出的场景应关闭竞争（只运行第一个竞争者时直接流式下发）
+ * <p>
+ * 竞争者的上下文是隔离的，但工具的副作用不是：被取消的竞争者可能已经发出请求、写入文件。所以竞争时每个竞争者只能调用系统工具
+ * 与配置的只读工具（{@link CompetitiveProperties.Competitor#getAllowedTools()}），其余工具不执行，模型收到该工具不可用的结果。
+ * 需要有副作用工具的任务不应使用本策略，或关闭竞争只运行第一个竞争者（此时不做限制）
+ *
+ * @author han
+ * @time 2025/11/19 10:30
+ */
+@Slf4j
+public class CompetitiveAgentStrategy implements IAgentStrategy {
+
+	/**
+	 * 可委托的策略：bean 名称 -> 策略与其上下文类型
+	 */
+	private final Map<String, Candidate> candidates;
+
+	private final CompetitiveProperties properties;
+
+	private final AtomicLong races = new AtomicLong();
+
+	private final AtomicLong fallbacks = new AtomicLong();
+
+	private final AtomicLong cancellations = new AtomicLong();
+
+	public CompetitiveAgentStrategy(Map<String, Candidate> candidates, CompetitiveProperties properties) {
+		this.candidates = candidates;
+		this.properties = properties;
+	}
+
+	@Override
+	public String getDescription() {
+		return "竞争策略：多套配置并行执行，取第一个通过校验的结果";
+	}
+
+	@Override
+	public Flux<AgentExecutionEvent> executeStream(String task, List<Agent> agents, AgentContextAble context) {
+		if (context == null) {
+			return Flux.error(new NullPointerException("context cannot be null"));
+		}
+		List<Competitor> competitors = resolveCompetitors();
+		if (competitors.isEmpty()) {
+			return Flux.error(new IllegalStateException("competitive strategy has no available competitor"));
+		}
+		int priorSize = context.getMessageHistory().size();
+		if (!properties.isEnabled() || competitors.size() == 1) {
+			// 不竞争：直接流式下发，不做缓冲
+			Competitor only = competitors.get(0);
+			AgentContextAble isolated = only.isolate(context);
+			return only.execute(task, isolated).doOnComplete(() -> adopt(context, isolated, priorSize));
+		}
+
+		races.incrementAndGet();
+		List<Outcome> rejected = new CopyOnWriteArrayList<>();
+		Mono<Outcome> winner = Flux.merge(competitors.stream().map(c -> compete(task, c, context)).toList())
+			.filter(outcome -> {
+				if (accept(outcome)) {
+					return true;
+				}
+				log.info("[Competitive] 竞争者 {} 未通过校验，耗时 {}ms", outcome.name(), outcome.elapsed().toMillis());
+				rejected.add(outcome);
+				return false;
+			})
+			// 取到第一个通过校验的结果后取消其余竞争者
+			.next()
+			.timeout(properties.getCompetitionTimeout(), Mono.empty())
+			.switchIfEmpty(Mono.defer(() -> fallback(rejected)));
+
+		return Flux.concat(
+				Flux.just(AgentExecutionEvent.progress(context,
+						String.format("%d 个方案并行执行中...", competitors.size()), null)),
+				winner.flatMapMany(outcome -> {
+					log.info("[Competitive] 胜出: {}，耗时 {}ms", outcome.name(), outcome.elapsed().toMillis());
+					adopt(context, outcome.context(), priorSize);
+					return Flux.fromIterable(outcome.events());
+				})
+					.switchIfEmpty(Flux.just(AgentExecutionEvent.error("所有方案均未在限定时间内给出结果"),
+							AgentExecutionEvent.completed())));
+	}
+
+	/**
+	 * 竞争次数
+	 */
+	public long races() {
+		return races.get();
+	}
+
+	/**
+	 * 无结果通过校验、回退到未通过校验结果的次数
+	 */
+	public long fallbacks() {
+		return fallbacks.get();
+	}
+
+	/**
+	 * 被取消的竞争者数
+	 */
+	public long cancellations() {
+		return cancellations.get();
+	}
+
+	/**
+	 * 按配置顺序解析竞争者，跳过未注册的策略
+	 */
+	private List<Competitor> resolveCompetitors() {
+		List<Competitor> competitors = new ArrayList<>();
+		for (CompetitiveProperties.Competitor config : properties.getCompetitors()) {
+			if (competitors.size() >= Math.max(1, properties.getMaxCompetitors())) {
+				break;
+			}
+			Candidate candidate = candidates.get(config.getStrategy());
+			if (candidate == null) {
+				log.warn("[Competitive] 竞争者 {} 的策略 {} 未注册，已忽略", config.getName(), config.getStrategy());
+				continue;
+			}
+			LlmOverride llmOverride = new LlmOverride(config.getModel(), config.getTemperature());
+			competitors.add(new Competitor(config.getName(), candidate, llmOverride,
+					new ToolRestriction(new HashSet<>(config.getAllowedTools()))));
+		}
+		return competitors;
+	}
+
+	/**
+	 * 运行单个竞争者并缓冲其全部事件，结束后才参与胜负判定；异常的竞争者直接出局。竞争者只能调用系统工具与白名单内的只读工具
+	 */
+	private Mono<Outcome> compete(String task, Competitor competitor, AgentContextAble parent) {
+		return Mono.defer(() -> {
+			AgentContextAble isolated = competitor.isolate(parent);
+			long startNanos = System.nanoTime();
+			return competitor.execute(task, isolated)
+				.contextWrite(competitor.toolRestriction().toContext())
+				.collectList()
+				.map(events -> new Outcome(competitor.name(), isolated, events,
+						Duration.ofNanos(System.nanoTime() - startNanos)));
+		}).onErrorResume(error -> {
+			log.warn("[Competitive] 竞争者 {} 执行异常: {}", competitor.name(), error.getMessage());
+			return Mono.empty();
+		}).doOnCancel(() -> {
+			cancellations.incrementAndGet();
+			log.debug("[Competitive] 取消竞争者 {}", competitor.name());
+		}).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	/**
+	 * 廉价校验：没有 ERROR 与 DONEWITHWARNING 事件，且最终回答达到最少字符数
+	 */
+	private boolean accept(Outcome outcome) {
+		boolean degraded = outcome.events()
+			.stream()
+			.anyMatch(event -> event.getType() == EventType.ERROR || event.getType() == EventType.DONEWITHWARNING);
+		if (degraded) {
+			return false;
+		}
+		String answer = finalAnswer(outcome.context());
+		return answer != null && answer.strip().length() >= properties.getMinAnswerLength();
+	}
+
+	/**
+	 * 没有结果通过校验时，回退到最先结束的竞争者
+	 */
+	private Mono<Outcome> fallback(List<Outcome> rejected) {
+		if (rejected.isEmpty()) {
+			return Mono.empty();
+		}
+		fallbacks.incrementAndGet();
+		return Mono.just(rejected.get(0));
+	}
+
+	/**
+	 * 把胜者本 turn 新增的对话历史与完成状态写回原上下文
+	 */
+	private static void adopt(AgentContextAble parent, AgentContextAble winner, int priorSize) {
+		List<AgentMessage> history = winner.getMessageHistory();
+		if (history.size() > priorSize) {
+			parent.addMessages(new ArrayList<>(history.subList(priorSize, history.size())));
+		}
+		parent.setCurrentIteration(winner.getCurrentIteration());
+		parent.setTaskCompleted(winner.isTaskCompleted());
+	}
+
+	/**
+	 * 最终回答：FinalAgent 写入的最后一条 COMPLETED 消息
+	 */
+	private static String finalAnswer(AgentContextAble context) {
+		List<AgentMessage> history = context.getMessageHistory();
+		for (int i = history.size() - 1; i >= 0; i--) {
+			AgentMessage message = history.get(i);
+			if (message.getAgentMessageType() == AgentMessage.AgentMessageType.COMPLETED) {
+				return message.getText();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * 可委托的策略
+	 * @param strategy 策略实例
+	 * @param contextFactory 按 trace 创建该策略使用的上下文类型
+	 */
+	public record Candidate(IAgentStrategy strategy, Function<Traceable, AgentContextAble> contextFactory) {
+	}
+
+	private record Competitor(String name, Candidate candidate, LlmOverride llmOverride,
+			ToolRestriction toolRestriction) {
+
+		/**
+		 * 隔离的上下文：沿用会话与 turn 标识，复制历史，执行中的写入互不可见
+		 */
+		AgentContextAble isolate(AgentContextAble parent) {
+			AgentContextAble isolated = candidate.contextFactory()
+				.apply(new TraceInfo().setSessionId(parent.getSessionId())
+					.setTurnId(parent.getTurnId())
+					.setStartTime(OffsetDateTime.now()));
+			isolated.setMessageHistory(new CopyOnWriteArrayList<>(parent.getMessageHistory()));
+			isolated.setTask(parent.getTask());
+			return isolated;
+		}
+
+		Flux<AgentExecutionEvent> execute(String task, AgentContextAble isolated) {
+			Flux<AgentExecutionEvent> events = candidate.strategy().executeStream(task, null, isolated);
+			return llmOverride.isEmpty() ? events : events.contextWrite(llmOverride.toContext());
+		}
+
+	}
+
+	private record Outcome(String name, AgentContextAble context, List<AgentExecutionEvent> events,
+			Duration elapsed) {
+	}
+
+}
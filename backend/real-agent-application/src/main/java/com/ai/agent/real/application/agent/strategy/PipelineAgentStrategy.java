@@ -0,0 +1,200 @@
+package com.ai.agent.real.application.agent.strategy;
+
+import com.ai.agent.real.application.utils.AgentUtils;
+import com.ai.agent.real.application.utils.FluxUtils;
+import com.ai.agent.real.contract.agent.Agent;
+import com.ai.agent.real.contract.agent.IAgentStrategy;
+import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.model.context.ReActAgentContext;
+import com.ai.agent.real.contract.model.message.AgentMessage;
+import com.ai.agent.real.contract.model.property.PipelineProperties;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 流水线策略：按配置顺序串联 agent，上游阶段的输出交给下游阶段。与 Flux.concat 逐个等待不同，上游输出一出现分界标记（如计划段落写完），
+ * 下游即以标记之前的内容启动，与上游剩余的输出重叠执行。每个阶段有独立的超时，失败时按 FAIL_FAST 终止或按 CONTINUE 带着已有输出继续
+ *
+ * @author han
+ * @time 2025/11/20 15:30
+ */
+@Slf4j
+public class PipelineAgentStrategy implements IAgentStrategy {
+
+	/**
+	 * 计入阶段输出的事件类型
+	 */
+	private static final Set<EventType> OUTPUT_TYPES = EnumSet.of(EventType.THOUGHT, EventType.THINKING,
+			EventType.ACTING, EventType.OBSERVING, EventType.PARTIAL_RESULT);
+
+	/**
+	 * 可编排的 agent：agentId -> agent
+	 */
+	private final Map<String, Agent> agents = new LinkedHashMap<>();
+
+	private final PipelineProperties properties;
+
+	public PipelineAgentStrategy(List<Agent> agents, PipelineProperties properties) {
+		agents.forEach(agent -> this.agents.putIfAbsent(agent.getAgentId(), agent));
+		this.properties = properties;
+	}
+
+	@Override
+	public String getDescription() {
+		return "流水线策略：按声明顺序串联 agent，下游在上游输出到达分界标记时提前启动";
+	}
+
+	/**
+	 * @param agents 指定时按给定顺序串联（无分界标记，使用默认超时），否则按配置的阶段执行
+	 */
+	@Override
+	public Flux<AgentExecutionEvent> executeStream(String task, List<Agent> agents, AgentContextAble context) {
+		if (context == null) {
+			return Flux.error(new NullPointerException("context cannot be null"));
+		}
+		List<Stage> stages = resolveStages(agents);
+		if (stages.isEmpty()) {
+			return Flux.error(new IllegalStateException("pipeline strategy has no available stage"));
+		}
+		if (context.getTurnId() == null) {
+			context.setTurnId(UUID.randomUUID());
+		}
+		if (context.getSessionId() == null) {
+			context.setSessionId(UUID.randomUUID());
+		}
+		context.addMessage(AgentMessage.user(task, "user"));
+		AtomicBoolean degraded = new AtomicBoolean();
+
+		return Flux
+			.concat(Flux.just(AgentExecutionEvent.started(context, "流水线任务开始执行")),
+					executeStage(task, stages, 0, null, context, degraded), Flux.defer(() -> Flux.just(
+							degraded.get() ? AgentExecutionEvent.doneWithWarning(context, "流水线任务完成，部分阶段失败")
+									: AgentExecutionEvent.done(context, "流水线任务完成"),
+							AgentExecutionEvent.completed())))
+			.onErrorResume(error -> {
+				log.warn("[Pipeline] 流水线终止: {}", error.getMessage());
+				return Flux.just(AgentExecutionEvent.error(error.getMessage()), AgentExecutionEvent.completed());
+			});
+	}
+
+	/**
+	 * 执行第 index 个阶段。下游阶段等到本阶段输出出现分界标记（未配置或未出现时等到本阶段结束）才启动，之后两者的事件合并下发
+	 * @param upstream 上游交接的输出，第一个阶段为 null
+	 */
+	private Flux<AgentExecutionEvent> executeStage(String task, List<Stage> stages, int index, Handoff upstream,
+			AgentContextAble context, AtomicBoolean degraded) {
+		Stage stage = stages.get(index);
+		String agentId = stage.agent().getAgentId();
+		boolean last = index == stages.size() - 1;
+
+		// 阶段在上下文副本上执行，上游输出只加在副本上；阶段结束后由 FluxUtils.stage 把本阶段输出写回原上下文
+		ReActAgentContext stageContext = AgentUtils.createReActAgentContext(context, agentId);
+		stageContext.setMessageHistory(new CopyOnWriteArrayList<>(context.getMessageHistory()));
+		if (upstream != null && !upstream.text().isBlank()) {
+			stageContext
+				.addMessage(AgentMessage.observing("上一阶段（" + upstream.agentId() + "）的输出：\n" + upstream.text(),
+						upstream.agentId()));
+		}
+
+		Sinks.One<Handoff> handoff = Sinks.one();
+		StringBuilder output = new StringBuilder();
+		AtomicBoolean failed = new AtomicBoolean();
+		Mono<Long> deadline = Mono.delay(stage.timeout()).cache();
+
+		Flux<AgentExecutionEvent> events = FluxUtils
+			.stage(stage.agent().executeStream(task, stageContext), context, agentId, event -> {
+				if (event.getType() == EventType.ERROR) {
+					failed.set(true);
+				}
+				if (!last && OUTPUT_TYPES.contains(event.getType()) && event.getMessage() != null) {
+					output.append(event.getMessage());
+					int at = stage.boundary() == null ? -1 : output.indexOf(stage.boundary());
+					if (at >= 0 && handoff.tryEmitValue(new Handoff(agentId, output.substring(0, at))).isSuccess()) {
+						log.debug("[Pipeline] 阶段 {} 输出到达分界标记，提前启动下游阶段", agentId);
+					}
+				}
+			}, null)
+			// 整个阶段的超时：首个事件与之后每个事件都等待同一个截止时间
+			.timeout(deadline, event -> deadline)
+			.concatWith(Flux.defer(() -> failed.get() ? Flux.error(new IllegalStateException("执行出错")) : Flux.empty()))
+			.doOnComplete(() -> {
+				handoff.tryEmitValue(new Handoff(agentId, output.toString()));
+				if (last) {
+					context.setTaskCompleted(true);
+				}
+			})
+			.onErrorResume(error -> {
+				String reason = error instanceof TimeoutException
+						? String.format("超过 %ds 未完成", stage.timeout().toSeconds()) : error.getMessage();
+				if (properties.getFailureStrategy() == PipelineProperties.FailureStrategy.FAIL_FAST) {
+					return Flux.error(new IllegalStateException("流水线阶段 " + agentId + " 失败：" + reason, error));
+				}
+				log.warn("[Pipeline] 阶段 {} 失败，按 CONTINUE 继续执行后续阶段: {}", agentId, reason);
+				degraded.set(true);
+				handoff.tryEmitValue(new Handoff(agentId, output.toString()));
+				return Flux.just(AgentExecutionEvent.progress(context,
+						String.format("阶段 %s 失败（%s），继续执行后续阶段", agentId, reason), null));
+			});
+		if (last) {
+			return events;
+		}
+		return Flux.merge(events, handoff.asMono()
+			.flatMapMany(next -> executeStage(task, stages, index + 1, next, context, degraded)));
+	}
+
+	/**
+	 * 解析阶段：显式传入的 agent 优先，否则按配置解析并跳过未注册的 agent
+	 */
+	private List<Stage> resolveStages(List<Agent> agents) {
+		List<Stage> stages = new ArrayList<>();
+		int maxStages = Math.max(1, properties.getMaxStages());
+		if (agents != null && !agents.isEmpty()) {
+			agents.stream()
+				.limit(maxStages)
+				.forEach(agent -> stages.add(new Stage(agent, null, properties.getStageTimeout())));
+			return stages;
+		}
+		for (PipelineProperties.Stage config : properties.getStages()) {
+			if (stages.size() >= maxStages) {
+				log.warn("[Pipeline] 阶段数超过上限 {}，其余阶段已忽略", maxStages);
+				break;
+			}
+			Agent agent = this.agents.get(config.getAgent());
+			if (agent == null) {
+				log.warn("[Pipeline] 阶段 agent {} 未注册，已忽略", config.getAgent());
+				continue;
+			}
+			String boundary = config.getBoundary() == null || config.getBoundary().isEmpty() ? null
+					: config.getBoundary();
+			Duration timeout = config.getTimeout() != null ? config.getTimeout() : properties.getStageTimeout();
+			stages.add(new Stage(agent, boundary, timeout));
+		}
+		return stages;
+	}
+
+	private record Stage(Agent agent, String boundary, Duration timeout) {
+	}
+
+	/**
+	 * 上游交给下游的输出
+	 */
+	private record Handoff(String agentId, String text) {
+	}
+
+}
@@ -4,20 +4,32 @@ import com.ai.agent.real.application.agent.item.ActionAgent;
 import com.ai.agent.real.application.agent.item.FinalAgent;
 import com.ai.agent.real.application.agent.item.ObservationAgent;
 import com.ai.agent.real.application.agent.item.ThinkingAgent;
+import com.ai.agent.real.application.agent.loop.LoopDetector;
+import com.ai.agent.real.application.agent.reuse.AnswerReusePolicy;
 import com.ai.agent.real.application.utils.AgentUtils;
+import com.ai.agent.real.application.utils.ContextUtils;
 import com.ai.agent.real.application.utils.FluxUtils;
+import com.ai.agent.real.application.utils.LeadingSectionSplitter;
 import com.ai.agent.real.common.utils.*;
 import com.ai.agent.real.contract.agent.Agent;
 import com.ai.agent.real.contract.agent.IAgentStrategy;
 import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.context.TurnBudget;
 import com.ai.agent.real.contract.model.message.*;
+import com.ai.agent.real.contract.model.property.ReActProperties;
+import com.ai.agent.real.contract.model.property.TurnBudgetProperties;
 import com.ai.agent.real.contract.model.protocol.*;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
 import com.ai.agent.real.contract.tool.IToolService;
 import com.ai.agent.real.contract.model.context.ReActAgentContext;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.extern.slf4j.*;
 import reactor.core.publisher.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * ReAct框架实现：Reasoning and Acting 实现思考-行动-观察的循环推理模式
@@ -40,13 +52,33 @@ public class ReActAgentStrategy implements IAgentStrategy {
 
 	private final IToolService toolService;
 
-	public ReActAgentStrategy(ThinkingAgent thinkingAgent, ActionAgent actionAgent, ObservationAgent observationAgent,
-			FinalAgent finalAgent, IToolService toolService) {
-		this.thinkingAgent = thinkingAgent;
-		this.actionAgent = actionAgent;
-		this.observationAgent = observationAgent;
-		this.finalAgent = finalAgent;
-		this.toolService = toolService;
+	private final ReActProperties properties;
+
+	/**
+	 * 最终回答复用，task_done 内容已是完整回答时跳过 FinalAgent
+	 */
+	private final AnswerReusePolicy answerReusePolicy;
+
+	/**
+	 * 迭代死循环检测，重复的工具调用或思考先提示纠正，持续重复则提前结束
+	 */
+	private final LoopDetector loopDetector;
+
+	/**
+	 * 单个 turn 的预算（墙钟、LLM 调用次数、token），接近耗尽时跳过剩余阶段直接总结
+	 */
+	private final TurnBudgetProperties turnBudgetProperties;
+
+	public ReActAgentStrategy(Dependencies dependencies) {
+		this.thinkingAgent = dependencies.getThinkingAgent();
+		this.actionAgent = dependencies.getActionAgent();
+		this.observationAgent = dependencies.getObservationAgent();
+		this.finalAgent = dependencies.getFinalAgent();
+		this.toolService = dependencies.getToolService();
+		this.properties = dependencies.getProperties();
+		this.answerReusePolicy = dependencies.getAnswerReusePolicy();
+		this.loopDetector = dependencies.getLoopDetector();
+		this.turnBudgetProperties = dependencies.getTurnBudgetProperties();
 	}
 
 	/**
@@ -80,6 +112,9 @@ public class ReActAgentStrategy implements IAgentStrategy {
 
 		// fixme: 这里的 userId 后面可能要修复一下
 		context.addMessage(AgentMessage.user(userInput, "user"));
+		context.setTurnBudget(TurnBudget.start(turnBudgetProperties));
+		AtomicReference<String> doneAnswer = new AtomicReference<>();
+		LoopDetector.Tracker loop = loopDetector.newTracker(MAX_ITERATIONS);
 
 		return Flux.concat(
 				// 发送开始事件（携带上下文trace信息）
@@ -87,19 +122,25 @@ public class ReActAgentStrategy implements IAgentStrategy {
 
 				// 执行ReAct循环
 				Flux.range(1, MAX_ITERATIONS)
-					.concatMap(iteration -> executeReActIteration(userInput, context, iteration))
+					.concatMap(iteration -> executeCheckedIteration(userInput, context, iteration, loop))
 					// 结束条件：收到DONE事件 或
-					// 已由上下文标记任务完成（例如ObservationAgent调用task_done后设置的标记）
-					.takeUntil(event -> context.isTaskCompleted())
+					// 已由上下文标记任务完成（例如ObservationAgent调用task_done后设置的标记），或检测到死循环
+					.takeUntil(event -> context.isTaskCompleted() || loop.isTerminated())
+					.doOnNext(rememberDoneAnswer(doneAnswer))
 					.onErrorResume(error -> {
 						log.error("ReAct流式执行异常", error);
 						return Flux.just(AgentExecutionEvent.error(error));
 					}),
-				// 收尾：始终保留 FinalAgent 总结，然后由 FinalAgent 阶段发出 DONE/DONEWITHWARNING
-				Flux.defer(() -> finalAgent
-					.executeStream(userInput, AgentUtils.createReActAgentContext(context, FinalAgent.AGENT_ID))
-					.transform(FluxUtils.handleContext(context, FinalAgent.AGENT_ID))
+				// 收尾：FinalAgent 总结（task_done 内容可复用时直接下发），然后发出 DONE/DONEWITHWARNING
+				Flux.defer(() -> executeFinalStage(userInput, context, doneAnswer.get())
 					.concatWith(Flux.defer(() -> {
+						String budgetWarning = ContextUtils.budgetWarning(context);
+						if (budgetWarning != null) {
+							return Flux.just(AgentExecutionEvent.doneWithWarning(context, budgetWarning));
+						}
+						if (!context.isTaskCompleted() && loop.isTerminated()) {
+							return Flux.just(AgentExecutionEvent.doneWithWarning(context, loop.getWarning()));
+						}
 						if (!context.isTaskCompleted()) {
 							return Flux.just(AgentExecutionEvent.doneWithWarning(context,
 									"达到最大迭代次数 " + MAX_ITERATIONS + "，任务未完成"));
@@ -115,17 +156,18 @@ public class ReActAgentStrategy implements IAgentStrategy {
 	 */
 	private Flux<AgentExecutionEvent> continueNextIteration(String task, ReActAgentContext context, int iteration) {
 		log.info("继续执行剩余迭代: currentIteration={}", iteration);
+		AtomicReference<String> doneAnswer = new AtomicReference<>();
+		LoopDetector.Tracker loop = loopDetector.newTracker(MAX_ITERATIONS);
 
 		return Flux.concat(
 				// 继续执行剩余的迭代
 				Flux.range(iteration + 1, MAX_ITERATIONS - iteration)
-					.concatMap(nextIter -> executeReActIteration(task, context, nextIter))
-					.takeUntil(event -> context.isTaskCompleted()),
+					.concatMap(nextIter -> executeCheckedIteration(task, context, nextIter, loop))
+					.takeUntil(event -> context.isTaskCompleted() || loop.isTerminated())
+					.doOnNext(rememberDoneAnswer(doneAnswer)),
 
 				// 最终总结
-				Flux.defer(() -> finalAgent
-					.executeStream(task, AgentUtils.createReActAgentContext(context, FinalAgent.AGENT_ID))
-					.transform(FluxUtils.handleContext(context, FinalAgent.AGENT_ID))))
+				Flux.defer(() -> executeFinalStage(task, context, doneAnswer.get())))
 			.concatWith(Flux.just(AgentExecutionEvent.completed()));
 	}
 
@@ -150,6 +192,10 @@ public class ReActAgentStrategy implements IAgentStrategy {
 				Flux.defer(() -> {
 					ReActAgentContext thinkingCtx = AgentUtils.createReActAgentContext(context, ThinkingAgent.AGENT_ID);
 					log.debug("[ITERATION {}] 构建思考阶段上下文 | {}", iteration, AgentUtils.snapshot(thinkingCtx));
+					if (properties.isFoldObservation() && iteration > 1) {
+						// 上一轮省去了观察阶段，由本轮思考先输出观察段落
+						return executeFoldedThinking(userInput, context, thinkingCtx, iteration);
+					}
 					// 注意：思考阶段不需要工具审批回调，因为它不执行工具
 					return FluxUtils.stage(thinkingAgent.executeStream(userInput, thinkingCtx), context,
 							ThinkingAgent.AGENT_ID,
@@ -164,6 +210,9 @@ public class ReActAgentStrategy implements IAgentStrategy {
 
 				// 2. 行动阶段（封装：上下文合并 + 日志回调 + 工具审批回调）
 				Flux.defer(() -> {
+					if (ContextUtils.isBudgetNearlySpent(context)) {
+						return ContextUtils.skipForBudget(context);
+					}
 					// 此时 context 已包含思考阶段写回的历史
 					ReActAgentContext actionCtx = AgentUtils.createReActAgentContext(context, ActionAgent.AGENT_ID);
 					log.debug("[ITERATION {}] 构建行动阶段上下文 | {}", iteration, AgentUtils.snapshot(actionCtx));
@@ -181,6 +230,14 @@ public class ReActAgentStrategy implements IAgentStrategy {
 
 				// 3. 观察阶段（封装：先过滤DONE，再应用上下文合并与日志回调）
 				Flux.defer(() -> {
+					if (ContextUtils.isBudgetNearlySpent(context)) {
+						return ContextUtils.skipForBudget(context);
+					}
+					// 折叠观察：除最后一轮与任务已标记完成（需要核验 task_done）外，观察交给下一轮思考
+					if (properties.isFoldObservation() && iteration < MAX_ITERATIONS && !context.isTaskCompleted()) {
+						log.debug("[ITERATION {}] 观察阶段折叠到下一轮思考", iteration);
+						return Flux.empty();
+					}
 					// 此时 context 已包含行动阶段写回的历史
 					ReActAgentContext observingCtx = AgentUtils.createReActAgentContext(context,
 							ObservationAgent.AGENT_ID);
@@ -199,4 +256,107 @@ public class ReActAgentStrategy implements IAgentStrategy {
 		);
 	}
 
+	/**
+	 * 执行单次迭代并做死循环检测：已终止或预算接近耗尽时跳过，结束后判定是否重复
+	 */
+	private Flux<AgentExecutionEvent> executeCheckedIteration(String task, ReActAgentContext context, int iteration,
+			LoopDetector.Tracker loop) {
+		if (loop.isTerminated()) {
+			return Flux.empty();
+		}
+		if (ContextUtils.isBudgetNearlySpent(context)) {
+			return ContextUtils.skipForBudget(context);
+		}
+		return Flux.concat(executeReActIteration(task, context, iteration).doOnNext(loop::observe),
+				Flux.defer(() -> loop.afterIteration(context, iteration)));
+	}
+
+	/**
+	 * 总结阶段：task_done 内容可复用时以 FinalAgent 的身份直接下发并写入上下文，否则由 FinalAgent 生成
+	 * @param doneAnswer task_done 携带的内容，未调用时为 null
+	 */
+	private Flux<AgentExecutionEvent> executeFinalStage(String task, ReActAgentContext context, String doneAnswer) {
+		ReActAgentContext finalCtx = AgentUtils.createReActAgentContext(context, FinalAgent.AGENT_ID);
+		Optional<String> reused = Optional.empty();
+		if (doneAnswer != null && context.isTaskCompleted() && answerReusePolicy.appliesToReAct()) {
+			reused = answerReusePolicy.accept(doneAnswer);
+		}
+		if (reused.isPresent()) {
+			log.info("复用 task_done 内容作为最终回答，跳过 FinalAgent");
+			return Flux.just(AgentExecutionEvent.common(EventType.ACTING, finalCtx, reused.get()))
+				.transform(FluxUtils.handleContext(context, FinalAgent.AGENT_ID));
+		}
+		return finalAgent.executeStream(task, finalCtx)
+			.transform(FluxUtils.handleContext(context, FinalAgent.AGENT_ID));
+	}
+
+	/**
+	 * 记录 task_done 携带的内容（DONE 事件）
+	 */
+	private static Consumer<AgentExecutionEvent> rememberDoneAnswer(AtomicReference<String> doneAnswer) {
+		return event -> {
+			if (event.getType() == EventType.DONE) {
+				doneAnswer.set(event.getMessage());
+			}
+		};
+	}
+
+	/**
+	 * 折叠观察的思考阶段：输出开头的观察段落拆分为 OBSERVING 事件并写入观察消息，其余部分按思考阶段处理
+	 */
+	private Flux<AgentExecutionEvent> executeFoldedThinking(String userInput, ReActAgentContext context,
+			ReActAgentContext thinkingCtx, int iteration) {
+		ReActAgentContext observingCtx = AgentUtils.createReActAgentContext(context, ObservationAgent.AGENT_ID);
+		Flux<AgentExecutionEvent> folded = LeadingSectionSplitter.split(
+				thinkingAgent.executeStreamWithObservation(userInput, thinkingCtx), ThinkingAgent.OBSERVATION_TAG,
+				EventType.OBSERVING, observingCtx);
+		context.setCurrentIteration(context.getCurrentIteration() + 1);
+
+		// 两个分支按订阅顺序完成：先写入观察消息，再写入思考消息，与未折叠时的历史顺序一致
+		StringBuilder observation = new StringBuilder();
+		return folded.publish(events -> Flux.merge(events.filter(evt -> evt.getType() == EventType.OBSERVING)
+			.doOnNext(evt -> observation.append(evt.getMessage()))
+			.doOnComplete(() -> {
+				if (!observation.isEmpty()) {
+					context.addMessage(AgentMessage.observing(observation.toString(), ObservationAgent.AGENT_ID));
+				}
+			}),
+				events.filter(evt -> evt.getType() != EventType.OBSERVING)
+					.transform(FluxUtils.handleContext(context, ThinkingAgent.AGENT_ID))))
+			.doOnNext(evt -> log.debug("[EVT/THINK/{}] type={}, msg={}...", iteration, evt.getType(),
+					AgentUtils.safeHead(evt.getMessage(), 256)))
+			.doOnComplete(() -> log.info("观察与思考阶段结束: {}", context.getMessageHistory()));
+	}
+
+	/**
+	 * 构造依赖：各阶段 agent 与工具服务必填，可选组件不设置时使用关闭状态的默认实现
+	 */
+	@Getter
+	@Builder
+	public static class Dependencies {
+
+		private final ThinkingAgent thinkingAgent;
+
+		private final ActionAgent actionAgent;
+
+		private final ObservationAgent observationAgent;
+
+		private final FinalAgent finalAgent;
+
+		private final IToolService toolService;
+
+		@Builder.Default
+		private final ReActProperties properties = new ReActProperties();
+
+		@Builder.Default
+		private final AnswerReusePolicy answerReusePolicy = AnswerReusePolicy.disabled();
+
+		@Builder.Default
+		private final LoopDetector loopDetector = LoopDetector.disabled();
+
+		@Builder.Default
+		private final TurnBudgetProperties turnBudgetProperties = new TurnBudgetProperties();
+
+	}
+
 }
@@ -1,7 +1,14 @@
 package com.ai.agent.real.application.agent.strategy;
 
+import com.ai.agent.real.application.agent.cache.SemanticAnswerCache;
+import com.ai.agent.real.application.agent.classify.TaskPreClassifier;
 import com.ai.agent.real.application.agent.item.FinalAgent;
 import com.ai.agent.real.application.agent.item.reactplus.*;
+import com.ai.agent.real.application.agent.loop.LoopDetector;
+import com.ai.agent.real.application.agent.reuse.AnswerReusePolicy;
+import com.ai.agent.real.application.agent.speculation.ModeSpeculator;
+import com.ai.agent.real.application.agent.turn.TurnCheckpointService;
+import com.ai.agent.real.application.utils.CheckpointUtils;
 import com.ai.agent.real.application.utils.ContextUtils;
 import com.ai.agent.real.application.utils.AgentUtils;
 import com.ai.agent.real.application.utils.FluxUtils;
@@ -10,23 +17,50 @@ import com.ai.agent.real.common.utils.CommonUtils;
 import com.ai.agent.real.contract.agent.Agent;
 import com.ai.agent.real.contract.agent.IAgentStrategy;
 import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.context.ResumePoint;
+import com.ai.agent.real.contract.agent.context.ResumePoint.ReActStage;
+import com.ai.agent.real.contract.agent.context.TurnBudget;
 import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
+import com.ai.agent.real.contract.agent.service.IAnswerCache;
+import com.ai.agent.real.contract.agent.service.ITaskPreClassifier;
+import com.ai.agent.real.contract.agent.service.ITurnCheckpointService;
+import com.ai.agent.real.contract.model.interaction.InteractionAction;
+import com.ai.agent.real.contract.model.interaction.InteractionRequest;
 import com.ai.agent.real.contract.model.interaction.InteractionResponse;
 import com.ai.agent.real.contract.model.message.AgentMessage;
 import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
 import com.ai.agent.real.contract.model.protocol.ResponseResult;
 import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
 import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContext;
 import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContextMeta;
+import com.ai.agent.real.contract.model.property.ReActPlusProperties;
+import com.ai.agent.real.contract.model.property.TurnBudgetProperties;
+import com.ai.agent.real.contract.tool.AgentTool;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage.ToolCall;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.ContextView;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * ReAct 增强版 融合 PAE，COT，ReAct 框架 TODO: 未完成，初始化阶段
@@ -51,15 +85,64 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 
 	private final FinalAgent finalAgent;
 
-	public ReActPlusAgentStrategy(TaskAnalysisAgent taskAnalysisAgent, PlanInitAgent planInitAgent,
-			ThoughtAgent thoughtAgent, ThinkingPlusAgent thinkingPlusAgent, ActionPlusAgent actionPlusAgent,
-			FinalAgent finalAgent) {
-		this.taskAnalysisAgent = taskAnalysisAgent;
-		this.planInitAgent = planInitAgent;
-		this.thoughtAgent = thoughtAgent;
-		this.thinkingPlusAgent = thinkingPlusAgent;
-		this.actionPlusAgent = actionPlusAgent;
-		this.finalAgent = finalAgent;
+	/**
+	 * 检查点服务，在阶段边界保存恢复点
+	 */
+	private final ITurnCheckpointService checkpointService;
+
+	/**
+	 * DIRECT 模式问答的语义缓存
+	 */
+	private final IAnswerCache answerCache;
+
+	/**
+	 * 任务预分类，高置信时跳过任务分析的 LLM 调用
+	 */
+	private final ITaskPreClassifier taskPreClassifier;
+
+	/**
+	 * 模式阶段投机执行，任务分析期间按预分类的判定提前启动模式阶段
+	 */
+	private final ModeSpeculator modeSpeculator;
+
+	/**
+	 * 融合迭代节点，为空时不支持融合迭代
+	 */
+	private final ThinkActPlusAgent thinkActPlusAgent;
+
+	private final ReActPlusProperties properties;
+
+	/**
+	 * 最终回答复用，task_done 内容已是完整回答时跳过 FinalAgent
+	 */
+	private final AnswerReusePolicy answerReusePolicy;
+
+	/**
+	 * 迭代死循环检测，重复的工具调用或思考先提示纠正，持续重复则提前结束
+	 */
+	private final LoopDetector loopDetector;
+
+	/**
+	 * turn 预算配置，每个 turn 开始时据此创建预算挂到上下文上
+	 */
+	private final TurnBudgetProperties turnBudgetProperties;
+
+	public ReActPlusAgentStrategy(Dependencies dependencies) {
+		this.taskAnalysisAgent = dependencies.getTaskAnalysisAgent();
+		this.planInitAgent = dependencies.getPlanInitAgent();
+		this.thoughtAgent = dependencies.getThoughtAgent();
+		this.thinkingPlusAgent = dependencies.getThinkingPlusAgent();
+		this.actionPlusAgent = dependencies.getActionPlusAgent();
+		this.finalAgent = dependencies.getFinalAgent();
+		this.checkpointService = dependencies.getCheckpointService();
+		this.answerCache = dependencies.getAnswerCache();
+		this.taskPreClassifier = dependencies.getTaskPreClassifier();
+		this.modeSpeculator = dependencies.getModeSpeculator();
+		this.thinkActPlusAgent = dependencies.getThinkActPlusAgent();
+		this.properties = dependencies.getProperties();
+		this.answerReusePolicy = dependencies.getAnswerReusePolicy();
+		this.loopDetector = dependencies.getLoopDetector();
+		this.turnBudgetProperties = dependencies.getTurnBudgetProperties();
 	}
 
 	/**
@@ -85,7 +168,10 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 		}
 		// fixme: 这里的 userId 后面可能要修复一下
 		context.addMessage(AgentMessage.user(userInput, "user"));
+		context.setTurnBudget(TurnBudget.start(turnBudgetProperties));
 		AtomicInteger iterationCount = new AtomicInteger(50);
+		AtomicReference<String> doneAnswer = new AtomicReference<>();
+		LoopDetector.Tracker loop = loopDetector.newTracker(MAX_ITERATIONS);
 
 		return Flux.concat(
 				// 发射 STARTED 事件，告知前端任务开始执行
@@ -95,8 +181,12 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 				Flux.defer(() -> executeTaskAnalysisAgent(userInput, context)),
 				// 模式选择
 				Flux.defer(() -> {
+					if (ContextUtils.isBudgetNearlySpent(context)) {
+						iterationCount.set(0);
+						return ContextUtils.skipForBudget(context);
+					}
 					ReActPlusAgentContextMeta metadata = (ReActPlusAgentContextMeta) context.getMetadata();
-					switch (metadata.getAgentMode()) {
+					switch (capMode(context, metadata, metadata.getAgentMode())) {
 						case DIRECT: {
 							iterationCount.set(0);
 							return Flux.empty();
@@ -129,26 +219,31 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 						context.setCurrentIteration(iteration);
 					}).concatMap(iteration -> {
 						// 在每次迭代开始前检查是否已完成
-						if (context.isTaskCompleted()) {
+						if (context.isTaskCompleted() || loop.isTerminated()) {
 							log.info("任务已完成，跳过第 {} 次迭代", iteration);
 							return Flux.empty();
 						}
+						if (ContextUtils.isBudgetNearlySpent(context)) {
+							return ContextUtils.skipForBudget(context);
+						}
 
 						return Flux.concat(
 								Flux.just(AgentExecutionEvent.progress(context,
 										String.format("开始第 %d 轮思考-行动循环...", iteration), null)),
-								executeReActPlusIteration(userInput, context));
+								executeReActPlusIteration(userInput, context).doOnNext(loop::observe),
+								Flux.defer(() -> loop.afterIteration(context, iteration)));
 					})
 						// 结束条件：收到DONE事件（由task_done工具触发）
-						// 已由上下文标记任务完成（例如ActionAgent调用task_done后设置的标记）
+						// 已由上下文标记任务完成（例如ActionAgent调用task_done后设置的标记），或检测到死循环
 						.takeUntil(event -> {
 							boolean isCompleted = context.isTaskCompleted();
 							if (isCompleted) {
 								log.info("检测到任务完成标记，准备结束迭代循环");
 							}
-							return isCompleted;
-						});
-				}), Flux.defer(() -> executeFinalAgent(userInput, context))
+							return isCompleted || loop.isTerminated();
+						})
+						.doOnNext(rememberDoneAnswer(doneAnswer));
+				}), Flux.defer(() -> executeFinalStage(userInput, context, doneAnswer.get(), loop))
 
 					.concatWith(Flux.just(AgentExecutionEvent.completed()))
 					.doOnComplete(() -> log.info("ReActPlus任务执行完成，上下文: {}", context)));
@@ -179,21 +274,61 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 		}
 		// fixme: 这里的 userId 后面可能要修复一下
 		context.addMessage(AgentMessage.user(userInput, "user"));
+		context.setTurnBudget(TurnBudget.start(turnBudgetProperties));
 		AtomicInteger iterationCount = new AtomicInteger(50);
 
+		// 语义缓存：只在可缓存的问题上读写，命中后跳过后续 LLM 阶段直接回放回答
+		String userKey = turnState != null ? turnState.getUserKey() : null;
+		boolean cacheable = answerCache.isEnabled() && (!answerCache.isStandaloneOnly() || isStandalone(context));
+		AtomicReference<String> cachedAnswer = new AtomicReference<>(
+				cacheable ? answerCache.lookup(userKey, userInput).orElse(null) : null);
+		// 投机执行：任务分析期间提前启动的模式阶段，在模式选择时提交或丢弃
+		AtomicReference<ModeSpeculator.Speculation> speculation = new AtomicReference<>();
+		AtomicReference<String> doneAnswer = new AtomicReference<>();
+		LoopDetector.Tracker loop = loopDetector.newTracker(MAX_ITERATIONS);
+
 		return Flux.concat(
 				// 发射 STARTED 事件，告知前端任务开始执行
 				Flux.defer(() -> Flux.just(AgentExecutionEvent.started(context, "ReActPlus 任务开始执行"))),
 				Flux.defer(() -> Flux.just(AgentExecutionEvent.progress(context, "正在催促小二分配资源...", null))),
 				// 任务分析，通过调用工具，将分析后的数据状态等放到 context 里
-				Flux.defer(() -> executeTaskAnalysisAgent(userInput, context)),
+				Flux.deferContextual(contextView -> {
+					if (cachedAnswer.get() != null) {
+						return Flux.empty();
+					}
+					Optional<ITaskPreClassifier.Prediction> prediction = taskPreClassifier.classify(userInput);
+					if (prediction.isPresent()) {
+						return applyPrediction(prediction.get(), context);
+					}
+					speculation.set(startSpeculation(userInput, context, contextView).orElse(null));
+					return executeLlmTaskAnalysis(userInput, context);
+				}),
 				// 模式选择
 				Flux.defer(() -> {
+					if (cachedAnswer.get() != null) {
+						iterationCount.set(0);
+						return Flux.empty();
+					}
+					if (ContextUtils.isBudgetNearlySpent(context)) {
+						iterationCount.set(0);
+						return ContextUtils.skipForBudget(context);
+					}
 					ReActPlusAgentContextMeta metadata = (ReActPlusAgentContextMeta) context.getMetadata();
-					AgentMode mode = Optional.ofNullable(metadata.getAgentMode()).orElse(AgentMode.THOUGHT);
+					AgentMode mode = capMode(context, metadata,
+							Optional.ofNullable(metadata.getAgentMode()).orElse(AgentMode.THOUGHT));
+					ModeSpeculator.Speculation speculated = speculation.getAndSet(null);
+					if (speculated != null && speculated.matches(mode, metadata.getRealTask())) {
+						return commitSpeculation(speculated, context);
+					}
+					if (speculated != null) {
+						speculated.discard();
+					}
 					switch (mode) {
 						case DIRECT: {
 							iterationCount.set(0);
+							if (cacheable && StringUtils.hasText(metadata.getRealTask())) {
+								answerCache.lookup(userKey, metadata.getRealTask()).ifPresent(cachedAnswer::set);
+							}
 							return Flux.empty();
 						}
 						case SIMPLE: {
@@ -209,50 +344,80 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 							return Flux.empty();
 						}
 					}
-				}), Flux.defer(() -> {
+				}),
+				// 检查点：任务分析与模式阶段的结果已写入上下文，后续从第一轮迭代（或直接总结）恢复
+				Flux.defer(() -> {
+					ReActStage stage = iterationCount.get() > 0 ? ReActStage.THINKING : ReActStage.FINAL;
+					return checkpoint(context, userInput, stage, 1);
+				}),
+				Flux.defer(() -> executeIterations(userInput, context, 1, iterationCount.get(), false, loop))
+					.doOnNext(rememberDoneAnswer(doneAnswer)),
+				Flux.defer(() -> {
+					if (cachedAnswer.get() != null) {
+						return replayCachedAnswer(cachedAnswer.get(), context);
+					}
+					return executeFinalStage(userInput, context, doneAnswer.get(), loop).doOnComplete(() -> {
+						if (cacheable) {
+							storeDirectAnswer(userKey, userInput, context);
+						}
+					});
+				})
 
-					return Flux.range(1, iterationCount.get())
-
-						// .doOnNext(iteration -> {
-						// // 在每轮迭代前管理上下文大小
-						// ContextUtils.manageContextSize(context);
-						//
-						// // 记录上下文使用情况
-						// if (iteration % 5 == 0) { // 每 5 轮记录一次
-						// log.info("迭代 {}/50, 上下文使用: {}", iteration,
-						// ContextUtils.getContextUsage(context));
-						// }
-						//
-						// // 记录当前迭代次数到上下文
-						// context.setCurrentIteration(iteration);
-						// })
-
-						.concatMap(iteration -> {
-							// 在每次迭代开始前检查是否已完成
-							if (context.isTaskCompleted()) {
-								log.info("任务已完成，跳过第 {} 次迭代", iteration);
-								return Flux.empty();
-							}
+					.concatWith(Flux.just(AgentExecutionEvent.completed()))
+					.doOnComplete(() -> log.info("ReActPlus任务执行完成，上下文: {}", context)))
+			// 任务分析失败或 turn 被取消时，未结算的投机阶段一并丢弃
+			.doFinally(signalType -> Optional.ofNullable(speculation.getAndSet(null))
+				.ifPresent(ModeSpeculator.Speculation::discard));
 
-							return Flux.concat(
-									Flux.just(AgentExecutionEvent.progress(context,
-											String.format("开始第 %d 轮思考-行动循环...", iteration), null)),
-									executeReActPlusIteration(userInput, context));
-						})
-						// 结束条件：收到DONE事件（由task_done工具触发）
-						// 已由上下文标记任务完成（例如ActionAgent调用task_done后设置的标记）
-						.takeUntil(event -> {
-							boolean isCompleted = context.isTaskCompleted();
-							if (isCompleted) {
-								log.info("检测到任务完成标记，准备结束迭代循环");
-							}
-							return isCompleted;
-						});
-				}), Flux.defer(() -> executeFinalAgent(userInput, context))
+	}
 
-					.concatWith(Flux.just(AgentExecutionEvent.completed()))
-					.doOnComplete(() -> log.info("ReActPlus任务执行完成，上下文: {}", context)));
+	/**
+	 * 根据检查点重建上下文
+	 */
+	@Override
+	public AgentContextAble restoreContext(ResumePoint resumePoint) {
+		return CheckpointUtils.restoreReActPlusContext(resumePoint);
+	}
 
+	/**
+	 * 从检查点恢复执行：跳过任务分析与模式阶段，从记录的轮次与阶段继续
+	 * @param resumePoint 恢复点
+	 * @param turnState turnState
+	 * @param context 重建后的上下文
+	 * @return 流式执行结果
+	 */
+	@Override
+	public Flux<AgentExecutionEvent> resumeStreamWithInteraction(ResumePoint resumePoint,
+			IAgentTurnManagerService.TurnState turnState, AgentContextAble context) {
+		String userInput = resumePoint.getOriginalTask();
+		ReActStage stage = Optional.ofNullable(resumePoint.getPausedStage()).orElse(ReActStage.THINKING);
+		int iteration = Math.max(1, resumePoint.getCurrentIteration());
+		log.info("ReActPlus 从检查点恢复: turnId={}, stage={}, iteration={}", resumePoint.getTurnId(), stage, iteration);
+		AtomicReference<String> doneAnswer = new AtomicReference<>();
+		LoopDetector.Tracker loop = loopDetector.newTracker(MAX_ITERATIONS);
+		context.setTurnBudget(TurnBudget.start(turnBudgetProperties));
+
+		return Flux.concat(
+				Flux.defer(() -> Flux.just(AgentExecutionEvent.started(context, "ReActPlus 任务从检查点恢复执行"))),
+				Flux.defer(() -> Flux.just(AgentExecutionEvent.progress(context,
+						String.format("从第 %d 轮 %s 阶段继续执行...", iteration, stage), null))),
+				Flux.defer(() -> {
+					if (stage == ReActStage.FINAL) {
+						return Flux.empty();
+					}
+					if (stage == ReActStage.ACTION && resumePoint.getInteractionRequest() != null) {
+						// 挂起在审批等待点：先完成待审批的工具调用，再从下一轮继续
+						return Flux.concat(resumePendingApproval(resumePoint, turnState, context),
+								Flux.defer(() -> executeIterations(userInput, context, iteration + 1, MAX_ITERATIONS,
+										false, loop)));
+					}
+					return executeIterations(userInput, context, iteration, MAX_ITERATIONS, stage == ReActStage.ACTION,
+							loop);
+				}).doOnNext(rememberDoneAnswer(doneAnswer)),
+				Flux.defer(() -> executeFinalStage(userInput, context, doneAnswer.get(), loop))
+
+					.concatWith(Flux.just(AgentExecutionEvent.completed()))
+					.doOnComplete(() -> log.info("ReActPlus任务恢复执行完成，上下文: {}", context)));
 	}
 
 	@Override
@@ -276,6 +441,128 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 		return IAgentStrategy.super.handleInteractionResponse(response);
 	}
 
+	/**
+	 * 恢复挂起的审批：已有该审批请求的结果时直接执行（或拒绝）该工具，否则重新发起审批请求等待结果。
+	 * 同一批次中审批前已收到的工具结果先补回上下文（不再下发），审批之后的其余调用按审批模式继续执行
+	 */
+	private Flux<AgentExecutionEvent> resumePendingApproval(ResumePoint resumePoint,
+			IAgentTurnManagerService.TurnState turnState, AgentContextAble context) {
+		InteractionRequest request = resumePoint.getInteractionRequest();
+		Map<String, Object> args = Optional.ofNullable(request.getContext()).orElse(Map.of());
+		ToolCall requested = new ToolCall(request.getRequestId(), "function", request.getTitle(),
+				ModelOptionsUtils.toJsonString(args));
+		FluxUtils.PendingToolCalls pending = Optional
+			.ofNullable(CheckpointUtils.restorePendingToolCalls(resumePoint.getPendingToolMessages()))
+			.orElseGet(() -> new FluxUtils.PendingToolCalls(List.of(requested)));
+		ToolCall toolCall = pending.find(request.getRequestId()).orElse(requested);
+		ReActPlusAgentContext actionContext = AgentUtils.createReActPlusAgentContext(context,
+				ActionPlusAgent.AGENT_ID);
+
+		// 已收到的结果只用于还原 assistant 消息与工具消息，客户端此前已收到过这些事件
+		List<AgentExecutionEvent> replayed = new ArrayList<>();
+		for (ToolResponse response : pending.responses()) {
+			Map<String, Object> arguments = pending.find(response.id())
+				.map(call -> ModelOptionsUtils.jsonToMap(call.arguments()))
+				.orElse(Map.of());
+			replayed.add(AgentExecutionEvent.tool(actionContext, response, response.name(),
+					Map.of("arguments", arguments)));
+		}
+		Set<AgentExecutionEvent> hidden = Collections.newSetFromMap(new IdentityHashMap<>());
+		hidden.addAll(replayed);
+
+		Flux<AgentExecutionEvent> approvalEvent = Flux.empty();
+		Mono<InteractionResponse> responseMono;
+		if (resumePoint.getUserResponse() != null && resumePoint.getUserResponse().answers(request)) {
+			responseMono = Mono.just(resumePoint.getUserResponse());
+		}
+		else {
+			// 审批结果尚未到达：重新发起审批请求（开启挂起时会再次挂起）
+			Sinks.One<InteractionResponse> approvalGate = Sinks.one();
+			turnState.setPendingApproval(approvalGate);
+			AgentTool tool = actionPlusAgent.getToolService().getByName(toolCall.name());
+			Map<String, Object> meta = tool != null ? Map.of("toolSchema", tool.getSpec()) : Map.of();
+			approvalEvent = Flux.just(AgentExecutionEvent.toolApproval(actionContext, null,
+					new FluxUtils.ToolApprovalRequest(toolCall.id(), toolCall.name(), args, pending), meta));
+			responseMono = approvalGate.asMono();
+		}
+
+		Flux<AgentExecutionEvent> approvedFlux = responseMono
+			.flatMapMany(response -> FluxUtils.executeApprovedToolCall(toolCall, actionContext,
+					actionPlusAgent.getToolService(), !isRejected(response)))
+			.doOnNext(pending::record);
+		Flux<AgentExecutionEvent> remainingFlux = Flux
+			.defer(() -> FluxUtils.executeToolCallsWithInteraction(pending.remainingAfter(toolCall.id()), pending,
+					actionContext, actionPlusAgent.getToolService(), actionPlusAgent.getToolApprovalMode(), turnState));
+		Flux<AgentExecutionEvent> toolFlux = Flux.concat(Flux.fromIterable(replayed), approvedFlux, remainingFlux);
+		return Flux.concat(approvalEvent,
+				FluxUtils
+					.stage(toolFlux, context, ActionPlusAgent.AGENT_ID, FunctionUtils.defaultOnNext(log),
+							() -> log.info("审批恢复阶段结束: {}", context.getMessageHistory()))
+					.filter(event -> !hidden.contains(event)),
+				Flux.defer(() -> checkpoint(context, resumePoint.getOriginalTask(), ReActStage.THINKING,
+						resumePoint.getCurrentIteration() + 1)));
+	}
+
+	/**
+	 * 用户是否拒绝了审批
+	 */
+	private static boolean isRejected(InteractionResponse response) {
+		String optionId = response.getSelectedOptionId();
+		return "reject".equalsIgnoreCase(optionId)
+				|| InteractionAction.REJECT_WITH_REASON.name().equalsIgnoreCase(optionId)
+				|| InteractionAction.TERMINATE.name().equalsIgnoreCase(optionId);
+	}
+
+	/**
+	 * 执行思考-行动循环
+	 * @param userInput 输入
+	 * @param context 上下文对象
+	 * @param fromIteration 起始轮次
+	 * @param toIteration 截止轮次（包含）
+	 * @param resumeAtAction 起始轮次是否跳过思考阶段（检查点在 ThinkingPlus 之后）
+	 * @param loop 本 turn 的死循环检测状态
+	 */
+	private Flux<AgentExecutionEvent> executeIterations(String userInput, AgentContextAble context, int fromIteration,
+			int toIteration, boolean resumeAtAction, LoopDetector.Tracker loop) {
+		Flux<AgentExecutionEvent> iterations = Flux
+			.range(fromIteration, Math.max(0, toIteration - fromIteration + 1))
+			.concatMap(iteration -> {
+				// 在每次迭代开始前检查是否已完成
+				if (context.isTaskCompleted() || loop.isTerminated()) {
+					log.info("任务已完成，跳过第 {} 次迭代", iteration);
+					return Flux.empty();
+				}
+				if (ContextUtils.isBudgetNearlySpent(context)) {
+					return ContextUtils.skipForBudget(context);
+				}
+
+				return Flux.concat(
+						Flux.just(AgentExecutionEvent.progress(context,
+								String.format("开始第 %d 轮思考-行动循环...", iteration), null)),
+						executeReActPlusIteration(userInput, context, iteration,
+								resumeAtAction && iteration == fromIteration)
+							.doOnNext(loop::observe),
+						Flux.defer(() -> loop.afterIteration(context, iteration)));
+			})
+			// 结束条件：收到DONE事件（由task_done工具触发）
+			// 已由上下文标记任务完成（例如ActionAgent调用task_done后设置的标记），或检测到死循环
+			.takeUntil(event -> {
+				boolean isCompleted = context.isTaskCompleted();
+				if (isCompleted) {
+					log.info("检测到任务完成标记，准备结束迭代循环");
+				}
+				return isCompleted || loop.isTerminated();
+			});
+		// 墙钟预算：越过预留线时中断进行中的阶段，把剩余时间留给 FinalAgent
+		TurnBudget budget = context.getTurnBudget();
+		if (budget == null) {
+			return iterations;
+		}
+		return iterations.take(budget.untilReserve())
+			.concatWith(Flux.defer(() -> ContextUtils.isBudgetNearlySpent(context)
+					? ContextUtils.skipForBudget(context) : Flux.empty()));
+	}
+
 	/**
 	 * 执行 单次 核心部分的 ReActPlus 迭代，只有 thinkingPlus 和 actionPlus 节点
 	 * @param userInput 输入
@@ -283,10 +570,28 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 	 * @return
 	 */
 	private Flux<AgentExecutionEvent> executeReActPlusIteration(String userInput, AgentContextAble context) {
+		return executeReActPlusIteration(userInput, context, context.getCurrentIteration(), false);
+	}
+
+	/**
+	 * 执行 单次 核心部分的 ReActPlus 迭代，两个阶段结束后分别写入检查点
+	 * @param userInput 输入
+	 * @param context 上下文对象
+	 * @param iteration 当前轮次
+	 * @param skipThinking 是否跳过思考阶段（从 ThinkingPlus 之后的检查点恢复）
+	 */
+	private Flux<AgentExecutionEvent> executeReActPlusIteration(String userInput, AgentContextAble context,
+			int iteration, boolean skipThinking) {
+		if (!skipThinking && isFusedIteration(context)) {
+			return executeFusedIteration(userInput, context, iteration);
+		}
 
 		return Flux.concat(
 				// 1. 思考阶段 - ThinkingPlusAgent
 				Flux.defer(() -> {
+					if (skipThinking) {
+						return Flux.empty();
+					}
 					log.debug("开始 ThinkingPlus 阶段");
 
 					ReActPlusAgentContext thinkingContext = AgentUtils.createReActPlusAgentContext(context,
@@ -296,11 +601,15 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 							FluxUtils.stage(thinkingPlusAgent.executeStream(userInput, thinkingContext), context,
 									ThinkingPlusAgent.AGENT_ID, FunctionUtils.defaultOnNext(log),
 									() -> log.info("ThinkingPlus 阶段结束: {}", context.getMessageHistory())),
-							Flux.just(AgentExecutionEvent.progress(context, "深度思考分析结束...", null)));
+							Flux.just(AgentExecutionEvent.progress(context, "深度思考分析结束...", null)),
+							Flux.defer(() -> checkpoint(context, userInput, ReActStage.ACTION, iteration)));
 				}),
 
 				// 2. 行动阶段 - ActionPlusAgent
 				Flux.defer(() -> {
+					if (ContextUtils.isBudgetNearlySpent(context)) {
+						return ContextUtils.skipForBudget(context);
+					}
 					log.debug("开始 ActionPlus 阶段");
 
 					ReActPlusAgentContext actionContext = AgentUtils.createReActPlusAgentContext(context,
@@ -310,62 +619,292 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 							FluxUtils.stage(actionPlusAgent.executeStream(userInput, actionContext), context,
 									ActionPlusAgent.AGENT_ID, FunctionUtils.defaultOnNext(log),
 									() -> log.info("ActionPlus 阶段结束: {}", context.getMessageHistory())),
-							Flux.just(AgentExecutionEvent.progress(context, "工具执行完毕...", null))
+							Flux.just(AgentExecutionEvent.progress(context, "工具执行完毕...", null)),
+							Flux.defer(() -> checkpoint(context, userInput, ReActStage.THINKING, iteration + 1))
 
 				);
 				}));
 
 	}
 
+	/**
+	 * 当前模式是否使用融合迭代
+	 */
+	private boolean isFusedIteration(AgentContextAble context) {
+		if (thinkActPlusAgent == null || properties.getFusedIterationModes().isEmpty()) {
+			return false;
+		}
+		return context.getMetadata() instanceof ReActPlusAgentContextMeta metadata && metadata.getAgentMode() != null
+				&& properties.getFusedIterationModes().contains(metadata.getAgentMode());
+	}
+
+	/**
+	 * 融合迭代：一次调用同时产出思考与工具调用，结束后写入下一轮的检查点
+	 * <p>
+	 * 工具在同一次调用里执行，没有独立的思考阶段边界，所以调用前先写入本轮 ACTION 检查点：审批挂起时标记落在这个检查点上，
+	 * 恢复时按审批恢复路径补回带 tool_calls 的 assistant 消息并继续执行剩余调用，不会重跑融合调用
+	 */
+	private Flux<AgentExecutionEvent> executeFusedIteration(String userInput, AgentContextAble context,
+			int iteration) {
+		log.debug("开始 ThinkActPlus 融合阶段");
+
+		ReActPlusAgentContext fusedContext = AgentUtils.createReActPlusAgentContext(context,
+				ThinkActPlusAgent.AGENT_ID);
+
+		return Flux.concat(Flux.defer(() -> checkpoint(context, userInput, ReActStage.ACTION, iteration)),
+				Flux.just(AgentExecutionEvent.progress(context, "正在思考并执行工具调用...", null)),
+				FluxUtils.stage(thinkActPlusAgent.executeStream(userInput, fusedContext), context,
+						ThinkActPlusAgent.AGENT_ID, FunctionUtils.defaultOnNext(log),
+						() -> log.info("ThinkActPlus 阶段结束: {}", context.getMessageHistory())),
+				Flux.just(AgentExecutionEvent.progress(context, "工具执行完毕...", null)),
+				Flux.defer(() -> checkpoint(context, userInput, ReActStage.THINKING, iteration + 1)));
+	}
+
+	/**
+	 * 在阶段边界写入检查点，不产生事件
+	 */
+	private Flux<AgentExecutionEvent> checkpoint(AgentContextAble context, String userInput, ReActStage stage,
+			int iteration) {
+		if (!checkpointService.isEnabled()) {
+			return Flux.empty();
+		}
+		return checkpointService.save(CheckpointUtils.snapshot(context, userInput, stage, iteration))
+			.thenMany(Flux.empty());
+	}
+
 	private Flux<AgentExecutionEvent> executeTaskAnalysisAgent(String task, AgentContextAble context) {
+		Optional<ITaskPreClassifier.Prediction> prediction = taskPreClassifier.classify(task);
+		if (prediction.isPresent()) {
+			return applyPrediction(prediction.get(), context);
+		}
+		return executeLlmTaskAnalysis(task, context);
+	}
+
+	private Flux<AgentExecutionEvent> executeLlmTaskAnalysis(String task, AgentContextAble context) {
 		ReActPlusAgentContext taskAnalysisAgentContext = AgentUtils.createReActPlusAgentContext(context,
 				TaskAnalysisAgent.AGENT_ID);
 		// 注意：思考阶段不需要工具审批回调，因为它不执行工具
 		return FluxUtils.stage(taskAnalysisAgent.executeStream(task, taskAnalysisAgentContext), context,
 				TaskAnalysisAgent.AGENT_ID, FunctionUtils.defaultOnNext(log), () -> {
 					log.info("任务分析阶段结束: {}", context.getMessageHistory());
+					if (context.getMetadata() instanceof ReActPlusAgentContextMeta metadata) {
+						taskPreClassifier.record(task, metadata);
+					}
 					if (context.getMetadata() == null) {
 						context.setMetadata(new ReActPlusAgentContextMeta(AgentMode.DIRECT));
 					}
 				});
 	}
 
+	/**
+	 * 预分类命中：直接写入模式与核心任务，不调用任务分析 LLM
+	 */
+	private Flux<AgentExecutionEvent> applyPrediction(ITaskPreClassifier.Prediction prediction,
+			AgentContextAble context) {
+		ReActPlusAgentContextMeta metadata = context.getMetadata() instanceof ReActPlusAgentContextMeta meta ? meta
+				: new ReActPlusAgentContextMeta();
+		metadata.setAgentMode(prediction.mode());
+		metadata.setRealTask(prediction.realTask());
+		metadata.setNote(prediction.note());
+		context.setMetadata(metadata);
+		log.info("任务预分类命中: mode={}, realTask={}, confidence={}", prediction.mode(), prediction.realTask(),
+				String.format("%.3f", prediction.confidence()));
+		return Flux.just(AgentExecutionEvent.progress(context, "已快速识别任务类型...", null));
+	}
+
 	private Flux<AgentExecutionEvent> executeThoughtAgent(String task, AgentContextAble context) {
 		return Flux.defer(() -> {
 
 			ReActPlusAgentContext thoughtContext = AgentUtils.createReActPlusAgentContext(context,
 					ThoughtAgent.AGENT_ID);
-			return Flux.concat(Flux.just(AgentExecutionEvent.progress(context, "正在深思...", null)),
+			return executeThoughtStage(thoughtAgent.executeStream(task, thoughtContext), context);
+		});
+	}
 
-					FluxUtils.stage(thoughtAgent.executeStream(task, thoughtContext), context, ThoughtAgent.AGENT_ID,
-							FunctionUtils.defaultOnNext(log),
-							() -> log.info("thought 阶段结束: {}", context.getMessageHistory())),
-					Flux.just(AgentExecutionEvent.progress(context, "思维链生成完毕...", null)));
+	private Flux<AgentExecutionEvent> executeThoughtStage(Flux<AgentExecutionEvent> thoughtFlux,
+			AgentContextAble context) {
+		return Flux.concat(Flux.just(AgentExecutionEvent.progress(context, "正在深思...", null)),
 
-		});
+				FluxUtils.stage(thoughtFlux, context, ThoughtAgent.AGENT_ID, FunctionUtils.defaultOnNext(log),
+						() -> log.info("thought 阶段结束: {}", context.getMessageHistory())),
+				Flux.just(AgentExecutionEvent.progress(context, "思维链生成完毕...", null)));
 	}
 
 	private Flux<AgentExecutionEvent> executePlanAgent(String task, AgentContextAble context) {
 		return Flux.defer(() -> {
 
 			ReActPlusAgentContext planContext = AgentUtils.createReActPlusAgentContext(context, ThoughtAgent.AGENT_ID);
-			return Flux.concat(Flux.just(AgentExecutionEvent.progress(context, "正在规划...", null)),
+			return executePlanStage(planInitAgent.executeStream(task, planContext), context);
+		});
+	}
+
+	private Flux<AgentExecutionEvent> executePlanStage(Flux<AgentExecutionEvent> planFlux, AgentContextAble context) {
+		return Flux.concat(Flux.just(AgentExecutionEvent.progress(context, "正在规划...", null)),
 
-					FluxUtils.stage(planInitAgent.executeStream(task, planContext), context, PlanInitAgent.AGENT_ID,
-							FunctionUtils.defaultOnNext(log),
-							() -> log.info("plan init 阶段结束: {}", context.getMessageHistory())),
-					Flux.just(AgentExecutionEvent.progress(context, "已完成任务规划...", null))
+				FluxUtils.stage(planFlux, context, PlanInitAgent.AGENT_ID, FunctionUtils.defaultOnNext(log),
+						() -> log.info("plan init 阶段结束: {}", context.getMessageHistory())),
+				Flux.just(AgentExecutionEvent.progress(context, "已完成任务规划...", null))
 
-			);
+		);
+	}
+
+	/**
+	 * 按预分类未达阈值的判定在隔离上下文上提前启动模式阶段。隔离上下文持有历史的副本，元数据只写入判定的模式与核心任务，
+	 * 投机阶段不会修改本轮上下文；模式选择时只在任务分析给出相同的模式与核心任务时提交
+	 */
+	private Optional<ModeSpeculator.Speculation> startSpeculation(String task, AgentContextAble context,
+			ContextView contextView) {
+		if (!modeSpeculator.isEnabled()) {
+			return Optional.empty();
+		}
+		return taskPreClassifier.predict(task).filter(modeSpeculator::accepts).flatMap(prediction -> {
+			AgentMode mode = prediction.mode();
+			Agent agent = switch (mode) {
+				case THOUGHT -> thoughtAgent;
+				case PLAN -> planInitAgent;
+				default -> null;
+			};
+			if (agent == null
+					|| (!modeSpeculator.isAllowTools() && !CollectionUtils.isEmpty(agent.getAvailableTools()))) {
+				return Optional.empty();
+			}
+			ReActPlusAgentContext speculativeContext = AgentUtils.createReActPlusAgentContext(context,
+					agent.getAgentId());
+			speculativeContext.setMessageHistory(new ArrayList<>(context.getMessageHistory()));
+			ReActPlusAgentContextMeta speculativeMeta = new ReActPlusAgentContextMeta(mode);
+			speculativeMeta.setRealTask(prediction.realTask());
+			speculativeContext.setMetadata(speculativeMeta);
+			long promptTokens = ContextUtils.estimateTokens(speculativeContext.getMessageHistory());
+			return Optional.of(modeSpeculator.start(mode, prediction.realTask(),
+					agent.executeStream(task, speculativeContext), promptTokens, contextView));
 		});
 	}
 
-	private Flux<AgentExecutionEvent> executeFinalAgent(String userInput, AgentContextAble context) {
+	/**
+	 * 提交投机阶段：事件按正常阶段写入本轮上下文
+	 */
+	private Flux<AgentExecutionEvent> commitSpeculation(ModeSpeculator.Speculation speculation,
+			AgentContextAble context) {
+		log.info("模式阶段投机命中: {}", speculation.mode());
+		if (speculation.mode() == AgentMode.PLAN) {
+			return executePlanStage(speculation.commit(), context);
+		}
+		return executeThoughtStage(speculation.commit(), context);
+	}
+
+	/**
+	 * 以 FinalAgent 的身份回放缓存的回答，并写入上下文，保证后续对话历史与正常执行一致
+	 */
+	private Flux<AgentExecutionEvent> replayCachedAnswer(String answer, AgentContextAble context) {
+		context.setTaskCompleted(true);
+		return Flux.concat(Flux.just(AgentExecutionEvent.progress(context, "命中相似问题的历史回答...", null)),
+				emitAsFinalAnswer(answer, context),
+				Flux.just(AgentExecutionEvent.progress(context, "生成结果完毕...", null)));
+	}
+
+	/**
+	 * 总结阶段：task_done 内容可复用时直接作为最终回答下发，否则由 FinalAgent 生成
+	 * @param doneAnswer 本轮 task_done 携带的内容，未调用时为 null
+	 * @param loop 本 turn 的死循环检测状态
+	 */
+	private Flux<AgentExecutionEvent> executeFinalStage(String userInput, AgentContextAble context, String doneAnswer,
+			LoopDetector.Tracker loop) {
+		AgentMode mode = context.getMetadata() instanceof ReActPlusAgentContextMeta metadata ? metadata.getAgentMode()
+				: null;
+		if (doneAnswer == null || !context.isTaskCompleted() || !answerReusePolicy.appliesTo(mode)) {
+			return executeFinalAgent(userInput, context, loop);
+		}
+		return answerReusePolicy.accept(doneAnswer).map(answer -> {
+			log.info("复用 task_done 内容作为最终回答，跳过 FinalAgent: mode={}", mode);
+			String successMsg = String.format("任务成功完成，共执行 %d 轮迭代", context.getCurrentIteration());
+			return Flux.concat(emitAsFinalAnswer(answer, context),
+					Flux.just(AgentExecutionEvent.progress(context, successMsg, null)),
+					Flux.just(AgentExecutionEvent.progress(context, "生成结果完毕...", null)));
+		}).orElseGet(() -> executeFinalAgent(userInput, context, loop));
+	}
+
+	/**
+	 * 以 FinalAgent 的身份下发回答并写入上下文
+	 */
+	private Flux<AgentExecutionEvent> emitAsFinalAnswer(String answer, AgentContextAble context) {
+		ReActPlusAgentContext finalContext = AgentUtils.createReActPlusAgentContext(context, FinalAgent.AGENT_ID);
+		return Flux.just(AgentExecutionEvent.common(EventType.ACTING, finalContext, answer))
+			.transform(FluxUtils.handleContext(context, FinalAgent.AGENT_ID));
+	}
+
+	/**
+	 * 记录 task_done 携带的内容（DONE 事件）
+	 */
+	private static Consumer<AgentExecutionEvent> rememberDoneAnswer(AtomicReference<String> doneAnswer) {
+		return event -> {
+			if (event.getType() == EventType.DONE) {
+				doneAnswer.set(event.getMessage());
+			}
+		};
+	}
+
+	/**
+	 * 应用上下文上的模式上限（系统饱和时由负载感知分发设置）：任务分析选出的模式更重时降到上限，并写回元数据
+	 */
+	private static AgentMode capMode(AgentContextAble context, ReActPlusAgentContextMeta metadata, AgentMode mode) {
+		if (mode == null || !(context instanceof ReActPlusAgentContext plusContext)
+				|| !mode.isHeavierThan(plusContext.getModeCeiling())) {
+			return mode;
+		}
+		AgentMode ceiling = plusContext.getModeCeiling();
+		log.info("系统负载较高，模式由 {} 降为 {}", mode, ceiling);
+		metadata.setAgentMode(ceiling);
+		return ceiling;
+	}
+
+	/**
+	 * DIRECT 模式的回答写入语义缓存，原始输入与 realTask 都作为问法索引
+	 */
+	private void storeDirectAnswer(String userKey, String userInput, AgentContextAble context) {
+		ReActPlusAgentContextMeta metadata = (ReActPlusAgentContextMeta) context.getMetadata();
+		if (metadata == null || metadata.getAgentMode() != AgentMode.DIRECT) {
+			return;
+		}
+		List<AgentMessage> history = context.getMessageHistory();
+		AgentMessage last = history.isEmpty() ? null : history.get(history.size() - 1);
+		if (last == null || last.getAgentMessageType() != AgentMessage.AgentMessageType.COMPLETED) {
+			return;
+		}
+		List<String> questions = new ArrayList<>();
+		questions.add(userInput);
+		if (StringUtils.hasText(metadata.getRealTask())) {
+			questions.add(metadata.getRealTask());
+		}
+		answerCache.store(userKey, questions, last.getText());
+	}
+
+	/**
+	 * 会话中的首个问题：历史中只有本轮的用户消息
+	 */
+	private static boolean isStandalone(AgentContextAble context) {
+		return context.getMessageHistory()
+			.stream()
+			.filter(message -> message.getAgentMessageType() == AgentMessage.AgentMessageType.USER)
+			.count() <= 1;
+	}
+
+	private Flux<AgentExecutionEvent> executeFinalAgent(String userInput, AgentContextAble context,
+			LoopDetector.Tracker loop) {
 		return Flux.concat(Flux.just(AgentExecutionEvent.progress(context, "正在生成结果...", null)),
 				finalAgent
 					.executeStream(userInput, AgentUtils.createReActPlusAgentContext(context, FinalAgent.AGENT_ID))
 					.transform(FluxUtils.handleContext(context, FinalAgent.AGENT_ID))
 					.concatWith(Flux.defer(() -> {
+						String budgetWarning = ContextUtils.budgetWarning(context);
+						if (budgetWarning != null) {
+							log.warn(budgetWarning);
+							return Flux.just(AgentExecutionEvent.doneWithWarning(context, budgetWarning))
+								.concatWith(Flux.just(AgentExecutionEvent.progress(context, "任务执行已结束，但未正式完成", null)));
+						}
+						if (!context.isTaskCompleted() && loop.isTerminated()) {
+							return Flux.just(AgentExecutionEvent.doneWithWarning(context, loop.getWarning()))
+								.concatWith(Flux.just(AgentExecutionEvent.progress(context, "任务执行已结束，但未正式完成", null)));
+						}
 						if (!context.isTaskCompleted() && context.getCurrentIteration() >= MAX_ITERATIONS) {
 							int currentIteration = context.getCurrentIteration();
 							String warningMsg = String.format("已达到最大迭代次数（%d/50），但任务未标记为完成。", currentIteration);
@@ -383,4 +922,54 @@ public class ReActPlusAgentStrategy implements IAgentStrategy {
 		);
 	}
 
+	/**
+	 * 构造依赖：各阶段 agent 必填，可选组件不设置时使用关闭状态的默认实现
+	 */
+	@Getter
+	@Builder
+	public static class Dependencies {
+
+		private final TaskAnalysisAgent taskAnalysisAgent;
+
+		private final PlanInitAgent planInitAgent;
+
+		private final ThoughtAgent thoughtAgent;
+
+		private final ThinkingPlusAgent thinkingPlusAgent;
+
+		private final ActionPlusAgent actionPlusAgent;
+
+		private final FinalAgent finalAgent;
+
+		/**
+		 * 融合迭代节点，为空时不支持融合迭代
+		 */
+		private final ThinkActPlusAgent thinkActPlusAgent;
+
+		@Builder.Default
+		private final ITurnCheckpointService checkpointService = TurnCheckpointService.disabled();
+
+		@Builder.Default
+		private final IAnswerCache answerCache = SemanticAnswerCache.disabled();
+
+		@Builder.Default
+		private final ITaskPreClassifier taskPreClassifier = TaskPreClassifier.disabled();
+
+		@Builder.Default
+		private final ModeSpeculator modeSpeculator = ModeSpeculator.disabled();
+
+		@Builder.Default
+		private final ReActPlusProperties properties = new ReActPlusProperties();
+
+		@Builder.Default
+		private final AnswerReusePolicy answerReusePolicy = AnswerReusePolicy.disabled();
+
+		@Builder.Default
+		private final LoopDetector loopDetector = LoopDetector.disabled();
+
+		@Builder.Default
+		private final TurnBudgetProperties turnBudgetProperties = new TurnBudgetProperties();
+
+	}
+
 }
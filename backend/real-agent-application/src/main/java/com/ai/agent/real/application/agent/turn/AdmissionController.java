@@ -0,0 +1,253 @@
+package com.ai.agent.real.application.agent.turn;
+
+import com.ai.agent.real.common.exception.AdmissionRejectedException;
+import com.ai.agent.real.contract.agent.service.IAdmissionController;
+import com.ai.agent.real.contract.model.property.AdmissionProperties;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 基于内存的准入控制，状态变更在同一把锁内完成，向等待者推送事件放在锁外进行
+ *
+ * @author han
+ * @time 2025/11/7 10:30
+ */
+@Slf4j
+public class AdmissionController implements IAdmissionController {
+
+	private final AdmissionProperties properties;
+
+	private final Object lock = new Object();
+
+	private final Map<String, Integer> runningPerUser = new HashMap<>();
+
+	private final LinkedList<Waiter> queue = new LinkedList<>();
+
+	private int running;
+
+	private long admittedTotal;
+
+	private long rejectedTotal;
+
+	private long timedOutTotal;
+
+	private long waitedTotal;
+
+	private long waitNanosTotal;
+
+	public AdmissionController(AdmissionProperties properties) {
+		this.properties = properties;
+	}
+
+	@Override
+	public Flux<Admission> admit(String userKey) {
+		if (!properties.isEnabled()) {
+			return Flux.just(Admission.granted(new Permit(null)));
+		}
+		return Flux.defer(() -> {
+			Waiter waiter;
+			synchronized (lock) {
+				if (canRun(userKey)) {
+					return Flux.just(Admission.granted(occupy(userKey)));
+				}
+				if (queue.size() >= properties.getMaxQueueSize()) {
+					rejectedTotal++;
+					log.warn("准入拒绝，等待队列已满: userKey={}, running={}, queued={}", userKey, running, queue.size());
+					return Flux.error(new AdmissionRejectedException("服务繁忙，请稍后再试"));
+				}
+				waiter = new Waiter(userKey);
+				queue.add(waiter);
+			}
+			log.info("turn 进入等待队列: userKey={}, position={}", userKey, positionOf(waiter));
+			publishPositions();
+
+			return waiter.sink.asFlux()
+				.takeUntilOther(Mono.delay(properties.getMaxQueueWait()))
+				.doOnNext(admission -> {
+					if (admission.isGranted()) {
+						waiter.delivered.set(true);
+					}
+				})
+				.concatWith(Mono.defer(() -> waiter.delivered.get() ? Mono.empty()
+						: Mono.error(new AdmissionRejectedException("排队超时，请稍后再试"))))
+				.doFinally(signal -> abandon(waiter));
+		});
+	}
+
+	@Override
+	public boolean isQueueFull() {
+		synchronized (lock) {
+			return properties.isEnabled() && queue.size() >= properties.getMaxQueueSize();
+		}
+	}
+
+	@Override
+	public AdmissionStats stats() {
+		synchronized (lock) {
+			return new AdmissionStats(running, queue.size(), admittedTotal, rejectedTotal, timedOutTotal, waitedTotal,
+					waitNanosTotal);
+		}
+	}
+
+	private boolean canRun(String userKey) {
+		return running < properties.getMaxConcurrentTurns()
+				&& runningPerUser.getOrDefault(userKey, 0) < properties.getMaxConcurrentTurnsPerUser();
+	}
+
+	private Permit occupy(String userKey) {
+		running++;
+		runningPerUser.merge(userKey, 1, Integer::sum);
+		admittedTotal++;
+		return new Permit(userKey);
+	}
+
+	/**
+	 * 释放许可，并按队列顺序把空出的位置交给第一个可以执行的等待者（被单用户上限卡住的等待者不阻塞其他用户）
+	 */
+	private void release(String userKey) {
+		List<Runnable> grants = new ArrayList<>();
+		synchronized (lock) {
+			running--;
+			runningPerUser.computeIfPresent(userKey, (key, count) -> count > 1 ? count - 1 : null);
+			Iterator<Waiter> iterator = queue.iterator();
+			while (iterator.hasNext()) {
+				Waiter waiter = iterator.next();
+				if (!canRun(waiter.userKey)) {
+					continue;
+				}
+				iterator.remove();
+				waiter.granted = true;
+				waitedTotal++;
+				waitNanosTotal += System.nanoTime() - waiter.enqueuedAt;
+				Permit permit = occupy(waiter.userKey);
+				grants.add(() -> waiter.emit(Admission.granted(permit), true));
+			}
+		}
+		grants.forEach(Runnable::run);
+		if (!grants.isEmpty()) {
+			publishPositions();
+		}
+	}
+
+	/**
+	 * 等待者结束（取消/超时/获得许可）时清理：仍在队列中则移出；已分配但未送达的许可需要归还
+	 */
+	private void abandon(Waiter waiter) {
+		boolean reclaim = false;
+		synchronized (lock) {
+			if (!waiter.granted) {
+				if (queue.remove(waiter)) {
+					timedOutTotal++;
+				}
+			}
+			else if (!waiter.delivered.get()) {
+				reclaim = true;
+			}
+		}
+		if (reclaim) {
+			log.warn("许可未送达，归还: userKey={}", waiter.userKey);
+			release(waiter.userKey);
+		}
+		publishPositions();
+	}
+
+	/**
+	 * 向所有等待者推送最新排队位置
+	 */
+	private void publishPositions() {
+		List<Waiter> snapshot;
+		synchronized (lock) {
+			snapshot = new ArrayList<>(queue);
+		}
+		for (int i = 0; i < snapshot.size(); i++) {
+			snapshot.get(i).emit(Admission.queued(i + 1), false);
+		}
+	}
+
+	private int positionOf(Waiter waiter) {
+		synchronized (lock) {
+			return queue.indexOf(waiter) + 1;
+		}
+	}
+
+	/**
+	 * 等待者
+	 */
+	private static class Waiter {
+
+		private final String userKey;
+
+		private final long enqueuedAt = System.nanoTime();
+
+		private final Sinks.Many<Admission> sink = Sinks.many().unicast().onBackpressureBuffer();
+
+		private final AtomicBoolean delivered = new AtomicBoolean(false);
+
+		/**
+		 * 只在 lock 内读写
+		 */
+		private boolean granted;
+
+		private int lastPosition;
+
+		private Waiter(String userKey) {
+			this.userKey = userKey;
+		}
+
+		/**
+		 * 串行推送，位置未变化时不重复推送
+		 */
+		private synchronized void emit(Admission admission, boolean complete) {
+			if (!admission.isGranted()) {
+				if (admission.getPosition() == lastPosition) {
+					return;
+				}
+				lastPosition = admission.getPosition();
+			}
+			sink.tryEmitNext(admission);
+			if (complete) {
+				sink.tryEmitComplete();
+			}
+		}
+
+	}
+
+	/**
+	 * 执行许可，dispose 幂等
+	 */
+	private class Permit implements Disposable {
+
+		private final String userKey;
+
+		private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+		private Permit(String userKey) {
+			this.userKey = userKey;
+		}
+
+		@Override
+		public void dispose() {
+			if (disposed.compareAndSet(false, true) && userKey != null) {
+				release(userKey);
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return disposed.get();
+		}
+
+	}
+
+}
@@ -1,22 +1,48 @@
 package com.ai.agent.real.application.agent.turn;
 
+import com.ai.agent.real.application.utils.CheckpointUtils;
+import com.ai.agent.real.application.utils.FluxUtils;
+import com.ai.agent.real.common.exception.AdmissionRejectedException;
+import com.ai.agent.real.common.exception.SessionBusyException;
 import com.ai.agent.real.common.utils.CommonUtils;
 import com.ai.agent.real.contract.agent.IAgentStrategy;
 import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.context.ResumePoint;
+import com.ai.agent.real.contract.agent.service.IAdmissionController;
 import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
+import com.ai.agent.real.contract.agent.service.IAgentTurnRegistry;
+import com.ai.agent.real.contract.agent.service.ISessionMailbox;
+import com.ai.agent.real.contract.agent.service.ITurnCheckpointService;
 
 import com.ai.agent.real.contract.model.interaction.*;
+import com.ai.agent.real.contract.model.llm.LlmFlow;
+import com.ai.agent.real.contract.model.logging.TraceInfo;
+import com.ai.agent.real.contract.model.logging.Traceable;
+import com.ai.agent.real.contract.model.auth.UserContextHolder;
+import com.ai.agent.real.contract.model.property.AdmissionProperties;
+import com.ai.agent.real.contract.model.property.MailboxProperties;
 import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * Agent会话管理中心 负责管理每个会话的Sink、上下文和待审批工具
@@ -29,6 +55,10 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 public class AgentTurnManagerService implements IAgentTurnManagerService {
 
+	private static final Duration DRAIN_POLL_INTERVAL = Duration.ofMillis(500);
+
+	private static final String ANONYMOUS_USER = "anonymous";
+
 	private final IAgentStrategy agentStrategy;
 
 	/**
@@ -36,19 +66,44 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 	 */
 	private final Map<String, TurnState> turns;
 
-	public AgentTurnManagerService() {
-		this.agentStrategy = null;
-		this.turns = new ConcurrentHashMap<>();
-	}
+	/**
+	 * 集群注册表，turn 不在本节点时负责转发到 owner 节点
+	 */
+	private final IAgentTurnRegistry turnRegistry;
 
-	public AgentTurnManagerService(IAgentStrategy agentStrategy) {
-		this.agentStrategy = agentStrategy;
-		this.turns = new ConcurrentHashMap<>();
+	/**
+	 * 检查点服务，审批等待点标记与 turn 结束后清理
+	 */
+	private final ITurnCheckpointService checkpointService;
+
+	private final ISessionMailbox sessionMailbox;
+
+	private final IAdmissionController admissionController;
+
+	/**
+	 * 排空标记，与 turns 一样在 {@link #of(IAgentStrategy)} 的副本之间共享
+	 */
+	private final AtomicBoolean draining;
+
+	private final Dependencies dependencies;
+
+	public AgentTurnManagerService(Dependencies dependencies) {
+		this(dependencies.getAgentStrategy(), new ConcurrentHashMap<>(), dependencies, new AtomicBoolean(false));
 	}
 
-	public AgentTurnManagerService(IAgentStrategy agentStrategy, Map<String, TurnState> turns) {
+	/**
+	 * {@link #of(IAgentStrategy)} 的副本与原实例共享 turns、排空标记与各组件
+	 */
+	private AgentTurnManagerService(IAgentStrategy agentStrategy, Map<String, TurnState> turns,
+			Dependencies dependencies, AtomicBoolean draining) {
 		this.agentStrategy = agentStrategy;
 		this.turns = turns;
+		this.dependencies = dependencies;
+		this.turnRegistry = dependencies.getTurnRegistry();
+		this.checkpointService = dependencies.getCheckpointService();
+		this.sessionMailbox = dependencies.getSessionMailbox();
+		this.admissionController = dependencies.getAdmissionController();
+		this.draining = draining;
 	}
 
 	/**
@@ -63,11 +118,24 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 			AgentContextAble context) {
 		log.info("创建会话订阅: turnId={}, message={}", turnId, message);
 
+		if (draining.get()) {
+			log.warn("节点排空中，拒绝新的会话: turnId={}", turnId);
+			return Flux.just(toSSE(AgentExecutionEvent.reconnect(context, "服务节点正在下线，请重新发起请求", null)));
+		}
+
+		String sessionKey = context.getSessionId() != null ? context.getSessionId().toString() : turnId;
+		return admitTurn(sessionKey, message, context, admitted -> startTurn(turnId, message, context, admitted));
+	}
+
+	private Flux<ServerSentEvent<AgentExecutionEvent>> startTurn(String turnId, String message,
+			AgentContextAble context, Admitted admitted) {
 		// 创建或获取会话状态
 		TurnState state = ensureTurn(turnId, context);
+		admitted.applyTo(state);
 
 		// 开始执行Agent任务
-		startAgentExecution(state, message, context);
+		state.setTask(message);
+		startAgentExecution(state, agentStrategy.executeStreamWithInteraction(message, state, context));
 
 		// 返回SSE流
 		return state.getSink()
@@ -80,6 +148,118 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 			});
 	}
 
+	/**
+	 * 从检查点恢复会话
+	 * @param turnId 会话ID
+	 * @return SSE事件流
+	 */
+	@Override
+	public Flux<ServerSentEvent<AgentExecutionEvent>> resume(String turnId) {
+		TurnState existing = turns.get(turnId);
+		if (existing != null) {
+			// 本节点仍在执行，直接重新挂载
+			log.info("turn 仍在执行，重新挂载 SSE: turnId={}", turnId);
+			return existing.getSink().asFlux();
+		}
+		if (draining.get()) {
+			// 排空中的节点不再接管新的 turn，交由其他节点恢复
+			return Flux.just(toSSE(AgentExecutionEvent.reconnect(null, "服务节点正在下线，请重新连接", null)));
+		}
+
+		return turnRegistry.lookupOwner(turnId)
+			.filter(owner -> !owner.equals(turnRegistry.getNodeId()))
+			.map(owner -> Flux.just(toSSE(AgentExecutionEvent.error("turn 正在其他节点执行: " + owner))))
+			.switchIfEmpty(checkpointService.load(turnId)
+				.flatMap(resumePoint -> checkpointService.claimResume(turnId)
+					.map(claimed -> claimed ? resumeFromCheckpoint(resumePoint)
+							: Flux.just(toSSE(AgentExecutionEvent.error("turn 正在被其他请求恢复: " + turnId))))))
+			.flatMapMany(flux -> flux)
+			.switchIfEmpty(Flux.defer(() -> Flux.just(toSSE(AgentExecutionEvent.error("未找到可恢复的检查点: " + turnId)))));
+	}
+
+	private Flux<ServerSentEvent<AgentExecutionEvent>> resumeFromCheckpoint(ResumePoint resumePoint) {
+		log.info("从检查点恢复 turn: turnId={}, stage={}, iteration={}", resumePoint.getTurnId(),
+				resumePoint.getPausedStage(), resumePoint.getCurrentIteration());
+		String sessionKey = resumePoint.getSessionId() != null ? resumePoint.getSessionId() : resumePoint.getTurnId();
+		AgentContextAble context = agentStrategy.restoreContext(resumePoint);
+		AtomicBoolean started = new AtomicBoolean(false);
+		return admitTurn(sessionKey, null, context, admitted -> {
+			started.set(true);
+			TurnState state = ensureTurn(resumePoint.getTurnId(), context);
+			admitted.applyTo(state);
+			state.setTask(resumePoint.getOriginalTask());
+			startAgentExecution(state, agentStrategy.resumeStreamWithInteraction(resumePoint, state, context));
+			return state.getSink().asFlux();
+		}).doFinally(signal -> {
+			// 未能启动（排队被拒、会话繁忙、取消）时归还恢复权；启动后由 turn 移除时归还
+			if (!started.get()) {
+				checkpointService.releaseResume(resumePoint.getTurnId()).subscribe();
+			}
+		});
+	}
+
+	/**
+	 * 准入：先按会话串行（mailbox），再申请全局/用户并发许可，排队期间推送排队位置；
+	 * 凭证与许可交给 turn 持有，turn 移除时释放
+	 */
+	private Flux<ServerSentEvent<AgentExecutionEvent>> admitTurn(String sessionKey, String fingerprint,
+			Traceable trace, Function<Admitted, Flux<ServerSentEvent<AgentExecutionEvent>>> starter) {
+		return sessionMailbox.acquire(sessionKey, fingerprint).flatMapMany(ticket -> {
+			AtomicBoolean started = new AtomicBoolean(false);
+			AtomicBoolean queued = new AtomicBoolean(false);
+			return UserContextHolder.getUserId()
+				.map(UUID::toString)
+				.defaultIfEmpty(ANONYMOUS_USER)
+				.flatMapMany(userKey -> admissionController.admit(userKey).concatMap(admission -> {
+					if (admission.isGranted()) {
+						started.set(true);
+						return starter.apply(new Admitted(userKey, ticket, admission.getPermit()));
+					}
+					queued.set(true);
+					return Flux.just(toSSE(AgentExecutionEvent.progress(trace, "排队中，当前位置: " + admission.getPosition(),
+							Map.of("queued", true, "position", admission.getPosition()))));
+				}))
+				.doOnError(error -> {
+					if (!started.get()) {
+						ticket.dispose();
+					}
+				})
+				.doOnCancel(() -> {
+					if (!started.get()) {
+						ticket.dispose();
+					}
+				})
+				// 已经推送过排队事件时响应头已提交，只能以错误事件结束；否则向上抛出由入口返回 429
+				.onErrorResume(AdmissionRejectedException.class,
+						error -> queued.get() ? Flux.just(toSSE(AgentExecutionEvent.error(error.getMessage())))
+								: Flux.error(error));
+		})
+			.onErrorResume(SessionBusyException.class,
+					error -> Flux.just(toSSE(AgentExecutionEvent.error(error.getMessage()))));
+	}
+
+	/**
+	 * 准入结果：会话执行凭证、并发许可与调度流标识，交给 turn 持有
+	 */
+	private record Admitted(String userKey, Disposable ticket, Disposable permit) {
+
+		/**
+		 * 复用已有的 turn 状态时，先释放它仍持有的旧凭证与许可，避免被覆盖后无人释放
+		 */
+		void applyTo(TurnState state) {
+			if (state.getMailboxTicket() != null && state.getMailboxTicket() != ticket) {
+				state.getMailboxTicket().dispose();
+			}
+			if (state.getAdmissionPermit() != null && state.getAdmissionPermit() != permit) {
+				state.getAdmissionPermit().dispose();
+			}
+			state.setUserKey(userKey);
+			state.setMailboxTicket(ticket);
+			state.setAdmissionPermit(permit);
+		}
+
+	}
+
 	/**
 	 * 处理用户响应（通用方法）
 	 * @param turnId 会话ID
@@ -92,7 +272,19 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 		TurnState state = turns.get(turnId);
 
 		if (state == null) {
-			log.error("not have the turn: {}", turnId);
+			// 当前节点不持有该 turn：先转发到 owner 节点，没有存活 owner 时视为已挂起，把响应记录到检查点
+			turnRegistry.relayInteractionResponse(turnId, response)
+				.flatMap(relayed -> {
+					if (relayed) {
+						return Mono.just(true);
+					}
+					return checkpointService.recordInteractionResponse(turnId, response);
+				})
+				.subscribe(handled -> {
+					if (!handled) {
+						log.error("not have the turn: {}", turnId);
+					}
+				});
 			return;
 		}
 		// 先把 这个 Sink.One 审批的阻塞点给空掉，以免影响该 turn 下的交互
@@ -115,8 +307,15 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 	public void closeTurn(String turnId) {
 		log.info("关闭会话: turnId={}", turnId);
 
-		TurnState state = turns.remove(turnId);
-		if (state != null) {
+		TurnState state = removeTurn(turnId);
+		if (state == null) {
+			turnRegistry.relayCloseTurn(turnId).subscribe(relayed -> {
+				if (!relayed) {
+					log.warn("关闭会话失败，turn 不存在: turnId={}", turnId);
+				}
+			});
+		}
+		else {
 			// 取消当前执行
 			if (state.getCurrentExecution() != null && !state.getCurrentExecution().isDisposed()) {
 				state.getCurrentExecution().dispose();
@@ -133,7 +332,7 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 	 */
 	@Override
 	public IAgentTurnManagerService of(IAgentStrategy agentStrategy) {
-		return new AgentTurnManagerService(agentStrategy, this.turns);
+		return new AgentTurnManagerService(agentStrategy, this.turns, this.dependencies, this.draining);
 	}
 
 	@Override
@@ -141,6 +340,56 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 		return this.turns.get(turnId);
 	}
 
+	@Override
+	public boolean isDraining() {
+		return draining.get();
+	}
+
+	@Override
+	public int activeTurnCount() {
+		return turns.size();
+	}
+
+	/**
+	 * 排空当前节点：新请求直接返回重连事件，运行中的 turn 在截止时间内自然结束，超时后中止剩余 turn（最近的检查点保留，客户端可通过 resume 在其他节点恢复）
+	 */
+	@Override
+	public Mono<Integer> drain(Duration deadline) {
+		if (draining.compareAndSet(false, true)) {
+			log.info("节点开始排空: activeTurns={}, deadline={}", turns.size(), deadline);
+		}
+		return Flux.interval(Duration.ZERO, DRAIN_POLL_INTERVAL)
+			.filter(tick -> turns.isEmpty())
+			.next()
+			.timeout(deadline, Mono.empty())
+			.then(Mono.fromCallable(this::evictStragglers));
+	}
+
+	/**
+	 * 中止截止时间后仍在运行的 turn，推送重连事件
+	 */
+	private int evictStragglers() {
+		List<TurnState> stragglers = new ArrayList<>(turns.values());
+		boolean resumable = checkpointService.isEnabled();
+		for (TurnState state : stragglers) {
+			String turnId = state.getTurnId();
+			log.warn("排空超时，中止 turn: turnId={}, resumable={}", turnId, resumable);
+			if (state.getCurrentExecution() != null && !state.getCurrentExecution().isDisposed()) {
+				state.getCurrentExecution().dispose();
+			}
+			Map<String, Object> data = resumable
+					? Map.of("resumable", true, "resumeUrl", "/api/agent/chat/react-plus/" + turnId + "/resume")
+					: Map.of("resumable", false);
+			AgentExecutionEvent reconnect = AgentExecutionEvent.reconnect(state.getContext(), "服务节点正在下线，请重新连接", data);
+			state.getSink().tryEmitNext(toSSE(reconnect));
+			state.setClosed(true);
+			state.getSink().tryEmitComplete();
+			removeTurn(state);
+		}
+		log.info("节点排空结束: evicted={}", stragglers.size());
+		return stragglers.size();
+	}
+
 	/**
 	 * 确保会话存在
 	 */
@@ -153,27 +402,74 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 			state.setSink(Sinks.many().multicast().onBackpressureBuffer());
 			state.setClosed(false);
 			state.setCreatedAt(LocalDateTime.now());
+			turnRegistry.register(tid).subscribe();
 			return state;
 		});
 	}
 
+	/**
+	 * 移除会话并注销集群登记，释放会话执行权
+	 */
+	private TurnState removeTurn(String turnId) {
+		TurnState state = turns.get(turnId);
+		if (state != null) {
+			removeTurn(state);
+		}
+		return state;
+	}
+
+	/**
+	 * 移除指定的 turn 状态；同一 turnId 已被恢复出新的状态时只释放旧状态持有的资源，不影响新状态
+	 */
+	private void removeTurn(TurnState state) {
+		if (turns.remove(state.getTurnId(), state)) {
+			turnRegistry.unregister(state.getTurnId()).subscribe();
+			checkpointService.releaseResume(state.getTurnId()).subscribe();
+		}
+		release(state.getMailboxTicket());
+		release(state.getAdmissionPermit());
+	}
+
+	private static void release(Disposable resource) {
+		if (resource != null) {
+			resource.dispose();
+		}
+	}
+
 	/**
 	 * 开始执行Agent任务
 	 */
-	private void startAgentExecution(TurnState state, String message, AgentContextAble context) {
+	private void startAgentExecution(TurnState state, Flux<AgentExecutionEvent> executionFlux) {
 		log.info("开始执行 Agent: turnId={}", state.getTurnId());
 
 		AtomicInteger messageCount = new AtomicInteger(0);
+		// 审批等待时挂起：记录挂起时的审批事件，完成时据此释放资源而不是清理检查点
+		AtomicReference<AgentExecutionEvent> suspendedBy = new AtomicReference<>();
+		// 审批等待超时：在内存中等待审批时，超时后中止 turn，避免许可与执行凭证被长期占用
+		AtomicReference<Disposable> approvalTimer = new AtomicReference<>();
 		// 执行Agent流式任务
-		Disposable execution = agentStrategy.executeStreamWithInteraction(message, state, context)
+		// 执行链脱离了请求订阅，需要显式带上调度流，供 ChatModel 装饰器做按用户公平调度
+		Disposable execution = executionFlux.contextWrite(LlmFlow.of(state.getUserKey()))
 			.map(event -> AgentTurnManagerService.toSSE(event, messageCount))
 			.doOnNext(event -> {
 				log.debug("推送SSE事件: turnId={}, eventType={}", state.getTurnId(), event.event());
 
 				if (event.data().getType() == AgentExecutionEvent.EventType.TOOL_APPROVAL) {
-					// 创建等待点
-					Sinks.One<InteractionResponse> approvalGate = Sinks.one();
-					state.setPendingApproval(approvalGate);
+					// 创建等待点（FluxUtils 已创建时不覆盖，否则审批结果会投递到错误的等待点）
+					if (state.getPendingApproval() == null) {
+						state.setPendingApproval(Sinks.one());
+					}
+					if (checkpointService.isSuspendOnApproval()) {
+						suspendedBy.set(event.data());
+					}
+					else {
+						// 审批等待点：在最新检查点上记录待审批信息
+						checkpointService
+							.markAwaitingApproval(state.getTurnId(), toInteractionRequest(event.data()),
+									CheckpointUtils.pendingToolMessages(event.data()))
+							.subscribe();
+						watchApproval(state, approvalTimer);
+					}
 				}
 				// 推送事件到Sink
 				Sinks.EmitResult result = state.getSink().tryEmitNext(event);
@@ -181,23 +477,91 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 					log.warn("推送事件失败: turnId={}, result={}", state.getTurnId(), result);
 				}
 			})
+			// 挂起：审批事件推送后立即取消上游执行链，不再在内存中等待
+			.takeUntil(event -> suspendedBy.get() != null)
 			.doOnError(error -> {
 				log.error("Agent执行异常: turnId={}", state.getTurnId(), error);
 				state.getSink().tryEmitNext(toSSE(AgentExecutionEvent.error(error)));
 			})
 			.doOnComplete(() -> {
+				if (suspendedBy.get() != null) {
+					suspendTurn(state, suspendedBy.get());
+					return;
+				}
 				log.info("Agent任务执行完成: turnId={}", state.getTurnId());
-				// 任务完成后关闭Sink
-				state.setClosed(true);
-				// 清理会话
-				state.getSink().tryEmitComplete();
-				turns.remove(state.getTurnId());
+				checkpointService.delete(state.getTurnId()).subscribe();
 			})
-			.subscribe();
+			// 完成、出错与取消都在这里结束 SSE 并释放执行凭证与许可；挂起由 suspendTurn 在写入检查点后释放
+			.doFinally(signal -> {
+				Disposable timer = approvalTimer.getAndSet(null);
+				if (timer != null) {
+					timer.dispose();
+				}
+				if (signal == SignalType.ON_COMPLETE && suspendedBy.get() != null) {
+					return;
+				}
+				finishTurn(state);
+			})
+			// 错误已在 doOnError 中记录并推送给客户端
+			.subscribe(null, error -> {
+			});
 
 		state.setCurrentExecution(execution);
 	}
 
+	/**
+	 * 在内存中等待审批：超过审批超时仍未收到响应时推送错误事件并中止执行，由 doFinally 结束 turn
+	 */
+	private void watchApproval(TurnState state, AtomicReference<Disposable> approvalTimer) {
+		Sinks.One<InteractionResponse> gate = state.getPendingApproval();
+		Disposable timer = Mono.delay(dependencies.getApprovalTimeout()).subscribe(tick -> {
+			if (state.getPendingApproval() != gate || state.isClosed()) {
+				return;
+			}
+			log.warn("审批等待超时，中止 turn: turnId={}, timeout={}", state.getTurnId(), dependencies.getApprovalTimeout());
+			state.setPendingApproval(null);
+			state.getSink().tryEmitNext(toSSE(AgentExecutionEvent.error("等待审批超时，任务已结束")));
+			Disposable execution = state.getCurrentExecution();
+			if (execution != null) {
+				execution.dispose();
+			}
+		});
+		Disposable previous = approvalTimer.getAndSet(timer);
+		if (previous != null) {
+			previous.dispose();
+		}
+	}
+
+	/**
+	 * 结束 turn：关闭 SSE 并移除 turn（释放执行凭证与许可），可重复调用
+	 */
+	private void finishTurn(TurnState state) {
+		state.setClosed(true);
+		state.getSink().tryEmitComplete();
+		removeTurn(state);
+	}
+
+	/**
+	 * 挂起等待审批的 turn：把待审批信息写入检查点后释放执行链、SSE 与内存状态， 审批结果到达后由 resume 从检查点恢复（可以在其他节点）
+	 */
+	private void suspendTurn(TurnState state, AgentExecutionEvent approvalEvent) {
+		String turnId = state.getTurnId();
+		log.info("turn 等待审批，挂起并释放资源: turnId={}", turnId);
+		checkpointService
+			.markAwaitingApproval(turnId, toInteractionRequest(approvalEvent),
+					CheckpointUtils.pendingToolMessages(approvalEvent))
+			.doFinally(signal -> {
+				Traceable trace = new TraceInfo().setSessionId(approvalEvent.getSessionId())
+					.setTurnId(approvalEvent.getTurnId());
+				AgentExecutionEvent suspended = AgentExecutionEvent.progress(trace, "等待审批，任务已挂起",
+						Map.of("suspended", true, "resumeUrl", "/api/agent/chat/react-plus/" + turnId + "/resume"));
+				state.getSink().tryEmitNext(toSSE(suspended));
+				state.setPendingApproval(null);
+				finishTurn(state);
+			})
+			.subscribe();
+	}
+
 	/**
 	 * 终止对话：直接结束任务
 	 */
@@ -216,11 +580,26 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 		state.setClosed(true);
 
 		// 清理会话
-		turns.remove(state.getTurnId());
+		removeTurn(state);
 
 		log.info("会话已终止: turnId={}", state.getTurnId());
 	}
 
+	/**
+	 * 将审批事件转换为通用交互请求，便于写入检查点
+	 */
+	private static InteractionRequest toInteractionRequest(AgentExecutionEvent event) {
+		InteractionRequest request = new InteractionRequest().setType(InteractionType.TOOL_APPROVAL)
+			.setSessionId(String.valueOf(event.getSessionId()))
+			.setMessage(event.getMessage());
+		if (event.getData() instanceof FluxUtils.ToolApprovalRequest approvalRequest) {
+			request.setRequestId(approvalRequest.toolCallId())
+				.setTitle(approvalRequest.toolName())
+				.setContext(approvalRequest.args());
+		}
+		return request;
+	}
+
 	/**
 	 * 将AgentExecutionEvent转换为SSE事件
 	 */
@@ -243,4 +622,36 @@ public class AgentTurnManagerService implements IAgentTurnManagerService {
 			.build();
 	}
 
+	/**
+	 * 构造依赖：不设置的组件使用单节点、不做检查点、不限流的默认实现
+	 */
+	@Getter
+	@Builder
+	public static class Dependencies {
+
+		/**
+		 * 执行策略，通常为空，由 {@link #of(IAgentStrategy)} 为各入口绑定
+		 */
+		private final IAgentStrategy agentStrategy;
+
+		@Builder.Default
+		private final IAgentTurnRegistry turnRegistry = new LocalAgentTurnRegistry();
+
+		@Builder.Default
+		private final ITurnCheckpointService checkpointService = TurnCheckpointService.disabled();
+
+		@Builder.Default
+		private final ISessionMailbox sessionMailbox = new SessionMailbox(new MailboxProperties());
+
+		@Builder.Default
+		private final IAdmissionController admissionController = new AdmissionController(new AdmissionProperties());
+
+		/**
+		 * 在内存中等待工具审批的最长时间
+		 */
+		@Builder.Default
+		private final Duration approvalTimeout = Duration.ofMinutes(10);
+
+	}
+
 }
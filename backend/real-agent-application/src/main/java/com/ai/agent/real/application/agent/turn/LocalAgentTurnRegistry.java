@@ -0,0 +1,57 @@
+package com.ai.agent.real.application.agent.turn;
+
+import com.ai.agent.real.common.utils.CommonUtils;
+import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
+import com.ai.agent.real.contract.agent.service.IAgentTurnRegistry;
+import com.ai.agent.real.contract.model.interaction.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * 单机 turn 注册表：turn 只存在于本节点内存中，不做任何跨节点转发
+ *
+ * @author han
+ * @time 2025/11/3 10:32
+ */
+public class LocalAgentTurnRegistry implements IAgentTurnRegistry {
+
+	private final String nodeId;
+
+	public LocalAgentTurnRegistry() {
+		this.nodeId = CommonUtils.getTraceId("node");
+	}
+
+	@Override
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	@Override
+	public Mono<Void> register(String turnId) {
+		return Mono.empty();
+	}
+
+	@Override
+	public Mono<Void> unregister(String turnId) {
+		return Mono.empty();
+	}
+
+	@Override
+	public Mono<String> lookupOwner(String turnId) {
+		return Mono.empty();
+	}
+
+	@Override
+	public Mono<Boolean> relayInteractionResponse(String turnId, InteractionResponse response) {
+		return Mono.just(false);
+	}
+
+	@Override
+	public Mono<Boolean> relayCloseTurn(String turnId) {
+		return Mono.just(false);
+	}
+
+	@Override
+	public void bind(IAgentTurnManagerService localManager) {
+	}
+
+}
@@ -0,0 +1,218 @@
+package com.ai.agent.real.application.agent.turn;
+
+import com.ai.agent.real.common.utils.CommonUtils;
+import com.ai.agent.real.common.utils.JsonUtils;
+import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
+import com.ai.agent.real.contract.agent.service.IAgentTurnRegistry;
+import com.ai.agent.real.contract.infra.redis.IRedisService;
+import com.ai.agent.real.contract.model.interaction.*;
+import com.ai.agent.real.contract.model.property.ClusterProperties;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于 Redis 的 turn 集群注册表
+ * <p>
+ * key 设计：
+ * <ul>
+ * <li>{prefix}:turn:{turnId} -> owner nodeId，带租约 TTL，由 owner 节点心跳续约</li>
+ * <li>{prefix}:node:{nodeId} -> 节点存活租约，心跳续约，过期即视为节点宕机</li>
+ * <li>{prefix}:relay:{nodeId} -> 节点专属 pub/sub 频道，接收其他节点转发过来的请求</li>
+ * </ul>
+ * 任意节点收到 interaction_response / close 请求时，若 turn 不在本地，则查询 owner 并通过频道转发， 负载均衡无需粘性会话
+ *
+ * @author han
+ * @time 2025/11/3 10:40
+ */
+@Slf4j
+public class RedisAgentTurnRegistry implements IAgentTurnRegistry {
+
+	private static final String RELAY_INTERACTION_RESPONSE = "INTERACTION_RESPONSE";
+
+	private static final String RELAY_CLOSE_TURN = "CLOSE_TURN";
+
+	private final IRedisService redisService;
+
+	private final ClusterProperties properties;
+
+	private final String nodeId;
+
+	/**
+	 * 本节点持有的 turn，心跳时统一续约
+	 */
+	private final Set<String> localTurns = ConcurrentHashMap.newKeySet();
+
+	private Disposable heartbeat;
+
+	private Disposable listener;
+
+	public RedisAgentTurnRegistry(IRedisService redisService, ClusterProperties properties) {
+		this.redisService = redisService;
+		this.properties = properties;
+		this.nodeId = CommonUtils.defaultIfBlank(properties.getNodeId(), CommonUtils.getTraceId("node"));
+	}
+
+	@Override
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	@Override
+	public Mono<Void> register(String turnId) {
+		localTurns.add(turnId);
+		return redisService.set(turnKey(turnId), nodeId, properties.getLeaseTtl())
+			.doOnError(e -> log.warn("[TurnRegistry] 登记 turn 失败: turnId={}", turnId, e))
+			.onErrorResume(e -> Mono.just(false))
+			.then();
+	}
+
+	@Override
+	public Mono<Void> unregister(String turnId) {
+		if (!localTurns.remove(turnId)) {
+			return Mono.empty();
+		}
+		// 只删除属于自己的登记，避免误删已被其他节点接管的 turn
+		return redisService.get(turnKey(turnId))
+			.filter(nodeId::equals)
+			.flatMap(owner -> redisService.delete(turnKey(turnId)))
+			.onErrorResume(e -> {
+				log.warn("[TurnRegistry] 注销 turn 失败: turnId={}", turnId, e);
+				return Mono.just(false);
+			})
+			.then();
+	}
+
+	@Override
+	public Mono<String> lookupOwner(String turnId) {
+		return redisService.get(turnKey(turnId))
+			.map(String::valueOf)
+			.filterWhen(owner -> redisService.hasKey(nodeKey(owner)))
+			.onErrorResume(e -> {
+				log.warn("[TurnRegistry] 查询 owner 失败: turnId={}", turnId, e);
+				return Mono.empty();
+			});
+	}
+
+	@Override
+	public Mono<Boolean> relayInteractionResponse(String turnId, InteractionResponse response) {
+		return relay(new TurnRelayMessage(RELAY_INTERACTION_RESPONSE, turnId, nodeId, response));
+	}
+
+	@Override
+	public Mono<Boolean> relayCloseTurn(String turnId) {
+		return relay(new TurnRelayMessage(RELAY_CLOSE_TURN, turnId, nodeId, null));
+	}
+
+	/**
+	 * 绑定本地管理器：订阅本节点频道并启动心跳
+	 */
+	@Override
+	public synchronized void bind(IAgentTurnManagerService localManager) {
+		if (listener != null) {
+			return;
+		}
+		listener = redisService.listen(relayChannel(nodeId))
+			.filter(String.class::isInstance)
+			.map(payload -> JsonUtils.jsonStringToObject((String) payload, TurnRelayMessage.class))
+			.doOnNext(message -> dispatch(localManager, message))
+			.onErrorContinue((e, payload) -> log.warn("[TurnRegistry] 处理转发消息失败: {}", payload, e))
+			.subscribe();
+
+		heartbeat = Flux.interval(Duration.ZERO, properties.getHeartbeatInterval())
+			.concatMap(tick -> renewLeases().onErrorResume(e -> {
+				log.warn("[TurnRegistry] 续约失败: nodeId={}", nodeId, e);
+				return Mono.empty();
+			}))
+			.subscribe();
+
+		log.info("[TurnRegistry] 集群注册表已启动: nodeId={}", nodeId);
+	}
+
+	/**
+	 * 停止心跳与订阅，并立即释放节点租约，让其他节点尽快感知
+	 */
+	public void close() {
+		if (heartbeat != null) {
+			heartbeat.dispose();
+		}
+		if (listener != null) {
+			listener.dispose();
+		}
+		redisService.delete(nodeKey(nodeId)).onErrorResume(e -> Mono.just(false)).block(Duration.ofSeconds(3));
+		log.info("[TurnRegistry] 集群注册表已关闭: nodeId={}", nodeId);
+	}
+
+	/**
+	 * 查询 owner 并转发；owner 是自己或 owner 的节点租约已过期时不转发
+	 */
+	private Mono<Boolean> relay(TurnRelayMessage message) {
+		String turnId = message.turnId();
+		return redisService.get(turnKey(turnId))
+			.map(String::valueOf)
+			// owner 就是自己说明本地状态已丢失，不能再转发，否则会形成环路
+			.filter(owner -> !nodeId.equals(owner))
+			.flatMap(owner -> redisService.hasKey(nodeKey(owner)).flatMap(alive -> {
+				if (!Boolean.TRUE.equals(alive)) {
+					log.warn("[TurnRegistry] turn owner 节点租约已过期，清理登记: turnId={}, owner={}", turnId, owner);
+					return redisService.delete(turnKey(turnId)).thenReturn(false);
+				}
+				log.info("[TurnRegistry] 转发到 owner 节点: type={}, turnId={}, owner={}", message.type(), turnId, owner);
+				return redisService.publish(relayChannel(owner), JsonUtils.objectToJsonString(message))
+					.map(receivers -> receivers > 0);
+			}))
+			.defaultIfEmpty(false)
+			.onErrorResume(e -> {
+				log.warn("[TurnRegistry] 转发失败: turnId={}", turnId, e);
+				return Mono.just(false);
+			});
+	}
+
+	private void dispatch(IAgentTurnManagerService localManager, TurnRelayMessage message) {
+		if (message == null || message.turnId() == null) {
+			return;
+		}
+		String turnId = message.turnId();
+		if (localManager.getTurnState(turnId) == null) {
+			// 本节点已不持有该 turn，丢弃消息，避免再次转发
+			log.warn("[TurnRegistry] 收到转发但本地无该 turn: turnId={}, from={}", turnId, message.sourceNodeId());
+			return;
+		}
+		switch (message.type()) {
+			case RELAY_INTERACTION_RESPONSE -> localManager.handleInteractionResponse(turnId, message.response());
+			case RELAY_CLOSE_TURN -> localManager.closeTurn(turnId);
+			default -> log.warn("[TurnRegistry] 未知转发类型: {}", message.type());
+		}
+	}
+
+	private Mono<Void> renewLeases() {
+		Duration ttl = properties.getLeaseTtl();
+		return redisService.set(nodeKey(nodeId), System.currentTimeMillis(), ttl)
+			.thenMany(Flux.fromIterable(localTurns).flatMap(turnId -> redisService.set(turnKey(turnId), nodeId, ttl)))
+			.then();
+	}
+
+	private String turnKey(String turnId) {
+		return properties.getKeyPrefix() + ":turn:" + turnId;
+	}
+
+	private String nodeKey(String nodeId) {
+		return properties.getKeyPrefix() + ":node:" + nodeId;
+	}
+
+	private String relayChannel(String nodeId) {
+		return properties.getKeyPrefix() + ":relay:" + nodeId;
+	}
+
+	/**
+	 * 跨节点转发消息
+	 */
+	public record TurnRelayMessage(String type, String turnId, String sourceNodeId, InteractionResponse response) {
+	}
+
+}
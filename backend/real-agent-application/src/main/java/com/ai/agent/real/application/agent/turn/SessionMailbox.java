@@ -0,0 +1,163 @@
+package com.ai.agent.real.application.agent.turn;
+
+import com.ai.agent.real.common.exception.SessionBusyException;
+import com.ai.agent.real.contract.agent.service.ISessionMailbox;
+import com.ai.agent.real.contract.model.property.MailboxProperties;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 基于内存的会话 mailbox，每个会话一条 lane，lane 的状态只在 ConcurrentHashMap.compute 中修改，
+ * 不同会话落在不同的桶上互不阻塞，会话空闲后 lane 被移除
+ *
+ * @author han
+ * @time 2025/11/6 14:20
+ */
+@Slf4j
+public class SessionMailbox implements ISessionMailbox {
+
+	private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+	private final MailboxProperties properties;
+
+	public SessionMailbox(MailboxProperties properties) {
+		this.properties = properties;
+	}
+
+	@Override
+	public Mono<Disposable> acquire(String sessionKey, String fingerprint) {
+		if (!properties.isEnabled() || sessionKey == null) {
+			return Mono.just(Disposables.single());
+		}
+		return Mono.defer(() -> {
+			Ticket ticket = new Ticket(sessionKey, fingerprint);
+			AtomicReference<String> rejected = new AtomicReference<>();
+			lanes.compute(sessionKey, (key, lane) -> {
+				Lane target = lane != null ? lane : new Lane();
+				if (properties.isRejectDuplicate() && fingerprint != null
+						&& target.fingerprints.contains(fingerprint)) {
+					rejected.set("相同的请求正在处理中，请勿重复提交");
+					return lane;
+				}
+				if (target.size > properties.getMaxQueueDepth()) {
+					rejected.set("会话繁忙，排队中的请求已达上限");
+					return lane;
+				}
+				target.size++;
+				target.fingerprints.add(fingerprint);
+				target.queue.offer(ticket);
+				return target;
+			});
+			if (rejected.get() != null) {
+				log.warn("拒绝会话请求: sessionKey={}, reason={}", sessionKey, rejected.get());
+				return Mono.error(new SessionBusyException(rejected.get()));
+			}
+			dispatch(sessionKey);
+			return ticket.granted.asMono()
+				.timeout(properties.getQueueTimeout())
+				.onErrorMap(TimeoutException.class, error -> new SessionBusyException("会话排队超时"))
+				.doOnError(error -> ticket.dispose())
+				.doOnCancel(ticket::dispose)
+				.thenReturn(ticket);
+		});
+	}
+
+	@Override
+	public int pending(String sessionKey) {
+		Lane lane = lanes.get(sessionKey);
+		return lane != null ? lane.size : 0;
+	}
+
+	/**
+	 * lane 空闲时把执行权交给队首
+	 */
+	private void dispatch(String sessionKey) {
+		AtomicReference<Ticket> next = new AtomicReference<>();
+		lanes.computeIfPresent(sessionKey, (key, lane) -> {
+			if (lane.active == null && !lane.queue.isEmpty()) {
+				lane.active = lane.queue.poll();
+				next.set(lane.active);
+			}
+			return lane;
+		});
+		if (next.get() != null) {
+			log.debug("会话执行权移交: sessionKey={}", sessionKey);
+			next.get().granted.tryEmitEmpty();
+		}
+	}
+
+	private void release(Ticket ticket) {
+		lanes.computeIfPresent(ticket.sessionKey, (key, lane) -> {
+			if (lane.active == ticket) {
+				lane.active = null;
+			}
+			else {
+				lane.queue.remove(ticket);
+			}
+			lane.size--;
+			lane.fingerprints.remove(ticket.fingerprint);
+			return lane.size > 0 ? lane : null;
+		});
+		dispatch(ticket.sessionKey);
+	}
+
+	/**
+	 * 会话 lane：执行中的凭证与排队中的凭证
+	 */
+	private static class Lane {
+
+		private final ArrayDeque<Ticket> queue = new ArrayDeque<>();
+
+		private final List<String> fingerprints = new ArrayList<>();
+
+		private Ticket active;
+
+		private int size;
+
+	}
+
+	/**
+	 * 执行凭证，dispose 幂等
+	 */
+	private class Ticket implements Disposable {
+
+		private final String sessionKey;
+
+		private final String fingerprint;
+
+		private final Sinks.One<Void> granted = Sinks.one();
+
+		private final AtomicBoolean disposed = new AtomicBoolean(false);
+
+		private Ticket(String sessionKey, String fingerprint) {
+			this.sessionKey = sessionKey;
+			this.fingerprint = fingerprint;
+		}
+
+		@Override
+		public void dispose() {
+			if (disposed.compareAndSet(false, true)) {
+				release(this);
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return disposed.get();
+		}
+
+	}
+
+}
@@ -0,0 +1,316 @@
+package com.ai.agent.real.application.agent.turn;
+
+import com.ai.agent.real.contract.agent.context.ResumePoint;
+import com.ai.agent.real.contract.agent.service.ITurnCheckpointService;
+import com.ai.agent.real.contract.infra.redis.IRedisService;
+import com.ai.agent.real.contract.model.interaction.InteractionRequest;
+import com.ai.agent.real.contract.model.interaction.InteractionResponse;
+import com.ai.agent.real.contract.model.property.CheckpointProperties;
+import com.ai.agent.real.domain.repository.context.TurnRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.r2dbc.postgresql.codec.Json;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * turn 检查点服务：Redis 保存最新快照（带 TTL），Postgres context.turns.meta 做持久兜底
+ * <p>
+ * 快照拆成两部分：游标（阶段、迭代、meta、消息条数）每次覆盖写，同一个 turn 只保留最新一份；消息列表只追加上次检查点之后新增的消息，
+ * 已落盘的前缀与当前历史对不上（如上下文被压缩）时才整体重写
+ *
+ * @author han
+ * @time 2025/11/4 14:40
+ */
+@Slf4j
+public class TurnCheckpointService implements ITurnCheckpointService {
+
+	private static final String META_CHECKPOINT_FIELD = "checkpoint";
+
+	private static final String META_MESSAGES_FIELD = "checkpoint_messages";
+
+	private static final String MESSAGES_FIELD = "messages";
+
+	private static final String MESSAGE_COUNT_FIELD = "messageCount";
+
+	private static final String MESSAGES_HASH_FIELD = "messagesHash";
+
+	private final IRedisService redisService;
+
+	private final TurnRepository turnRepository;
+
+	private final ObjectMapper objectMapper;
+
+	private final CheckpointProperties properties;
+
+	public TurnCheckpointService(IRedisService redisService, TurnRepository turnRepository, ObjectMapper objectMapper,
+			CheckpointProperties properties) {
+		this.redisService = redisService;
+		this.turnRepository = turnRepository;
+		this.objectMapper = objectMapper;
+		this.properties = properties;
+	}
+
+	/**
+	 * 关闭检查点时使用的空实现
+	 */
+	public static TurnCheckpointService disabled() {
+		return new TurnCheckpointService(null, null, null, new CheckpointProperties());
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	@Override
+	public boolean isSuspendOnApproval() {
+		return properties.isEnabled() && properties.isSuspendOnApproval();
+	}
+
+	@Override
+	public Mono<Void> save(ResumePoint resumePoint) {
+		if (!isEnabled() || resumePoint == null || resumePoint.getTurnId() == null) {
+			return Mono.empty();
+		}
+		String turnId = resumePoint.getTurnId();
+		List<ResumePoint.MessageSnapshot> messages = resumePoint.getMessages() != null ? resumePoint.getMessages()
+				: List.of();
+		List<String> messageJsons = messages.stream().map(this::toJson).toList();
+		return persistedCount(turnId, messageJsons).flatMap(persisted -> {
+			boolean rewrite = persisted == 0;
+			List<Object> delta = new ArrayList<>(messageJsons.subList(persisted, messageJsons.size()));
+			String cursor = writeCursor(resumePoint, messageJsons);
+			log.debug("[Checkpoint] 保存检查点: turnId={}, stage={}, iteration={}, appended={}, rewrite={}", turnId,
+					resumePoint.getPausedStage(), resumePoint.getCurrentIteration(), delta.size(), rewrite);
+
+			String messagesKey = messagesKey(turnId);
+			Mono<Void> redisWrite = (rewrite ? redisService.delete(messagesKey).then() : Mono.<Void>empty())
+				.then(delta.isEmpty() ? Mono.<Void>empty() : redisService.rightPushAll(messagesKey, delta).then())
+				.then(redisService.expire(messagesKey, properties.getTtl()))
+				.then(redisService.set(key(turnId), cursor, properties.getTtl()))
+				.then();
+			if (!properties.isPersistToDb()) {
+				return redisWrite;
+			}
+			UUID id = UUID.fromString(turnId);
+			String deltaArray = delta.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+			Mono<Integer> dbWrite = rewrite
+					? turnRepository.updateMeta(id,
+							Json.of("{\"" + META_CHECKPOINT_FIELD + "\":" + cursor + ",\"" + META_MESSAGES_FIELD
+									+ "\":" + deltaArray + "}"))
+					: turnRepository.appendCheckpoint(id, Json.of(cursor), Json.of(deltaArray));
+			return Mono.when(redisWrite, dbWrite);
+		}).onErrorResume(e -> {
+			// 检查点失败不影响主流程
+			log.warn("[Checkpoint] 保存检查点失败: turnId={}", turnId, e);
+			return Mono.empty();
+		});
+	}
+
+	@Override
+	public Mono<ResumePoint> load(String turnId) {
+		if (!isEnabled() || turnId == null) {
+			return Mono.empty();
+		}
+		return redisService.get(key(turnId))
+			.map(String::valueOf)
+			.flatMap(json -> Mono.fromCallable(() -> objectMapper.readValue(json, ResumePoint.class)))
+			.flatMap(resumePoint -> {
+				if (resumePoint.getMessages() != null || resumePoint.getMessageCount() == 0) {
+					return Mono.just(resumePoint);
+				}
+				return redisService.range(messagesKey(turnId), 0, resumePoint.getMessageCount() - 1)
+					.map(json -> readMessage(String.valueOf(json)))
+					.collectList()
+					// 消息列表不完整时交给数据库兜底
+					.filter(messages -> messages.size() == resumePoint.getMessageCount())
+					.map(messages -> {
+						resumePoint.setMessages(messages);
+						return resumePoint;
+					});
+			})
+			.switchIfEmpty(Mono.defer(() -> loadFromDb(turnId)))
+			.onErrorResume(e -> {
+				log.warn("[Checkpoint] 读取检查点失败: turnId={}", turnId, e);
+				return Mono.empty();
+			});
+	}
+
+	@Override
+	public Mono<Void> markAwaitingApproval(String turnId, InteractionRequest interactionRequest,
+			List<ResumePoint.MessageSnapshot> pendingToolMessages) {
+		return load(turnId).flatMap(resumePoint -> {
+			resumePoint.setInteractionRequest(interactionRequest);
+			// 上一个审批的响应不能留给这次审批
+			resumePoint.setUserResponse(null);
+			resumePoint.setPendingToolMessages(pendingToolMessages);
+			return save(resumePoint);
+		});
+	}
+
+	@Override
+	public Mono<Boolean> recordInteractionResponse(String turnId, InteractionResponse response) {
+		return load(turnId)
+			.filter(resumePoint -> resumePoint.getUserResponse() == null
+					&& response.answers(resumePoint.getInteractionRequest()))
+			.flatMap(resumePoint -> {
+				resumePoint.setUserResponse(response);
+				return save(resumePoint).thenReturn(true);
+			})
+			.defaultIfEmpty(false);
+	}
+
+	@Override
+	public Mono<Boolean> claimResume(String turnId) {
+		if (!isEnabled() || turnId == null) {
+			return Mono.just(true);
+		}
+		return redisService.setIfAbsent(resumeKey(turnId), turnId, properties.getResumeClaimTtl())
+			.defaultIfEmpty(false)
+			.onErrorResume(e -> {
+				log.warn("[Checkpoint] 抢占恢复权失败: turnId={}", turnId, e);
+				return Mono.just(false);
+			});
+	}
+
+	@Override
+	public Mono<Void> releaseResume(String turnId) {
+		if (!isEnabled() || turnId == null) {
+			return Mono.empty();
+		}
+		return redisService.delete(resumeKey(turnId)).then().onErrorResume(e -> {
+			log.warn("[Checkpoint] 释放恢复权失败: turnId={}", turnId, e);
+			return Mono.empty();
+		});
+	}
+
+	@Override
+	public Mono<Void> delete(String turnId) {
+		if (!isEnabled() || turnId == null) {
+			return Mono.empty();
+		}
+		Mono<Void> redisDelete = Mono.when(redisService.delete(key(turnId)), redisService.delete(messagesKey(turnId)));
+		Mono<Integer> dbDelete = properties.isPersistToDb() ? turnRepository.clearCheckpoint(UUID.fromString(turnId))
+				: Mono.empty();
+		return Mono.when(redisDelete, dbDelete).onErrorResume(e -> {
+			log.warn("[Checkpoint] 删除检查点失败: turnId={}", turnId, e);
+			return Mono.empty();
+		});
+	}
+
+	private Mono<ResumePoint> loadFromDb(String turnId) {
+		if (!properties.isPersistToDb()) {
+			return Mono.empty();
+		}
+		return turnRepository.findById(UUID.fromString(turnId))
+			.filter(turn -> turn.getMeta() != null)
+			.flatMap(turn -> Mono.fromCallable(() -> objectMapper.readTree(turn.getMeta().asString())))
+			.filter(tree -> tree.path(META_CHECKPOINT_FIELD).isObject())
+			.flatMap(tree -> Mono.fromCallable(() -> {
+				ResumePoint resumePoint = objectMapper.treeToValue(tree.path(META_CHECKPOINT_FIELD), ResumePoint.class);
+				if (resumePoint.getMessages() == null) {
+					List<ResumePoint.MessageSnapshot> messages = new ArrayList<>();
+					for (JsonNode message : tree.path(META_MESSAGES_FIELD)) {
+						if (messages.size() >= resumePoint.getMessageCount()) {
+							break;
+						}
+						messages.add(objectMapper.treeToValue(message, ResumePoint.MessageSnapshot.class));
+					}
+					resumePoint.setMessages(messages);
+				}
+				return resumePoint;
+			}));
+	}
+
+	/**
+	 * 已落盘且与当前历史前缀一致的消息条数：上次游标记录的前缀摘要与当前历史同样长度前缀的摘要相同、且消息列表条数与游标一致时，
+	 * 只需追加之后的消息，否则返回 0 整体重写。只比对最后一条消息认不出中间被改写（如上下文压缩）的历史
+	 */
+	private Mono<Integer> persistedCount(String turnId, List<String> messageJsons) {
+		Mono<JsonNode> cursor = redisService.get(key(turnId)).map(json -> readTree(String.valueOf(json)));
+		Mono<Long> size = redisService.size(messagesKey(turnId)).defaultIfEmpty(0L);
+		return Mono.zip(cursor, size).map(tuple -> {
+			int count = tuple.getT1().path(MESSAGE_COUNT_FIELD).asInt();
+			String hash = tuple.getT1().path(MESSAGES_HASH_FIELD).asText(null);
+			if (count == 0 || count > messageJsons.size() || tuple.getT2() != count) {
+				return 0;
+			}
+			return hash(messageJsons.subList(0, count)).equals(hash) ? count : 0;
+		}).defaultIfEmpty(0);
+	}
+
+	/**
+	 * 游标：恢复点去掉消息列表，只记录消息条数与消息摘要
+	 */
+	private String writeCursor(ResumePoint resumePoint, List<String> messageJsons) {
+		ObjectNode cursor = objectMapper.valueToTree(resumePoint);
+		cursor.remove(MESSAGES_FIELD);
+		cursor.put(MESSAGE_COUNT_FIELD, messageJsons.size());
+		cursor.put(MESSAGES_HASH_FIELD, hash(messageJsons));
+		return toJson(cursor);
+	}
+
+	/**
+	 * 按顺序对消息 JSON 计算 SHA-256，消息之间以换行分隔（序列化后的 JSON 不含裸换行）
+	 */
+	private static String hash(List<String> messageJsons) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String json : messageJsons) {
+				digest.update(json.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private String toJson(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("检查点无法序列化", e);
+		}
+	}
+
+	private JsonNode readTree(String json) {
+		try {
+			return objectMapper.readTree(json);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("检查点无法解析", e);
+		}
+	}
+
+	private ResumePoint.MessageSnapshot readMessage(String json) {
+		return objectMapper.convertValue(readTree(json), ResumePoint.MessageSnapshot.class);
+	}
+
+	private String key(String turnId) {
+		return properties.getKeyPrefix() + ":" + turnId;
+	}
+
+	private String messagesKey(String turnId) {
+		return key(turnId) + ":messages";
+	}
+
+	private String resumeKey(String turnId) {
+		return key(turnId) + ":resume";
+	}
+
+}
@@ -131,6 +131,16 @@ public class AgentStorageService implements IAgentStorageService {
 				}));
 	}
 
+	/**
+	 * 判断 turn 是否属于指定用户（按 turn 所属会话判断）
+	 */
+	@Override
+	public Mono<Boolean> isTurnOwnedBy(UUID turnId, UUID userId) {
+		return turnRepository.findById(turnId)
+			.flatMap(turn -> sessionRepository.existsByIdAndUserId(turn.getSessionId(), userId))
+			.defaultIfEmpty(false);
+	}
+
 	/**
 	 * 获取会话历史消息
 	 */
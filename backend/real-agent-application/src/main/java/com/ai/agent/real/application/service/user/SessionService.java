@@ -1,6 +1,8 @@
 package com.ai.agent.real.application.service.user;
 
 import com.ai.agent.real.common.constant.PromptConstants;
+import com.ai.agent.real.contract.model.llm.LlmPriority;
+import com.ai.agent.real.contract.model.llm.LlmStage;
 import com.ai.agent.real.contract.user.ISessionService;
 import com.ai.agent.real.contract.user.SessionDTO;
 import com.ai.agent.real.domain.entity.user.Session;
@@ -27,6 +29,8 @@ public class SessionService implements ISessionService {
 
 	private final ChatClient chatClient;
 
+	private static final String DEFAULT_TITLE = "新会话";
+
 	public SessionService(SessionRepository sessionRepository, ChatClient.Builder chatClientBuilder) {
 		this.sessionRepository = sessionRepository;
 		this.chatClient = chatClientBuilder.defaultSystem(PromptConstants.PROMPT_GEN_TITLE).build();
@@ -56,24 +60,41 @@ public class SessionService implements ISessionService {
 				.stream()
 				.content()
 				.collect(Collectors.joining())
-				.defaultIfEmpty("新会话") // AI 响应为空时的兜底
-				.map(String::trim);
+				.defaultIfEmpty(DEFAULT_TITLE) // AI 响应为空时的兜底
+				.map(String::trim)
+				// 标题生成为后台调用，配额紧张时让位于 turn 阶段调用；并按 SessionTitle 阶段路由到轻量模型
+				.contextWrite(LlmPriority.BACKGROUND.asContext())
+				.contextWrite(LlmStage.of(LlmStage.SESSION_TITLE));
 		}
 
 		// 2. 获取最终标题并保存会话
-		return titleMono.flatMap(finalTitle -> {
-			OffsetDateTime now = OffsetDateTime.now();
-			Session session = Session.builder()
-				.id(UUID.randomUUID()) // 根据你的 Entity 配置，如果由 DB 生成 ID，这里可能不需要设置
-				.title(finalTitle) // 使用最终确定的标题
-				.type(type)
-				.userId(userId)
-				.createdTime(now)
-				.updatedTime(now)
-				.isNew(true) // 标记为新记录以强制 INSERT
-				.build();
-			return sessionRepository.save(session);
-		}).map(SessionDTO::fromEntity);
+		return titleMono.flatMap(finalTitle -> createSession(finalTitle, type, userId));
+	}
+
+	/**
+	 * 使用给定标题创建新会话
+	 */
+	@Override
+	public Mono<SessionDTO> createSession(String title, String type, UUID userId) {
+		OffsetDateTime now = OffsetDateTime.now();
+		Session session = Session.builder()
+			.id(UUID.randomUUID()) // 根据你的 Entity 配置，如果由 DB 生成 ID，这里可能不需要设置
+			.title(StringUtils.hasText(title) ? title : DEFAULT_TITLE)
+			.type(type)
+			.userId(userId)
+			.createdTime(now)
+			.updatedTime(now)
+			.isNew(true) // 标记为新记录以强制 INSERT
+			.build();
+		return sessionRepository.save(session).map(SessionDTO::fromEntity);
+	}
+
+	/**
+	 * 更新会话标题
+	 */
+	@Override
+	public Mono<Void> updateTitle(UUID sessionId, String title) {
+		return sessionRepository.updateTitle(sessionId, title).then();
 	}
 
 	/**
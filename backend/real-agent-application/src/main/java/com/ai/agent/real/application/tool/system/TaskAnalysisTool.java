@@ -79,6 +79,7 @@ public class TaskAnalysisTool implements AgentTool {
 		}
 		metadata.setRealTask(taskAnalysisToolDto.getRealTask());
 		metadata.setNote(taskAnalysisToolDto.getNote());
+		metadata.setSessionTitle(taskAnalysisToolDto.getSessionTitle());
 		context.setMetadata(metadata);
 		return ToolResult.ok(taskAnalysisToolDto, start - System.currentTimeMillis(), getId());
 	}
@@ -96,6 +97,9 @@ public class TaskAnalysisTool implements AgentTool {
 		@ToolParam(required = true, description = "任务难度评估依据，简洁专业的文本，明确指出决定难度等级的核心因素（如任务目标清晰度、步骤复杂度、信息整合需求等），不含因果关联词。")
 		private String note;
 
+		@ToolParam(required = false, description = "根据用户输入生成的简短会话标题，不超过15字，不含引号或其他标点符号。")
+		private String sessionTitle;
+
 	}
 
 }
@@ -242,6 +242,7 @@ public class AgentUtils {
 		newContext.setToolArgs(originalContext.getToolArgs());
 		newContext.setCurrentIteration(originalContext.getCurrentIteration());
 		newContext.setTaskCompleted(originalContext.getTaskCompleted());
+		newContext.setTurnBudget(originalContext.getTurnBudget());
 
 		// 继承元数据
 		newContext.setMetadata(originalContext.getMetadata());
@@ -271,6 +272,7 @@ public class AgentUtils {
 		newContext.setToolArgs(originalContext.getToolArgs());
 		newContext.setCurrentIteration(originalContext.getCurrentIteration());
 		newContext.setTaskCompleted(originalContext.getTaskCompleted());
+		newContext.setTurnBudget(originalContext.getTurnBudget());
 
 		// 为新上下文设置独立的 Agent 与 node 标识
 		newContext.setAgentId(agentId);
@@ -0,0 +1,154 @@
+package com.ai.agent.real.application.utils;
+
+import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.context.ResumePoint;
+import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContext;
+import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContextMeta;
+import com.ai.agent.real.contract.model.logging.TraceInfo;
+import com.ai.agent.real.contract.model.message.AgentMessage;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import org.springframework.ai.chat.messages.AssistantMessage.ToolCall;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 检查点快照与上下文重建工具
+ *
+ * @author han
+ * @time 2025/11/4 14:30
+ */
+public class CheckpointUtils {
+
+	/**
+	 * 从执行上下文生成恢复点快照
+	 * @param context 执行上下文
+	 * @param task 原始任务
+	 * @param stage 恢复时需要重新开始的阶段
+	 * @param iteration 思考-行动循环的轮次
+	 */
+	public static ResumePoint snapshot(AgentContextAble context, String task, ResumePoint.ReActStage stage,
+			int iteration) {
+		ResumePoint resumePoint = new ResumePoint();
+		resumePoint.setResumeId(context.getTurnId() + "-" + stage + "-" + iteration);
+		resumePoint.setSessionId(String.valueOf(context.getSessionId()));
+		resumePoint.setTurnId(String.valueOf(context.getTurnId()));
+		resumePoint.setCurrentIteration(iteration);
+		resumePoint.setStageCount(context.getCurrentIteration());
+		resumePoint.setPausedStage(stage);
+		resumePoint.setMessages(context.getMessageHistory()
+			.stream()
+			.map(message -> ResumePoint.MessageSnapshot.of((AgentMessage) message))
+			.toList());
+		if (context instanceof ReActPlusAgentContext plusContext) {
+			resumePoint.setMeta(plusContext.getMetadata());
+		}
+		resumePoint.setTaskCompleted(context.isTaskCompleted());
+		resumePoint.setOriginalTask(task);
+		resumePoint.setCreatedAt(LocalDateTime.now());
+		return resumePoint;
+	}
+
+	/**
+	 * 根据恢复点重建 ReActPlus 执行上下文
+	 */
+	public static ReActPlusAgentContext restoreReActPlusContext(ResumePoint resumePoint) {
+		ReActPlusAgentContext context = new ReActPlusAgentContext(new TraceInfo());
+		context.setSessionId(UUID.fromString(resumePoint.getSessionId()));
+		context.setTurnId(UUID.fromString(resumePoint.getTurnId()));
+		context.setStartTime(OffsetDateTime.now());
+		context.setTask(resumePoint.getOriginalTask());
+
+		List<AgentMessage> history = new CopyOnWriteArrayList<>();
+		if (resumePoint.getMessages() != null) {
+			resumePoint.getMessages().stream().map(CheckpointUtils::restoreMessage).forEach(history::add);
+		}
+		context.setMessageHistory(history);
+		context.setMetadata(resumePoint.getMeta() != null ? resumePoint.getMeta() : new ReActPlusAgentContextMeta());
+		context.setCurrentIteration(resumePoint.getStageCount());
+		context.setTaskCompleted(resumePoint.isTaskCompleted());
+		resumePoint.setContext(context);
+		return context;
+	}
+
+	/**
+	 * 审批事件中待审批调用所在批次的快照：带全部 tool_calls 的 assistant 消息在前，已收到的工具结果在后；事件不带批次信息时返回 null
+	 */
+	public static List<ResumePoint.MessageSnapshot> pendingToolMessages(AgentExecutionEvent approvalEvent) {
+		if (!(approvalEvent.getData() instanceof FluxUtils.ToolApprovalRequest request) || request.pending() == null) {
+			return null;
+		}
+		FluxUtils.PendingToolCalls pending = request.pending();
+		String agentId = approvalEvent.getAgentId();
+		AgentMessage assistant = AgentMessage.action("", agentId);
+		assistant.setMetadata(new HashMap<>(Map.of("tool_calls", pending.toolCalls())));
+		List<ResumePoint.MessageSnapshot> messages = new ArrayList<>();
+		messages.add(ResumePoint.MessageSnapshot.of(assistant));
+		for (ToolResponse response : pending.responses()) {
+			Map<String, Object> metadata = new HashMap<>();
+			metadata.put("id", response.id());
+			metadata.put("name", response.name());
+			metadata.put("responseData", response.responseData());
+			messages.add(ResumePoint.MessageSnapshot.of(AgentMessage.tool(response.responseData(), agentId, metadata)));
+		}
+		return messages;
+	}
+
+	/**
+	 * 从检查点中的批次快照还原待执行的工具调用及已收到的结果，快照为空时返回 null
+	 */
+	@SuppressWarnings("unchecked")
+	public static FluxUtils.PendingToolCalls restorePendingToolCalls(List<ResumePoint.MessageSnapshot> messages) {
+		if (messages == null || messages.isEmpty()) {
+			return null;
+		}
+		AgentMessage assistant = restoreMessage(messages.get(0));
+		Object toolCalls = assistant.getMetadata() != null ? assistant.getMetadata().get("tool_calls") : null;
+		if (!(toolCalls instanceof List<?> list) || list.isEmpty()) {
+			return null;
+		}
+		FluxUtils.PendingToolCalls pending = new FluxUtils.PendingToolCalls((List<ToolCall>) list);
+		for (ResumePoint.MessageSnapshot snapshot : messages.subList(1, messages.size())) {
+			Map<String, Object> metadata = snapshot.getMetadata() != null ? snapshot.getMetadata() : Map.of();
+			pending.responses()
+				.add(new ToolResponse(String.valueOf(metadata.get("id")), String.valueOf(metadata.get("name")),
+						snapshot.getContent()));
+		}
+		return pending;
+	}
+
+	/**
+	 * JSON 回读后 tool_calls 变成了 Map，需要还原成 ToolCall，否则构建 AssistantMessage 时会类型转换失败
+	 */
+	@SuppressWarnings("unchecked")
+	private static AgentMessage restoreMessage(ResumePoint.MessageSnapshot snapshot) {
+		AgentMessage message = snapshot.toAgentMessage();
+		Map<String, Object> metadata = message.getMetadata();
+		if (metadata != null && metadata.get("tool_calls") instanceof List<?> rawToolCalls) {
+			List<ToolCall> toolCalls = new ArrayList<>();
+			for (Object rawToolCall : rawToolCalls) {
+				if (rawToolCall instanceof ToolCall toolCall) {
+					toolCalls.add(toolCall);
+				}
+				else if (rawToolCall instanceof Map<?, ?> map) {
+					Map<String, Object> toolCallMap = (Map<String, Object>) map;
+					toolCalls.add(new ToolCall(String.valueOf(toolCallMap.get("id")),
+							String.valueOf(toolCallMap.getOrDefault("type", "function")),
+							String.valueOf(toolCallMap.get("name")), String.valueOf(toolCallMap.get("arguments"))));
+				}
+			}
+			Map<String, Object> restored = new HashMap<>(metadata);
+			restored.put("tool_calls", toolCalls);
+			message.setMetadata(restored);
+		}
+		return message;
+	}
+
+}
@@ -1,9 +1,12 @@
 package com.ai.agent.real.application.utils;
 
 import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.context.TurnBudget;
 import com.ai.agent.real.contract.model.message.AgentMessage;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,6 +37,38 @@ public class ContextUtils {
 	 */
 	private static final int KEEP_RECENT_COUNT = 5;
 
+	/**
+	 * turn 预算是否接近耗尽，未设置预算时为 false
+	 */
+	public static boolean isBudgetNearlySpent(AgentContextAble context) {
+		TurnBudget budget = context.getTurnBudget();
+		return budget != null && budget.isNearlySpent();
+	}
+
+	/**
+	 * 预算接近耗尽时跳过阶段：第一次跳过时输出降级进度事件，之后返回空流
+	 */
+	public static Flux<AgentExecutionEvent> skipForBudget(AgentContextAble context) {
+		TurnBudget budget = context.getTurnBudget();
+		if (budget == null || !budget.markDegraded()) {
+			return Flux.empty();
+		}
+		log.warn("turn 预算即将耗尽，跳过剩余阶段: {}", budget.describe());
+		return Flux
+			.just(AgentExecutionEvent.progress(context, "预算即将耗尽（" + budget.describe() + "），直接生成结果...", null));
+	}
+
+	/**
+	 * 因预算降级且任务未完成时的告警文案，否则为 null
+	 */
+	public static String budgetWarning(AgentContextAble context) {
+		TurnBudget budget = context.getTurnBudget();
+		if (budget == null || !budget.isDegraded() || context.isTaskCompleted()) {
+			return null;
+		}
+		return "turn 预算即将耗尽，提前结束：" + budget.describe();
+	}
+
 	/**
 	 * 管理上下文大小，超限时自动压缩
 	 * @param context Agent 上下文
@@ -167,6 +202,15 @@ public class ContextUtils {
 	 * @return 估算的 token 数量
 	 */
 	private static int calculateTokens(List<AgentMessage> messages) {
+		return estimateTokens(messages);
+	}
+
+	/**
+	 * 估算消息列表的 token 数量，每条消息额外计入 role、name 等元数据
+	 * @param messages 消息列表
+	 * @return 估算的 token 数量
+	 */
+	public static int estimateTokens(List<AgentMessage> messages) {
 		int totalTokens = 0;
 
 		for (AgentMessage message : messages) {
@@ -174,21 +218,7 @@ public class ContextUtils {
 			if (text == null)
 				continue;
 
-			// 统计中文字符数（简化：所有非 ASCII 字符视为中文）
-			int chineseChars = 0;
-			int otherChars = 0;
-
-			for (char c : text.toCharArray()) {
-				if (c > 127) {
-					chineseChars++;
-				}
-				else if (!Character.isWhitespace(c)) {
-					otherChars++;
-				}
-			}
-
-			// 估算 token：中文字符 * 1.5 + 英文字符 / 4（平均单词长度）
-			totalTokens += (int) (chineseChars * 1.5 + otherChars / 4.0);
+			totalTokens += estimateTokens(text);
 
 			// 每条消息额外增加 4 个 token（role、name 等元数据）
 			totalTokens += 4;
@@ -197,6 +227,31 @@ public class ContextUtils {
 		return totalTokens;
 	}
 
+	/**
+	 * 估算文本的 token 数量：中文字符 * 1.5 + 英文字符 / 4（平均单词长度）
+	 * @param text 文本
+	 * @return 估算的 token 数量
+	 */
+	public static int estimateTokens(String text) {
+		if (text == null) {
+			return 0;
+		}
+		// 统计中文字符数（简化：所有非 ASCII 字符视为中文）
+		int chineseChars = 0;
+		int otherChars = 0;
+
+		for (char c : text.toCharArray()) {
+			if (c > 127) {
+				chineseChars++;
+			}
+			else if (!Character.isWhitespace(c)) {
+				otherChars++;
+			}
+		}
+
+		return (int) (chineseChars * 1.5 + otherChars / 4.0);
+	}
+
 	/**
 	 * 检查上下文是否即将超限
 	 * @param context Agent 上下文
@@ -2,26 +2,35 @@ package com.ai.agent.real.application.utils;
 
 import com.ai.agent.real.common.constant.*;
 import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.context.TurnBudget;
 import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
 import com.ai.agent.real.contract.model.interaction.InteractionResponse;
+import com.ai.agent.real.contract.model.llm.LlmCacheHit;
 import com.ai.agent.real.contract.model.message.*;
 import com.ai.agent.real.contract.model.property.*;
 import com.ai.agent.real.contract.model.protocol.*;
 import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.*;
 import com.ai.agent.real.contract.tool.AgentTool;
 import com.ai.agent.real.contract.tool.IToolService;
+import com.ai.agent.real.contract.tool.ToolRestriction;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.type.*;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.databind.exc.*;
 import lombok.extern.slf4j.*;
 import org.springframework.ai.chat.messages.AssistantMessage.*;
+import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.ToolResponseMessage.*;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.model.*;
 import org.springframework.ai.chat.prompt.*;
 import org.springframework.ai.model.*;
 import reactor.core.publisher.*;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.*;
 import java.util.stream.*;
 
@@ -116,6 +125,7 @@ public class FluxUtils {
 	private static AgentMessage createMessageByAgentType(String content, String agentId) {
 		switch (agentId) {
 			case NounConstants.THINKING_AGENT_ID:
+			case NounConstants.THINK_ACT_PLUS_AGENT_ID:
 				return AgentMessage.thinking(content, agentId);
 			case NounConstants.ACTION_AGENT_ID:
 				return AgentMessage.action(content, agentId);
@@ -193,6 +203,55 @@ public class FluxUtils {
 		return wrapped;
 	}
 
+	/**
+	 * 把一次 LLM 调用计入 turn 预算：结束时计一次调用，并按 usage 计入 token。
+	 * 流式 usage 通常在最后一个 chunk 给出累计值，这里取各 chunk 的最大值；供应商没有返回 usage（如未开启 stream-usage）时，
+	 * 按 prompt 与已输出文本估算。Prompt 缓存回放的响应没有实际调用 LLM，不计入预算
+	 */
+	static Flux<ChatResponse> meterTurnBudget(Flux<ChatResponse> responses, Prompt prompt, AgentContextAble context) {
+		TurnBudget budget = context.getTurnBudget();
+		if (budget == null) {
+			return responses;
+		}
+		AtomicLong callTokens = new AtomicLong();
+		AtomicBoolean cacheHit = new AtomicBoolean();
+		StringBuilder output = new StringBuilder();
+		return responses.doOnNext(response -> {
+			if (LlmCacheHit.isCacheHit(response)) {
+				cacheHit.set(true);
+				return;
+			}
+			Usage usage = response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+			if (usage != null && usage.getTotalTokens() != null) {
+				callTokens.accumulateAndGet(usage.getTotalTokens(), Math::max);
+			}
+			if (response.getResult() != null && response.getResult().getOutput().getText() != null) {
+				output.append(response.getResult().getOutput().getText());
+			}
+		}).doFinally(signalType -> {
+			if (cacheHit.get()) {
+				return;
+			}
+			budget.recordCall();
+			long tokens = callTokens.get();
+			if (tokens == 0) {
+				tokens = estimateTokens(prompt) + ContextUtils.estimateTokens(output.toString());
+			}
+			budget.recordTokens(tokens);
+		});
+	}
+
+	/**
+	 * 估算 prompt 的 token 数，每条消息额外计入 role 等元数据
+	 */
+	private static long estimateTokens(Prompt prompt) {
+		long tokens = 0;
+		for (Message message : prompt.getInstructions()) {
+			tokens += ContextUtils.estimateTokens(message.getText()) + 4;
+		}
+		return tokens;
+	}
+
 	/**
 	 * 通用的Agent流式执行包装器，支持工具调用和上下文管理
 	 * @param chatModel LLM模型
@@ -208,7 +267,7 @@ public class FluxUtils {
 			AgentContextAble context, String agentId, IToolService toolService, ToolApprovalMode toolApprovalMode,
 			EventType eventType) {
 
-		return chatModel.stream(prompt).doOnSubscribe(subscription -> {
+		return meterTurnBudget(chatModel.stream(prompt), prompt, context).doOnSubscribe(subscription -> {
 			log.debug("开始流式调用LLM，agentId: {}, eventType: {}", agentId, eventType);
 			log.debug("Prompt消息数量: {}, 工具数量: {}", prompt.getInstructions().size(),
 					prompt.getOptions() != null ? "有工具配置" : "无工具配置");
@@ -237,7 +296,8 @@ public class FluxUtils {
 			if (ToolUtils.hasToolCallingNative(response)) {
 				// 优先使用上下文中的回调，如果没有则使用传入的回调
 				toolFlux = Flux.fromIterable(response.getResult().getOutput().getToolCalls())
-					.concatMap(toolCall -> executeToolCall(toolCall, context, toolService));
+					.concatMap(toolCall -> restrictToolCall(toolCall, context, toolService,
+							() -> executeToolCall(toolCall, context, toolService)));
 			}
 
 			// 合并内容和工具调用结果
@@ -271,7 +331,7 @@ public class FluxUtils {
 			AgentContextAble context, String agentId, IToolService toolService, ToolApprovalMode toolApprovalMode,
 			EventType eventType, IAgentTurnManagerService.TurnState state) {
 
-		return chatModel.stream(prompt).concatMap(response -> {
+		return meterTurnBudget(chatModel.stream(prompt), prompt, context).concatMap(response -> {
 			log.debug("收到ChatResponse: metadata={}, hasResult={}", response.getMetadata(),
 					response.getResult() != null);
 
@@ -294,9 +354,9 @@ public class FluxUtils {
 			Flux<AgentExecutionEvent> toolFlux = Flux.empty();
 			if (ToolUtils.hasToolCallingNative(response)) {
 				// 优先使用上下文中的回调，如果没有则使用传入的回调
-				toolFlux = Flux.fromIterable(response.getResult().getOutput().getToolCalls())
-					.concatMap(toolCall -> executeToolCallWithInteraction(toolCall, context, toolService,
-							toolApprovalMode, state));
+				List<ToolCall> toolCalls = response.getResult().getOutput().getToolCalls();
+				toolFlux = executeToolCallsWithInteraction(toolCalls, new PendingToolCalls(toolCalls), context,
+						toolService, toolApprovalMode, state);
 			}
 
 			// 合并内容和工具调用结果
@@ -379,11 +439,46 @@ public class FluxUtils {
 		}
 	}
 
+	/**
+	 * 依次执行一批工具调用，收到的工具结果记入 pending，审批挂起时随审批请求一起写入检查点
+	 * @param toolCalls 本次要执行的工具调用
+	 * @param pending 这批工具调用所属的 LLM 响应中的全部调用及已收到的结果
+	 */
+	public static Flux<AgentExecutionEvent> executeToolCallsWithInteraction(List<ToolCall> toolCalls,
+			PendingToolCalls pending, AgentContextAble context, IToolService toolService,
+			ToolApprovalMode toolApprovalMode, IAgentTurnManagerService.TurnState state) {
+		return Flux.fromIterable(toolCalls)
+			.concatMap(toolCall -> restrictToolCall(toolCall, context, toolService,
+					() -> executeToolCallWithInteraction(toolCall, pending, context, toolService, toolApprovalMode,
+							state)))
+			.doOnNext(pending::record);
+	}
+
+	/**
+	 * 按 Reactor Context 中的 {@link ToolRestriction} 过滤工具调用：不在白名单内的工具不执行（也不进入审批），
+	 * 返回一条告知模型该工具不可用的工具结果，保证 function calling 的消息格式完整
+	 */
+	private static Flux<AgentExecutionEvent> restrictToolCall(ToolCall toolCall, AgentContextAble context,
+			IToolService toolService, Supplier<Flux<AgentExecutionEvent>> execution) {
+		return Flux.deferContextual(contextView -> {
+			ToolRestriction restriction = ToolRestriction.from(contextView);
+			AgentTool tool = restriction == null ? null : toolService.getByName(toolCall.name());
+			if (tool == null || restriction.allows(tool)) {
+				return execution.get();
+			}
+			log.info("工具不在本次执行的白名单内，未执行: toolName={}, toolCallId={}", toolCall.name(), toolCall.id());
+			String message = String.format("工具 %s 在当前执行方式下不可用，请改用其他工具或直接作答", toolCall.name());
+			ToolResponse toolResponse = new ToolResponse(toolCall.id(), toolCall.name(), message);
+			return Flux.just(AgentExecutionEvent.tool(context, toolResponse, toolCall.name(), Map.of()));
+		});
+	}
+
 	/**
 	 * 执行单个工具调用
 	 */
-	private static Flux<AgentExecutionEvent> executeToolCallWithInteraction(ToolCall toolCall, AgentContextAble context,
-			IToolService toolService, ToolApprovalMode toolApprovalMode, IAgentTurnManagerService.TurnState state) {
+	private static Flux<AgentExecutionEvent> executeToolCallWithInteraction(ToolCall toolCall, PendingToolCalls pending,
+			AgentContextAble context, IToolService toolService, ToolApprovalMode toolApprovalMode,
+			IAgentTurnManagerService.TurnState state) {
 
 		String toolName = toolCall.name();
 		String toolCallId = toolCall.id();
@@ -433,7 +528,8 @@ public class FluxUtils {
 					// 返回空流，暂停当前执行
 					// 注意：这里不会继续执行，需要等待审批后通过其他方式恢复
 					return Flux.defer(() -> Flux.just(AgentExecutionEvent.toolApproval(context, null,
-							new ToolApprovalRequest(toolCallId, toolName, args), Map.of("toolSchema", tool.getSpec())))
+							new ToolApprovalRequest(toolCallId, toolName, args, pending),
+							Map.of("toolSchema", tool.getSpec())))
 						.concatWith(approvalGate.asMono().flatMapMany(interactionResponse -> {
 							// 默认实现：收到用户交互后，直接按“同意”处理并执行工具
 
@@ -463,6 +559,21 @@ public class FluxUtils {
 		}
 	}
 
+	/**
+	 * 执行审批挂起后恢复的工具调用：同意则执行工具，拒绝则写入一条拒绝结果，保证 function calling 的消息格式完整
+	 */
+	public static Flux<AgentExecutionEvent> executeApprovedToolCall(ToolCall toolCall, AgentContextAble context,
+			IToolService toolService, boolean approved) {
+		if (approved) {
+			log.info("工具执行（审批通过，恢复执行）: {}", toolCall.name());
+			return executeToolCall(toolCall, context, toolService);
+		}
+		log.info("工具执行被用户拒绝: {}", toolCall.name());
+		ToolResponse toolResponse = new ToolResponse(toolCall.id(), toolCall.name(), "用户拒绝执行该工具");
+		return Flux.just(AgentExecutionEvent.tool(context, toolResponse, toolCall.name(),
+				Map.of("arguments", jsonToMap(toolCall.arguments(), OBJECT_MAPPER))));
+	}
+
 	public static Map<String, Object> jsonToMap(String json, ObjectMapper objectMapper) {
 		if (json == null || json.trim().isEmpty()) {
 			return Collections.emptyMap();
@@ -486,7 +597,56 @@ public class FluxUtils {
 		}
 	}
 
-	public record ToolApprovalRequest(String toolCallId, String toolName, Map<String, Object> args) {
+	/**
+	 * @param pending 待审批调用所在批次的全部工具调用及已收到的结果，只用于写入检查点，不下发给前端
+	 */
+	public record ToolApprovalRequest(String toolCallId, String toolName, Map<String, Object> args,
+			@JsonIgnore PendingToolCalls pending) {
+
+		public ToolApprovalRequest(String toolCallId, String toolName, Map<String, Object> args) {
+			this(toolCallId, toolName, args, null);
+		}
+
+	}
+
+	/**
+	 * 一次 LLM 响应中的全部工具调用及已收到的工具结果。审批挂起时一起写入检查点，恢复后先补回已收到的结果，再执行其余调用
+	 */
+	public record PendingToolCalls(List<ToolCall> toolCalls, List<ToolResponse> responses) {
+
+		public PendingToolCalls(List<ToolCall> toolCalls) {
+			this(List.copyOf(toolCalls), new CopyOnWriteArrayList<>());
+		}
+
+		/**
+		 * 记录工具结果事件
+		 */
+		public void record(AgentExecutionEvent event) {
+			if (event.getType() == EventType.TOOL && event.getData() instanceof ToolResponse response) {
+				responses.add(response);
+			}
+		}
+
+		public Optional<ToolCall> find(String toolCallId) {
+			return toolCalls.stream().filter(toolCall -> toolCall.id().equals(toolCallId)).findFirst();
+		}
+
+		/**
+		 * 排在指定调用之后且尚未收到结果的调用
+		 */
+		public List<ToolCall> remainingAfter(String toolCallId) {
+			Set<String> answered = responses.stream().map(ToolResponse::id).collect(Collectors.toSet());
+			List<ToolCall> remaining = new ArrayList<>();
+			boolean after = false;
+			for (ToolCall toolCall : toolCalls) {
+				if (after && !answered.contains(toolCall.id())) {
+					remaining.add(toolCall);
+				}
+				after |= toolCall.id().equals(toolCallId);
+			}
+			return remaining;
+		}
+
 	}
 
 }
@@ -0,0 +1,136 @@
+package com.ai.agent.real.application.utils;
+
+import com.ai.agent.real.contract.model.logging.Traceable;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式拆分输出开头的标签段落：{@code <tag>...</tag>} 内的文本改为指定事件类型下发，其余文本保持原事件类型。
+ * 标签可能被拆在多个 chunk 中，未能确认的部分先暂存；输出不以标签开头时全部按原样下发
+ *
+ * @author han
+ * @time 2025/11/17 10:00
+ */
+public class LeadingSectionSplitter {
+
+	private enum Phase {
+
+		DETECT, SECTION, REST
+
+	}
+
+	private final String openTag;
+
+	private final String closeTag;
+
+	private final EventType sectionType;
+
+	private final Traceable sectionTrace;
+
+	private final StringBuilder pending = new StringBuilder();
+
+	private Phase phase = Phase.DETECT;
+
+	/**
+	 * 最近一个文本事件，用于 flush 时沿用其类型与 trace
+	 */
+	private AgentExecutionEvent lastTextEvent;
+
+	private LeadingSectionSplitter(String tag, EventType sectionType, Traceable sectionTrace) {
+		this.openTag = "<" + tag + ">";
+		this.closeTag = "</" + tag + ">";
+		this.sectionType = sectionType;
+		this.sectionTrace = sectionTrace;
+	}
+
+	/**
+	 * 拆分事件流
+	 * @param source 原始事件流
+	 * @param tag 标签名
+	 * @param sectionType 标签内文本的事件类型
+	 * @param sectionTrace 标签内文本事件的 trace 信息
+	 */
+	public static Flux<AgentExecutionEvent> split(Flux<AgentExecutionEvent> source, String tag, EventType sectionType,
+			Traceable sectionTrace) {
+		return Flux.defer(() -> {
+			LeadingSectionSplitter splitter = new LeadingSectionSplitter(tag, sectionType, sectionTrace);
+			return source.concatMapIterable(splitter::accept)
+				.concatWith(Flux.defer(() -> Flux.fromIterable(splitter.flush())));
+		});
+	}
+
+	private List<AgentExecutionEvent> accept(AgentExecutionEvent event) {
+		List<AgentExecutionEvent> out = new ArrayList<>();
+		if (phase == Phase.REST || !isText(event)) {
+			out.add(event);
+			return out;
+		}
+		lastTextEvent = event;
+		pending.append(event.getMessage());
+		if (phase == Phase.DETECT) {
+			String head = pending.toString().stripLeading();
+			if (head.length() < openTag.length() && openTag.startsWith(head)) {
+				return out;
+			}
+			if (!head.startsWith(openTag)) {
+				phase = Phase.REST;
+				emitRest(out, event, pending.toString());
+				pending.setLength(0);
+				return out;
+			}
+			phase = Phase.SECTION;
+			pending.setLength(0);
+			pending.append(head.substring(openTag.length()));
+		}
+		int closeIdx = pending.indexOf(closeTag);
+		if (closeIdx >= 0) {
+			emitSection(out, pending.substring(0, closeIdx));
+			String rest = pending.substring(closeIdx + closeTag.length()).stripLeading();
+			pending.setLength(0);
+			phase = Phase.REST;
+			emitRest(out, event, rest);
+			return out;
+		}
+		// 保留可能是半个结束标签的尾部
+		int keep = Math.min(pending.length(), closeTag.length() - 1);
+		emitSection(out, pending.substring(0, pending.length() - keep));
+		pending.delete(0, pending.length() - keep);
+		return out;
+	}
+
+	private List<AgentExecutionEvent> flush() {
+		List<AgentExecutionEvent> out = new ArrayList<>();
+		if (pending.isEmpty() || lastTextEvent == null) {
+			return out;
+		}
+		if (phase == Phase.SECTION) {
+			emitSection(out, pending.toString());
+		}
+		else {
+			emitRest(out, lastTextEvent, pending.toString());
+		}
+		pending.setLength(0);
+		return out;
+	}
+
+	private void emitSection(List<AgentExecutionEvent> out, String text) {
+		if (!text.isEmpty()) {
+			out.add(AgentExecutionEvent.common(sectionType, sectionTrace, text));
+		}
+	}
+
+	private static void emitRest(List<AgentExecutionEvent> out, AgentExecutionEvent origin, String text) {
+		if (!text.isEmpty()) {
+			out.add(AgentExecutionEvent.common(origin.getType(), origin, text));
+		}
+	}
+
+	private static boolean isText(AgentExecutionEvent event) {
+		return event.getType() != EventType.TOOL && event.getType() != EventType.ERROR && event.getMessage() != null;
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.ai.agent.real.application.agent.cache;
+
+import com.ai.agent.real.contract.model.property.AnswerCacheProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 语义答案缓存测试：字面相近但数字、运算符不同的问题不能命中
+ *
+ * @author han
+ * @time 2025/11/23 17:00
+ */
+class SemanticAnswerCacheTest {
+
+	private static final String USER = "user-1";
+
+	private final SemanticAnswerCache cache = new SemanticAnswerCache(properties());
+
+	@Test
+	@DisplayName("只差空白与标点的问题命中")
+	void hitsSameQuestion() {
+		cache.store(USER, List.of("what is 1234+5678"), "6912");
+
+		assertThat(cache.lookup(USER, "What is 1234 + 5678?")).contains("6912");
+	}
+
+	@Test
+	@DisplayName("只差一位数字的问题相似度超过阈值，但数字签名不同不命中")
+	void missesDifferentNumber() {
+		cache.store(USER, List.of("what is 1234+5678"), "6912");
+		TextEmbedder embedder = new TextEmbedder(properties().getDimension());
+
+		assertThat(TextEmbedder.dot(embedder.embed("what is 1234+5678"), embedder.embed("what is 1234+5679")))
+			.isGreaterThanOrEqualTo(properties().getThreshold());
+		assertThat(cache.lookup(USER, "what is 1234+5679")).isEmpty();
+	}
+
+	@Test
+	@DisplayName("运算符不同的短问题不命中")
+	void missesDifferentOperator() {
+		cache.store(USER, List.of("1+2"), "3");
+
+		assertThat(cache.lookup(USER, "1-2")).isEmpty();
+		assertThat(cache.lookup(USER, "1+2")).contains("3");
+	}
+
+	@Test
+	@DisplayName("短问题只命中归一化后完全相同的问题")
+	void shortQuestionsNeedExactMatch() {
+		cache.store(USER, List.of("今天星期几"), "星期日");
+
+		assertThat(cache.lookup(USER, "今天星期几？")).contains("星期日");
+		assertThat(cache.lookup(USER, "明天星期几")).isEmpty();
+	}
+
+	private static AnswerCacheProperties properties() {
+		AnswerCacheProperties properties = new AnswerCacheProperties();
+		properties.setEnabled(true);
+		return properties;
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.ai.agent.real.application.agent.collaborate;
+
+import com.ai.agent.real.application.agent.collaborate.TaskDecomposition.Subtask;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 任务分解解析与分层测试
+ *
+ * @author han
+ * @time 2025/11/23 16:00
+ */
+class TaskDecompositionTest {
+
+	@Test
+	@DisplayName("从代码块解析执行计划，按依赖分层：同层互不依赖，未知依赖忽略")
+	void levelsFollowDependencies() {
+		TaskDecomposition decomposition = TaskDecomposition.parse("""
+				推理过程略。
+				```json
+				{"tasks": [
+				  {"id": "weather", "description": "查询上海天气", "dependencies": []},
+				  {"id": "hotel", "description": "查询外滩附近酒店", "dependencies": ["unknown"]},
+				  {"id": "route", "description": "规划路线", "dependencies": ["weather", "hotel"]},
+				  {"id": "summary", "description": "汇总行程", "dependencies": ["route"]}
+				]}
+				```""", 7);
+
+		assertThat(ids(decomposition.levels())).containsExactly(List.of("weather", "hotel"), List.of("route"),
+				List.of("summary"));
+	}
+
+	@Test
+	@DisplayName("依赖成环时剩余子任务合并为最后一层，子任务数超过上限时截断")
+	void cyclesFallIntoTheLastLevel() {
+		TaskDecomposition decomposition = TaskDecomposition.parse("""
+				{"tasks": [
+				  {"id": "a", "description": "A", "dependencies": []},
+				  {"id": "b", "description": "B", "dependencies": ["c"]},
+				  {"id": "c", "description": "C", "dependencies": ["b"]},
+				  {"id": "d", "description": "D", "dependencies": []}
+				]}""", 3);
+
+		assertThat(decomposition.getSubtasks()).hasSize(3);
+		assertThat(ids(decomposition.levels())).containsExactly(List.of("a"), List.of("b", "c"));
+	}
+
+	@Test
+	@DisplayName("没有可用的执行计划时子任务为空")
+	void emptyWithoutPlan() {
+		assertThat(TaskDecomposition.parse("直接回答即可", 7).isEmpty()).isTrue();
+		assertThat(TaskDecomposition.parse("{\"tasks\": \"none\"}", 7).isEmpty()).isTrue();
+	}
+
+	private static List<List<String>> ids(List<List<Subtask>> levels) {
+		return levels.stream().map(level -> level.stream().map(Subtask::id).toList()).toList();
+	}
+
+}
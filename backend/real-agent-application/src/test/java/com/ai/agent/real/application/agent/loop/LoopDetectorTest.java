@@ -0,0 +1,86 @@
+package com.ai.agent.real.application.agent.loop;
+
+import com.ai.agent.real.contract.model.property.LoopDetectorProperties;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 死循环检测测试
+ *
+ * @author han
+ * @time 2025/11/18 11:30
+ */
+class LoopDetectorTest {
+
+	@Test
+	@DisplayName("相同工具与参数（键顺序不同）重复调用：首次提示，持续重复后终止并记录节省轮数")
+	void repeatedToolCallHintsThenTerminates() {
+		LoopDetector detector = new LoopDetector(enabled());
+		LoopDetector.Tracker tracker = detector.newTracker(50);
+
+		tracker.observe(tool("weather", "{\"lat\": 31.2, \"lng\": 121.4}"));
+		assertThat(tracker.endIteration(1)).isEqualTo(LoopDetector.Verdict.NONE);
+
+		tracker.observe(tool("weather", "{\"lng\": 121.4, \"lat\": 31.2}"));
+		assertThat(tracker.endIteration(2)).isEqualTo(LoopDetector.Verdict.HINT);
+
+		tracker.observe(tool("weather", "{\"lat\": 31.2, \"lng\": 121.4}"));
+		assertThat(tracker.endIteration(3)).isEqualTo(LoopDetector.Verdict.NONE);
+
+		tracker.observe(tool("weather", "{\"lat\": 31.2, \"lng\": 121.4}"));
+		assertThat(tracker.endIteration(4)).isEqualTo(LoopDetector.Verdict.TERMINATE);
+
+		assertThat(tracker.isTerminated()).isTrue();
+		assertThat(detector.hints()).isEqualTo(1);
+		assertThat(detector.terminations()).isEqualTo(1);
+		assertThat(detector.iterationsSaved()).isEqualTo(46);
+	}
+
+	@Test
+	@DisplayName("参数变化或思考不同时不视为重复")
+	void progressResetsStreak() {
+		LoopDetector detector = new LoopDetector(enabled());
+		LoopDetector.Tracker tracker = detector.newTracker(50);
+
+		tracker.observe(thinking("先查询上海今天的天气情况"));
+		tracker.observe(tool("weather", "{\"city\": \"上海\"}"));
+		assertThat(tracker.endIteration(1)).isEqualTo(LoopDetector.Verdict.NONE);
+
+		tracker.observe(thinking("上海已经查到了，接着对比北京明天的空气质量"));
+		tracker.observe(tool("weather", "{\"city\": \"北京\"}"));
+		assertThat(tracker.endIteration(2)).isEqualTo(LoopDetector.Verdict.NONE);
+		assertThat(detector.hints()).isZero();
+	}
+
+	@Test
+	@DisplayName("关闭时不做判定")
+	void disabledDetectorNeverFires() {
+		LoopDetector.Tracker tracker = LoopDetector.disabled().newTracker(50);
+		for (int i = 1; i <= 5; i++) {
+			tracker.observe(tool("weather", "{}"));
+			assertThat(tracker.endIteration(i)).isEqualTo(LoopDetector.Verdict.NONE);
+		}
+	}
+
+	private static LoopDetectorProperties enabled() {
+		LoopDetectorProperties properties = new LoopDetectorProperties();
+		properties.setEnabled(true);
+		return properties;
+	}
+
+	private static AgentExecutionEvent tool(String name, String args) {
+		return AgentExecutionEvent.tool(null, new ToolResponse("call-1", name, "ok"), name, Map.of("toolSchema", args));
+	}
+
+	private static AgentExecutionEvent thinking(String text) {
+		return AgentExecutionEvent.common(EventType.THINKING, null, text);
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.common.exception.LlmRateLimitedException;
+import com.ai.agent.real.contract.agent.service.ILlmRateGovernor;
+import com.ai.agent.real.contract.model.llm.LlmPriority;
+import com.ai.agent.real.contract.model.property.LlmGovernorProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 出站限流装饰器测试：只把真实的 429 反馈给限流器，用量修正到占用配额的窗口
+ *
+ * @author han
+ * @time 2025/11/23 17:20
+ */
+class GovernedChatModelTest {
+
+	@Test
+	@DisplayName("WebClient / RestClient 的 429 与「HTTP 429」开头的错误信息视为限流，包括异常链上的任意一层")
+	void detectsProviderThrottling() {
+		WebClientResponseException webClient = WebClientResponseException.create(429, "Too Many Requests",
+				HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8);
+		HttpClientErrorException restClient = HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS,
+				"Too Many Requests", HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8);
+
+		assertThat(GovernedChatModel.isThrottled(webClient)).isTrue();
+		assertThat(GovernedChatModel.isThrottled(new IllegalStateException("调用失败", restClient))).isTrue();
+		assertThat(GovernedChatModel.isThrottled(new RuntimeException("HTTP 429 - rate limit reached"))).isTrue();
+	}
+
+	@Test
+	@DisplayName("其他状态码、信息中恰好出现 429 以及本地配额等待超时都不视为限流")
+	void ignoresOtherErrors() {
+		WebClientResponseException serverError = WebClientResponseException.create(500, "Internal Server Error",
+				HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8);
+
+		assertThat(GovernedChatModel.isThrottled(serverError)).isFalse();
+		assertThat(GovernedChatModel.isThrottled(new RuntimeException("request 4291 failed after 429 tokens")))
+			.isFalse();
+		assertThat(GovernedChatModel.isThrottled(new LlmRateLimitedException("LLM rate limit: 等待调用配额超时")))
+			.isFalse();
+	}
+
+	@Test
+	@DisplayName("调用结束后按实际用量修正到申请配额时的窗口")
+	void adjustsTheAcquiredWindow() {
+		RecordingGovernor governor = new RecordingGovernor(41L);
+		ChatResponse response = new ChatResponse(List.of(new Generation(new AssistantMessage("ok"))),
+				ChatResponseMetadata.builder().usage(new DefaultUsage(100, 400)).build());
+		ChatModel delegate = new ChatModel() {
+			@Override
+			public ChatResponse call(Prompt prompt) {
+				return response;
+			}
+
+			@Override
+			public Flux<ChatResponse> stream(Prompt prompt) {
+				return Flux.just(response);
+			}
+		};
+		LlmGovernorProperties properties = new LlmGovernorProperties();
+		GovernedChatModel model = new GovernedChatModel(delegate, governor, properties);
+
+		model.stream(new Prompt("hi")).blockLast(Duration.ofSeconds(5));
+		model.call(new Prompt("hi"));
+
+		assertThat(governor.adjustedWindows).containsExactly(41L, 41L);
+	}
+
+	/**
+	 * 固定返回同一个窗口并记录修正窗口的限流器
+	 */
+	private static class RecordingGovernor implements ILlmRateGovernor {
+
+		private final long window;
+
+		private final List<Long> adjustedWindows = new CopyOnWriteArrayList<>();
+
+		private RecordingGovernor(long window) {
+			this.window = window;
+		}
+
+		@Override
+		public Mono<Long> acquire(LlmPriority priority, long estimatedTokens) {
+			return Mono.just(window);
+		}
+
+		@Override
+		public void adjust(long window, long deltaTokens) {
+			adjustedWindows.add(window);
+		}
+
+		@Override
+		public void onSuccess() {
+		}
+
+		@Override
+		public void onThrottled() {
+		}
+
+		@Override
+		public double currentFactor() {
+			return 1.0;
+		}
+
+		@Override
+		public boolean isCoolingDown() {
+			return false;
+		}
+
+	}
+
+}
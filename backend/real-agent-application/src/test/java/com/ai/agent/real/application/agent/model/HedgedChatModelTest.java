@@ -0,0 +1,289 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.agent.service.ILlmRateGovernor;
+import com.ai.agent.real.contract.model.llm.LlmPriority;
+import com.ai.agent.real.contract.model.property.LlmGovernorProperties;
+import com.ai.agent.real.contract.model.property.LlmHedgeProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.retry.support.RetryTemplate;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对冲与故障切换测试：用本地 OpenAI 兼容桩服务模拟首包卡顿与端点故障
+ *
+ * @author han
+ * @time 2025/11/11 14:00
+ */
+class HedgedChatModelTest {
+
+	private final List<StubServer> servers = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		servers.forEach(StubServer::stop);
+	}
+
+	@Test
+	@DisplayName("主端点首包卡顿时，对冲请求发往备用端点并胜出")
+	void hedgeWinsWhenPrimaryStalls() throws IOException {
+		StubServer primary = start("from-primary", 200, Duration.ofSeconds(5));
+		StubServer secondary = start("from-secondary", 200, Duration.ZERO);
+		LlmHedgeProperties properties = new LlmHedgeProperties();
+		properties.setEnabled(true);
+		properties.setInitialDelay(Duration.ofMillis(200));
+		HedgedChatModel model = new HedgedChatModel(chatModel(primary), chatModel(secondary), properties);
+
+		long start = System.nanoTime();
+		String content = content(model);
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		assertThat(content).isEqualTo("from-secondary");
+		assertThat(elapsed).isLessThan(Duration.ofSeconds(3));
+		assertThat(model.hedgeCount()).isEqualTo(1);
+		assertThat(model.hedgeWinCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("首包按时到达时不发起对冲")
+	void noHedgeWhenPrimaryIsFast() throws IOException {
+		StubServer primary = start("from-primary", 200, Duration.ZERO);
+		StubServer secondary = start("from-secondary", 200, Duration.ZERO);
+		LlmHedgeProperties properties = new LlmHedgeProperties();
+		properties.setEnabled(true);
+		properties.setInitialDelay(Duration.ofSeconds(2));
+		HedgedChatModel model = new HedgedChatModel(chatModel(primary), chatModel(secondary), properties);
+
+		assertThat(content(model)).isEqualTo("from-primary");
+		assertThat(model.hedgeCount()).isZero();
+		assertThat(secondary.requests.get()).isZero();
+	}
+
+	@Test
+	@DisplayName("主端点失败时立即切换，连续失败后熔断，后续请求直接走备用端点")
+	void failoverAndOpenCircuitWhenPrimaryFails() throws IOException {
+		StubServer primary = start("from-primary", 500, Duration.ZERO);
+		StubServer secondary = start("from-secondary", 200, Duration.ZERO);
+		LlmHedgeProperties properties = new LlmHedgeProperties();
+		properties.setFailureThreshold(2);
+		properties.setOpenDuration(Duration.ofMinutes(1));
+		HedgedChatModel model = new HedgedChatModel(chatModel(primary), chatModel(secondary), properties);
+
+		assertThat(content(model)).isEqualTo("from-secondary");
+		assertThat(content(model)).isEqualTo("from-secondary");
+		assertThat(primary.requests.get()).isEqualTo(2);
+		assertThat(model.failoverCount()).isEqualTo(2);
+
+		assertThat(content(model)).isEqualTo("from-secondary");
+		assertThat(primary.requests.get()).isEqualTo(2);
+		assertThat(model.failoverCount()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("向受限流的主端点对冲时，对冲请求单独申请配额")
+	void hedgeToGovernedPrimaryAcquiresQuota() throws IOException {
+		StubServer primary = start("from-primary", 200, Duration.ofMillis(600));
+		CountingGovernor governor = new CountingGovernor(false);
+		HedgedChatModel model = new HedgedChatModel(governed(primary, governor), null, hedgeAfter(100), governor);
+
+		assertThat(content(model)).isEqualTo("from-primary");
+		assertThat(model.hedgeCount()).isEqualTo(1);
+		assertThat(governor.acquires.get()).isEqualTo(2);
+		assertThat(primary.requests.get()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("供应商 429 冷却期内不向主端点对冲")
+	void noHedgeToPrimaryWhileCoolingDown() throws IOException {
+		StubServer primary = start("from-primary", 200, Duration.ofMillis(600));
+		CountingGovernor governor = new CountingGovernor(true);
+		HedgedChatModel model = new HedgedChatModel(governed(primary, governor), null, hedgeAfter(100), governor);
+
+		assertThat(content(model)).isEqualTo("from-primary");
+		assertThat(model.hedgeCount()).isZero();
+		assertThat(governor.acquires.get()).isEqualTo(1);
+		assertThat(primary.requests.get()).isEqualTo(1);
+	}
+
+	private static LlmHedgeProperties hedgeAfter(long millis) {
+		LlmHedgeProperties properties = new LlmHedgeProperties();
+		properties.setEnabled(true);
+		properties.setInitialDelay(Duration.ofMillis(millis));
+		return properties;
+	}
+
+	private static ChatModel governed(StubServer server, ILlmRateGovernor governor) {
+		return new GovernedChatModel(chatModel(server), governor, new LlmGovernorProperties());
+	}
+
+	private static String content(ChatModel model) {
+		return model.stream(new Prompt("hi"))
+			.map(HedgedChatModelTest::text)
+			.collect(Collectors.joining())
+			.block(Duration.ofSeconds(10));
+	}
+
+	private static String text(ChatResponse response) {
+		if (response.getResult() == null || response.getResult().getOutput().getText() == null) {
+			return "";
+		}
+		return response.getResult().getOutput().getText();
+	}
+
+	private static ChatModel chatModel(StubServer server) {
+		OpenAiApi openAiApi = OpenAiApi.builder().baseUrl(server.baseUrl()).apiKey("stub").build();
+		return OpenAiChatModel.builder()
+			.openAiApi(openAiApi)
+			.defaultOptions(OpenAiChatOptions.builder().model("stub").build())
+			.retryTemplate(RetryTemplate.builder().maxAttempts(1).build())
+			.build();
+	}
+
+	private StubServer start(String content, int status, Duration firstChunkDelay) throws IOException {
+		StubServer server = new StubServer(content, status, firstChunkDelay);
+		servers.add(server);
+		return server;
+	}
+
+	/**
+	 * 只记录配额申请次数的限流器
+	 */
+	private static class CountingGovernor implements ILlmRateGovernor {
+
+		private final AtomicInteger acquires = new AtomicInteger();
+
+		private final boolean coolingDown;
+
+		private CountingGovernor(boolean coolingDown) {
+			this.coolingDown = coolingDown;
+		}
+
+		@Override
+		public Mono<Long> acquire(LlmPriority priority, long estimatedTokens) {
+			return Mono.fromCallable(() -> (long) acquires.incrementAndGet());
+		}
+
+		@Override
+		public void adjust(long window, long deltaTokens) {
+		}
+
+		@Override
+		public void onSuccess() {
+		}
+
+		@Override
+		public void onThrottled() {
+		}
+
+		@Override
+		public double currentFactor() {
+			return 1.0;
+		}
+
+		@Override
+		public boolean isCoolingDown() {
+			return coolingDown;
+		}
+
+	}
+
+	/**
+	 * OpenAI 兼容流式桩服务：首包前等待指定时间，或直接返回错误状态码
+	 */
+	private static class StubServer {
+
+		private final HttpServer server;
+
+		private final ExecutorService executor = Executors.newCachedThreadPool();
+
+		private final AtomicInteger requests = new AtomicInteger();
+
+		private final String content;
+
+		private final int status;
+
+		private final Duration firstChunkDelay;
+
+		private StubServer(String content, int status, Duration firstChunkDelay) throws IOException {
+			this.content = content;
+			this.status = status;
+			this.firstChunkDelay = firstChunkDelay;
+			this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+			this.server.createContext("/v1/chat/completions", this::handle);
+			this.server.setExecutor(executor);
+			this.server.start();
+		}
+
+		private String baseUrl() {
+			return "http://127.0.0.1:" + server.getAddress().getPort();
+		}
+
+		private void handle(HttpExchange exchange) throws IOException {
+			requests.incrementAndGet();
+			exchange.getRequestBody().readAllBytes();
+			if (status != 200) {
+				byte[] body = "{\"error\":{\"message\":\"stub failure\"}}".getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+				exchange.sendResponseHeaders(status, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+				return;
+			}
+			exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream out = exchange.getResponseBody()) {
+				Thread.sleep(firstChunkDelay.toMillis());
+				write(out, chunk("{\"role\":\"assistant\",\"content\":\"" + content + "\"}", null));
+				write(out, chunk("{}", "\"stop\""));
+				write(out, "[DONE]");
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			catch (IOException e) {
+				// 对冲失败方的连接被客户端取消
+			}
+		}
+
+		private static String chunk(String delta, String finishReason) {
+			return "{\"id\":\"stub\",\"object\":\"chat.completion.chunk\",\"created\":1,\"model\":\"stub\","
+					+ "\"choices\":[{\"index\":0,\"delta\":" + delta + ",\"finish_reason\":" + finishReason + "}]}";
+		}
+
+		private static void write(OutputStream out, String data) throws IOException {
+			out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+			out.flush();
+		}
+
+		private void stop() {
+			server.stop(0);
+			executor.shutdownNow();
+		}
+
+	}
+
+}
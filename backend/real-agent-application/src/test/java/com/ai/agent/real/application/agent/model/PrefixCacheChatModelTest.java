@@ -0,0 +1,119 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.model.property.PrefixCacheProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 前缀缓存布局测试
+ *
+ * @author han
+ * @time 2025/11/21 11:10
+ */
+class PrefixCacheChatModelTest {
+
+	private static final List<Message> HISTORY = List.of(new UserMessage("帮我规划上海三日游"),
+			new AssistantMessage("好的，先确认出行日期"));
+
+	@Test
+	@DisplayName("不同阶段的 Prompt 共享「前言 + 历史」前缀，阶段系统提示移到末尾")
+	void stagesShareThePrefix() {
+		PrefixCacheProperties properties = new PrefixCacheProperties();
+		properties.setEnabled(true);
+		PrefixCacheChatModel model = new PrefixCacheChatModel(null, properties, new PrefixCacheUsage());
+
+		List<Message> thinking = model.layout(stagePrompt("你是 ThinkingAgent")).getInstructions();
+		List<Message> finalAnswer = model.layout(stagePrompt("你是 FinalAgent")).getInstructions();
+
+		assertThat(thinking.subList(0, 3)).isEqualTo(finalAnswer.subList(0, 3));
+		assertThat(thinking.get(0).getText()).isEqualTo(properties.getPreamble());
+		assertThat(thinking.get(thinking.size() - 1).getText()).contains("<stage_instructions>", "你是 ThinkingAgent");
+	}
+
+	@Test
+	@DisplayName("关闭时 Prompt 保持原样")
+	void disabledKeepsPrompt() {
+		Prompt prompt = stagePrompt("你是 FinalAgent");
+		PrefixCacheChatModel model = new PrefixCacheChatModel(null, new PrefixCacheProperties(),
+				new PrefixCacheUsage());
+
+		assertThat(model.layout(prompt)).isSameAs(prompt);
+	}
+
+	@Test
+	@DisplayName("按各供应商的字段读取缓存命中 token")
+	void readsCachedTokensAcrossProviders() {
+		assertThat(PrefixCacheUsage.cachedTokens(Map.of("prompt_tokens_details", Map.of("cached_tokens", 1024))))
+			.isEqualTo(1024);
+		assertThat(PrefixCacheUsage.cachedTokens(Map.of("prompt_cache_hit_tokens", 512))).isEqualTo(512);
+		assertThat(PrefixCacheUsage.cachedTokens(Map.of("prompt_tokens", 100))).isZero();
+		assertThat(PrefixCacheUsage.cachedTokens(null)).isZero();
+	}
+
+	@Test
+	@DisplayName("流式响应带 usage 时记录缓存命中，没有 usage 时单独计数")
+	void recordsStreamedUsage() {
+		PrefixCacheUsage usage = new PrefixCacheUsage();
+		ChatModel withUsage = streaming(response(new DefaultUsage(2048, 64, 2112,
+				Map.of("prompt_tokens_details", Map.of("cached_tokens", 1024)))));
+		ChatModel withoutUsage = streaming(response(null));
+
+		new PrefixCacheChatModel(withUsage, new PrefixCacheProperties(), usage).stream(stagePrompt("你是 FinalAgent"))
+			.blockLast();
+		new PrefixCacheChatModel(withoutUsage, new PrefixCacheProperties(), usage)
+			.stream(stagePrompt("你是 FinalAgent"))
+			.blockLast();
+
+		assertThat(usage.calls()).isEqualTo(1);
+		assertThat(usage.hits()).isEqualTo(1);
+		assertThat(usage.cachedTokens()).isEqualTo(1024);
+		assertThat(usage.withoutUsage()).isEqualTo(1);
+	}
+
+	private static ChatModel streaming(ChatResponse response) {
+		return new ChatModel() {
+			@Override
+			public ChatResponse call(Prompt prompt) {
+				return response;
+			}
+
+			@Override
+			public Flux<ChatResponse> stream(Prompt prompt) {
+				return Flux.just(response);
+			}
+		};
+	}
+
+	private static ChatResponse response(DefaultUsage usage) {
+		ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder();
+		if (usage != null) {
+			metadata.usage(usage);
+		}
+		return new ChatResponse(List.of(new Generation(new AssistantMessage("好的"))), metadata.build());
+	}
+
+	private static Prompt stagePrompt(String systemPrompt) {
+		List<Message> messages = new ArrayList<>();
+		messages.add(new SystemMessage(systemPrompt));
+		messages.addAll(HISTORY);
+		return new Prompt(messages);
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.ai.agent.real.application.agent.model;
+
+import com.ai.agent.real.contract.model.llm.LlmFlow;
+import com.ai.agent.real.contract.model.property.LlmSchedulerProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 加权公平调度测试：一个重度用户先排满队列，轻度用户随后各提交一个调用，按槽位逐个归还时的放行顺序对比同一调度流（等价于 FIFO）与按用户分流
+ *
+ * @author han
+ * @time 2025/11/9 16:00
+ */
+class WeightedFairLlmSchedulerTest {
+
+	private static final Duration CALL_LATENCY = Duration.ofMillis(20);
+
+	private static final int MAX_IN_FLIGHT = 4;
+
+	private static final int HEAVY_CALLS = 10;
+
+	private static final int LIGHT_USERS = 2;
+
+	@Test
+	@DisplayName("按用户分流时轻度用户插到重度用户排队的请求前面，同一调度流时排在最后")
+	void lightUsersOvertakeQueuedHeavyCalls() {
+		assertThat(dispatchOrder(true)).containsExactly("heavy-0", "heavy-1", "light-0", "light-1", "heavy-2",
+				"heavy-3", "heavy-4", "heavy-5", "heavy-6", "heavy-7", "heavy-8", "heavy-9");
+		assertThat(dispatchOrder(false)).endsWith("light-0", "light-1");
+	}
+
+	@Test
+	@DisplayName("在途调用数不超过 maxInFlight")
+	void inFlightNeverExceedsLimit() {
+		LlmSchedulerProperties properties = new LlmSchedulerProperties();
+		properties.setMaxInFlight(MAX_IN_FLIGHT);
+		WeightedFairLlmScheduler scheduler = new WeightedFairLlmScheduler(properties);
+		List<Integer> observed = new CopyOnWriteArrayList<>();
+		ChatModel model = new FairScheduledChatModel(new FakeChatModel(() -> observed.add(scheduler.inFlight())),
+				scheduler);
+
+		Flux.range(0, 40)
+			.flatMap(i -> timed(model, "user-" + (i % 3)))
+			.blockLast(Duration.ofSeconds(30));
+
+		assertThat(observed).hasSize(40).allMatch(inFlight -> inFlight <= MAX_IN_FLIGHT);
+		assertThat(scheduler.inFlight()).isZero();
+		assertThat(scheduler.queued()).isZero();
+	}
+
+	/**
+	 * 单槽位调度：重度用户先占住槽位并排入 {@link #HEAVY_CALLS} 个调用，轻度用户随后各排入一个，之后每次只归还一个槽位
+	 * @return 拿到槽位的先后顺序
+	 */
+	private List<String> dispatchOrder(boolean fair) {
+		LlmSchedulerProperties properties = new LlmSchedulerProperties();
+		properties.setMaxInFlight(1);
+		WeightedFairLlmScheduler scheduler = new WeightedFairLlmScheduler(properties);
+		List<String> order = new ArrayList<>();
+		Deque<Disposable> slots = new ArrayDeque<>();
+		for (int i = 0; i < HEAVY_CALLS; i++) {
+			String label = "heavy-" + i;
+			scheduler.acquire(fair ? "heavy" : LlmFlow.DEFAULT).subscribe(slot -> {
+				order.add(label);
+				slots.add(slot);
+			});
+		}
+		for (int user = 0; user < LIGHT_USERS; user++) {
+			String label = "light-" + user;
+			scheduler.acquire(fair ? label : LlmFlow.DEFAULT).subscribe(slot -> {
+				order.add(label);
+				slots.add(slot);
+			});
+		}
+		// 槽位在 release 内同步交给下一个请求
+		while (!slots.isEmpty()) {
+			slots.poll().dispose();
+		}
+		assertThat(scheduler.queued()).isZero();
+		return order;
+	}
+
+	private static Mono<Long> timed(ChatModel model, String flow) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			return model.stream(new Prompt("hi"))
+				.then(Mono.fromCallable(() -> (System.nanoTime() - start) / 1_000_000));
+		}).contextWrite(LlmFlow.of(flow));
+	}
+
+	/**
+	 * 固定延迟的假模型
+	 */
+	private static class FakeChatModel implements ChatModel {
+
+		private final Runnable onStart;
+
+		private FakeChatModel(Runnable onStart) {
+			this.onStart = onStart;
+		}
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.defer(() -> {
+				onStart.run();
+				return Flux.just(new ChatResponse(List.of(new Generation(new AssistantMessage("ok")))))
+					.delaySubscription(CALL_LATENCY);
+			});
+		}
+
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.ai.agent.real.application.agent.reuse;
+
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import com.ai.agent.real.contract.model.property.AnswerReuseProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 最终回答复用测试：只在配置的模式下复用，过短的 task_done 内容回退到 FinalAgent
+ *
+ * @author han
+ * @time 2025/11/23 18:20
+ */
+class AnswerReusePolicyTest {
+
+	@Test
+	@DisplayName("开启后只对配置的模式复用，经典 ReAct 需单独开启；关闭时一律不复用")
+	void appliesToConfiguredModes() {
+		AnswerReusePolicy policy = new AnswerReusePolicy(properties());
+
+		assertThat(policy.appliesTo(AgentMode.SIMPLE)).isTrue();
+		assertThat(policy.appliesTo(AgentMode.PLAN)).isFalse();
+		assertThat(policy.appliesTo(null)).isFalse();
+		assertThat(policy.appliesToReAct()).isFalse();
+		assertThat(AnswerReusePolicy.disabled().appliesTo(AgentMode.SIMPLE)).isFalse();
+	}
+
+	@Test
+	@DisplayName("达到字数门槛的回答去掉首尾空白后直接复用，过短的状态说明回退并计数")
+	void acceptsCompleteAnswersOnly() {
+		AnswerReusePolicy policy = new AnswerReusePolicy(properties());
+
+		assertThat(policy.accept("  上海明天多云，气温 18 到 25 度，适合出行。\n")).contains("上海明天多云，气温 18 到 25 度，适合出行。");
+		assertThat(policy.accept("任务已完成")).isEmpty();
+		assertThat(policy.accept(null)).isEmpty();
+
+		assertThat(policy.skips()).isEqualTo(1);
+		assertThat(policy.fallbacks()).isEqualTo(2);
+	}
+
+	private static AnswerReuseProperties properties() {
+		AnswerReuseProperties properties = new AnswerReuseProperties();
+		properties.setEnabled(true);
+		return properties;
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.ai.agent.real.application.agent.speculation;
+
+import com.ai.agent.real.contract.agent.service.ITaskPreClassifier.Prediction;
+import com.ai.agent.real.contract.model.context.ReActAgentContext;
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import com.ai.agent.real.contract.model.logging.TraceInfo;
+import com.ai.agent.real.contract.model.property.SpeculationProperties;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 模式阶段投机执行测试
+ *
+ * @author han
+ * @time 2025/11/23 11:00
+ */
+class ModeSpeculatorTest {
+
+	private final ModeSpeculator speculator = new ModeSpeculator(properties());
+
+	@Test
+	@DisplayName("预分类改写了核心任务时，任务分析给出相同的模式与核心任务（忽略空白与句末标点）即可提交")
+	void commitsRewrittenTask() {
+		Prediction prediction = new Prediction(AgentMode.THOUGHT, "分析上一轮提到的 SQL 查询变慢的原因", "本地分类器判定", 0.7);
+		assertThat(speculator.accepts(prediction)).isTrue();
+		AgentExecutionEvent thought = AgentExecutionEvent.common(EventType.THINKING,
+				new ReActAgentContext(new TraceInfo()), "先看执行计划");
+		ModeSpeculator.Speculation speculation = speculator.start(prediction.mode(), prediction.realTask(),
+				Flux.just(thought), 100, Context.empty());
+
+		assertThat(speculation.matches(AgentMode.THOUGHT, "分析上一轮提到的SQL查询变慢的原因。")).isTrue();
+		List<AgentExecutionEvent> committed = speculation.commit().collectList().block();
+
+		assertThat(committed).containsExactly(thought);
+		assertThat(speculator.hits()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("任务分析给出其他核心任务、其他模式或没有核心任务时不提交")
+	void rejectsDifferentAnalysis() {
+		ModeSpeculator.Speculation speculation = speculator.start(AgentMode.THOUGHT, "分析上一轮提到的 SQL 查询变慢的原因",
+				Flux.empty(), 100, Context.empty());
+
+		assertThat(speculation.matches(AgentMode.THOUGHT, "它为什么这么慢")).isFalse();
+		assertThat(speculation.matches(AgentMode.PLAN, "分析上一轮提到的 SQL 查询变慢的原因")).isFalse();
+		assertThat(speculation.matches(AgentMode.THOUGHT, null)).isFalse();
+
+		speculation.discard();
+		assertThat(speculator.discards()).isEqualTo(1);
+		assertThat(speculator.wastedTokens()).isEqualTo(100);
+	}
+
+	@Test
+	@DisplayName("置信度低于下限、模式不允许投机或没有核心任务的判定不投机")
+	void acceptsOnlyUsablePredictions() {
+		assertThat(speculator.accepts(new Prediction(AgentMode.THOUGHT, "分析慢查询", "", 0.5))).isFalse();
+		assertThat(speculator.accepts(new Prediction(AgentMode.PLAN, "规划迁移步骤", "", 0.8))).isFalse();
+		assertThat(speculator.accepts(new Prediction(AgentMode.THOUGHT, " ", "", 0.8))).isFalse();
+	}
+
+	private static SpeculationProperties properties() {
+		SpeculationProperties properties = new SpeculationProperties();
+		properties.setEnabled(true);
+		return properties;
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.ai.agent.real.application.agent.strategy;
+
+import com.ai.agent.real.application.agent.item.FinalAgent;
+import com.ai.agent.real.application.agent.item.reactplus.ThoughtAgent;
+import com.ai.agent.real.contract.agent.IAgentStrategy;
+import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.model.context.ReActAgentContext;
+import com.ai.agent.real.contract.model.logging.TraceInfo;
+import com.ai.agent.real.contract.model.message.AgentMessage;
+import com.ai.agent.real.contract.model.property.CollaborativeProperties;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 协作策略测试：按依赖分层执行子任务，单个子任务有整体截止时间
+ *
+ * @author han
+ * @time 2025/11/23 16:20
+ */
+class CollaborativeAgentStrategyTest {
+
+	private static final String PLAN = """
+			```json
+			{"tasks": [
+			  {"id": "weather", "description": "查询上海天气", "dependencies": []},
+			  {"id": "news", "description": "持续输出思考", "dependencies": []},
+			  {"id": "summary", "description": "汇总", "dependencies": ["weather", "news"]}
+			]}
+			```""";
+
+	private final List<String> prompts = new CopyOnWriteArrayList<>();
+
+	@Test
+	@DisplayName("下层子任务在上层全部结束后执行并拿到上层结果；持续输出非工具事件的子任务同样按截止时间超时")
+	void runsLevelsAndTimesOutChattySubtasks() {
+		CollaborativeProperties properties = new CollaborativeProperties();
+		properties.setCoordinationTimeout(Duration.ofMillis(300));
+		CollaborativeAgentStrategy strategy = new CollaborativeAgentStrategy(thoughtAgent(), finalAgent(), worker(),
+				ReActAgentContext::new, properties);
+
+		List<AgentExecutionEvent> events = strategy.executeStream("帮我规划明天的上海行程", null, context())
+			.collectList()
+			.block(Duration.ofSeconds(5));
+
+		List<String> collaborating = events.stream()
+			.filter(event -> event.getType() == EventType.COLLABORATING)
+			.map(AgentExecutionEvent::getMessage)
+			.toList();
+		assertThat(collaborating).anyMatch(message -> message.startsWith("[weather] 完成"))
+			.anyMatch(message -> message.startsWith("[news] 失败"))
+			.anyMatch(message -> message.startsWith("[summary] 完成"));
+		assertThat(prompts).hasSize(3);
+		assertThat(prompts.get(2)).contains("子任务（summary）", "前置子任务（weather）的结果：\n晴，25 度",
+				"前置子任务（news）的结果：\n子任务未完成");
+		assertThat(events).extracting(AgentExecutionEvent::getType).contains(EventType.TOOL, EventType.DONE);
+	}
+
+	private ThoughtAgent thoughtAgent() {
+		ThoughtAgent thoughtAgent = mock(ThoughtAgent.class);
+		when(thoughtAgent.executeStream(anyString(), any())).thenAnswer(invocation -> Flux
+			.just(AgentExecutionEvent.common(EventType.THOUGHT, invocation.<AgentContextAble>getArgument(1), PLAN)));
+		return thoughtAgent;
+	}
+
+	private FinalAgent finalAgent() {
+		FinalAgent finalAgent = mock(FinalAgent.class);
+		when(finalAgent.executeStream(anyString(), any())).thenReturn(Flux.empty());
+		return finalAgent;
+	}
+
+	/**
+	 * 子 agent：查询类子任务调用一次工具后给出结果，「持续输出」的子任务不停地输出思考事件
+	 */
+	private IAgentStrategy worker() {
+		return (task, agents, context) -> {
+			prompts.add(task);
+			if (task.contains("持续输出")) {
+				return Flux.interval(Duration.ofMillis(20))
+					.map(tick -> AgentExecutionEvent.common(EventType.THINKING, context, "思考中"));
+			}
+			String answer = task.contains("查询上海天气") ? "晴，25 度" : "行程已汇总";
+			ToolResponse toolResponse = new ToolResponse("call-1", "search", answer);
+			return Flux.just(AgentExecutionEvent.tool(context, toolResponse, "search", Map.of()))
+				.doOnComplete(() -> context.addMessage(AgentMessage.completed(answer, "FinalAgent")));
+		};
+	}
+
+	private static ReActAgentContext context() {
+		return new ReActAgentContext(new TraceInfo());
+	}
+
+}
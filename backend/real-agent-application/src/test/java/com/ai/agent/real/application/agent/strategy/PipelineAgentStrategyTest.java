@@ -0,0 +1,107 @@
+package com.ai.agent.real.application.agent.strategy;
+
+import com.ai.agent.real.contract.agent.Agent;
+import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.model.context.ReActAgentContext;
+import com.ai.agent.real.contract.model.logging.TraceInfo;
+import com.ai.agent.real.contract.model.message.AgentMessage;
+import com.ai.agent.real.contract.model.property.PipelineProperties;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 流水线策略测试：上游输出到达分界标记时下游提前启动，失败阶段按 CONTINUE 带着已有输出继续
+ *
+ * @author han
+ * @time 2025/11/23 18:40
+ */
+class PipelineAgentStrategyTest {
+
+	private final AtomicReference<String> handoff = new AtomicReference<>();
+
+	@Test
+	@DisplayName("上游写出分界标记后下游即启动，只拿到标记之前的内容；上游要等下游启动后才继续输出，两者重叠执行")
+	void downstreamStartsAtBoundary() {
+		Sinks.Empty<Void> downstreamStarted = Sinks.empty();
+		Agent thought = agent("ThoughtAgent",
+				(task, context) -> Flux.concat(
+						Flux.just(event(EventType.THOUGHT, context, "### 1. 分析问题\n"),
+								event(EventType.THOUGHT, context, "### 4. 最终结论\n")),
+						downstreamStarted.asMono().thenMany(Flux.just(event(EventType.THOUGHT, context, "补充说明")))));
+		Agent finalAgent = agent("FinalAgent", (task, context) -> {
+			downstreamStarted.tryEmitEmpty();
+			return Flux.just(event(EventType.PARTIAL_RESULT, context, "最终回答"));
+		});
+		PipelineAgentStrategy strategy = new PipelineAgentStrategy(List.of(thought, finalAgent),
+				new PipelineProperties());
+
+		List<AgentExecutionEvent> events = strategy.executeStream("分析并回答", null, context())
+			.collectList()
+			.block(Duration.ofSeconds(5));
+
+		assertThat(handoff.get()).isEqualTo("上一阶段（ThoughtAgent）的输出：\n### 1. 分析问题\n");
+		assertThat(events).extracting(AgentExecutionEvent::getMessage).contains("补充说明", "最终回答");
+		assertThat(events).extracting(AgentExecutionEvent::getType).contains(EventType.DONE);
+	}
+
+	@Test
+	@DisplayName("阶段超时按 CONTINUE 处理：已有输出交给下游，流水线以警告结束")
+	void continuesWithPartialOutputOnTimeout() {
+		PipelineProperties properties = new PipelineProperties();
+		properties.setFailureStrategy(PipelineProperties.FailureStrategy.CONTINUE);
+		properties.getStages().get(0).setTimeout(Duration.ofMillis(200));
+		Agent thought = agent("ThoughtAgent", (task, context) -> Flux
+			.concat(Flux.just(event(EventType.THOUGHT, context, "部分推理")), Flux.never()));
+		Agent finalAgent = agent("FinalAgent",
+				(task, context) -> Flux.just(event(EventType.PARTIAL_RESULT, context, "基于部分推理的回答")));
+		PipelineAgentStrategy strategy = new PipelineAgentStrategy(List.of(thought, finalAgent), properties);
+
+		List<AgentExecutionEvent> events = strategy.executeStream("分析并回答", null, context())
+			.collectList()
+			.block(Duration.ofSeconds(5));
+
+		assertThat(handoff.get()).endsWith("部分推理");
+		assertThat(events).extracting(AgentExecutionEvent::getType)
+			.contains(EventType.DONEWITHWARNING)
+			.doesNotContain(EventType.DONE);
+	}
+
+	/**
+	 * 按 agentId 构造的测试 agent，下游阶段记录上游交接的输出
+	 */
+	private Agent agent(String agentId, BiFunction<String, AgentContextAble, Flux<AgentExecutionEvent>> execution) {
+		Agent agent = new Agent() {
+			@Override
+			public Flux<AgentExecutionEvent> executeStream(String task, AgentContextAble context) {
+				List<AgentMessage> history = context.getMessageHistory();
+				AgentMessage last = history.get(history.size() - 1);
+				if (last.getText() != null && last.getText().startsWith("上一阶段")) {
+					handoff.set(last.getText());
+				}
+				return execution.apply(task, context);
+			}
+		};
+		agent.setAgentId(agentId);
+		return agent;
+	}
+
+	private static AgentExecutionEvent event(EventType type, AgentContextAble context, String message) {
+		return AgentExecutionEvent.common(type, context, message);
+	}
+
+	private static ReActAgentContext context() {
+		return new ReActAgentContext(new TraceInfo());
+	}
+
+}
@@ -0,0 +1,302 @@
+package com.ai.agent.real.application.agent.turn;
+
+import com.ai.agent.real.application.utils.FluxUtils;
+import com.ai.agent.real.contract.agent.Agent;
+import com.ai.agent.real.contract.agent.IAgentStrategy;
+import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.context.ResumePoint;
+import com.ai.agent.real.contract.agent.service.IAdmissionController;
+import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
+import com.ai.agent.real.contract.agent.service.ISessionMailbox;
+import com.ai.agent.real.contract.agent.service.ITurnCheckpointService;
+import com.ai.agent.real.contract.model.context.ReActAgentContext;
+import com.ai.agent.real.contract.model.interaction.InteractionRequest;
+import com.ai.agent.real.contract.model.interaction.InteractionResponse;
+import com.ai.agent.real.contract.model.logging.TraceInfo;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent;
+import com.ai.agent.real.contract.model.protocol.AgentExecutionEvent.EventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * turn 生命周期测试：出错、取消、审批超时与挂起时都要结束 SSE 并释放执行凭证与并发许可
+ *
+ * @author han
+ * @time 2025/11/23 14:10
+ */
+class AgentTurnManagerServiceTest {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private final Disposable ticket = Disposables.single();
+
+	private final Disposable permit = Disposables.single();
+
+	private final RecordingCheckpointService checkpointService = new RecordingCheckpointService();
+
+	@Test
+	@DisplayName("执行出错时推送错误事件，结束 SSE 并释放凭证与许可")
+	void releasesOnError() {
+		AgentTurnManagerService manager = manager(Flux.error(new IllegalStateException("模型调用失败")),
+				Duration.ofMinutes(10));
+
+		List<EventType> events = types(manager.subscribe("turn-error", "任务", context()).collectList().block(TIMEOUT));
+
+		assertThat(events).containsExactly(EventType.STARTED, EventType.ERROR);
+		assertReleased(manager);
+	}
+
+	@Test
+	@DisplayName("执行被取消（关闭、排空）时结束 SSE 并释放凭证与许可")
+	void releasesOnCancel() {
+		AgentTurnManagerService manager = manager(Flux.never(), Duration.ofMinutes(10));
+		List<ServerSentEvent<AgentExecutionEvent>> received = new CopyOnWriteArrayList<>();
+		Disposable subscription = manager.subscribe("turn-cancel", "任务", context()).subscribe(received::add);
+
+		manager.getTurnState("turn-cancel").getCurrentExecution().dispose();
+
+		assertThat(subscription.isDisposed()).isTrue();
+		assertThat(types(received)).containsExactly(EventType.STARTED);
+		assertReleased(manager);
+	}
+
+	@Test
+	@DisplayName("在内存中等待审批超时后中止 turn，释放凭证与许可")
+	void releasesOnApprovalTimeout() {
+		AgentTurnManagerService manager = manager(Flux.never(), Duration.ofMillis(100), true);
+
+		List<EventType> events = types(
+				manager.subscribe("turn-timeout", "任务", context()).collectList().block(TIMEOUT));
+
+		assertThat(events).containsExactly(EventType.STARTED, EventType.TOOL_APPROVAL, EventType.ERROR);
+		assertThat(checkpointService.awaiting).containsExactly("turn-timeout");
+		assertReleased(manager);
+	}
+
+	@Test
+	@DisplayName("审批挂起时写入检查点后结束 SSE 并释放，不删除检查点")
+	void releasesOnSuspend() {
+		checkpointService.suspendOnApproval = true;
+		AgentTurnManagerService manager = manager(Flux.never(), Duration.ofMinutes(10), true);
+
+		List<ServerSentEvent<AgentExecutionEvent>> events = manager.subscribe("turn-suspend", "任务", context())
+			.collectList()
+			.block(TIMEOUT);
+
+		assertThat(types(events)).containsExactly(EventType.STARTED, EventType.TOOL_APPROVAL, EventType.PROGRESS);
+		assertThat(events.get(2).data().getData()).isInstanceOfSatisfying(Map.class,
+				data -> assertThat(data).containsEntry("suspended", true));
+		assertThat(checkpointService.awaiting).containsExactly("turn-suspend");
+		assertThat(checkpointService.deleted).isEmpty();
+		assertReleased(manager);
+	}
+
+	@Test
+	@DisplayName("恢复权已被其他请求抢占时不执行，直接返回错误事件")
+	void rejectsResumeWithoutClaim() {
+		checkpointService.resumePoint = resumePoint("turn-claimed");
+		checkpointService.claimable = false;
+		AgentTurnManagerService manager = manager(Flux.empty(), Duration.ofMinutes(10));
+
+		List<ServerSentEvent<AgentExecutionEvent>> events = manager.resume("turn-claimed").collectList().block(TIMEOUT);
+
+		assertThat(types(events)).containsExactly(EventType.ERROR);
+		assertThat(events.get(0).data().getMessage()).contains("正在被其他请求恢复");
+		assertThat(manager.activeTurnCount()).isZero();
+		assertThat(ticket.isDisposed()).isFalse();
+	}
+
+	@Test
+	@DisplayName("抢占恢复权后从检查点继续执行，turn 结束时归还恢复权并释放凭证与许可")
+	void releasesClaimAfterResume() {
+		checkpointService.resumePoint = resumePoint("turn-resumed");
+		AgentTurnManagerService manager = manager(Flux.empty(), Duration.ofMinutes(10));
+
+		List<EventType> events = types(manager.resume("turn-resumed").collectList().block(TIMEOUT));
+
+		assertThat(events).containsExactly(EventType.STARTED);
+		assertThat(checkpointService.claims).containsExactly("turn-resumed");
+		assertThat(checkpointService.released).containsExactly("turn-resumed");
+		assertReleased(manager);
+	}
+
+	private AgentTurnManagerService manager(Flux<AgentExecutionEvent> tail, Duration approvalTimeout) {
+		return manager(tail, approvalTimeout, false);
+	}
+
+	/**
+	 * @param tail STARTED（及审批事件）之后的执行流
+	 * @param approval 是否在 STARTED 之后发出工具审批事件
+	 */
+	private AgentTurnManagerService manager(Flux<AgentExecutionEvent> tail, Duration approvalTimeout,
+			boolean approval) {
+		IAgentStrategy strategy = new IAgentStrategy() {
+			@Override
+			public Flux<AgentExecutionEvent> executeStream(String task, List<Agent> agents, AgentContextAble context) {
+				return Flux.error(new UnsupportedOperationException());
+			}
+
+			@Override
+			public Flux<AgentExecutionEvent> executeStreamWithInteraction(String task,
+					IAgentTurnManagerService.TurnState turnState, AgentContextAble context) {
+				Flux<AgentExecutionEvent> head = Flux.just(AgentExecutionEvent.started(context, "开始"));
+				if (approval) {
+					head = head.concatWith(Flux.just(AgentExecutionEvent.toolApproval(context, null,
+							new FluxUtils.ToolApprovalRequest("call-1", "write_file", Map.of()), Map.of())));
+				}
+				return head.concatWith(tail);
+			}
+
+			@Override
+			public AgentContextAble restoreContext(ResumePoint resumePoint) {
+				return context();
+			}
+
+			@Override
+			public Flux<AgentExecutionEvent> resumeStreamWithInteraction(ResumePoint resumePoint,
+					IAgentTurnManagerService.TurnState turnState, AgentContextAble context) {
+				return Flux.just(AgentExecutionEvent.started(context, "恢复")).concatWith(tail);
+			}
+		};
+		ISessionMailbox mailbox = new ISessionMailbox() {
+			@Override
+			public Mono<Disposable> acquire(String sessionKey, String fingerprint) {
+				return Mono.just(ticket);
+			}
+
+			@Override
+			public int pending(String sessionKey) {
+				return 0;
+			}
+		};
+		IAdmissionController admissionController = new IAdmissionController() {
+			@Override
+			public Flux<Admission> admit(String userKey) {
+				return Flux.just(Admission.granted(permit));
+			}
+
+			@Override
+			public boolean isQueueFull() {
+				return false;
+			}
+
+			@Override
+			public AdmissionStats stats() {
+				return new AdmissionStats(0, 0, 0, 0, 0, 0, 0);
+			}
+		};
+		return new AgentTurnManagerService(AgentTurnManagerService.Dependencies.builder()
+			.agentStrategy(strategy)
+			.checkpointService(checkpointService)
+			.sessionMailbox(mailbox)
+			.admissionController(admissionController)
+			.approvalTimeout(approvalTimeout)
+			.build());
+	}
+
+	private void assertReleased(AgentTurnManagerService manager) {
+		assertThat(manager.activeTurnCount()).isZero();
+		assertThat(ticket.isDisposed()).isTrue();
+		assertThat(permit.isDisposed()).isTrue();
+	}
+
+	private static ReActAgentContext context() {
+		return new ReActAgentContext(new TraceInfo());
+	}
+
+	private static ResumePoint resumePoint(String turnId) {
+		ResumePoint resumePoint = new ResumePoint();
+		resumePoint.setTurnId(turnId);
+		return resumePoint;
+	}
+
+	private static List<EventType> types(List<ServerSentEvent<AgentExecutionEvent>> events) {
+		return events.stream().map(event -> event.data().getType()).toList();
+	}
+
+	/**
+	 * 记录审批标记、恢复权与删除的检查点服务
+	 */
+	private static class RecordingCheckpointService implements ITurnCheckpointService {
+
+		private final List<String> awaiting = new CopyOnWriteArrayList<>();
+
+		private final List<String> deleted = new CopyOnWriteArrayList<>();
+
+		private final List<String> claims = new CopyOnWriteArrayList<>();
+
+		private final List<String> released = new CopyOnWriteArrayList<>();
+
+		private volatile boolean suspendOnApproval;
+
+		private volatile ResumePoint resumePoint;
+
+		private volatile boolean claimable = true;
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public boolean isSuspendOnApproval() {
+			return suspendOnApproval;
+		}
+
+		@Override
+		public Mono<Void> save(ResumePoint resumePoint) {
+			return Mono.empty();
+		}
+
+		@Override
+		public Mono<ResumePoint> load(String turnId) {
+			return Mono.justOrEmpty(resumePoint);
+		}
+
+		@Override
+		public Mono<Void> markAwaitingApproval(String turnId, InteractionRequest interactionRequest,
+				List<ResumePoint.MessageSnapshot> pendingToolMessages) {
+			awaiting.add(turnId);
+			return Mono.empty();
+		}
+
+		@Override
+		public Mono<Boolean> recordInteractionResponse(String turnId, InteractionResponse response) {
+			return Mono.just(false);
+		}
+
+		@Override
+		public Mono<Boolean> claimResume(String turnId) {
+			if (claimable) {
+				claims.add(turnId);
+			}
+			return Mono.just(claimable);
+		}
+
+		@Override
+		public Mono<Void> releaseResume(String turnId) {
+			released.add(turnId);
+			return Mono.empty();
+		}
+
+		@Override
+		public Mono<Void> delete(String turnId) {
+			deleted.add(turnId);
+			return Mono.empty();
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.ai.agent.real.application.agent.turn;
+
+import com.ai.agent.real.common.exception.SessionBusyException;
+import com.ai.agent.real.contract.model.property.MailboxProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 会话 mailbox 测试：同一会话的 turn 串行执行，重复提交与超出排队上限的请求被拒绝
+ *
+ * @author han
+ * @time 2025/11/23 17:40
+ */
+class SessionMailboxTest {
+
+	private static final String SESSION = "session-1";
+
+	private final SessionMailbox mailbox = new SessionMailbox(properties());
+
+	@Test
+	@DisplayName("同一会话的第二个 turn 等前一个释放后才拿到执行权，其他会话不受影响")
+	void serializesTurnsOfTheSameSession() {
+		Disposable first = mailbox.acquire(SESSION, "查天气").block(Duration.ofSeconds(1));
+		AtomicReference<Disposable> second = new AtomicReference<>();
+		mailbox.acquire(SESSION, "订酒店").subscribe(second::set);
+
+		assertThat(second.get()).isNull();
+		assertThat(mailbox.pending(SESSION)).isEqualTo(2);
+		assertThat(mailbox.acquire("session-2", "查天气").block(Duration.ofSeconds(1))).isNotNull();
+
+		first.dispose();
+
+		assertThat(second.get()).isNotNull();
+		second.get().dispose();
+		assertThat(mailbox.pending(SESSION)).isZero();
+	}
+
+	@Test
+	@DisplayName("与执行中请求内容相同的提交、超出排队上限的提交直接拒绝")
+	void rejectsDuplicatesAndOverflow() {
+		Disposable first = mailbox.acquire(SESSION, "查天气").block(Duration.ofSeconds(1));
+		mailbox.acquire(SESSION, "订酒店").subscribe();
+
+		assertThatThrownBy(() -> mailbox.acquire(SESSION, "查天气").block(Duration.ofSeconds(1)))
+			.isInstanceOf(SessionBusyException.class);
+		assertThatThrownBy(() -> mailbox.acquire(SESSION, "规划路线").block(Duration.ofSeconds(1)))
+			.isInstanceOf(SessionBusyException.class);
+		assertThat(mailbox.pending(SESSION)).isEqualTo(2);
+
+		first.dispose();
+	}
+
+	@Test
+	@DisplayName("排队超时的请求让出位置，不占用排队上限")
+	void timedOutTicketLeavesTheQueue() {
+		MailboxProperties properties = properties();
+		properties.setQueueTimeout(Duration.ofMillis(50));
+		SessionMailbox mailbox = new SessionMailbox(properties);
+		Disposable first = mailbox.acquire(SESSION, "查天气").block(Duration.ofSeconds(1));
+
+		assertThatThrownBy(() -> mailbox.acquire(SESSION, "订酒店").block(Duration.ofSeconds(1)))
+			.isInstanceOf(SessionBusyException.class)
+			.hasMessageContaining("超时");
+		assertThat(mailbox.pending(SESSION)).isEqualTo(1);
+
+		first.dispose();
+		assertThat(mailbox.pending(SESSION)).isZero();
+	}
+
+	private static MailboxProperties properties() {
+		MailboxProperties properties = new MailboxProperties();
+		properties.setEnabled(true);
+		return properties;
+	}
+
+}
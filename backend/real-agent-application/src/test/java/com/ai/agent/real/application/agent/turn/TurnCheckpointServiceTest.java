@@ -0,0 +1,221 @@
+package com.ai.agent.real.application.agent.turn;
+
+import com.ai.agent.real.contract.agent.context.ResumePoint;
+import com.ai.agent.real.contract.agent.context.ResumePoint.ReActStage;
+import com.ai.agent.real.contract.infra.redis.IRedisService;
+import com.ai.agent.real.contract.model.message.AgentMessage;
+import com.ai.agent.real.contract.model.interaction.InteractionRequest;
+import com.ai.agent.real.contract.model.interaction.InteractionResponse;
+import com.ai.agent.real.contract.model.property.CheckpointProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * turn 检查点测试：审批响应只记到请求ID一致的挂起审批上，已落盘的消息前缀变化时整体重写
+ *
+ * @author han
+ * @time 2025/11/23 16:40
+ */
+class TurnCheckpointServiceTest {
+
+	private static final String TURN_ID = "turn-approval";
+
+	private final TurnCheckpointService checkpointService = new TurnCheckpointService(new InMemoryRedisService(),
+			null, new ObjectMapper().registerModule(new JavaTimeModule()), properties());
+
+	@Test
+	@DisplayName("同一批次先后两个审批：前一个审批的响应不会被当作后一个审批的结果")
+	void secondApprovalInBatchNeedsItsOwnResponse() {
+		ResumePoint resumePoint = new ResumePoint();
+		resumePoint.setTurnId(TURN_ID);
+		resumePoint.setPausedStage(ReActStage.ACTION);
+		checkpointService.save(resumePoint).block();
+
+		checkpointService.markAwaitingApproval(TURN_ID, request("call-1"), null).block();
+		assertThat(checkpointService.recordInteractionResponse(TURN_ID, response("call-2")).block()).isFalse();
+		assertThat(checkpointService.recordInteractionResponse(TURN_ID, response("call-1")).block()).isTrue();
+
+		checkpointService.markAwaitingApproval(TURN_ID, request("call-2"), null).block();
+		assertThat(checkpointService.load(TURN_ID).block().getUserResponse()).isNull();
+		assertThat(checkpointService.recordInteractionResponse(TURN_ID, response("call-1")).block()).isFalse();
+		assertThat(checkpointService.recordInteractionResponse(TURN_ID, response("call-2")).block()).isTrue();
+
+		ResumePoint loaded = checkpointService.load(TURN_ID).block();
+		assertThat(loaded.getUserResponse().getRequestId()).isEqualTo("call-2");
+		assertThat(loaded.getUserResponse().answers(loaded.getInteractionRequest())).isTrue();
+	}
+
+	@Test
+	@DisplayName("历史中间的消息被改写（如上下文压缩）但最后一条不变时整体重写，而不是在旧前缀后追加")
+	void rewritesWhenPrefixChanges() {
+		checkpointService.save(snapshot("task", "旧的工具结果", "回答")).block();
+		checkpointService.save(snapshot("task", "旧的工具结果", "回答", "追问")).block();
+		assertThat(contents(checkpointService.load(TURN_ID).block())).containsExactly("task", "旧的工具结果", "回答",
+				"追问");
+
+		checkpointService.save(snapshot("task", "压缩后的摘要", "回答", "追问", "再次回答")).block();
+
+		assertThat(contents(checkpointService.load(TURN_ID).block())).containsExactly("task", "压缩后的摘要", "回答",
+				"追问", "再次回答");
+	}
+
+	private static ResumePoint snapshot(String... contents) {
+		List<ResumePoint.MessageSnapshot> messages = new ArrayList<>();
+		for (String content : contents) {
+			ResumePoint.MessageSnapshot message = new ResumePoint.MessageSnapshot();
+			message.setContent(content);
+			message.setMessageType(AgentMessage.AgentMessageType.USER);
+			messages.add(message);
+		}
+		ResumePoint resumePoint = new ResumePoint();
+		resumePoint.setTurnId(TURN_ID);
+		resumePoint.setPausedStage(ReActStage.THINKING);
+		resumePoint.setMessages(messages);
+		return resumePoint;
+	}
+
+	private static List<String> contents(ResumePoint resumePoint) {
+		return resumePoint.getMessages().stream().map(ResumePoint.MessageSnapshot::getContent).toList();
+	}
+
+	private static InteractionRequest request(String toolCallId) {
+		return new InteractionRequest().setRequestId(toolCallId).setTitle("write_file");
+	}
+
+	private static InteractionResponse response(String toolCallId) {
+		return new InteractionResponse().setTurnId(TURN_ID).setRequestId(toolCallId).setSelectedOptionId("approve");
+	}
+
+	private static CheckpointProperties properties() {
+		CheckpointProperties properties = new CheckpointProperties();
+		properties.setEnabled(true);
+		properties.setPersistToDb(false);
+		return properties;
+	}
+
+	/**
+	 * 只支持检查点用到的 key-value 与 list 操作的内存 Redis
+	 */
+	static class InMemoryRedisService implements IRedisService {
+
+		private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+		private final Map<String, List<Object>> lists = new ConcurrentHashMap<>();
+
+		@Override
+		public Mono<Boolean> set(String key, Object value) {
+			values.put(key, value);
+			return Mono.just(true);
+		}
+
+		@Override
+		public Mono<Boolean> set(String key, Object value, Duration timeout) {
+			return set(key, value);
+		}
+
+		@Override
+		public Mono<Object> get(String key) {
+			return Mono.justOrEmpty(values.get(key));
+		}
+
+		@Override
+		public <T> Mono<T> get(String key, Class<T> clazz) {
+			return get(key).cast(clazz);
+		}
+
+		@Override
+		public Mono<Boolean> delete(String key) {
+			return Mono.just(values.remove(key) != null | lists.remove(key) != null);
+		}
+
+		@Override
+		public Mono<Boolean> hasKey(String key) {
+			return Mono.just(values.containsKey(key) || lists.containsKey(key));
+		}
+
+		@Override
+		public Mono<Boolean> expire(String key, Duration timeout) {
+			return Mono.just(true);
+		}
+
+		@Override
+		public Mono<Duration> getExpire(String key) {
+			return Mono.empty();
+		}
+
+		@Override
+		public Mono<Long> increment(String key) {
+			return increment(key, 1);
+		}
+
+		@Override
+		public Mono<Long> increment(String key, long delta) {
+			Object value = values.merge(key, delta, (old, add) -> (Long) old + (Long) add);
+			return Mono.just((Long) value);
+		}
+
+		@Override
+		public Mono<Long> decrement(String key) {
+			return increment(key, -1);
+		}
+
+		@Override
+		public Mono<Long> decrement(String key, long delta) {
+			return increment(key, -delta);
+		}
+
+		@Override
+		public Mono<Boolean> setIfAbsent(String key, Object value, Duration timeout) {
+			return Mono.just(values.putIfAbsent(key, value) == null);
+		}
+
+		@Override
+		public Mono<Long> rightPushAll(String key, List<Object> newValues) {
+			List<Object> list = lists.computeIfAbsent(key, k -> new ArrayList<>());
+			list.addAll(newValues);
+			return Mono.just((long) list.size());
+		}
+
+		@Override
+		public Flux<Object> range(String key, long start, long end) {
+			List<Object> list = lists.getOrDefault(key, List.of());
+			int to = (int) Math.min(end + 1, list.size());
+			return start >= to ? Flux.empty() : Flux.fromIterable(List.copyOf(list.subList((int) start, to)));
+		}
+
+		@Override
+		public Mono<Object> index(String key, long index) {
+			List<Object> list = lists.getOrDefault(key, List.of());
+			return index < list.size() ? Mono.just(list.get((int) index)) : Mono.empty();
+		}
+
+		@Override
+		public Mono<Long> size(String key) {
+			return Mono.just((long) lists.getOrDefault(key, List.of()).size());
+		}
+
+		@Override
+		public Mono<Long> publish(String channel, Object message) {
+			return Mono.just(0L);
+		}
+
+		@Override
+		public Flux<Object> listen(String channel) {
+			return Flux.never();
+		}
+
+	}
+
+}
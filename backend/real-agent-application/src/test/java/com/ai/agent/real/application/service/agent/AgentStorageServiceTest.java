@@ -0,0 +1,63 @@
+package com.ai.agent.real.application.service.agent;
+
+import com.ai.agent.real.domain.entity.context.Turn;
+import com.ai.agent.real.domain.repository.context.TurnRepository;
+import com.ai.agent.real.domain.repository.user.SessionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * turn 归属判断测试：恢复 turn 前按 turn 所属会话校验用户
+ *
+ * @author han
+ * @time 2025/11/23 15:00
+ */
+class AgentStorageServiceTest {
+
+	private final TurnRepository turnRepository = mock(TurnRepository.class);
+
+	private final SessionRepository sessionRepository = mock(SessionRepository.class);
+
+	private final AgentStorageService storageService = new AgentStorageService(turnRepository, null, null, null,
+			sessionRepository);
+
+	private final UUID turnId = UUID.randomUUID();
+
+	private final UUID sessionId = UUID.randomUUID();
+
+	private final UUID owner = UUID.randomUUID();
+
+	@Test
+	@DisplayName("turn 所属会话属于该用户时允许恢复")
+	void ownerOwnsTurn() {
+		when(turnRepository.findById(turnId)).thenReturn(Mono.just(turn()));
+		when(sessionRepository.existsByIdAndUserId(sessionId, owner)).thenReturn(Mono.just(true));
+
+		assertThat(storageService.isTurnOwnedBy(turnId, owner).block()).isTrue();
+	}
+
+	@Test
+	@DisplayName("其他用户与不存在的 turn 一律拒绝")
+	void othersAndMissingTurnsAreRejected() {
+		UUID other = UUID.randomUUID();
+		UUID missing = UUID.randomUUID();
+		when(turnRepository.findById(turnId)).thenReturn(Mono.just(turn()));
+		when(turnRepository.findById(missing)).thenReturn(Mono.empty());
+		when(sessionRepository.existsByIdAndUserId(sessionId, other)).thenReturn(Mono.just(false));
+
+		assertThat(storageService.isTurnOwnedBy(turnId, other).block()).isFalse();
+		assertThat(storageService.isTurnOwnedBy(missing, owner).block()).isFalse();
+	}
+
+	private Turn turn() {
+		return Turn.builder().id(turnId).sessionId(sessionId).build();
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.ai.agent.real.application.tool.system;
+
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContext;
+import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContextMeta;
+import com.ai.agent.real.contract.model.logging.TraceInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 任务分析工具测试：会话标题随任务分析一起产出，写入 meta
+ *
+ * @author han
+ * @time 2025/11/23 18:00
+ */
+class TaskAnalysisToolTest {
+
+	private final TaskAnalysisTool tool = new TaskAnalysisTool();
+
+	@Test
+	@DisplayName("一次任务分析同时写入模式、核心任务与会话标题")
+	void writesSessionTitleWithAnalysis() {
+		ReActPlusAgentContext context = context(args(2, "规划上海两日游行程", "上海两日游"));
+
+		assertThat(tool.execute(context).isOk()).isTrue();
+
+		ReActPlusAgentContextMeta meta = context.getMetadata();
+		assertThat(meta.getAgentMode()).isEqualTo(AgentMode.THOUGHT);
+		assertThat(meta.getRealTask()).isEqualTo("规划上海两日游行程");
+		assertThat(meta.getSessionTitle()).isEqualTo("上海两日游");
+	}
+
+	@Test
+	@DisplayName("模型没有给出会话标题时不写入，保留新会话的临时标题")
+	void leavesTitleEmptyWhenOmitted() {
+		ReActPlusAgentContext context = context(args(0, "打招呼", null));
+
+		tool.execute(context);
+
+		assertThat(context.getMetadata().getAgentMode()).isEqualTo(AgentMode.DIRECT);
+		assertThat(context.getMetadata().getSessionTitle()).isNull();
+	}
+
+	private static Map<String, Object> args(int level, String realTask, String sessionTitle) {
+		Map<String, Object> args = new HashMap<>();
+		args.put("level", level);
+		args.put("realTask", realTask);
+		args.put("note", "目标明确");
+		if (sessionTitle != null) {
+			args.put("sessionTitle", sessionTitle);
+		}
+		return args;
+	}
+
+	private static ReActPlusAgentContext context(Map<String, Object> toolArgs) {
+		ReActPlusAgentContext context = new ReActPlusAgentContext(new TraceInfo());
+		context.setToolArgs(toolArgs);
+		return context;
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.ai.agent.real.application.utils;
+
+import com.ai.agent.real.contract.agent.context.TurnBudget;
+import com.ai.agent.real.contract.model.context.ReActAgentContext;
+import com.ai.agent.real.contract.model.llm.LlmCacheHit;
+import com.ai.agent.real.contract.model.logging.TraceInfo;
+import com.ai.agent.real.contract.model.property.TurnBudgetProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * turn 预算计量测试
+ *
+ * @author han
+ * @time 2025/11/22 10:30
+ */
+class FluxUtilsTest {
+
+	private static final Prompt PROMPT = new Prompt(List.of(new UserMessage("帮我查一下上海明天的天气")));
+
+	@Test
+	@DisplayName("供应商返回流式 usage 时按各 chunk 的最大累计值计入 token")
+	void recordsStreamedUsage() {
+		ReActAgentContext context = budgetedContext();
+
+		FluxUtils
+			.meterTurnBudget(Flux.just(chunk("明天", null), chunk("多云", new DefaultUsage(120, 30))), PROMPT, context)
+			.blockLast();
+
+		assertThat(context.getTurnBudget().getLlmCalls()).isEqualTo(1);
+		assertThat(context.getTurnBudget().getTokens()).isEqualTo(150);
+	}
+
+	@Test
+	@DisplayName("没有 usage（未开启 stream-usage）时按 prompt 与输出文本估算，不再计为 0")
+	void estimatesWithoutUsage() {
+		ReActAgentContext context = budgetedContext();
+		long expected = ContextUtils.estimateTokens("帮我查一下上海明天的天气") + 4 + ContextUtils.estimateTokens("明天多云");
+
+		FluxUtils.meterTurnBudget(Flux.just(chunk("明天", null), chunk("多云", null)), PROMPT, context).blockLast();
+
+		assertThat(context.getTurnBudget().getLlmCalls()).isEqualTo(1);
+		assertThat(context.getTurnBudget().getTokens()).isEqualTo(expected).isPositive();
+	}
+
+	@Test
+	@DisplayName("Prompt 缓存回放的响应没有调用 LLM，不计入调用次数与 token")
+	void skipsCacheHits() {
+		ReActAgentContext context = budgetedContext();
+		ChatResponse replayed = new ChatResponse(List.of(new Generation(new AssistantMessage("明天多云"))),
+				ChatResponseMetadata.builder().keyValue(LlmCacheHit.METADATA_KEY, true).build());
+
+		FluxUtils.meterTurnBudget(Flux.just(replayed), PROMPT, context).blockLast();
+
+		assertThat(context.getTurnBudget().getLlmCalls()).isZero();
+		assertThat(context.getTurnBudget().getTokens()).isZero();
+	}
+
+	private static ReActAgentContext budgetedContext() {
+		TurnBudgetProperties properties = new TurnBudgetProperties();
+		properties.setEnabled(true);
+		ReActAgentContext context = new ReActAgentContext(new TraceInfo());
+		context.setTurnBudget(TurnBudget.start(properties));
+		return context;
+	}
+
+	private static ChatResponse chunk(String text, DefaultUsage usage) {
+		ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder();
+		if (usage != null) {
+			metadata.usage(usage);
+		}
+		return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata.build());
+	}
+
+}
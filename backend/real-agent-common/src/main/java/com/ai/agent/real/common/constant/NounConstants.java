@@ -46,6 +46,8 @@ public class NounConstants {
 
 	public final static String THINKING_PLUS_AGENT_ID = "ThinkingPlusAgent";
 
+	public final static String THINK_ACT_PLUS_AGENT_ID = "ThinkActPlusAgent";
+
 	public final static String FINAL_AGENT_ID = "FinalAgent";
 
 	public final static String TAG_TOOLS = "TOOLS";
@@ -0,0 +1,15 @@
+package com.ai.agent.real.common.exception;
+
+/**
+ * 准入拒绝：并发已满且等待队列已满，或排队超时
+ *
+ * @author han
+ * @time 2025/11/7 10:10
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+	public AdmissionRejectedException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.ai.agent.real.common.exception;
+
+/**
+ * 出站 LLM 调用在等待时间内未获得配额
+ *
+ * @author han
+ * @time 2025/11/8 09:50
+ */
+public class LlmRateLimitedException extends RuntimeException {
+
+	public LlmRateLimitedException(String message) {
+		super(message);
+	}
+
+}
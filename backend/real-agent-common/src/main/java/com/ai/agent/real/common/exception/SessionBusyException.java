@@ -0,0 +1,15 @@
+package com.ai.agent.real.common.exception;
+
+/**
+ * 会话繁忙：同一会话排队已满或重复提交
+ *
+ * @author han
+ * @time 2025/11/6 14:10
+ */
+public class SessionBusyException extends RuntimeException {
+
+	public SessionBusyException(String message) {
+		super(message);
+	}
+
+}
@@ -14,4 +14,13 @@ public interface IAgentDispatcher {
 	 */
 	IAgentStrategy getAgentStrategyByName(String name);
 
+	/**
+	 * 按请求的策略与任务选择执行方式，实现可根据系统负载给出 ReActPlus 的模式上限
+	 * @param name 请求的策略名称
+	 * @param task 用户输入
+	 */
+	default StrategySelection select(String name, String task) {
+		return StrategySelection.byName(name.trim(), getAgentStrategyByName(name));
+	}
+
 }
\ No newline at end of file
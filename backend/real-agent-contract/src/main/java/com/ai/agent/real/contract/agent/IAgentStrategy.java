@@ -1,6 +1,7 @@
 package com.ai.agent.real.contract.agent;
 
 import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.context.ResumePoint;
 import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
 import com.ai.agent.real.contract.model.interaction.InteractionResponse;
 import com.ai.agent.real.contract.model.protocol.*;
@@ -52,6 +53,27 @@ public interface IAgentStrategy {
 		throw new UnsupportedOperationException("This executeStream method is not supported for this strategy.");
 	}
 
+	/**
+	 * 根据恢复点重建执行上下文
+	 * @param resumePoint 恢复点
+	 * @return 执行上下文
+	 */
+	default AgentContextAble restoreContext(ResumePoint resumePoint) {
+		throw new UnsupportedOperationException("This restoreContext method is not supported for this strategy.");
+	}
+
+	/**
+	 * 从恢复点继续执行（重启/发布后恢复 turn）
+	 * @param resumePoint 恢复点
+	 * @param turnState turnState
+	 * @param context 由 {@link #restoreContext(ResumePoint)} 重建的执行上下文
+	 * @return 流式执行结果
+	 */
+	default Flux<AgentExecutionEvent> resumeStreamWithInteraction(ResumePoint resumePoint,
+			IAgentTurnManagerService.TurnState turnState, AgentContextAble context) {
+		throw new UnsupportedOperationException("This resumeStream method is not supported for this strategy.");
+	}
+
 	/**
 	 * 同步执行策略（兼容旧版本）
 	 * @param task 任务描述
@@ -0,0 +1,21 @@
+package com.ai.agent.real.contract.agent;
+
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+
+/**
+ * 策略分发结果
+ *
+ * @param strategyName 选中的策略名称
+ * @param strategy 选中的策略
+ * @param modeCeiling ReActPlus 的模式上限，为 null 时不限制
+ * @param reason 选择依据，用于日志
+ * @author han
+ * @time 2025/11/20 10:20
+ */
+public record StrategySelection(String strategyName, IAgentStrategy strategy, AgentMode modeCeiling, String reason) {
+
+	public static StrategySelection byName(String strategyName, IAgentStrategy strategy) {
+		return new StrategySelection(strategyName, strategy, null, "按名称选择");
+	}
+
+}
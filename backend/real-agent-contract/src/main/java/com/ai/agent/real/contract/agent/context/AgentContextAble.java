@@ -80,6 +80,17 @@ public interface AgentContextAble<M> extends Traceable {
 		throw new UnsupportedOperationException("not support metadata");
 	}
 
+	/**
+	 * 获取本 turn 的预算，为 null 时不限制
+	 */
+	default TurnBudget getTurnBudget() {
+		return null;
+	}
+
+	default void setTurnBudget(TurnBudget turnBudget) {
+		throw new UnsupportedOperationException("not support turn budget");
+	}
+
 	Traceable getTrace();
 
 	default UUID getSessionId() {
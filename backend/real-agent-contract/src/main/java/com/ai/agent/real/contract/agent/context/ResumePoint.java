@@ -1,15 +1,25 @@
 package com.ai.agent.real.contract.agent.context;
 
+import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContextMeta;
 import com.ai.agent.real.contract.model.interaction.InteractionRequest;
 import com.ai.agent.real.contract.model.interaction.InteractionResponse;
+import com.ai.agent.real.contract.model.message.AgentMessage;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * ReAct执行恢复点 用于在工具审批后恢复执行
+ * ReAct执行恢复点 用于在工具审批后、节点重启后恢复执行
  *
  * 设计目的： 1. 保存暂停时的执行状态 2. 支持从特定阶段恢复执行 3. 维护上下文连续性
+ * <p>
+ * 持久化时只保存紧凑快照（消息列表 + meta + 迭代信息），不保存 {@link #context} 本身；消息按增量追加存放，游标里只记录 {@link #messageCount}
+ * 与 {@link #messagesHash}
  *
  * @author han
  * @time 2025/10/22 16:30
@@ -28,12 +38,22 @@ public class ResumePoint {
 	private String sessionId;
 
 	/**
-	 * 当前迭代次数
+	 * 轮次ID
+	 */
+	private String turnId;
+
+	/**
+	 * 当前迭代次数（思考-行动循环的轮次）
 	 */
 	private int currentIteration;
 
 	/**
-	 * 暂停的阶段
+	 * 上下文中的阶段计数（context.currentIteration，每个 stage 自增）
+	 */
+	private int stageCount;
+
+	/**
+	 * 暂停的阶段，即恢复时需要重新开始执行的阶段
 	 */
 	private ReActStage pausedStage;
 
@@ -48,10 +68,41 @@ public class ResumePoint {
 	private InteractionResponse userResponse;
 
 	/**
-	 * 执行上下文（深拷贝）
+	 * 审批等待时尚未写入历史的工具调用：带本批全部 tool_calls 的 assistant 消息，及已收到的工具结果
 	 */
+	private List<MessageSnapshot> pendingToolMessages;
+
+	/**
+	 * 执行上下文（仅内存中使用，不参与序列化）
+	 */
+	@JsonIgnore
 	private AgentContextAble context;
 
+	/**
+	 * 对话历史快照
+	 */
+	private List<MessageSnapshot> messages;
+
+	/**
+	 * 检查点对应的消息条数，读取时只取增量消息列表的前 messageCount 条
+	 */
+	private int messageCount;
+
+	/**
+	 * 前 messageCount 条消息的摘要，追加前用来确认已落盘的前缀与当前历史一致
+	 */
+	private String messagesHash;
+
+	/**
+	 * ReActPlus meta 快照（模式、realTask、计划等）
+	 */
+	private ReActPlusAgentContextMeta meta;
+
+	/**
+	 * 任务是否已完成
+	 */
+	private boolean taskCompleted;
+
 	/**
 	 * 原始任务描述
 	 */
@@ -80,7 +131,48 @@ public class ResumePoint {
 		/**
 		 * 观察阶段
 		 */
-		OBSERVATION
+		OBSERVATION,
+
+		/**
+		 * 总结阶段
+		 */
+		FINAL
+
+	}
+
+	/**
+	 * 消息快照，AgentMessage 本身无法直接反序列化，这里只保留重建所需字段
+	 */
+	@Data
+	@NoArgsConstructor
+	public static class MessageSnapshot {
+
+		private String content;
+
+		private AgentMessage.AgentMessageType messageType;
+
+		private String senderId;
+
+		private Integer iteration;
+
+		private Map<String, Object> metadata;
+
+		public static MessageSnapshot of(AgentMessage message) {
+			MessageSnapshot snapshot = new MessageSnapshot();
+			snapshot.setContent(message.getContent());
+			snapshot.setMessageType(message.getAgentMessageType());
+			snapshot.setSenderId(message.getSenderId());
+			snapshot.setIteration(message.getIteration());
+			snapshot.setMetadata(message.getMetadata() != null ? new HashMap<>(message.getMetadata()) : null);
+			return snapshot;
+		}
+
+		public AgentMessage toAgentMessage() {
+			AgentMessage message = new AgentMessage(content, messageType, senderId,
+					metadata != null ? metadata : new HashMap<>());
+			message.setIteration(iteration);
+			return message;
+		}
 
 	}
 
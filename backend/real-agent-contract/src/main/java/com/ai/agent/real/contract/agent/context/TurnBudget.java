@@ -0,0 +1,105 @@
+package com.ai.agent.real.contract.agent.context;
+
+import com.ai.agent.real.contract.model.property.TurnBudgetProperties;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单个 turn 的预算：墙钟截止时间、LLM 调用次数与 token 用量。
+ * 由策略在 turn 开始时创建并挂到上下文上，各阶段派生的上下文共享同一个实例；接近耗尽时策略跳过剩余阶段，只保留 FinalAgent 总结
+ *
+ * @author han
+ * @time 2025/11/18 15:10
+ */
+public class TurnBudget {
+
+	private final TurnBudgetProperties properties;
+
+	private final long startNanos = System.nanoTime();
+
+	private final AtomicInteger llmCalls = new AtomicInteger();
+
+	private final AtomicLong tokens = new AtomicLong();
+
+	private final AtomicBoolean degraded = new AtomicBoolean();
+
+	private TurnBudget(TurnBudgetProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * 按配置开始计时，未开启时返回 null（不限制）
+	 */
+	public static TurnBudget start(TurnBudgetProperties properties) {
+		return properties != null && properties.isEnabled() ? new TurnBudget(properties) : null;
+	}
+
+	/**
+	 * 记录一次 LLM 调用
+	 */
+	public void recordCall() {
+		llmCalls.incrementAndGet();
+	}
+
+	/**
+	 * 记录一次调用的 token 用量（prompt + completion）
+	 */
+	public void recordTokens(long total) {
+		if (total > 0) {
+			tokens.addAndGet(total);
+		}
+	}
+
+	public Duration elapsed() {
+		return Duration.ofNanos(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * 距离预留线（deadline * (1 - reserve)）的剩余时间，已越过时为 0
+	 */
+	public Duration untilReserve() {
+		long reserveLine = (long) (properties.getDeadline().toNanos() * (1 - properties.getReserveRatio()));
+		return Duration.ofNanos(Math.max(0, reserveLine - (System.nanoTime() - startNanos)));
+	}
+
+	/**
+	 * 是否接近耗尽：时间或 token 越过预留线，或只剩一次 LLM 调用（留给 FinalAgent）
+	 */
+	public boolean isNearlySpent() {
+		double usable = 1 - properties.getReserveRatio();
+		return untilReserve().isZero() || llmCalls.get() + 1 >= properties.getMaxLlmCalls()
+				|| tokens.get() >= properties.getMaxTokens() * usable;
+	}
+
+	/**
+	 * 标记进入降级（跳过剩余阶段），只有第一次调用返回 true
+	 */
+	public boolean markDegraded() {
+		return degraded.compareAndSet(false, true);
+	}
+
+	public boolean isDegraded() {
+		return degraded.get();
+	}
+
+	public int getLlmCalls() {
+		return llmCalls.get();
+	}
+
+	public long getTokens() {
+		return tokens.get();
+	}
+
+	/**
+	 * 用量说明，用于进度与告警事件
+	 */
+	public String describe() {
+		return String.format("耗时 %ds/%ds，LLM 调用 %d/%d 次，token %d/%d", elapsed().toSeconds(),
+				properties.getDeadline().toSeconds(), llmCalls.get(), properties.getMaxLlmCalls(), tokens.get(),
+				properties.getMaxTokens());
+	}
+
+}
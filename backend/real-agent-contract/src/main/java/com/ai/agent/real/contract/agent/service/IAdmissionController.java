@@ -0,0 +1,91 @@
+package com.ai.agent.real.contract.agent.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+/**
+ * turn 准入控制：全局与单用户并发上限，超出后进入有界等待队列
+ *
+ * @author han
+ * @time 2025/11/7 10:05
+ */
+public interface IAdmissionController {
+
+	/**
+	 * 申请执行许可：排队期间持续发出排队位置，获得许可后发出带 permit 的 Admission 并结束， turn 结束后 dispose
+	 * permit；队列已满或排队超时以 AdmissionRejectedException 结束
+	 * @param userKey 用户标识
+	 * @return 排队位置与最终许可
+	 */
+	Flux<Admission> admit(String userKey);
+
+	/**
+	 * 等待队列是否已满（用于请求入口快速拒绝）
+	 */
+	boolean isQueueFull();
+
+	/**
+	 * 统计快照，用于导出指标
+	 */
+	AdmissionStats stats();
+
+	/**
+	 * 准入结果：排队中（position 从 1 开始）或已获得许可
+	 */
+	@Data
+	@AllArgsConstructor
+	class Admission {
+
+		private int position;
+
+		private Disposable permit;
+
+		public static Admission queued(int position) {
+			return new Admission(position, null);
+		}
+
+		public static Admission granted(Disposable permit) {
+			return new Admission(0, permit);
+		}
+
+		public boolean isGranted() {
+			return permit != null;
+		}
+
+	}
+
+	/**
+	 * 准入统计
+	 */
+	@Data
+	@AllArgsConstructor
+	class AdmissionStats {
+
+		/**
+		 * 执行中的 turn 数
+		 */
+		private int running;
+
+		/**
+		 * 排队中的 turn 数
+		 */
+		private int queued;
+
+		private long admittedTotal;
+
+		private long rejectedTotal;
+
+		private long timedOutTotal;
+
+		/**
+		 * 经过排队后获得许可的次数与累计等待时长，用于计算平均等待时间
+		 */
+		private long waitedTotal;
+
+		private long waitNanosTotal;
+
+	}
+
+}
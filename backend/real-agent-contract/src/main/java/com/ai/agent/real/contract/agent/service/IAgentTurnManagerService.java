@@ -8,8 +8,10 @@ import lombok.Data;
 import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 /**
@@ -44,6 +46,30 @@ public interface IAgentTurnManagerService {
 	 */
 	void closeTurn(String turnId);
 
+	/**
+	 * 从检查点恢复会话，本节点仍在执行时直接重新挂载到 SSE 流
+	 * @param turnId 会话ID
+	 * @return SSE事件流
+	 */
+	Flux<ServerSentEvent<AgentExecutionEvent>> resume(String turnId);
+
+	/**
+	 * 是否处于排空状态（不再接受新的 turn）
+	 */
+	boolean isDraining();
+
+	/**
+	 * 当前节点运行中的 turn 数量
+	 */
+	int activeTurnCount();
+
+	/**
+	 * 排空：停止接受新 turn，等待运行中的 turn 在截止时间内结束，超时后中止剩余 turn 并通知客户端重连
+	 * @param deadline 截止时间
+	 * @return 被中止的 turn 数量
+	 */
+	Mono<Integer> drain(Duration deadline);
+
 	/**
 	 * deep copy
 	 */
@@ -72,6 +98,11 @@ public interface IAgentTurnManagerService {
 		 */
 		private Sinks.One<InteractionResponse> pendingApproval;
 
+		/**
+		 * 原始用户输入
+		 */
+		private String task;
+
 		/**
 		 * 执行上下文
 		 */
@@ -82,6 +113,21 @@ public interface IAgentTurnManagerService {
 		 */
 		private Disposable currentExecution;
 
+		/**
+		 * 发起 turn 的用户标识（LLM 调用公平调度的流）
+		 */
+		private String userKey;
+
+		/**
+		 * 会话 mailbox 执行凭证，turn 移除时释放
+		 */
+		private Disposable mailboxTicket;
+
+		/**
+		 * 准入许可，turn 移除时释放
+		 */
+		private Disposable admissionPermit;
+
 		/**
 		 * 会话是否已关闭
 		 */
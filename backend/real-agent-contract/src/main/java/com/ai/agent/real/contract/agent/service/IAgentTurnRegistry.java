@@ -0,0 +1,57 @@
+package com.ai.agent.real.contract.agent.service;
+
+import com.ai.agent.real.contract.model.interaction.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Turn 集群注册表：记录每个 turn 归属的节点，并把交互响应/关闭请求转发到 owner 节点
+ * <p>
+ * 单机部署时使用本地实现（不做任何转发），多节点部署时通过 Redis 记录 owner 并基于租约探测节点故障
+ *
+ * @author han
+ * @time 2025/11/3 10:20
+ */
+public interface IAgentTurnRegistry {
+
+	/**
+	 * 当前节点ID
+	 */
+	String getNodeId();
+
+	/**
+	 * 登记 turn 归属当前节点
+	 * @param turnId turnId
+	 */
+	Mono<Void> register(String turnId);
+
+	/**
+	 * 注销 turn 归属
+	 * @param turnId turnId
+	 */
+	Mono<Void> unregister(String turnId);
+
+	/**
+	 * 查询 turn 当前存活的 owner 节点
+	 * @return owner nodeId，未登记或 owner 已宕机时为空
+	 */
+	Mono<String> lookupOwner(String turnId);
+
+	/**
+	 * 将交互响应转发到 owner 节点
+	 * @return 是否成功转发（owner 不存在或已宕机时返回 false）
+	 */
+	Mono<Boolean> relayInteractionResponse(String turnId, InteractionResponse response);
+
+	/**
+	 * 将关闭请求转发到 owner 节点
+	 * @return 是否成功转发（owner 不存在或已宕机时返回 false）
+	 */
+	Mono<Boolean> relayCloseTurn(String turnId);
+
+	/**
+	 * 绑定本节点的 turn 管理器，用于处理其他节点转发过来的请求
+	 * @param localManager 本节点 turn 管理器
+	 */
+	void bind(IAgentTurnManagerService localManager);
+
+}
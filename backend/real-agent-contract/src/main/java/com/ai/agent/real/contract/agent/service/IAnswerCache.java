@@ -0,0 +1,50 @@
+package com.ai.agent.real.contract.agent.service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 问答语义缓存：相似问题直接返回历史最终回答
+ *
+ * @author han
+ * @time 2025/11/13 09:40
+ */
+public interface IAnswerCache {
+
+	boolean isEnabled();
+
+	/**
+	 * 是否只缓存会话中的首个问题
+	 */
+	boolean isStandaloneOnly();
+
+	/**
+	 * 查找相似问题的回答
+	 * @param userKey 用户标识，按用户作用域时只在该用户的条目中查找
+	 * @param question 问题（用户输入或提取后的 realTask）
+	 * @return 相似度达到阈值时返回缓存的回答
+	 */
+	Optional<String> lookup(String userKey, String question);
+
+	/**
+	 * 写入回答，同一回答可用多种问法索引
+	 * @param userKey 用户标识
+	 * @param questions 问法，例如原始输入与 realTask
+	 * @param answer 最终回答
+	 */
+	void store(String userKey, List<String> questions, String answer);
+
+	/**
+	 * 失效缓存
+	 * @param userKey 用户标识，为 null 时清空全部
+	 * @return 移除的条目数
+	 */
+	int invalidate(String userKey);
+
+	int size();
+
+	long hits();
+
+	long misses();
+
+}
@@ -0,0 +1,48 @@
+package com.ai.agent.real.contract.agent.service;
+
+import com.ai.agent.real.contract.model.llm.LlmPriority;
+import reactor.core.publisher.Mono;
+
+/**
+ * LLM 出站限流：集群共享 RPM/TPM 配额，按优先级分配，并根据供应商 429 自适应调整
+ *
+ * @author han
+ * @time 2025/11/8 09:55
+ */
+public interface ILlmRateGovernor {
+
+	/**
+	 * 申请一次调用的配额，配额不足时等待；超过最长等待时间以 LlmRateLimitedException 结束
+	 * @param priority 调用优先级
+	 * @param estimatedTokens 预估 token（输入 + 预留输出）
+	 * @return 占用配额的窗口，修正用量时原样传回
+	 */
+	Mono<Long> acquire(LlmPriority priority, long estimatedTokens);
+
+	/**
+	 * 按实际用量修正已记录的 token（可为负数）
+	 * @param window 申请配额时返回的窗口，调用跨窗口结束时仍修正到占用配额的窗口
+	 */
+	void adjust(long window, long deltaTokens);
+
+	/**
+	 * 调用成功，逐步恢复配额
+	 */
+	void onSuccess();
+
+	/**
+	 * 供应商返回 429，缩减配额并让集群短暂停止发起新调用
+	 */
+	void onThrottled();
+
+	/**
+	 * 当前自适应系数（0~1）
+	 */
+	double currentFactor();
+
+	/**
+	 * 是否处在最近一次 429 之后的冷却期内，冷却期内不应发起对冲等额外调用
+	 */
+	boolean isCoolingDown();
+
+}
@@ -0,0 +1,30 @@
+package com.ai.agent.real.contract.agent.service;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * LLM 调用调度：限制同时在途的调用数，按调度流（用户/租户）加权公平地分配调用槽位
+ *
+ * @author han
+ * @time 2025/11/9 14:10
+ */
+public interface ILlmScheduler {
+
+	/**
+	 * 申请调用槽位，轮到时发出槽位，调用结束后 dispose 归还
+	 * @param flowKey 调度流标识
+	 */
+	Mono<Disposable> acquire(String flowKey);
+
+	/**
+	 * 在途调用数
+	 */
+	int inFlight();
+
+	/**
+	 * 排队中的调用数
+	 */
+	int queued();
+
+}
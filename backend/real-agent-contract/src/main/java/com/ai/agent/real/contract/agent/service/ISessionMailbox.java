@@ -0,0 +1,27 @@
+package com.ai.agent.real.contract.agent.service;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * 会话 mailbox：同一会话的 turn 单消费者串行执行，不同会话之间互不影响
+ *
+ * @author han
+ * @time 2025/11/6 14:05
+ */
+public interface ISessionMailbox {
+
+	/**
+	 * 申请会话执行权，轮到该请求时发出凭证，turn 结束后 dispose 凭证释放给下一个排队者
+	 * @param sessionKey 会话标识
+	 * @param fingerprint 请求指纹（用于识别重复提交），可为空
+	 * @return 执行凭证；排队已满或重复提交时以 SessionBusyException 结束
+	 */
+	Mono<Disposable> acquire(String sessionKey, String fingerprint);
+
+	/**
+	 * 会话当前执行中与排队中的 turn 数量
+	 */
+	int pending(String sessionKey);
+
+}
@@ -0,0 +1,58 @@
+package com.ai.agent.real.contract.agent.service;
+
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import com.ai.agent.real.contract.model.context.reactplus.ReActPlusAgentContextMeta;
+
+import java.util.Optional;
+
+/**
+ * 任务预分类：在任务分析 LLM 调用之前判定简单输入的模式，高置信时直接跳过任务分析
+ *
+ * @author han
+ * @time 2025/11/14 10:30
+ */
+public interface ITaskPreClassifier {
+
+	boolean isEnabled();
+
+	/**
+	 * 判定输入的模式
+	 * @param input 用户输入
+	 * @return 置信度达到阈值且模式允许时返回判定结果，否则为空，由 LLM 完成任务分析
+	 */
+	Optional<Prediction> classify(String input);
+
+	/**
+	 * 不按阈值与模式过滤、也不计入命中统计的原始判定，供投机执行等只需参考判定结果的场景使用
+	 * @param input 用户输入
+	 * @return 置信度最高的判定，输入超长或没有可用的规则与模型时为空
+	 */
+	Optional<Prediction> predict(String input);
+
+	/**
+	 * 判定的置信度是否达到直接采用的阈值
+	 */
+	boolean isConfident(Prediction prediction);
+
+	/**
+	 * 记录 LLM 任务分析的结果，作为离线训练样本
+	 * @param input 用户输入
+	 * @param meta 任务分析后的元数据
+	 */
+	void record(String input, ReActPlusAgentContextMeta meta);
+
+	long hits();
+
+	long misses();
+
+	/**
+	 * 预分类结果
+	 * @param mode 模式
+	 * @param realTask 核心任务
+	 * @param note 判定依据
+	 * @param confidence 置信度
+	 */
+	record Prediction(AgentMode mode, String realTask, String note, double confidence) {
+	}
+
+}
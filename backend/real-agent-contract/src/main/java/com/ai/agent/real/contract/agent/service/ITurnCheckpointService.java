@@ -0,0 +1,73 @@
+package com.ai.agent.real.contract.agent.service;
+
+import com.ai.agent.real.contract.agent.context.ResumePoint;
+import com.ai.agent.real.contract.model.interaction.InteractionRequest;
+import com.ai.agent.real.contract.model.interaction.InteractionResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * turn 检查点服务：在阶段边界（ThinkingPlus 之后、ActionPlus 之后、审批等待点）保存恢复点
+ *
+ * @author han
+ * @time 2025/11/4 14:10
+ */
+public interface ITurnCheckpointService {
+
+	/**
+	 * 是否开启检查点
+	 */
+	boolean isEnabled();
+
+	/**
+	 * 审批等待时是否挂起 turn（依赖检查点）
+	 */
+	default boolean isSuspendOnApproval() {
+		return false;
+	}
+
+	/**
+	 * 保存恢复点，同一个 turn 只保留最新一份
+	 */
+	Mono<Void> save(ResumePoint resumePoint);
+
+	/**
+	 * 读取恢复点
+	 */
+	Mono<ResumePoint> load(String turnId);
+
+	/**
+	 * 在最新的恢复点上标记审批等待，并清掉上一个审批的响应
+	 * @param pendingToolMessages 待审批调用所在批次的 assistant 消息（带全部 tool_calls）及已收到的工具结果，可为 null
+	 */
+	Mono<Void> markAwaitingApproval(String turnId, InteractionRequest interactionRequest,
+			List<ResumePoint.MessageSnapshot> pendingToolMessages);
+
+	/**
+	 * 为挂起中的审批记录用户响应，之后由 resume 从检查点恢复执行
+	 * @return 是否记录成功（不存在挂起的审批或响应的请求ID与挂起的审批不一致时返回 false）
+	 */
+	Mono<Boolean> recordInteractionResponse(String turnId, InteractionResponse response);
+
+	/**
+	 * 抢占恢复权：同一 turn 同一时间只允许一个请求从检查点恢复，避免重复执行
+	 * @return 是否抢占成功
+	 */
+	default Mono<Boolean> claimResume(String turnId) {
+		return Mono.just(true);
+	}
+
+	/**
+	 * 释放恢复权：恢复出的 turn 结束或挂起后调用，之后可以再次恢复
+	 */
+	default Mono<Void> releaseResume(String turnId) {
+		return Mono.empty();
+	}
+
+	/**
+	 * turn 正常结束后删除恢复点
+	 */
+	Mono<Void> delete(String turnId);
+
+}
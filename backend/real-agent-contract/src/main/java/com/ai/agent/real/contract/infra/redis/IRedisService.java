@@ -1,8 +1,10 @@
 package com.ai.agent.real.contract.infra.redis;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.List;
 
 public interface IRedisService {
 
@@ -66,4 +68,39 @@ public interface IRedisService {
 	 */
 	Mono<Long> decrement(String key, long delta);
 
+	/**
+	 * 键不存在时设置，带过期时间
+	 */
+	Mono<Boolean> setIfAbsent(String key, Object value, Duration timeout);
+
+	/**
+	 * 追加到列表尾部
+	 */
+	Mono<Long> rightPushAll(String key, List<Object> values);
+
+	/**
+	 * 读取列表区间，end 为 -1 时读到末尾
+	 */
+	Flux<Object> range(String key, long start, long end);
+
+	/**
+	 * 读取列表指定位置的元素
+	 */
+	Mono<Object> index(String key, long index);
+
+	/**
+	 * 列表长度
+	 */
+	Mono<Long> size(String key);
+
+	/**
+	 * 发布消息到频道
+	 */
+	Mono<Long> publish(String channel, Object message);
+
+	/**
+	 * 订阅频道消息
+	 */
+	Flux<Object> listen(String channel);
+
 }
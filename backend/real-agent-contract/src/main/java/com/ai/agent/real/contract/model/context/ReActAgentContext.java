@@ -1,6 +1,7 @@
 package com.ai.agent.real.contract.model.context;
 
 import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.context.TurnBudget;
 import com.ai.agent.real.contract.model.logging.*;
 import com.ai.agent.real.contract.model.message.*;
 import lombok.experimental.*;
@@ -45,6 +46,11 @@ public class ReActAgentContext implements AgentContextAble<Void> {
 	 */
 	private AtomicBoolean taskCompleted;
 
+	/**
+	 * turn 预算，各阶段派生的上下文共享
+	 */
+	private TurnBudget turnBudget;
+
 	/**
 	 * 构造函数
 	 */
@@ -160,6 +166,16 @@ public class ReActAgentContext implements AgentContextAble<Void> {
 		this.messageHistory = messageHistory;
 	}
 
+	@Override
+	public TurnBudget getTurnBudget() {
+		return this.turnBudget;
+	}
+
+	@Override
+	public void setTurnBudget(TurnBudget turnBudget) {
+		this.turnBudget = turnBudget;
+	}
+
 	@Override
 	public Traceable getTrace() {
 		return this.trace;
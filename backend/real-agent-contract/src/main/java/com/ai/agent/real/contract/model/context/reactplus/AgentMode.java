@@ -6,6 +6,19 @@ package com.ai.agent.real.contract.model.context.reactplus;
  */
 public enum AgentMode {
 
-	DIRECT, SIMPLE, PLAN, THOUGHT, SOP, PLAN_THOUGHT
+	DIRECT(0), SIMPLE(1), PLAN(3), THOUGHT(2), SOP(3), PLAN_THOUGHT(4);
+
+	/**
+	 * 相对开销（LLM 调用与阶段数），用于负载高时比较模式轻重
+	 */
+	private final int cost;
+
+	AgentMode(int cost) {
+		this.cost = cost;
+	}
+
+	public boolean isHeavierThan(AgentMode other) {
+		return other != null && cost > other.cost;
+	}
 
 }
@@ -1,6 +1,7 @@
 package com.ai.agent.real.contract.model.context.reactplus;
 
 import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.context.TurnBudget;
 import com.ai.agent.real.contract.model.logging.Traceable;
 import com.ai.agent.real.contract.model.message.AgentMessage;
 import org.springframework.ai.model.ModelOptionsUtils;
@@ -46,6 +47,16 @@ public class ReActPlusAgentContext implements AgentContextAble<ReActPlusAgentCon
 	 */
 	private AtomicBoolean taskCompleted;
 
+	/**
+	 * turn 预算，各阶段派生的上下文共享
+	 */
+	private TurnBudget turnBudget;
+
+	/**
+	 * 模式上限：负载感知分发在系统饱和时设置，任务分析选出更重的模式时降到该模式
+	 */
+	private AgentMode modeCeiling;
+
 	/**
 	 * meta 元数据
 	 */
@@ -185,6 +196,24 @@ public class ReActPlusAgentContext implements AgentContextAble<ReActPlusAgentCon
 		return this.meta;
 	}
 
+	public AgentMode getModeCeiling() {
+		return this.modeCeiling;
+	}
+
+	public void setModeCeiling(AgentMode modeCeiling) {
+		this.modeCeiling = modeCeiling;
+	}
+
+	@Override
+	public TurnBudget getTurnBudget() {
+		return this.turnBudget;
+	}
+
+	@Override
+	public void setTurnBudget(TurnBudget turnBudget) {
+		this.turnBudget = turnBudget;
+	}
+
 	@Override
 	public Traceable getTrace() {
 		return this.trace;
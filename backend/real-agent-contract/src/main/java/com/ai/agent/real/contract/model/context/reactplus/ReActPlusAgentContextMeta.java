@@ -17,6 +17,11 @@ public class ReActPlusAgentContextMeta {
 
 	private String note;
 
+	/**
+	 * 任务分析顺带生成的会话标题，仅新会话使用
+	 */
+	private String sessionTitle;
+
 	private TaskModeMeta taskModeMeta;
 
 	private SopModeMeta sopModeMeta;
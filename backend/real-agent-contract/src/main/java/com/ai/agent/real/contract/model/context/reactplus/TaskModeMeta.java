@@ -1,6 +1,8 @@
 package com.ai.agent.real.contract.model.context.reactplus;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 
 import java.util.List;
@@ -10,6 +12,7 @@ import java.util.List;
  * @time 2025/11/3 0:33
  */
 @Data
+@NoArgsConstructor
 public class TaskModeMeta {
 
 	/**
@@ -27,6 +30,7 @@ public class TaskModeMeta {
 		this.taskPhaseList = taskPhaseList;
 	}
 
+	@JsonIgnore
 	public TaskPhase getCurrentTask() {
 		return taskPhaseList.stream()
 			.filter(taskPhase -> taskPhase.getId().equals(currentTaskId))
@@ -35,6 +39,7 @@ public class TaskModeMeta {
 	}
 
 	@Data
+	@NoArgsConstructor
 	@Accessors(chain = true)
 	public static class TaskPhase {
 
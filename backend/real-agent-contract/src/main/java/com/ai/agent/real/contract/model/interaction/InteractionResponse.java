@@ -29,6 +29,11 @@ public class InteractionResponse {
 	 */
 	private String turnId;
 
+	/**
+	 * 对应交互请求的ID（工具审批时为 toolCallId）
+	 */
+	private String requestId;
+
 	/**
 	 * 选中的选项ID
 	 */
@@ -39,4 +44,11 @@ public class InteractionResponse {
 	 */
 	private Map<String, Object> data = new HashMap<>();
 
+	/**
+	 * 是否是对该交互请求的响应：同一批次可能先后发起多个审批，只认请求ID一致的响应
+	 */
+	public boolean answers(InteractionRequest request) {
+		return request != null && requestId != null && requestId.equals(request.getRequestId());
+	}
+
 }
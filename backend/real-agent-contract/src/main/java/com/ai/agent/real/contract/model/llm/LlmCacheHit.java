@@ -0,0 +1,28 @@
+package com.ai.agent.real.contract.model.llm;
+
+import org.springframework.ai.chat.model.ChatResponse;
+
+/**
+ * 缓存回放响应的标记：回放的 ChatResponse 在元数据里带该键，计量与统计据此跳过没有实际调用 LLM 的响应
+ *
+ * @author han
+ * @time 2025/11/12 09:50
+ */
+public final class LlmCacheHit {
+
+	/**
+	 * 回放响应的元数据键，值为 true
+	 */
+	public static final String METADATA_KEY = "prompt_cache_hit";
+
+	private LlmCacheHit() {
+	}
+
+	/**
+	 * 是否为缓存回放的响应（没有实际调用 LLM）
+	 */
+	public static boolean isCacheHit(ChatResponse response) {
+		return response.getMetadata() != null && Boolean.TRUE.equals(response.getMetadata().get(METADATA_KEY));
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.ai.agent.real.contract.model.llm;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * LLM 调用所属的调度流（用户/租户），通过 Reactor Context 传递给 ChatModel 装饰器做公平调度
+ *
+ * @author han
+ * @time 2025/11/9 14:00
+ */
+public final class LlmFlow {
+
+	public static final String DEFAULT = "default";
+
+	private static final String CONTEXT_KEY = LlmFlow.class.getName();
+
+	private LlmFlow() {
+	}
+
+	public static Context of(String flowKey) {
+		return Context.of(CONTEXT_KEY, flowKey != null ? flowKey : DEFAULT);
+	}
+
+	/**
+	 * 从 Reactor Context 读取调度流，未设置时归入默认流
+	 */
+	public static String from(ContextView context) {
+		return context.getOrDefault(CONTEXT_KEY, DEFAULT);
+	}
+
+}
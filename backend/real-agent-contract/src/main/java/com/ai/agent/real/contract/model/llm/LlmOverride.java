@@ -0,0 +1,33 @@
+package com.ai.agent.real.contract.model.llm;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * 单次执行范围内的模型参数覆盖，通过 Reactor Context 传递给模型路由，优先于阶段档位。用于竞争策略中同一套 agent 以不同模型、温度并行执行
+ *
+ * @param model 模型名称，为 null 时不覆盖
+ * @param temperature 温度，为 null 时不覆盖
+ * @author han
+ * @time 2025/11/19 10:10
+ */
+public record LlmOverride(String model, Double temperature) {
+
+	private static final String CONTEXT_KEY = LlmOverride.class.getName();
+
+	public boolean isEmpty() {
+		return model == null && temperature == null;
+	}
+
+	public Context toContext() {
+		return Context.of(CONTEXT_KEY, this);
+	}
+
+	/**
+	 * 从 Reactor Context 读取覆盖参数，未设置时返回 null
+	 */
+	public static LlmOverride from(ContextView context) {
+		return context.getOrDefault(CONTEXT_KEY, null);
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.ai.agent.real.contract.model.llm;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * LLM 调用优先级，通过 Reactor Context 传递给 ChatModel 装饰器
+ *
+ * <p>用法: {@code chatClient.prompt()...stream().content().contextWrite(LlmPriority.BACKGROUND.asContext())}
+ *
+ * @author han
+ * @time 2025/11/8 09:30
+ */
+public enum LlmPriority {
+
+	/**
+	 * 用户正在等待的 turn 阶段调用
+	 */
+	INTERACTIVE,
+
+	/**
+	 * 标题生成、总结压缩等后台调用，配额紧张时让位于交互调用
+	 */
+	BACKGROUND;
+
+	private static final String CONTEXT_KEY = LlmPriority.class.getName();
+
+	public Context asContext() {
+		return Context.of(CONTEXT_KEY, this);
+	}
+
+	/**
+	 * 从 Reactor Context 读取优先级，未设置时视为交互调用
+	 */
+	public static LlmPriority from(ContextView context) {
+		return context.getOrDefault(CONTEXT_KEY, INTERACTIVE);
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.ai.agent.real.contract.model.llm;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * LLM 调用所属的阶段（通常为 agent id），通过 Reactor Context 传递给模型路由
+ *
+ * @author han
+ * @time 2025/11/10 10:00
+ */
+public final class LlmStage {
+
+	/**
+	 * 会话标题生成
+	 */
+	public static final String SESSION_TITLE = "SessionTitle";
+
+	private static final String CONTEXT_KEY = LlmStage.class.getName();
+
+	private LlmStage() {
+	}
+
+	public static Context of(String stage) {
+		return Context.of(CONTEXT_KEY, stage);
+	}
+
+	/**
+	 * 从 Reactor Context 读取阶段，未设置时返回 null
+	 */
+	public static String from(ContextView context) {
+		return context.getOrDefault(CONTEXT_KEY, null);
+	}
+
+}
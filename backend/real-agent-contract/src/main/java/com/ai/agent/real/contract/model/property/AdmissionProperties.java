@@ -0,0 +1,41 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * turn 准入控制配置
+ *
+ * @author han
+ * @time 2025/11/7 10:00
+ */
+@Data
+public class AdmissionProperties {
+
+	/**
+	 * 是否开启准入控制
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 全局最大并发 turn 数
+	 */
+	private int maxConcurrentTurns = 32;
+
+	/**
+	 * 单用户最大并发 turn 数
+	 */
+	private int maxConcurrentTurnsPerUser = 2;
+
+	/**
+	 * 等待队列长度，队列满后直接拒绝（429）
+	 */
+	private int maxQueueSize = 64;
+
+	/**
+	 * 排队等待的最长时间
+	 */
+	private Duration maxQueueWait = Duration.ofMinutes(2);
+
+}
@@ -0,0 +1,72 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * DIRECT 模式问答的语义缓存配置
+ *
+ * @author han
+ * @time 2025/11/13 09:20
+ */
+@Data
+public class AnswerCacheProperties {
+
+	/**
+	 * 是否开启语义缓存
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 缓存作用域：USER 只命中同一用户的历史回答，GLOBAL 所有用户共享
+	 */
+	private Scope scope = Scope.USER;
+
+	/**
+	 * 余弦相似度阈值，达到该值视为同一问题
+	 */
+	private double threshold = 0.92;
+
+	/**
+	 * 归一化后不超过该长度的短问题字符 n-gram 太少，相似度不可靠，只命中归一化后完全相同的问题
+	 */
+	private int exactMatchLength = 8;
+
+	/**
+	 * 缓存有效期
+	 */
+	private Duration ttl = Duration.ofHours(1);
+
+	/**
+	 * 缓存条目上限，超出后淘汰最早写入的条目
+	 */
+	private int maxEntries = 5000;
+
+	/**
+	 * 只缓存会话中的首个问题：有历史对话时回答可能依赖上下文，不读也不写缓存
+	 */
+	private boolean standaloneOnly = true;
+
+	/**
+	 * 本地文本向量维度（字符 n-gram 特征哈希）
+	 */
+	private int dimension = 512;
+
+	/**
+	 * 近似最近邻索引：随机超平面 LSH 的哈希表个数
+	 */
+	private int lshTables = 8;
+
+	/**
+	 * 每个哈希表的签名位数，位数越多桶越小、召回越低
+	 */
+	private int lshBits = 10;
+
+	public enum Scope {
+
+		USER, GLOBAL
+
+	}
+
+}
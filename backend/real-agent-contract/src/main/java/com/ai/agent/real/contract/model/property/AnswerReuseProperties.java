@@ -0,0 +1,38 @@
+package com.ai.agent.real.contract.model.property;
+
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import lombok.Data;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 最终回答复用配置：task_done 携带的内容已是完整回答时，直接作为最终结果下发，跳过 FinalAgent 重新生成
+ *
+ * @author han
+ * @time 2025/11/17 14:00
+ */
+@Data
+public class AnswerReuseProperties {
+
+	/**
+	 * 是否开启回答复用
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * ReActPlus 中允许复用的模式。DIRECT 模式没有迭代阶段，FinalAgent 本身即回答，不在此列
+	 */
+	private Set<AgentMode> modes = EnumSet.of(AgentMode.SIMPLE);
+
+	/**
+	 * 经典 ReAct 策略是否复用
+	 */
+	private boolean reAct = false;
+
+	/**
+	 * 质量门槛：去掉首尾空白后的最少字符数，过短的内容多为状态说明，仍交给 FinalAgent 总结
+	 */
+	private int minLength = 10;
+
+}
@@ -0,0 +1,46 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * turn 检查点配置：在阶段边界保存执行快照，重启/发布后可从断点恢复
+ *
+ * @author han
+ * @time 2025/11/4 14:05
+ */
+@Data
+public class CheckpointProperties {
+
+	/**
+	 * 是否开启检查点
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Redis key 前缀
+	 */
+	private String keyPrefix = "real-agent:checkpoint";
+
+	/**
+	 * Redis 中检查点的保留时长
+	 */
+	private Duration ttl = Duration.ofHours(24);
+
+	/**
+	 * 恢复权的保留时长，只需覆盖从读取检查点到 turn 在本节点登记之间的窗口，节点异常退出时到期自动释放
+	 */
+	private Duration resumeClaimTtl = Duration.ofMinutes(1);
+
+	/**
+	 * 是否同时写入 Postgres（context.turns.meta），Redis 丢失时兜底
+	 */
+	private boolean persistToDb = true;
+
+	/**
+	 * 工具审批等待时是否挂起 turn：写入检查点后释放内存中的执行链与 SSE，审批结果到达后再从检查点恢复
+	 */
+	private boolean suspendOnApproval = false;
+
+}
@@ -0,0 +1,41 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 集群相关配置：turn 归属登记、节点租约、跨节点转发
+ *
+ * @author han
+ * @time 2025/11/3 10:12
+ */
+@Data
+public class ClusterProperties {
+
+	/**
+	 * 是否开启集群模式，关闭时 turn 只在本节点内存中管理
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 当前节点ID，为空时启动时随机生成
+	 */
+	private String nodeId;
+
+	/**
+	 * Redis key 前缀
+	 */
+	private String keyPrefix = "real-agent:cluster";
+
+	/**
+	 * 节点/turn 租约时长，超过该时长未续约视为节点宕机
+	 */
+	private Duration leaseTtl = Duration.ofSeconds(15);
+
+	/**
+	 * 续约心跳间隔，应明显小于 leaseTtl
+	 */
+	private Duration heartbeatInterval = Duration.ofSeconds(5);
+
+}
@@ -0,0 +1,36 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 协作策略配置：按 ThoughtAgent 的任务分解并行执行子任务，再由合并阶段汇总
+ *
+ * @author han
+ * @time 2025/11/19 15:00
+ */
+@Data
+public class CollaborativeProperties {
+
+	/**
+	 * 同时执行的子 agent 上限
+	 */
+	private int maxAgents = 5;
+
+	/**
+	 * 子任务数量上限，超出的子任务忽略
+	 */
+	private int maxSubtasks = 7;
+
+	/**
+	 * 单个子任务的超时，超时的子任务以失败结果参与合并
+	 */
+	private Duration coordinationTimeout = Duration.ofMinutes(1);
+
+	/**
+	 * 合并时每个子任务结果保留的最多字符数
+	 */
+	private int maxResultLength = 4000;
+
+}
@@ -0,0 +1,74 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 竞争策略配置：同一任务按多套配置并行执行，取第一个通过校验的结果
+ *
+ * @author han
+ * @time 2025/11/19 10:00
+ */
+@Data
+public class CompetitiveProperties {
+
+	/**
+	 * 是否开启竞争，关闭时只运行第一个竞争者
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 同时运行的竞争者上限，超出的配置忽略
+	 */
+	private int maxCompetitors = 3;
+
+	/**
+	 * 竞争超时：到期仍无结果通过校验时取消全部竞争者，回退到已结束但未通过校验的结果
+	 */
+	private Duration competitionTimeout = Duration.ofMinutes(1);
+
+	/**
+	 * 校验门槛：最终回答的最少字符数
+	 */
+	private int minAnswerLength = 10;
+
+	/**
+	 * 竞争者配置，按顺序取前 maxCompetitors 个
+	 */
+	private List<Competitor> competitors = new ArrayList<>(List.of(new Competitor()));
+
+	@Data
+	public static class Competitor {
+
+		/**
+		 * 名称，用于日志与指标
+		 */
+		private String name = "default";
+
+		/**
+		 * 委托执行的策略 bean 名称
+		 */
+		private String strategy = "reActPlusAgentStrategy";
+
+		/**
+		 * 覆盖的模型名称，为空时沿用模型路由结果
+		 */
+		private String model;
+
+		/**
+		 * 覆盖的温度，为空时沿用默认配置
+		 */
+		private Double temperature;
+
+		/**
+		 * 竞争时可调用的工具 id，只应配置只读、无副作用的工具。被取消的竞争者无法撤回已执行的工具，
+		 * 所以竞争时只允许系统工具与这里列出的工具，为空时只能使用系统工具
+		 */
+		private List<String> allowedTools = new ArrayList<>();
+
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.ai.agent.real.contract.model.property;
+
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 策略分发配置：按系统负载与任务特征选择策略
+ *
+ * @author han
+ * @time 2025/11/20 10:00
+ */
+@Data
+public class DispatcherProperties {
+
+	/**
+	 * 是否开启自动选择，关闭时按请求的名称选择
+	 */
+	private boolean autoSelection = false;
+
+	/**
+	 * 选择算法：PRIORITY_BASED 按请求的名称选择，LOAD_BASED 按负载降级
+	 */
+	private Algorithm algorithm = Algorithm.PRIORITY_BASED;
+
+	/**
+	 * 饱和阈值：负载（执行中 turn、LLM 在途与排队、排队延迟三者相对上限的最大占比）达到该值时降级
+	 */
+	private double threshold = 0.8;
+
+	/**
+	 * 严重饱和阈值，达到该值时降到 criticalModeCeiling
+	 */
+	private double criticalThreshold = 1.0;
+
+	/**
+	 * 饱和时 ReActPlus 的模式上限，预分类判定为轻量模式的任务不受限制
+	 */
+	private AgentMode modeCeiling = AgentMode.SIMPLE;
+
+	/**
+	 * 严重饱和时 ReActPlus 的模式上限
+	 */
+	private AgentMode criticalModeCeiling = AgentMode.DIRECT;
+
+	/**
+	 * 近期排队等待达到该值视为满载
+	 */
+	private Duration latencyThreshold = Duration.ofSeconds(10);
+
+	/**
+	 * 排队等待的指数平滑系数，越大越偏向最近的样本
+	 */
+	private double latencySmoothing = 0.3;
+
+	public enum Algorithm {
+
+		PRIORITY_BASED, LOAD_BASED
+
+	}
+
+}
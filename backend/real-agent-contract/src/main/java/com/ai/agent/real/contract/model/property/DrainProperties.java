@@ -0,0 +1,21 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 节点下线排空配置
+ *
+ * @author han
+ * @time 2025/11/5 10:20
+ */
+@Data
+public class DrainProperties {
+
+	/**
+	 * 等待运行中 turn 自然结束的最长时间，超时后剩余 turn 会被中止并通知客户端重连
+	 */
+	private Duration deadline = Duration.ofSeconds(25);
+
+}
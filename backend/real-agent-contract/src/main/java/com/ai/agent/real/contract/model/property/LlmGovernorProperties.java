@@ -0,0 +1,78 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * LLM 出站限流配置：集群共享的 RPM/TPM 配额
+ *
+ * @author han
+ * @time 2025/11/8 09:40
+ */
+@Data
+public class LlmGovernorProperties {
+
+	/**
+	 * 是否开启出站限流
+	 */
+	private boolean enabled = false;
+
+	private String keyPrefix = "real-agent:llm";
+
+	/**
+	 * 供应商每分钟请求数配额（整个集群）
+	 */
+	private long requestsPerMinute = 600;
+
+	/**
+	 * 供应商每分钟 token 配额（整个集群）
+	 */
+	private long tokensPerMinute = 1_000_000;
+
+	/**
+	 * 计数窗口，配额按窗口长度等比折算，窗口越短越平滑
+	 */
+	private Duration window = Duration.ofSeconds(10);
+
+	/**
+	 * 后台调用最多可使用的配额比例，剩余部分留给交互调用
+	 */
+	private double backgroundShare = 0.6;
+
+	/**
+	 * 等待配额的最长时间，超时后本次调用失败
+	 */
+	private Duration maxWait = Duration.ofSeconds(30);
+
+	/**
+	 * 估算 token：每个 token 对应的字符数（中英文混合取保守值）
+	 */
+	private double charsPerToken = 2.0;
+
+	/**
+	 * 估算 token：每次调用预留的输出 token 数，调用结束后按实际用量修正
+	 */
+	private int expectedCompletionTokens = 512;
+
+	/**
+	 * 供应商返回 429 后集群暂停发起新调用的时长
+	 */
+	private Duration throttleCooldown = Duration.ofSeconds(5);
+
+	/**
+	 * 429 时配额的乘性缩减系数
+	 */
+	private double decreaseFactor = 0.7;
+
+	/**
+	 * 成功调用后配额的加性恢复步长
+	 */
+	private double increaseStep = 0.01;
+
+	/**
+	 * 自适应缩减的下限
+	 */
+	private double minFactor = 0.2;
+
+}
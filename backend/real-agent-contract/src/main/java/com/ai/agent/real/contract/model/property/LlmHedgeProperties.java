@@ -0,0 +1,87 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * LLM 流式调用的对冲请求与故障切换配置
+ *
+ * @author han
+ * @time 2025/11/11 09:40
+ */
+@Data
+public class LlmHedgeProperties {
+
+	/**
+	 * 是否开启对冲请求：首包超过 TTFT 分位阈值仍未到达时，向备用（或同一）端点再发一次请求，先出首包者胜出
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 触发对冲的 TTFT 分位数
+	 */
+	private double percentile = 0.95;
+
+	/**
+	 * 每个模型保留的 TTFT 样本数
+	 */
+	private int window = 200;
+
+	/**
+	 * 样本数达到该值前使用 initialDelay 作为对冲阈值
+	 */
+	private int minSamples = 20;
+
+	/**
+	 * 样本不足时的对冲阈值
+	 */
+	private Duration initialDelay = Duration.ofSeconds(3);
+
+	/**
+	 * 对冲阈值下限，避免供应商整体很快时过度对冲
+	 */
+	private Duration minDelay = Duration.ofMillis(300);
+
+	/**
+	 * 对冲阈值上限
+	 */
+	private Duration maxDelay = Duration.ofSeconds(15);
+
+	/**
+	 * 对冲请求占总请求的比例上限，超出后不再对冲，避免故障时放大供应商压力
+	 */
+	private double maxHedgeRatio = 0.1;
+
+	/**
+	 * 端点连续失败达到该次数后熔断，熔断期间流量切到其他端点
+	 */
+	private int failureThreshold = 3;
+
+	/**
+	 * 熔断持续时间，到期后放行请求试探恢复
+	 */
+	private Duration openDuration = Duration.ofSeconds(30);
+
+	/**
+	 * 备用 OpenAI 兼容端点，未配置 baseUrl 时对冲发往主端点，且不做故障切换
+	 */
+	private Secondary secondary = new Secondary();
+
+	@Data
+	public static class Secondary {
+
+		private String baseUrl;
+
+		private String apiKey;
+
+		/**
+		 * 备用端点使用的模型，为空时沿用请求中的模型
+		 */
+		private String model;
+
+		private String completionsPath = "/v1/chat/completions";
+
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * LLM 调用公平调度配置
+ *
+ * @author han
+ * @time 2025/11/9 14:05
+ */
+@Data
+public class LlmSchedulerProperties {
+
+	/**
+	 * 是否开启加权公平调度
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 本节点同时向供应商发起的最大调用数
+	 */
+	private int maxInFlight = 16;
+
+	/**
+	 * 未单独配置的用户权重
+	 */
+	private double defaultWeight = 1.0;
+
+	/**
+	 * 用户（或租户）权重，权重越大分到的调用份额越多
+	 */
+	private Map<String, Double> weights = new HashMap<>();
+
+}
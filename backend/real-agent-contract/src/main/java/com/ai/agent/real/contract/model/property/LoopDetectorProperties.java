@@ -0,0 +1,39 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+/**
+ * 迭代死循环检测配置：相同工具调用或近似思考反复出现时先提示纠正，持续重复则提前结束
+ *
+ * @author han
+ * @time 2025/11/18 10:00
+ */
+@Data
+public class LoopDetectorProperties {
+
+	/**
+	 * 是否开启死循环检测
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 思考相似度阈值（字符 n-gram 余弦相似度），达到该值视为重复思考
+	 */
+	private double thoughtSimilarity = 0.92;
+
+	/**
+	 * 与最近多少轮的思考比较
+	 */
+	private int thoughtWindow = 5;
+
+	/**
+	 * 连续重复达到该轮数时提前结束迭代，第一次重复时只注入纠正提示
+	 */
+	private int terminateAfter = 3;
+
+	/**
+	 * 本地文本向量维度
+	 */
+	private int dimension = 256;
+
+}
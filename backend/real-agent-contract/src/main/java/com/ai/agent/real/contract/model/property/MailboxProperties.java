@@ -0,0 +1,36 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 会话 mailbox 配置：同一会话的 turn 串行执行
+ *
+ * @author han
+ * @time 2025/11/6 14:00
+ */
+@Data
+public class MailboxProperties {
+
+	/**
+	 * 是否开启会话级串行
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 执行中的 turn 之后允许排队的数量，超出后拒绝
+	 */
+	private int maxQueueDepth = 1;
+
+	/**
+	 * 拒绝与排队中/执行中请求内容相同的提交（前端重复提交）
+	 */
+	private boolean rejectDuplicate = true;
+
+	/**
+	 * 排队等待的最长时间
+	 */
+	private Duration queueTimeout = Duration.ofMinutes(5);
+
+}
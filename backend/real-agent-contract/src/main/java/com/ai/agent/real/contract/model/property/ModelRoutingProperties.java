@@ -0,0 +1,77 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按阶段的模型路由配置
+ *
+ * @author han
+ * @time 2025/11/10 10:05
+ */
+@Data
+public class ModelRoutingProperties {
+
+	/**
+	 * 是否开启模型路由
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 模型档位：档位名 -> 模型与输出上限
+	 */
+	private Map<String, Tier> tiers = new HashMap<>();
+
+	/**
+	 * 阶段（agent id / SessionTitle）-> 档位名
+	 */
+	private Map<String, String> stages = new HashMap<>();
+
+	/**
+	 * 未配置的阶段使用的档位，为空时保持原有模型
+	 */
+	private String defaultTier;
+
+	/**
+	 * 高负载自动降档
+	 */
+	private Downgrade downgrade = new Downgrade();
+
+	@Data
+	public static class Tier {
+
+		/**
+		 * 模型名称，为空时沿用默认模型
+		 */
+		private String model;
+
+		/**
+		 * 输出 token 上限，为空时不限制
+		 */
+		private Integer maxTokens;
+
+		/**
+		 * 高负载时降到的档位
+		 */
+		private String downgradeTo;
+
+	}
+
+	@Data
+	public static class Downgrade {
+
+		/**
+		 * LLM 调度排队数达到该值时降档
+		 */
+		private int queueThreshold = 8;
+
+		/**
+		 * 出站配额自适应系数低于该值时降档（供应商已开始限流）
+		 */
+		private double factorThreshold = 0.6;
+
+	}
+
+}
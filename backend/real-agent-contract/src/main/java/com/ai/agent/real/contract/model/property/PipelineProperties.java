@@ -0,0 +1,81 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流水线策略配置：按声明的顺序串联 agent，下游阶段可在上游输出出现分界标记时提前启动
+ *
+ * @author han
+ * @time 2025/11/20 15:00
+ */
+@Data
+public class PipelineProperties {
+
+	/**
+	 * 阶段数上限，超出的阶段忽略
+	 */
+	private int maxStages = 10;
+
+	/**
+	 * 单个阶段的默认超时（从阶段启动到结束），阶段未单独配置时使用
+	 */
+	private Duration stageTimeout = Duration.ofMinutes(1);
+
+	/**
+	 * 阶段失败时的处理方式
+	 */
+	private FailureStrategy failureStrategy = FailureStrategy.FAIL_FAST;
+
+	/**
+	 * 阶段定义，按顺序执行。默认 ThoughtAgent 推理完成（进入「最终结论」）后即交给 FinalAgent 作答
+	 */
+	private List<Stage> stages = new ArrayList<>(
+			List.of(new Stage("ThoughtAgent", "### 4."), new Stage("FinalAgent", null)));
+
+	public enum FailureStrategy {
+
+		/**
+		 * 任一阶段失败即终止整条流水线
+		 */
+		FAIL_FAST,
+
+		/**
+		 * 失败阶段已有的输出交给下游，继续执行后续阶段，最终以警告结束
+		 */
+		CONTINUE
+
+	}
+
+	@Data
+	public static class Stage {
+
+		/**
+		 * agent 标识（agentId）
+		 */
+		private String agent;
+
+		/**
+		 * 分界标记：该阶段输出出现此标记时，标记之前的内容即交给下游阶段并启动下游，不配置则等该阶段结束
+		 */
+		private String boundary;
+
+		/**
+		 * 该阶段的超时，不配置时使用 stage-timeout
+		 */
+		private Duration timeout;
+
+		public Stage() {
+		}
+
+		public Stage(String agent, String boundary) {
+			this.agent = agent;
+			this.boundary = boundary;
+		}
+
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+/**
+ * 供应商前缀缓存（prompt/KV cache）友好的 Prompt 布局配置。与 prompt-cache（本地回放整段响应）不同，这里只调整消息顺序，
+ * 让各阶段的请求共享同一段前缀：公共系统前言 + 只追加的对话历史，阶段专属的系统提示移到末尾
+ *
+ * @author han
+ * @time 2025/11/21 10:00
+ */
+@Data
+public class PrefixCacheProperties {
+
+	/**
+	 * 是否启用前缀缓存布局，关闭时 Prompt 保持原样（仍统计供应商返回的缓存命中用量）
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 各阶段共享的系统前言，内容需保持稳定，变化会使已有的前缀缓存全部失效
+	 */
+	private String preamble = "你是 Real Agent 多智能体系统中的一个智能体。下面是与用户的完整对话历史，"
+			+ "本阶段的角色与要求在最后一条消息的 <stage_instructions> 中给出，请严格按其要求作答。";
+
+}
@@ -0,0 +1,52 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 精确匹配的 Prompt 缓存配置
+ *
+ * @author han
+ * @time 2025/11/12 09:30
+ */
+@Data
+public class PromptCacheProperties {
+
+	/**
+	 * 是否开启 Prompt 缓存
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 开启缓存的阶段（agent id / SessionTitle），只应配置输出确定、工具调用无副作用的阶段
+	 */
+	private Set<String> stages = new HashSet<>();
+
+	/**
+	 * 缓存有效期
+	 */
+	private Duration ttl = Duration.ofMinutes(10);
+
+	/**
+	 * 本地缓存条目上限，超出后按最近最少使用淘汰
+	 */
+	private int maxEntries = 2000;
+
+	/**
+	 * 集群共享的 Redis 二级缓存
+	 */
+	private Redis redis = new Redis();
+
+	@Data
+	public static class Redis {
+
+		private boolean enabled = false;
+
+		private String keyPrefix = "real-agent:prompt-cache:";
+
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.ai.agent.real.contract.model.property;
+
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import lombok.Data;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * ReActPlus 策略配置
+ *
+ * @author han
+ * @time 2025/11/16 10:00
+ */
+@Data
+public class ReActPlusProperties {
+
+	/**
+	 * 使用融合迭代的模式：一次 function calling 请求同时产出思考文本与工具调用，替代 ThinkingPlus + ActionPlus 两次调用。
+	 * 为空时所有模式都使用两阶段迭代
+	 */
+	private Set<AgentMode> fusedIterationModes = EnumSet.noneOf(AgentMode.class);
+
+}
@@ -0,0 +1,20 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+/**
+ * 经典 ReAct 策略配置
+ *
+ * @author han
+ * @time 2025/11/17 10:30
+ */
+@Data
+public class ReActProperties {
+
+	/**
+	 * 是否把观察阶段折叠进下一轮思考：观察作为下一轮思考输出的开头段落，省去单独的 ObservationAgent 调用。
+	 * 最后一轮以及任务被标记完成时仍单独执行观察阶段
+	 */
+	private boolean foldObservation = false;
+
+}
@@ -0,0 +1,38 @@
+package com.ai.agent.real.contract.model.property;
+
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import lombok.Data;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 模式阶段投机执行配置：任务分析期间按预分类的判定提前启动模式阶段，任务分析结果与判定一致时采用其结果
+ *
+ * @author han
+ * @time 2025/11/15 10:00
+ */
+@Data
+public class SpeculationProperties {
+
+	/**
+	 * 是否开启投机执行
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 允许投机执行的模式，目前支持 THOUGHT 与 PLAN
+	 */
+	private Set<AgentMode> modes = EnumSet.of(AgentMode.THOUGHT);
+
+	/**
+	 * 预分类判定的最低置信度，低于该值时不投机。达到预分类阈值的判定直接跳过任务分析，不需要投机
+	 */
+	private double minConfidence = 0.6;
+
+	/**
+	 * 是否允许投机执行带工具的阶段。投机结果被丢弃时已执行的工具副作用无法撤销，默认只投机无工具的阶段
+	 */
+	private boolean allowTools = false;
+
+}
@@ -0,0 +1,53 @@
+package com.ai.agent.real.contract.model.property;
+
+import com.ai.agent.real.contract.model.context.reactplus.AgentMode;
+import lombok.Data;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 任务预分类配置：简单输入由规则与本地分类器直接判定模式，跳过任务分析的 LLM 调用
+ *
+ * @author han
+ * @time 2025/11/14 10:20
+ */
+@Data
+public class TaskPreClassifierProperties {
+
+	/**
+	 * 是否开启预分类
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * 置信度阈值，低于该值时回退到 LLM 任务分析
+	 */
+	private double threshold = 0.9;
+
+	/**
+	 * 输入长度上限，超过时直接走 LLM 任务分析
+	 */
+	private int maxInputLength = 64;
+
+	/**
+	 * 允许预分类直接判定的模式，其余模式即使置信度足够也回退到 LLM
+	 */
+	private Set<AgentMode> modes = EnumSet.of(AgentMode.DIRECT);
+
+	/**
+	 * 是否启用内置规则（问候、致谢、告别、询问身份等）
+	 */
+	private boolean rulesEnabled = true;
+
+	/**
+	 * 离线训练的线性分类模型位置，支持 classpath: 与 file: 前缀，为空时只使用规则
+	 */
+	private String modelLocation = "";
+
+	/**
+	 * LLM 任务分析结果的样本日志文件（JSON Lines），用于离线训练分类模型，为空时不记录
+	 */
+	private String sampleLog = "";
+
+}
@@ -0,0 +1,41 @@
+package com.ai.agent.real.contract.model.property;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 单个 turn 的预算配置：墙钟时间、LLM 调用次数与 token 总量，任一接近上限时跳过剩余阶段直接总结
+ *
+ * @author han
+ * @time 2025/11/18 15:00
+ */
+@Data
+public class TurnBudgetProperties {
+
+	/**
+	 * 是否开启 turn 预算
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * turn 的墙钟时间上限
+	 */
+	private Duration deadline = Duration.ofMinutes(3);
+
+	/**
+	 * LLM 调用次数上限（含 FinalAgent）
+	 */
+	private int maxLlmCalls = 40;
+
+	/**
+	 * prompt + completion token 总量上限，取自 ChatResponse 的 usage
+	 */
+	private long maxTokens = 300_000;
+
+	/**
+	 * 为 FinalAgent 预留的比例：时间或 token 用量超过 (1 - reserve) 即视为接近耗尽
+	 */
+	private double reserveRatio = 0.15;
+
+}
@@ -113,6 +113,13 @@ public class AgentExecutionEvent extends TraceInfo {
 		return new AgentExecutionEvent(EventType.COMPLETED, null, null, null);
 	}
 
+	/**
+	 * 节点下线等原因中断当前 SSE，通知客户端重新连接（可通过 resume 恢复）
+	 */
+	public static AgentExecutionEvent reconnect(Traceable traceInfo, String message, Object data) {
+		return new AgentExecutionEvent(EventType.RECONNECT, message, data, traceInfo);
+	}
+
 	public static AgentExecutionEvent doneWithWarning(Traceable traceInfo, String message) {
 		return new AgentExecutionEvent(EventType.DONEWITHWARNING, message, null, null);
 	}
@@ -176,6 +183,8 @@ public class AgentExecutionEvent extends TraceInfo {
 		UPDATE_PLAN, // 更新 plan
 		ADVANCE_PLAN, // plan 下一步
 
+		RECONNECT, // 节点下线，通知客户端重新连接
+
 	}
 
 }
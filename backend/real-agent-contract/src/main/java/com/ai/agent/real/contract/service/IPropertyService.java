@@ -22,9 +22,177 @@ public interface IPropertyService {
 	 */
 	ToolApprovalMode getToolApprovalMode();
 
+	/**
+	 * 获取工具审批等待超时时间
+	 */
+	default Duration getToolApprovalTimeout() {
+		return Duration.ofMinutes(10);
+	}
+
 	/**
 	 * 获取内存压缩模式
 	 */
 	ContextZipMode getContextZipMode();
 
-}
\ No newline at end of file
+	/**
+	 * 获取集群配置
+	 */
+	default ClusterProperties getCluster() {
+		return new ClusterProperties();
+	}
+
+	/**
+	 * 获取检查点配置
+	 */
+	default CheckpointProperties getCheckpoint() {
+		return new CheckpointProperties();
+	}
+
+	/**
+	 * 获取节点排空配置
+	 */
+	default DrainProperties getDrain() {
+		return new DrainProperties();
+	}
+
+	/**
+	 * 获取会话 mailbox 配置
+	 */
+	default MailboxProperties getMailbox() {
+		return new MailboxProperties();
+	}
+
+	/**
+	 * 获取 turn 准入控制配置
+	 */
+	default AdmissionProperties getAdmission() {
+		return new AdmissionProperties();
+	}
+
+	/**
+	 * 获取 LLM 出站限流配置
+	 */
+	default LlmGovernorProperties getLlmGovernor() {
+		return new LlmGovernorProperties();
+	}
+
+	/**
+	 * 获取 LLM 调用公平调度配置
+	 */
+	default LlmSchedulerProperties getLlmScheduler() {
+		return new LlmSchedulerProperties();
+	}
+
+	/**
+	 * 获取按阶段的模型路由配置
+	 */
+	default ModelRoutingProperties getModelRouting() {
+		return new ModelRoutingProperties();
+	}
+
+	/**
+	 * 获取 LLM 对冲请求与故障切换配置
+	 */
+	default LlmHedgeProperties getLlmHedge() {
+		return new LlmHedgeProperties();
+	}
+
+	/**
+	 * 获取 Prompt 精确匹配缓存配置
+	 */
+	default PromptCacheProperties getPromptCache() {
+		return new PromptCacheProperties();
+	}
+
+	/**
+	 * 获取 DIRECT 模式问答语义缓存配置
+	 */
+	default AnswerCacheProperties getAnswerCache() {
+		return new AnswerCacheProperties();
+	}
+
+	/**
+	 * 获取任务预分类配置
+	 */
+	default TaskPreClassifierProperties getTaskPreClassifier() {
+		return new TaskPreClassifierProperties();
+	}
+
+	/**
+	 * 获取模式阶段投机执行配置
+	 */
+	default SpeculationProperties getSpeculation() {
+		return new SpeculationProperties();
+	}
+
+	/**
+	 * 获取 ReActPlus 策略配置
+	 */
+	default ReActPlusProperties getReActPlus() {
+		return new ReActPlusProperties();
+	}
+
+	/**
+	 * 获取经典 ReAct 策略配置
+	 */
+	default ReActProperties getReAct() {
+		return new ReActProperties();
+	}
+
+	/**
+	 * 获取最终回答复用配置
+	 */
+	default AnswerReuseProperties getAnswerReuse() {
+		return new AnswerReuseProperties();
+	}
+
+	/**
+	 * 获取迭代死循环检测配置
+	 */
+	default LoopDetectorProperties getLoopDetector() {
+		return new LoopDetectorProperties();
+	}
+
+	/**
+	 * 获取单个 turn 的预算配置
+	 */
+	default TurnBudgetProperties getTurnBudget() {
+		return new TurnBudgetProperties();
+	}
+
+	/**
+	 * 获取竞争策略配置
+	 */
+	default CompetitiveProperties getCompetitive() {
+		return new CompetitiveProperties();
+	}
+
+	/**
+	 * 获取协作策略配置
+	 */
+	default CollaborativeProperties getCollaborative() {
+		return new CollaborativeProperties();
+	}
+
+	/**
+	 * 获取策略分发配置
+	 */
+	default DispatcherProperties getDispatcher() {
+		return new DispatcherProperties();
+	}
+
+	/**
+	 * 获取流水线策略配置
+	 */
+	default PipelineProperties getPipeline() {
+		return new PipelineProperties();
+	}
+
+	/**
+	 * 获取前缀缓存布局配置
+	 */
+	default PrefixCacheProperties getPrefixCache() {
+		return new PrefixCacheProperties();
+	}
+
+}
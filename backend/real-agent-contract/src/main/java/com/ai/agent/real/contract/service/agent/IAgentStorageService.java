@@ -33,6 +33,11 @@ public interface IAgentStorageService {
 	@Transactional
 	Mono<Turn> completeTurn(UUID turnId);
 
+	/**
+	 * 判断 turn 是否属于指定用户（按 turn 所属会话判断），turn 不存在时返回 false
+	 */
+	Mono<Boolean> isTurnOwnedBy(UUID turnId, UUID userId);
+
 	/**
 	 * 获取会话历史消息
 	 */
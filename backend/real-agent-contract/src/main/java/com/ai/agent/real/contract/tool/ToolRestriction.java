@@ -0,0 +1,45 @@
+package com.ai.agent.real.contract.tool;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Set;
+
+/**
+ * 单次执行范围内的工具白名单，通过 Reactor Context 传递给工具执行。用于竞争策略：被取消的竞争者无法撤回已执行的工具，
+ * 所以竞争者只能调用系统工具（只改动自身隔离的上下文）与白名单内的只读工具，其余工具不执行，直接告知模型不可用
+ *
+ * @param allowedTools 允许调用的工具 id，应只包含只读、无副作用的工具
+ * @author han
+ * @time 2025/11/23 10:20
+ */
+public record ToolRestriction(Set<String> allowedTools) {
+
+	private static final String CONTEXT_KEY = ToolRestriction.class.getName();
+
+	/**
+	 * 系统工具的分类，见 {@link ToolSpec#getCategory()}
+	 */
+	private static final String SYSTEM_CATEGORY = "system";
+
+	public ToolRestriction {
+		allowedTools = allowedTools == null ? Set.of() : Set.copyOf(allowedTools);
+	}
+
+	public boolean allows(AgentTool tool) {
+		ToolSpec spec = tool.getSpec();
+		return spec != null && SYSTEM_CATEGORY.equals(spec.getCategory()) || allowedTools.contains(tool.getId());
+	}
+
+	public Context toContext() {
+		return Context.of(CONTEXT_KEY, this);
+	}
+
+	/**
+	 * 从 Reactor Context 读取工具白名单，未设置时返回 null（不限制）
+	 */
+	public static ToolRestriction from(ContextView context) {
+		return context.getOrDefault(CONTEXT_KEY, null);
+	}
+
+}
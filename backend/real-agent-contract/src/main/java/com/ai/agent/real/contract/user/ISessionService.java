@@ -20,6 +20,22 @@ public interface ISessionService {
 	 */
 	Mono<SessionDTO> createSessionWithAiTitle(String title, String type, UUID userId, String firstUserMessage);
 
+	/**
+	 * 使用给定标题创建新会话，不调用 AI 生成标题
+	 * @param title 会话标题，为空时使用默认标题
+	 * @param type 会话类型
+	 * @param userId 用户ID
+	 * @return 创建的会话
+	 */
+	Mono<SessionDTO> createSession(String title, String type, UUID userId);
+
+	/**
+	 * 更新会话标题
+	 * @param sessionId 会话ID
+	 * @param title 新标题
+	 */
+	Mono<Void> updateTitle(UUID sessionId, String title);
+
 	/**
 	 * 根据ID获取会话
 	 */
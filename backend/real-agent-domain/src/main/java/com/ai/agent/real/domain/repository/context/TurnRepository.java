@@ -1,9 +1,13 @@
 package com.ai.agent.real.domain.repository.context;
 
 import com.ai.agent.real.domain.entity.context.Turn;
+import io.r2dbc.postgresql.codec.Json;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
@@ -14,4 +18,27 @@ import java.util.UUID;
 @Repository
 public interface TurnRepository extends R2dbcRepository<Turn, UUID> {
 
+	/**
+	 * 合并更新 turn 的 meta：只覆盖传入的顶层字段，其余字段保留
+	 */
+	@Modifying
+	@Query("UPDATE context.turns SET meta = COALESCE(meta, '{}'::jsonb) || :meta WHERE id = :id")
+	Mono<Integer> updateMeta(UUID id, Json meta);
+
+	/**
+	 * 写入检查点游标，并把本次新增的消息追加到 meta.checkpoint_messages
+	 */
+	@Modifying
+	@Query("UPDATE context.turns SET meta = COALESCE(meta, '{}'::jsonb) || jsonb_build_object("
+			+ "'checkpoint', :checkpoint, 'checkpoint_messages', "
+			+ "COALESCE(meta -> 'checkpoint_messages', '[]'::jsonb) || :messages) WHERE id = :id")
+	Mono<Integer> appendCheckpoint(UUID id, Json checkpoint, Json messages);
+
+	/**
+	 * 移除检查点相关字段，其余 meta 保留
+	 */
+	@Modifying
+	@Query("UPDATE context.turns SET meta = meta - 'checkpoint' - 'checkpoint_messages' WHERE id = :id")
+	Mono<Integer> clearCheckpoint(UUID id);
+
 }
@@ -39,4 +39,8 @@ public interface SessionRepository extends R2dbcRepository<Session, UUID> {
 	@Query("UPDATE context.sessions SET updated_time = :updatedTime WHERE id = :id")
 	Mono<Integer> updateUpdatedTime(UUID id, OffsetDateTime updatedTime);
 
+	@Modifying
+	@Query("UPDATE context.sessions SET title = :title WHERE id = :id")
+	Mono<Integer> updateTitle(UUID id, String title);
+
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.ai.agent.real.infra.redis;
 
 import com.ai.agent.real.contract.infra.redis.IRedisService;
+import org.springframework.data.redis.connection.ReactiveSubscription;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.List;
 
 /**
  * Redis 响应式服务
@@ -103,4 +106,53 @@ public class RedisService implements IRedisService {
 		return redisTemplate.opsForValue().decrement(key, delta);
 	}
 
+	/**
+	 * 键不存在时设置，带过期时间
+	 */
+	public Mono<Boolean> setIfAbsent(String key, Object value, Duration timeout) {
+		return redisTemplate.opsForValue().setIfAbsent(key, value, timeout);
+	}
+
+	/**
+	 * 追加到列表尾部
+	 */
+	public Mono<Long> rightPushAll(String key, List<Object> values) {
+		return redisTemplate.opsForList().rightPushAll(key, values);
+	}
+
+	/**
+	 * 读取列表区间，end 为 -1 时读到末尾
+	 */
+	public Flux<Object> range(String key, long start, long end) {
+		return redisTemplate.opsForList().range(key, start, end);
+	}
+
+	/**
+	 * 读取列表指定位置的元素
+	 */
+	public Mono<Object> index(String key, long index) {
+		return redisTemplate.opsForList().index(key, index);
+	}
+
+	/**
+	 * 列表长度
+	 */
+	public Mono<Long> size(String key) {
+		return redisTemplate.opsForList().size(key);
+	}
+
+	/**
+	 * 发布消息到频道
+	 */
+	public Mono<Long> publish(String channel, Object message) {
+		return redisTemplate.convertAndSend(channel, message);
+	}
+
+	/**
+	 * 订阅频道消息
+	 */
+	public Flux<Object> listen(String channel) {
+		return redisTemplate.listenToChannel(channel).map(ReactiveSubscription.Message::getMessage);
+	}
+
 }
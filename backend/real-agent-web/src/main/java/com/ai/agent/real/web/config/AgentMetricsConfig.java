@@ -0,0 +1,252 @@
+package com.ai.agent.real.web.config;
+
+import com.ai.agent.real.application.agent.dispatcher.LoadAwareAgentDispatcher;
+import com.ai.agent.real.application.agent.model.ModelRouter;
+import com.ai.agent.real.application.agent.model.PrefixCacheUsage;
+import com.ai.agent.real.application.agent.model.PromptCache;
+import com.ai.agent.real.application.agent.loop.LoopDetector;
+import com.ai.agent.real.application.agent.reuse.AnswerReusePolicy;
+import com.ai.agent.real.application.agent.speculation.ModeSpeculator;
+import com.ai.agent.real.application.agent.strategy.CompetitiveAgentStrategy;
+import com.ai.agent.real.contract.agent.IAgentStrategy;
+import com.ai.agent.real.contract.agent.service.IAdmissionController;
+import com.ai.agent.real.contract.agent.service.IAnswerCache;
+import com.ai.agent.real.contract.agent.service.ILlmRateGovernor;
+import com.ai.agent.real.contract.agent.service.ILlmScheduler;
+import com.ai.agent.real.contract.agent.service.ITaskPreClassifier;
+import com.ai.agent.real.contract.service.IPropertyService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agent 运行指标：通过 /actuator/metrics 导出，用于扩缩容
+ *
+ * @author han
+ * @time 2025/11/7 11:20
+ */
+@Configuration
+public class AgentMetricsConfig {
+
+	/**
+	 * 准入控制指标：执行中/排队中 turn 数、准入/拒绝/排队超时次数、排队等待时间
+	 */
+	@Bean
+	public MeterBinder admissionMetrics(IAdmissionController admissionController) {
+		return registry -> {
+			Gauge.builder("agent.admission.running", admissionController, c -> c.stats().getRunning())
+				.description("执行中的 turn 数")
+				.register(registry);
+			Gauge.builder("agent.admission.queued", admissionController, c -> c.stats().getQueued())
+				.description("等待队列中的 turn 数")
+				.register(registry);
+			FunctionCounter
+				.builder("agent.admission.admitted", admissionController, c -> c.stats().getAdmittedTotal())
+				.register(registry);
+			FunctionCounter
+				.builder("agent.admission.rejected", admissionController, c -> c.stats().getRejectedTotal())
+				.description("队列已满被拒绝（429）的次数")
+				.register(registry);
+			FunctionCounter
+				.builder("agent.admission.abandoned", admissionController, c -> c.stats().getTimedOutTotal())
+				.description("排队超时或客户端取消的次数")
+				.register(registry);
+			FunctionTimer
+				.builder("agent.admission.wait", admissionController, c -> c.stats().getWaitedTotal(),
+						c -> c.stats().getWaitNanosTotal(), TimeUnit.NANOSECONDS)
+				.description("排队等待时间")
+				.register(registry);
+		};
+	}
+
+	/**
+	 * LLM 出站限流指标：自适应配额系数，持续低于 1 说明供应商配额不足
+	 */
+	@Bean
+	public MeterBinder llmGovernorMetrics(ILlmRateGovernor llmRateGovernor) {
+		return registry -> Gauge.builder("agent.llm.governor.factor", llmRateGovernor, ILlmRateGovernor::currentFactor)
+			.description("LLM 出站配额自适应系数")
+			.register(registry);
+	}
+
+	/**
+	 * LLM 调度指标：在途与排队中的调用数
+	 */
+	@Bean
+	public MeterBinder llmSchedulerMetrics(ILlmScheduler llmScheduler) {
+		return registry -> {
+			Gauge.builder("agent.llm.scheduler.in_flight", llmScheduler, ILlmScheduler::inFlight).register(registry);
+			Gauge.builder("agent.llm.scheduler.queued", llmScheduler, ILlmScheduler::queued).register(registry);
+		};
+	}
+
+	/**
+	 * 模型路由指标：高负载降档次数
+	 */
+	@Bean
+	public MeterBinder modelRouterMetrics(ModelRouter modelRouter) {
+		return registry -> FunctionCounter
+			.builder("agent.llm.router.downgrades", modelRouter, ModelRouter::downgradeCount)
+			.description("高负载时降档到轻量模型的次数")
+			.register(registry);
+	}
+
+	/**
+	 * Prompt 缓存指标：按阶段统计命中与未命中次数
+	 */
+	@Bean
+	public MeterBinder promptCacheMetrics(PromptCache promptCache, IPropertyService propertyService) {
+		return registry -> propertyService.getPromptCache().getStages().forEach(stage -> {
+			FunctionCounter.builder("agent.llm.prompt_cache.hits", promptCache, cache -> cache.hits(stage))
+				.tag("stage", stage)
+				.register(registry);
+			FunctionCounter.builder("agent.llm.prompt_cache.misses", promptCache, cache -> cache.misses(stage))
+				.tag("stage", stage)
+				.register(registry);
+		});
+	}
+
+	/**
+	 * 供应商前缀缓存指标：输入 token 与其中命中缓存的 token、命中缓存的调用次数与命中比例
+	 */
+	@Bean
+	public MeterBinder prefixCacheMetrics(PrefixCacheUsage prefixCacheUsage) {
+		return registry -> {
+			FunctionCounter.builder("agent.llm.prefix_cache.calls", prefixCacheUsage, PrefixCacheUsage::calls)
+				.register(registry);
+			FunctionCounter.builder("agent.llm.prefix_cache.hits", prefixCacheUsage, PrefixCacheUsage::hits)
+				.register(registry);
+			FunctionCounter
+				.builder("agent.llm.prefix_cache.calls_without_usage", prefixCacheUsage, PrefixCacheUsage::withoutUsage)
+				.description("没有返回 usage 的调用次数，需开启 spring.ai.openai.chat.options.stream-usage")
+				.register(registry);
+			FunctionCounter
+				.builder("agent.llm.prefix_cache.prompt_tokens", prefixCacheUsage, PrefixCacheUsage::promptTokens)
+				.register(registry);
+			FunctionCounter
+				.builder("agent.llm.prefix_cache.cached_tokens", prefixCacheUsage, PrefixCacheUsage::cachedTokens)
+				.register(registry);
+			Gauge.builder("agent.llm.prefix_cache.hit_ratio", prefixCacheUsage, PrefixCacheUsage::hitRatio)
+				.description("输入 token 中命中供应商前缀缓存的比例")
+				.register(registry);
+		};
+	}
+
+	/**
+	 * 语义答案缓存指标：条目数、命中与未命中次数
+	 */
+	@Bean
+	public MeterBinder answerCacheMetrics(IAnswerCache answerCache) {
+		return registry -> {
+			Gauge.builder("agent.answer_cache.size", answerCache, IAnswerCache::size).register(registry);
+			FunctionCounter.builder("agent.answer_cache.hits", answerCache, IAnswerCache::hits).register(registry);
+			FunctionCounter.builder("agent.answer_cache.misses", answerCache, IAnswerCache::misses).register(registry);
+		};
+	}
+
+	/**
+	 * 任务预分类指标：命中（跳过任务分析）与回退到 LLM 的次数
+	 */
+	@Bean
+	public MeterBinder taskPreClassifierMetrics(ITaskPreClassifier taskPreClassifier) {
+		return registry -> {
+			FunctionCounter.builder("agent.task_pre_classifier.hits", taskPreClassifier, ITaskPreClassifier::hits)
+				.register(registry);
+			FunctionCounter
+				.builder("agent.task_pre_classifier.misses", taskPreClassifier, ITaskPreClassifier::misses)
+				.register(registry);
+		};
+	}
+
+	/**
+	 * 模式阶段投机执行指标：启动、命中、丢弃次数，命中率与丢弃浪费的估算 token
+	 */
+	@Bean
+	public MeterBinder speculationMetrics(ModeSpeculator modeSpeculator) {
+		return registry -> {
+			FunctionCounter.builder("agent.speculation.attempts", modeSpeculator, ModeSpeculator::attempts)
+				.register(registry);
+			FunctionCounter.builder("agent.speculation.hits", modeSpeculator, ModeSpeculator::hits).register(registry);
+			FunctionCounter.builder("agent.speculation.discards", modeSpeculator, ModeSpeculator::discards)
+				.register(registry);
+			FunctionCounter.builder("agent.speculation.wasted_tokens", modeSpeculator, ModeSpeculator::wastedTokens)
+				.register(registry);
+			Gauge.builder("agent.speculation.hit_rate", modeSpeculator, ModeSpeculator::hitRate).register(registry);
+		};
+	}
+
+	/**
+	 * 最终回答复用指标：跳过 FinalAgent 与未达质量门槛回退的次数
+	 */
+	@Bean
+	public MeterBinder answerReuseMetrics(AnswerReusePolicy answerReusePolicy) {
+		return registry -> {
+			FunctionCounter.builder("agent.answer_reuse.skips", answerReusePolicy, AnswerReusePolicy::skips)
+				.register(registry);
+			FunctionCounter.builder("agent.answer_reuse.fallbacks", answerReusePolicy, AnswerReusePolicy::fallbacks)
+				.register(registry);
+		};
+	}
+
+	/**
+	 * 死循环检测指标：纠正提示次数、提前结束次数与累计节省的迭代轮数
+	 */
+	@Bean
+	public MeterBinder loopDetectorMetrics(LoopDetector loopDetector) {
+		return registry -> {
+			FunctionCounter.builder("agent.loop_detector.hints", loopDetector, LoopDetector::hints).register(registry);
+			FunctionCounter.builder("agent.loop_detector.terminations", loopDetector, LoopDetector::terminations)
+				.register(registry);
+			FunctionCounter
+				.builder("agent.loop_detector.iterations_saved", loopDetector, LoopDetector::iterationsSaved)
+				.register(registry);
+		};
+	}
+
+	/**
+	 * 竞争策略指标：竞争次数、被取消的竞争者数与无结果通过校验的回退次数。策略 bean 按 {@link IAgentStrategy} 注册，按名称注入
+	 */
+	@Bean
+	public MeterBinder competitiveStrategyMetrics(
+			@Qualifier("competitiveAgentStrategy") IAgentStrategy competitiveStrategy) {
+		return registry -> {
+			if (!(competitiveStrategy instanceof CompetitiveAgentStrategy competitiveAgentStrategy)) {
+				return;
+			}
+			FunctionCounter
+				.builder("agent.competitive.races", competitiveAgentStrategy, CompetitiveAgentStrategy::races)
+				.register(registry);
+			FunctionCounter
+				.builder("agent.competitive.cancellations", competitiveAgentStrategy,
+						CompetitiveAgentStrategy::cancellations)
+				.register(registry);
+			FunctionCounter
+				.builder("agent.competitive.fallbacks", competitiveAgentStrategy, CompetitiveAgentStrategy::fallbacks)
+				.register(registry);
+		};
+	}
+
+	/**
+	 * 策略分发指标：最近一次计算的负载，按名称分发与限制模式的次数
+	 */
+	@Bean
+	public MeterBinder dispatcherMetrics(LoadAwareAgentDispatcher dispatcher) {
+		return registry -> {
+			Gauge.builder("agent.dispatcher.load", dispatcher, LoadAwareAgentDispatcher::lastLoad)
+				.description("最近一次分发时的负载")
+				.register(registry);
+			FunctionCounter
+				.builder("agent.dispatcher.requested", dispatcher, LoadAwareAgentDispatcher::requestedCount)
+				.register(registry);
+			FunctionCounter.builder("agent.dispatcher.mode.capped", dispatcher, LoadAwareAgentDispatcher::modeCaps)
+				.register(registry);
+		};
+	}
+
+}
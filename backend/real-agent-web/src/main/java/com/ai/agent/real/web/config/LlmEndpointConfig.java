@@ -0,0 +1,45 @@
+package com.ai.agent.real.web.config;
+
+import com.ai.agent.real.contract.model.property.LlmHedgeProperties;
+import com.ai.agent.real.contract.service.IPropertyService;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 备用 LLM 端点配置，供对冲请求与故障切换使用
+ *
+ * @author han
+ * @time 2025/11/11 11:10
+ */
+@Configuration
+public class LlmEndpointConfig {
+
+	/**
+	 * 备用 OpenAI 兼容端点，仅在配置了 real-agent.llm-hedge.secondary.base-url 时注册；返回类型声明为 ChatModel，
+	 * 避免占用 OpenAiChatModel 的自动配置条件
+	 */
+	@Bean("secondaryChatModel")
+	@ConditionalOnExpression("'${real-agent.llm-hedge.secondary.base-url:}' != ''")
+	public ChatModel secondaryChatModel(IPropertyService propertyService,
+			ObjectProvider<ToolCallingManager> toolCallingManager) {
+		LlmHedgeProperties.Secondary secondary = propertyService.getLlmHedge().getSecondary();
+		OpenAiApi openAiApi = OpenAiApi.builder()
+			.baseUrl(secondary.getBaseUrl())
+			.apiKey(secondary.getApiKey())
+			.completionsPath(secondary.getCompletionsPath())
+			.build();
+		return OpenAiChatModel.builder()
+			.openAiApi(openAiApi)
+			.defaultOptions(OpenAiChatOptions.builder().model(secondary.getModel()).build())
+			.toolCallingManager(toolCallingManager.getIfAvailable(() -> ToolCallingManager.builder().build()))
+			.build();
+	}
+
+}
@@ -1,6 +1,9 @@
 package com.ai.agent.real.web.config.exception;
 
+import com.ai.agent.real.common.exception.AdmissionRejectedException;
 import com.ai.agent.real.contract.model.protocol.ResponseResult;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -15,6 +18,16 @@ import reactor.core.publisher.Mono;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+	/**
+	 * 准入拒绝：返回 429，客户端稍后重试
+	 */
+	@ExceptionHandler(AdmissionRejectedException.class)
+	public Mono<ResponseEntity<ResponseResult<Object>>> handleAdmissionRejected(AdmissionRejectedException e) {
+		log.warn(e.getMessage());
+		return Mono
+			.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(ResponseResult.error(e.getMessage())));
+	}
+
 	@ExceptionHandler(Exception.class)
 	public Mono<ResponseResult<Object>> handleException(Exception e) {
 		log.error(e.getMessage());
@@ -44,6 +44,144 @@ public class RealAgentProperties implements IPropertyService {
 	@Valid
 	private Context context;
 
+	/**
+	 * 集群配置：turn 归属登记与跨节点转发
+	 */
+	@NotNull
+	private ClusterProperties cluster = new ClusterProperties();
+
+	/**
+	 * 检查点配置：阶段边界保存恢复点
+	 */
+	@NotNull
+	private CheckpointProperties checkpoint = new CheckpointProperties();
+
+	/**
+	 * 排空配置：节点下线时等待运行中 turn 的截止时间
+	 */
+	@NotNull
+	private DrainProperties drain = new DrainProperties();
+
+	/**
+	 * 会话 mailbox 配置：同一会话的 turn 串行执行
+	 */
+	@NotNull
+	private MailboxProperties mailbox = new MailboxProperties();
+
+	/**
+	 * 准入控制配置：全局/单用户并发上限与等待队列
+	 */
+	@NotNull
+	private AdmissionProperties admission = new AdmissionProperties();
+
+	/**
+	 * LLM 出站限流配置：集群共享 RPM/TPM 配额
+	 */
+	@NotNull
+	private LlmGovernorProperties llmGovernor = new LlmGovernorProperties();
+
+	/**
+	 * LLM 调用公平调度配置：按用户加权分配在途调用
+	 */
+	@NotNull
+	private LlmSchedulerProperties llmScheduler = new LlmSchedulerProperties();
+
+	/**
+	 * 模型路由配置：按阶段选择模型档位，高负载时降档
+	 */
+	@NotNull
+	private ModelRoutingProperties modelRouting = new ModelRoutingProperties();
+
+	/**
+	 * LLM 对冲请求与故障切换配置：首包超时对冲、备用端点切换
+	 */
+	@NotNull
+	private LlmHedgeProperties llmHedge = new LlmHedgeProperties();
+
+	/**
+	 * Prompt 缓存配置：确定性阶段的相同 Prompt 直接回放缓存结果
+	 */
+	@NotNull
+	private PromptCacheProperties promptCache = new PromptCacheProperties();
+
+	/**
+	 * 语义答案缓存配置：相似的 DIRECT 问题直接返回历史回答
+	 */
+	@NotNull
+	private AnswerCacheProperties answerCache = new AnswerCacheProperties();
+
+	/**
+	 * 任务预分类配置：简单输入跳过任务分析的 LLM 调用
+	 */
+	@NotNull
+	private TaskPreClassifierProperties taskPreClassifier = new TaskPreClassifierProperties();
+
+	/**
+	 * 模式阶段投机执行配置：任务分析期间按预分类的判定提前启动模式阶段
+	 */
+	@NotNull
+	private SpeculationProperties speculation = new SpeculationProperties();
+
+	/**
+	 * ReActPlus 策略配置：按模式选择融合迭代等
+	 */
+	@NotNull
+	private ReActPlusProperties reActPlus = new ReActPlusProperties();
+
+	/**
+	 * 经典 ReAct 策略配置：观察阶段折叠等
+	 */
+	@NotNull
+	private ReActProperties reAct = new ReActProperties();
+
+	/**
+	 * 最终回答复用配置：task_done 内容已是完整回答时跳过 FinalAgent
+	 */
+	@NotNull
+	private AnswerReuseProperties answerReuse = new AnswerReuseProperties();
+
+	/**
+	 * 迭代死循环检测配置：重复的工具调用或思考先提示纠正，持续重复则提前结束
+	 */
+	@NotNull
+	private LoopDetectorProperties loopDetector = new LoopDetectorProperties();
+
+	/**
+	 * 单个 turn 的预算：墙钟截止时间、LLM 调用次数与 token 上限，接近耗尽时跳过剩余阶段直接生成结果
+	 */
+	@NotNull
+	private TurnBudgetProperties turnBudget = new TurnBudgetProperties();
+
+	/**
+	 * 竞争策略：多套配置（策略、模型、温度）并行执行，取第一个通过校验的结果，其余取消
+	 */
+	@NotNull
+	private CompetitiveProperties competitive = new CompetitiveProperties();
+
+	/**
+	 * 协作策略：按任务分解并行执行子任务，再合并结果
+	 */
+	@NotNull
+	private CollaborativeProperties collaborative = new CollaborativeProperties();
+
+	/**
+	 * 流水线策略：按声明顺序串联 agent，下游在上游输出到达分界标记时提前启动
+	 */
+	@NotNull
+	private PipelineProperties pipeline = new PipelineProperties();
+
+	/**
+	 * 前缀缓存布局：各阶段共享「公共前言 + 对话历史」前缀，提高供应商前缀缓存的命中率
+	 */
+	@NotNull
+	private PrefixCacheProperties prefixCache = new PrefixCacheProperties();
+
+	/**
+	 * 策略分发：系统饱和时把重策略降为更轻的策略，并限制 ReActPlus 的模式
+	 */
+	@NotNull
+	private DispatcherProperties dispatcher = new DispatcherProperties();
+
 	@Data
 	public static class Tool {
 
@@ -59,6 +197,12 @@ public class RealAgentProperties implements IPropertyService {
 		@NotNull
 		private Duration executionTimeout = Duration.ofSeconds(120);
 
+		/**
+		 * 在内存中等待审批的超时时间，超时后结束 turn 并释放许可，默认 10 分钟
+		 */
+		@NotNull
+		private Duration approvalTimeout = Duration.ofMinutes(10);
+
 	}
 
 	@Data
@@ -88,6 +232,14 @@ public class RealAgentProperties implements IPropertyService {
 		return tool.getApprovalMode();
 	}
 
+	/**
+	 * 获取工具审批等待超时时间
+	 */
+	@Override
+	public Duration getToolApprovalTimeout() {
+		return tool.getApprovalTimeout();
+	}
+
 	/**
 	 * 获取上下文压缩模式
 	 */
@@ -1,8 +1,12 @@
 package com.ai.agent.real.web.controller.agent;
 
 import com.ai.agent.real.common.constant.NounConstants;
+import com.ai.agent.real.common.exception.AdmissionRejectedException;
+import com.ai.agent.real.contract.agent.IAgentDispatcher;
 import com.ai.agent.real.contract.agent.IAgentStrategy;
+import com.ai.agent.real.contract.agent.StrategySelection;
 import com.ai.agent.real.contract.agent.context.AgentContextAble;
+import com.ai.agent.real.contract.agent.service.IAdmissionController;
 import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
 import com.ai.agent.real.contract.dto.ChatRequest;
 import com.ai.agent.real.contract.model.interaction.InteractionResponse;
@@ -19,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -26,6 +31,7 @@ import reactor.core.publisher.Mono;
 import java.time.OffsetDateTime;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.ai.agent.real.contract.model.protocol.ResponseResult.success;
 
@@ -39,19 +45,30 @@ import static com.ai.agent.real.contract.model.protocol.ResponseResult.success;
 @RequestMapping("/api/agent/chat")
 public class ReActPlusAgentController {
 
+	private static final int PROVISIONAL_TITLE_LENGTH = 15;
+
+	private static final String REACT_PLUS_STRATEGY = "reActPlusAgentStrategy";
+
 	private final IAgentTurnManagerService agentSessionManagerService;
 
 	private final ISessionService sessionService;
 
 	private final IAgentStorageService agentStorageService;
 
+	private final IAdmissionController admissionController;
+
+	private final IAgentDispatcher agentDispatcher;
+
 	public ReActPlusAgentController(IAgentTurnManagerService agentSessionManagerService,
 			@Qualifier("reActPlusAgentStrategy") IAgentStrategy reActPlusAgentStrategy, ISessionService sessionService,
-			IAgentStorageService agentStorageService) {
+			IAgentStorageService agentStorageService, IAdmissionController admissionController,
+			IAgentDispatcher agentDispatcher) {
 
 		this.agentSessionManagerService = agentSessionManagerService.of(reActPlusAgentStrategy);
 		this.sessionService = sessionService;
 		this.agentStorageService = agentStorageService;
+		this.admissionController = admissionController;
+		this.agentDispatcher = agentDispatcher;
 	}
 
 	/**
@@ -60,12 +77,19 @@ public class ReActPlusAgentController {
 	@PostMapping(value = "/react-plus/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
 	public Flux<ServerSentEvent<AgentExecutionEvent>> executeReActPlusStream(@RequestBody ChatRequest request) {
 
+		// 等待队列已满时在创建会话/turn 之前快速拒绝（429）
+		if (admissionController.isQueueFull()) {
+			return Flux.error(new AdmissionRejectedException("服务繁忙，请稍后再试"));
+		}
+
 		return UserContextHolder.getUserId().flatMapMany(userId -> {
 			log.info("收到ReAct-Plus流式执行请求: sessionId={}, message={}", request.getSessionId(), request.getMessage());
 
+			// 新会话先用用户输入的摘录作为临时标题，正式标题由任务分析顺带生成后异步更新，不再单独调用 LLM
+			boolean newSession = request.getSessionId() == null;
 			return Mono.justOrEmpty(request.getSessionId())
 				.switchIfEmpty(this.sessionService
-					.createSessionWithAiTitle("", NounConstants.REACT_PLUS, userId, request.getMessage())
+					.createSession(provisionalTitle(request.getMessage()), NounConstants.REACT_PLUS, userId)
 					.map(SessionDTO::getId)) // 传入
 				.flatMapMany(sessionId -> {
 					request.setSessionId(sessionId);
@@ -78,6 +102,12 @@ public class ReActPlusAgentController {
 								.setTurnId(turnId)
 								.setStartTime(OffsetDateTime.now()));
 					context.setTask(request.getMessage());
+					// 交互式执行依赖 ReActPlus，负载较高时只通过模式上限降级
+					StrategySelection selection = agentDispatcher.select(REACT_PLUS_STRATEGY, request.getMessage());
+					if (selection.modeCeiling() != null) {
+						((ReActPlusAgentContext) context).setModeCeiling(selection.modeCeiling());
+					}
+					AtomicBoolean titleApplied = new AtomicBoolean(!newSession);
 
 					// 保存用户消息作为第一条消息 (可选，或者在 executeStreamWithInteraction
 					// 内部处理，这里先手动保存一下用户提问)
@@ -103,6 +133,7 @@ public class ReActPlusAgentController {
 							if (sse.data() != null) {
 								agentStorageService.saveMessage(sessionId, turnId, sse.data()).subscribe();
 							}
+							applyGeneratedTitle(sessionId, context.getMetadata(), titleApplied);
 						})
 						.doOnError(error -> log.error("ReAct执行异常: sessionId={}", request.getSessionId(), error))
 						.doOnComplete(() -> {
@@ -114,6 +145,54 @@ public class ReActPlusAgentController {
 
 	}
 
+	/**
+	 * 任务分析产出会话标题后异步更新新会话的标题，每个 turn 只更新一次
+	 */
+	private void applyGeneratedTitle(UUID sessionId, ReActPlusAgentContextMeta meta, AtomicBoolean titleApplied) {
+		if (titleApplied.get() || meta == null || !StringUtils.hasText(meta.getSessionTitle())) {
+			return;
+		}
+		if (titleApplied.compareAndSet(false, true)) {
+			String title = meta.getSessionTitle().trim();
+			sessionService.updateTitle(sessionId, title)
+				.subscribe(null, error -> log.warn("更新会话标题失败: sessionId={}", sessionId, error));
+		}
+	}
+
+	/**
+	 * 临时标题：用户输入的前若干个字符
+	 */
+	private static String provisionalTitle(String message) {
+		if (!StringUtils.hasText(message)) {
+			return null;
+		}
+		String title = message.strip().replaceAll("\\s+", " ");
+		return title.length() <= PROVISIONAL_TITLE_LENGTH ? title : title.substring(0, PROVISIONAL_TITLE_LENGTH);
+	}
+
+	/**
+	 * 恢复 turn：本节点仍在执行时重新挂载 SSE，否则从检查点继续执行（重启/发布后）。只允许 turn 所属会话的用户恢复
+	 */
+	@GetMapping(value = "/react-plus/{turnId}/resume", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<ServerSentEvent<AgentExecutionEvent>> resumeReActPlusStream(@PathVariable UUID turnId) {
+		log.info("收到ReAct-Plus恢复请求: turnId={}", turnId);
+		return UserContextHolder.getUserId()
+			.flatMap(userId -> agentStorageService.isTurnOwnedBy(turnId, userId))
+			.flatMapMany(owned -> {
+				if (!owned) {
+					log.warn("拒绝恢复不属于当前用户的 turn: turnId={}", turnId);
+					return Flux.error(new IllegalAccessException("turn 不存在或无权访问"));
+				}
+				return agentSessionManagerService.resume(turnId.toString()).doOnNext(sse -> {
+					AgentExecutionEvent event = sse.data();
+					if (event != null && event.getSessionId() != null) {
+						agentStorageService.saveMessage(event.getSessionId(), turnId, event).subscribe();
+					}
+				}).doOnComplete(() -> agentStorageService.completeTurn(turnId).subscribe());
+			})
+			.switchIfEmpty(Flux.error(new IllegalAccessException("未登录或用户凭证无效")));
+	}
+
 	/**
 	 * 获取会话历史消息
 	 */
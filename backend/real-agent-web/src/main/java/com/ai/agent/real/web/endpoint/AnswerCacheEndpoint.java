@@ -0,0 +1,39 @@
+package com.ai.agent.real.web.endpoint;
+
+import com.ai.agent.real.contract.agent.service.IAnswerCache;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 语义答案缓存端点：GET /actuator/answercache 查看状态，DELETE /actuator/answercache?userKey= 失效指定用户（不传则清空）
+ *
+ * @author han
+ * @time 2025/11/13 14:10
+ */
+@Component
+@Endpoint(id = "answercache")
+public class AnswerCacheEndpoint {
+
+	private final IAnswerCache answerCache;
+
+	public AnswerCacheEndpoint(IAnswerCache answerCache) {
+		this.answerCache = answerCache;
+	}
+
+	@ReadOperation
+	public Map<String, Object> status() {
+		return Map.of("enabled", answerCache.isEnabled(), "size", answerCache.size(), "hits", answerCache.hits(),
+				"misses", answerCache.misses());
+	}
+
+	@DeleteOperation
+	public Map<String, Object> invalidate(@Nullable String userKey) {
+		return Map.of("removed", answerCache.invalidate(userKey));
+	}
+
+}
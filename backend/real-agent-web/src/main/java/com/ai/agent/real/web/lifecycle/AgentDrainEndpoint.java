@@ -0,0 +1,45 @@
+package com.ai.agent.real.web.lifecycle;
+
+import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * 排空端点：GET /actuator/drain 查看状态，POST /actuator/drain 手动触发排空（滚动发布前调用）
+ *
+ * @author han
+ * @time 2025/11/5 10:55
+ */
+@Component
+@Endpoint(id = "drain")
+public class AgentDrainEndpoint {
+
+	private final AgentDrainLifecycle agentDrainLifecycle;
+
+	private final IAgentTurnManagerService agentTurnManagerService;
+
+	public AgentDrainEndpoint(AgentDrainLifecycle agentDrainLifecycle,
+			IAgentTurnManagerService agentTurnManagerService) {
+		this.agentDrainLifecycle = agentDrainLifecycle;
+		this.agentTurnManagerService = agentTurnManagerService;
+	}
+
+	@ReadOperation
+	public Map<String, Object> status() {
+		return Map.of("draining", agentTurnManagerService.isDraining(), "activeTurns",
+				agentTurnManagerService.activeTurnCount());
+	}
+
+	@WriteOperation
+	public Mono<Map<String, Object>> drain() {
+		return agentDrainLifecycle.drain()
+			.map(evicted -> Map.of("draining", true, "evicted", evicted, "activeTurns",
+					agentTurnManagerService.activeTurnCount()));
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.ai.agent.real.web.lifecycle;
+
+import com.ai.agent.real.contract.agent.service.IAgentTurnManagerService;
+import com.ai.agent.real.contract.service.IPropertyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 节点下线排空：关闭时先将 readiness 置为 REFUSING_TRAFFIC，再等待运行中的 turn 结束，超过截止时间的 turn
+ * 会被中止并推送重连事件。phase 早于 Web 服务器的优雅关闭，保证 SSE
+ * 连接在此之前完成收尾
+ *
+ * @author han
+ * @time 2025/11/5 10:40
+ */
+@Slf4j
+@Component
+public class AgentDrainLifecycle implements SmartLifecycle {
+
+	private final IAgentTurnManagerService agentTurnManagerService;
+
+	private final IPropertyService propertyService;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private volatile boolean running;
+
+	public AgentDrainLifecycle(IAgentTurnManagerService agentTurnManagerService, IPropertyService propertyService,
+			ApplicationEventPublisher eventPublisher) {
+		this.agentTurnManagerService = agentTurnManagerService;
+		this.propertyService = propertyService;
+		this.eventPublisher = eventPublisher;
+	}
+
+	/**
+	 * 触发排空，可由关闭流程或 drain 端点调用
+	 * @return 被中止的 turn 数量
+	 */
+	public Mono<Integer> drain() {
+		AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+		Duration deadline = propertyService.getDrain().getDeadline();
+		return agentTurnManagerService.drain(deadline);
+	}
+
+	@Override
+	public void start() {
+		this.running = true;
+	}
+
+	@Override
+	public void stop() {
+		stop(() -> {
+		});
+	}
+
+	@Override
+	public void stop(Runnable callback) {
+		log.info("节点关闭，开始排空 agent turn: activeTurns={}", agentTurnManagerService.activeTurnCount());
+		drain().doFinally(signal -> {
+			this.running = false;
+			callback.run();
+		}).subscribe(evicted -> log.info("排空完成，中止 turn 数量: {}", evicted),
+				error -> log.error("排空 agent turn 异常", error));
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * 与 Web 服务器优雅关闭（SmartLifecycle.DEFAULT_PHASE - 1024）相比更晚启动、更早停止
+	 */
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE;
+	}
+
+}